@@ -1,17 +1,34 @@
 package app;
 
 import java.awt.CardLayout;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.swing.JFrame;
 import javax.swing.JPanel;
 import javax.swing.JTabbedPane;
+import javax.swing.SwingUtilities;
 import javax.swing.WindowConstants;
 
+import data_access.grade_api.AsyncUserRepository;
+import data_access.grade_api.GradeDataAccessException;
 import data_access.grade_api.UserRepository;
+import data_access.grade_api.WriteBehindUserRepository;
+import data_access.http.HttpTransport;
+import data_access.snapshot.SnapshotUserRepository;
 import interface_adapter.ViewManagerModel;
+import interface_adapter.add_recommendation.AddRecommendationController;
+import interface_adapter.add_recommendation.AddRecommendationPresenter;
 import interface_adapter.change_password.ChangePasswordController;
 import interface_adapter.change_password.ChangePasswordPresenter;
 import interface_adapter.change_password.LoggedInViewModel;
+import interface_adapter.change_password.PendingChangesPresenter;
 import interface_adapter.filter_list.FilterController;
 import interface_adapter.filter_list.FilterPresenter;
 import interface_adapter.filter_list.FilterViewModel;
@@ -29,10 +46,14 @@ import interface_adapter.note.BlankViewModel;
 import interface_adapter.note.NoteController;
 import interface_adapter.note.NotePresenter;
 import interface_adapter.note.NoteViewModel;
+import interface_adapter.search.SearchController;
+import interface_adapter.search.SearchPresenter;
 import interface_adapter.search.SearchViewModel;
 import interface_adapter.signup.SignupController;
 import interface_adapter.signup.SignupPresenter;
 import interface_adapter.signup.SignupViewModel;
+import use_case.add_recommendation.AddRecommendationInputBoundary;
+import use_case.add_recommendation.AddRecommendationInteractor;
 import use_case.change_password.ChangePasswordInputBoundary;
 import use_case.change_password.ChangePasswordInteractor;
 import use_case.change_password.ChangePasswordOutputBoundary;
@@ -40,6 +61,7 @@ import use_case.filter_list.FilterInteractor;
 import use_case.generate_recommendations.GenDataAccessInterface;
 import use_case.generate_recommendations.GenInteractor;
 import use_case.generate_recommendations.GenOutputBoundary;
+import use_case.generate_recommendations.MovieDBDataAccessInterface;
 import use_case.list.ListInteractor;
 import use_case.list.ListOutputBoundary;
 import use_case.login.LoginInputBoundary;
@@ -50,6 +72,11 @@ import use_case.logout.LogoutInteractor;
 import use_case.logout.LogoutOutputBoundary;
 import use_case.note.NoteInteractor;
 import use_case.note.NoteOutputBoundary;
+import use_case.refresh_ratings.RatingRefreshDataAccessInterface;
+import use_case.refresh_ratings.RatingRefreshJob;
+import use_case.refresh_ratings.RatingRefreshStateDataAccessInterface;
+import use_case.search.SearchDataAccessInterface;
+import use_case.search.SearchInteractor;
 import use_case.signup.SignupInputBoundary;
 import use_case.signup.SignupInteractor;
 import use_case.signup.SignupOutputBoundary;
@@ -68,6 +95,13 @@ import view.ViewManager;
 public class AppBuilder {
     public static final int HEIGHT = 450;
     public static final int WIDTH = 800;
+    private static final int RECOMMENDATION_PREFETCH_COUNT = 10;
+    private static final int SEARCH_THREADS = 2;
+    private static final Duration RATING_REFRESH_DELAY = Duration.ofMinutes(1);
+    private static final Duration RATING_REFRESH_INTERVAL = Duration.ofHours(6);
+    private static final int RATING_REFRESH_BATCH_SIZE = 20;
+    private static final Duration ASYNC_SHUTDOWN_TIMEOUT = Duration.ofSeconds(30);
+    private final boolean debug;
     private NoteInteractor noteInteractor;
     private GenInteractor genInteractor;
     private ListInteractor listInteractor;
@@ -87,7 +121,15 @@ public class AppBuilder {
     private final ViewManager searchViewManager = new ViewManager(searchPanel, cardLayout, searchViewManagerModel);
     // thought question: is the hard dependency below a problem?
     private UserRepository userDataAccessObject;
+    private AsyncUserRepository asyncUserDataAccessObject;
     private GenDataAccessInterface genDataAccessInterface;
+    private MovieDBDataAccessInterface movieDataAccessInterface;
+    private ExecutorService prefetchExecutor;
+    private ExecutorService generationExecutor;
+    private ScheduledExecutorService ratingRefreshExecutor;
+    private SearchDataAccessInterface searchDataAccessInterface;
+    private ExecutorService searchExecutor;
+    private HttpTransport httpTransport;
 
     private NoteView noteView;
     private NoteViewModel noteViewModel;
@@ -112,6 +154,7 @@ public class AppBuilder {
      * @param debug if the program is in debug mode
      */
     public AppBuilder(boolean debug) {
+        this.debug = debug;
         cardPanel.setLayout(cardLayout);
         mediaPanel.setLayout(cardLayout);
         userPanel.setLayout(cardLayout);
@@ -126,12 +169,26 @@ public class AppBuilder {
 
     /**
      * Adds the data access object for user information.
+     * The Note, List and Login use cases call it off the event dispatch thread.
      *
      * @param userDAO the data access object for user information
      * @return this builder
      */
     public AppBuilder addUserDAO(UserRepository userDAO) {
         this.userDataAccessObject = userDAO;
+        this.asyncUserDataAccessObject = new AsyncUserRepository(userDAO);
+        return this;
+    }
+
+    /**
+     * Adds the HTTP transport shared by the external data access objects.
+     * The transport is shut down when the application window is closed.
+     *
+     * @param transport the shared HTTP transport
+     * @return this builder
+     */
+    public AppBuilder addHttpTransport(HttpTransport transport) {
+        this.httpTransport = transport;
         return this;
     }
 
@@ -146,6 +203,29 @@ public class AppBuilder {
         return this;
     }
 
+    /**
+     * Adds the movie data access object. When present, the details of recommended movies are prefetched
+     * through it in the background.
+     *
+     * @param movieDAO the movie data access interface to use
+     * @return this builder
+     */
+    public AppBuilder addMovieDAO(MovieDBDataAccessInterface movieDAO) {
+        this.movieDataAccessInterface = movieDAO;
+        return this;
+    }
+
+    /**
+     * Adds the data access object for searching movies.
+     *
+     * @param searchDAO the search data access interface to use
+     * @return this builder
+     */
+    public AppBuilder addSearchDAO(SearchDataAccessInterface searchDAO) {
+        this.searchDataAccessInterface = searchDAO;
+        return this;
+    }
+
     /**
      * Creates the objects for the Note Use Case and connects the NoteView to its
      * controller.
@@ -156,7 +236,8 @@ public class AppBuilder {
      */
     public AppBuilder addNoteUseCase() {
         final NoteOutputBoundary noteOutputBoundary = new NotePresenter(noteViewModel, mediaViewManagerModel);
-        noteInteractor = new NoteInteractor(userDataAccessObject, noteOutputBoundary);
+        noteInteractor = new NoteInteractor(asyncUserDataAccessObject, noteOutputBoundary,
+                SwingUtilities::invokeLater);
         final NoteController controller = new NoteController(noteInteractor);
         if (noteView == null) {
             throw new RuntimeException("addNoteView must be called before addNoteUseCase");
@@ -175,7 +256,20 @@ public class AppBuilder {
      */
     public AppBuilder addGenUseCase() {
         final GenOutputBoundary genOutputBoundary = new GenPresenter(listViewModel);
-        genInteractor = new GenInteractor(genDataAccessInterface, genOutputBoundary);
+        generationExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            final Thread thread = new Thread(runnable, "recommendation-generation");
+            thread.setDaemon(true);
+            return thread;
+        });
+        if (movieDataAccessInterface == null) {
+            genInteractor = new GenInteractor(genDataAccessInterface, genOutputBoundary, null, 0, Runnable::run,
+                    generationExecutor, SwingUtilities::invokeLater);
+        }
+        else {
+            genInteractor = new GenInteractor(genDataAccessInterface, genOutputBoundary, movieDataAccessInterface,
+                    RECOMMENDATION_PREFETCH_COUNT, getPrefetchExecutor(), generationExecutor,
+                    SwingUtilities::invokeLater);
+        }
         final GenController genController = new GenController(genInteractor);
         if (listView == null) {
             throw new RuntimeException("addListView must be called before addGenUseCase");
@@ -184,6 +278,43 @@ public class AppBuilder {
         return this;
     }
 
+    /**
+     * Creates the objects for the add recommendation use case and connects the ListView to its controller.
+     *
+     * <p>This method must be called after addListUseCase and addMovieDAO!</p>
+     * @return this builder
+     * @throws RuntimeException if this method is called before addListUseCase or addMovieDAO
+     */
+    public AppBuilder addAddRecommendationUseCase() {
+        if (listInteractor == null) {
+            throw new RuntimeException("addListUseCase must be called before addAddRecommendationUseCase");
+        }
+        if (movieDataAccessInterface == null) {
+            throw new RuntimeException("addMovieDAO must be called before addAddRecommendationUseCase");
+        }
+        // looking up on the prefetch thread means a lookup queued behind the prefetch finds the movie cached
+        final AddRecommendationInputBoundary addRecommendationInteractor = new AddRecommendationInteractor(
+                movieDataAccessInterface, asyncUserDataAccessObject, new AddRecommendationPresenter(listViewModel),
+                listInteractor, getPrefetchExecutor(), SwingUtilities::invokeLater);
+        listView.setAddRecommendationController(new AddRecommendationController(addRecommendationInteractor));
+        return this;
+    }
+
+    /**
+     * Return the executor on which the details of recommended movies are looked up, creating it if needed.
+     * @return the executor for movie lookups
+     */
+    private ExecutorService getPrefetchExecutor() {
+        if (prefetchExecutor == null) {
+            prefetchExecutor = Executors.newSingleThreadExecutor(runnable -> {
+                final Thread thread = new Thread(runnable, "recommendation-prefetch");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return prefetchExecutor;
+    }
+
     /**
      * Creates the blank view for logged-out users.
      *
@@ -273,7 +404,8 @@ public class AppBuilder {
      */
     public AppBuilder addListUseCase() {
         listPresenter = new ListPresenter(listViewModel);
-        this.listInteractor = new ListInteractor(userDataAccessObject, listPresenter);
+        this.listInteractor = new ListInteractor(asyncUserDataAccessObject, listPresenter,
+                SwingUtilities::invokeLater);
         final ListController listController = new ListController(listInteractor);
         listView.setListController(listController);
         return this;
@@ -303,7 +435,7 @@ public class AppBuilder {
         final LoginOutputBoundary loginOutputBoundary = new LoginPresenter(userViewManagerModel,
                 mediaViewManagerModel, loggedInViewModel, signupViewModel, noteViewModel, loginViewModel);
         final LoginInputBoundary loginInteractor = new LoginInteractor(
-                userDataAccessObject, loginOutputBoundary, listInteractor);
+                asyncUserDataAccessObject, loginOutputBoundary, listInteractor, SwingUtilities::invokeLater);
 
         final LoginController loginController = new LoginController(loginInteractor);
         loginView.setLoginController(loginController);
@@ -327,6 +459,66 @@ public class AppBuilder {
         return this;
     }
 
+    /**
+     * Shows the number of edits waiting to be uploaded in the LoggedIn View.
+     * Does nothing unless the user data access object buffers its writes.
+     * @return this builder
+     * @throws RuntimeException if this method is called before addLoggedInView
+     */
+    public AppBuilder addPendingChangesDisplay() {
+        if (loggedInViewModel == null) {
+            throw new RuntimeException("addLoggedInView must be called before addPendingChangesDisplay");
+        }
+        if (userDataAccessObject instanceof WriteBehindUserRepository writeBehindRepository) {
+            writeBehindRepository.addPendingChangesListener(new PendingChangesPresenter(loggedInViewModel));
+        }
+        return this;
+    }
+
+    /**
+     * Shows the revalidated collections in the List View once a login served from a local snapshot has been
+     * checked against the Grade API, as long as that user is still logged in.
+     * @param snapshotRepository the snapshot repository used by the user data access object
+     * @return this builder
+     * @throws RuntimeException if this method is called before addListUseCase
+     */
+    public AppBuilder addSnapshotRevalidation(SnapshotUserRepository snapshotRepository) {
+        if (listInteractor == null) {
+            throw new RuntimeException("addListUseCase must be called before addSnapshotRevalidation");
+        }
+        snapshotRepository.addRevalidationListener(user -> SwingUtilities.invokeLater(() -> {
+            if (user == userDataAccessObject.getCurrentUser()) {
+                listInteractor.executeOnLogin(user.getAllMediaCollections());
+            }
+        }));
+        return this;
+    }
+
+    /**
+     * Schedules the rating refresh job, which keeps the external ratings of the current user's movies up to
+     * date in the background. The first refresh runs shortly after startup.
+     * @param ratingDAO the data access object for TMDB's change feed and ratings
+     * @param stateDAO keeps the refresh watermarks across restarts
+     * @return this builder
+     * @throws RuntimeException if this method is called before addUserDAO
+     */
+    public AppBuilder addRatingRefresh(RatingRefreshDataAccessInterface ratingDAO,
+                                       RatingRefreshStateDataAccessInterface stateDAO) {
+        if (userDataAccessObject == null) {
+            throw new RuntimeException("addUserDAO must be called before addRatingRefresh");
+        }
+        final RatingRefreshJob ratingRefreshJob = new RatingRefreshJob(userDataAccessObject, ratingDAO, stateDAO,
+                RATING_REFRESH_BATCH_SIZE, SwingUtilities::invokeLater);
+        ratingRefreshExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            final Thread thread = new Thread(runnable, "rating-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+        ratingRefreshExecutor.scheduleWithFixedDelay(ratingRefreshJob, RATING_REFRESH_DELAY.toSeconds(),
+                RATING_REFRESH_INTERVAL.toSeconds(), TimeUnit.SECONDS);
+        return this;
+    }
+
     /**
      * Adds the Logout Use Case to the application.
      * @return this builder
@@ -360,6 +552,12 @@ public class AppBuilder {
         application.setLocationByPlatform(true);
 
         application.add(tabPanel);
+        application.addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosing(WindowEvent event) {
+                shutdown();
+            }
+        });
 
         userViewManagerModel.setState(loginView.getViewName());
         userViewManagerModel.firePropertyChanged();
@@ -368,6 +566,53 @@ public class AppBuilder {
 
     }
 
+    /**
+     * Releases the resources held by the application before it exits.
+     */
+    private void shutdown() {
+        if (asyncUserDataAccessObject != null) {
+            asyncUserDataAccessObject.shutdown();
+        }
+        if (generationExecutor != null) {
+            generationExecutor.shutdownNow();
+        }
+        if (prefetchExecutor != null) {
+            prefetchExecutor.shutdownNow();
+        }
+        if (ratingRefreshExecutor != null) {
+            ratingRefreshExecutor.shutdownNow();
+        }
+        if (searchExecutor != null) {
+            searchExecutor.shutdownNow();
+        }
+        if (asyncUserDataAccessObject != null) {
+            try {
+                // saves still queued on the writer must reach the write-behind repository before it is closed
+                if (!asyncUserDataAccessObject.awaitTermination(ASYNC_SHUTDOWN_TIMEOUT)) {
+                    System.out.println("Gave up waiting for queued saves to finish.");
+                }
+            }
+            catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (userDataAccessObject instanceof WriteBehindUserRepository writeBehindRepository) {
+            try {
+                writeBehindRepository.close();
+            }
+            catch (GradeDataAccessException ex) {
+                System.out.println("Failed to upload pending changes before exiting: " + ex.getMessage());
+            }
+        }
+        if (httpTransport != null) {
+            if (debug) {
+                System.out.println("HTTP pool statistics: " + httpTransport.getPoolStatistics());
+                System.out.println("HTTP cache statistics: " + httpTransport.getCacheStatistics());
+            }
+            httpTransport.shutdown();
+        }
+    }
+
     /**
      * Adds the SearchView to the application as a new tab.
      * @return this builder
@@ -380,4 +625,30 @@ public class AppBuilder {
 
         return this;
     }
+
+    /**
+     * Adds the Search Use Case to the application. Searches run on a small background pool, which also
+     * fetches the next page of matches ahead of the user.
+     *
+     * @return this builder
+     * @throws RuntimeException if this method is called before addSearchView or addSearchDAO
+     */
+    public AppBuilder addSearchUseCase() {
+        if (searchView == null) {
+            throw new RuntimeException("addSearchView must be called before addSearchUseCase");
+        }
+        if (searchDataAccessInterface == null) {
+            throw new RuntimeException("addSearchDAO must be called before addSearchUseCase");
+        }
+        final AtomicInteger threadCount = new AtomicInteger();
+        searchExecutor = Executors.newFixedThreadPool(SEARCH_THREADS, runnable -> {
+            final Thread thread = new Thread(runnable, "movie-search-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        final SearchInteractor searchInteractor = new SearchInteractor(searchDataAccessInterface,
+                new SearchPresenter(searchViewModel), searchExecutor, SwingUtilities::invokeLater);
+        searchView.setSearchController(new SearchController(searchInteractor));
+        return this;
+    }
 }
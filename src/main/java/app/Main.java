@@ -1,8 +1,29 @@
 package app;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import javax.swing.SwingUtilities;
+
+import data_access.CachingRecommendationDataAccessObject;
+import data_access.ChunkedRecommendationDataAccessObject;
+import data_access.LocalRecommendationDataAccessObject;
 import data_access.TasteDiveRecommendation;
 import data_access.grade_api.DBUserDataAccessObject;
+import data_access.grade_api.UserRepository;
+import data_access.grade_api.WriteBehindUserRepository;
+import data_access.http.HttpTransport;
+import data_access.movies.CachingMovieDataAccessObject;
+import data_access.movies.MovieCatalog;
+import data_access.movies.MovieDBDataAccessObject;
+import data_access.movies.RatingRefreshStateStore;
+import data_access.snapshot.SnapshotUserRepository;
+import entity.User;
 import use_case.generate_recommendations.GenDataAccessInterface;
+import use_case.generate_recommendations.MovieDBDataAccessInterface;
 
 /**
  * An application where we can view and add to a note stored by a user.
@@ -24,6 +45,17 @@ import use_case.generate_recommendations.GenDataAccessInterface;
  */
 public class Main {
     static final boolean DEBUG = true;
+    static final Duration GRADE_API_TIMEOUT = Duration.ofSeconds(20);
+    static final Duration SYNC_QUIET_PERIOD = Duration.ofSeconds(2);
+    static final Path SNAPSHOT_DIRECTORY = Path.of(System.getProperty("user.home"), ".mediasage", "snapshots");
+    static final Path HTTP_CACHE_DIRECTORY = Path.of(System.getProperty("user.home"), ".mediasage", "http-cache");
+    static final long HTTP_CACHE_MAX_BYTES = 50L * 1024 * 1024;
+    static final Duration TMDB_CACHE_TTL = Duration.ofDays(7);
+    static final Path RATING_REFRESH_STATE = Path.of(System.getProperty("user.home"), ".mediasage",
+            "rating-refresh.properties");
+    static final Path RECOMMENDATION_CACHE_DIRECTORY = Path.of(System.getProperty("user.home"), ".mediasage",
+            "recommendations");
+    static final Path MOVIE_CATALOG_DIRECTORY = Path.of(System.getProperty("user.home"), ".mediasage", "catalog");
 
     /**
      * The main entry point of the application.
@@ -53,17 +85,47 @@ public class Main {
     public static void main(String[] args) {
 
         final Configurator configurator = new Configurator();
-        final DBUserDataAccessObject userDataAccessObject = new DBUserDataAccessObject();
-        final GenDataAccessInterface genDataAccessInterface = new TasteDiveRecommendation();
+        final HttpTransport httpTransport = new HttpTransport.Builder()
+                .hostTimeout("vm003.teach.cs.toronto.edu", GRADE_API_TIMEOUT)
+                .cache(HTTP_CACHE_DIRECTORY, HTTP_CACHE_MAX_BYTES)
+                .cacheTtl("api.themoviedb.org", TMDB_CACHE_TTL)
+                .excludeFromCacheKey("api_key")
+                .build();
+        final DBUserDataAccessObject userDataAccessObject = new DBUserDataAccessObject(httpTransport);
+        final SnapshotUserRepository snapshotRepository =
+                new SnapshotUserRepository(userDataAccessObject, SNAPSHOT_DIRECTORY);
+        final UserRepository userRepository = new WriteBehindUserRepository(snapshotRepository, SYNC_QUIET_PERIOD);
+        final LocalRecommendationDataAccessObject genDataAccessInterface = new LocalRecommendationDataAccessObject(
+                new ChunkedRecommendationDataAccessObject(new CachingRecommendationDataAccessObject(
+                        new TasteDiveRecommendation(httpTransport), RECOMMENDATION_CACHE_DIRECTORY)),
+                () -> Optional.ofNullable(userRepository.getCurrentUser())
+                        .map(User::getAllMediaCollections)
+                        .orElse(List.of()),
+                SwingUtilities::invokeLater);
         genDataAccessInterface.setApiKey(configurator.getTasteDiveApiKey());
+        final MovieDBDataAccessObject movieDBDataAccessObject = new MovieDBDataAccessObject(httpTransport);
+        final MovieCatalog movieCatalog = openMovieCatalog(movieDBDataAccessObject);
+        final MovieDBDataAccessInterface movieDataAccessInterface;
+        if (movieCatalog != null) {
+            movieDataAccessInterface = new CachingMovieDataAccessObject(movieCatalog);
+            indexMovieCatalog(movieCatalog, genDataAccessInterface);
+        }
+        else {
+            movieDataAccessInterface = new CachingMovieDataAccessObject(movieDBDataAccessObject);
+        }
+        movieDataAccessInterface.setApiKey(configurator.getTmdbApiKey());
 
         final AppBuilder builder = new AppBuilder(DEBUG);
-        builder.addUserDAO(userDataAccessObject)
+        builder.addHttpTransport(httpTransport)
+                .addUserDAO(userRepository)
                 .addGenDAO(genDataAccessInterface)
+                .addMovieDAO(movieDataAccessInterface)
+                .addSearchDAO(movieDBDataAccessObject)
                 .addBlankView()
                 .addLoginView()
                 .addSignupView()
                 .addSearchView()
+                .addSearchUseCase()
                 .addLoggedInView()
                 .addNoteView()
                 .addListView()
@@ -71,10 +133,44 @@ public class Main {
                 .addListUseCase()
                 .addFilterListUseCase()
                 .addGenUseCase()
+                .addAddRecommendationUseCase()
                 .addSignupUseCase()
                 .addLoginUseCase()
+                .addSnapshotRevalidation(snapshotRepository)
                 .addChangePasswordUseCase()
                 .addLogoutUseCase()
+                .addPendingChangesDisplay()
+                .addRatingRefresh(movieDBDataAccessObject, new RatingRefreshStateStore(RATING_REFRESH_STATE))
                 .build().setVisible(true);
     }
+
+    /**
+     * Put the local movie catalog in front of TMDB, if one has been imported.
+     * @param tmdb the DAO for titles missing from the catalog
+     * @return the catalog, or null if there is no usable catalog
+     */
+    private static MovieCatalog openMovieCatalog(MovieDBDataAccessInterface tmdb) {
+        MovieCatalog result = null;
+        if (MovieCatalog.exists(MOVIE_CATALOG_DIRECTORY)) {
+            try {
+                result = new MovieCatalog(MOVIE_CATALOG_DIRECTORY, tmdb);
+            }
+            catch (IOException ex) {
+                System.out.println("Ignoring unreadable movie catalog: " + ex.getMessage());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Add the catalog's movies to the local recommender's candidates in the background.
+     * @param movieCatalog the catalog to index
+     * @param recommender the local recommender
+     */
+    private static void indexMovieCatalog(MovieCatalog movieCatalog, LocalRecommendationDataAccessObject recommender) {
+        final Thread thread = new Thread(() -> movieCatalog.forEachMovie(recommender::addCandidate),
+                "recommendation-index");
+        thread.setDaemon(true);
+        thread.start();
+    }
 }
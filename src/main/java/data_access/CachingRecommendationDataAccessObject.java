@@ -0,0 +1,215 @@
+package data_access;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.stream.Stream;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import use_case.generate_recommendations.GenDataAccessException;
+import use_case.generate_recommendations.GenDataAccessInterface;
+
+/**
+ * A recommendation DAO which remembers recent recommendations, in front of another recommendation DAO.
+ *
+ * <p>Recommendations are keyed by the source and return types and the set of seed titles, so asking again
+ * with the same titles in another order, case or spacing is answered without calling TasteDive. Entries
+ * expire after a fixed time, and the least recently used entries are dropped once the cache is full.</p>
+ *
+ * <p>With a cache directory, entries are also written to disk, one file per entry, and survive a restart.
+ * The directory only keeps a bounded number of entries; the oldest files are removed first.</p>
+ */
+public class CachingRecommendationDataAccessObject implements GenDataAccessInterface {
+    private static final Duration DEFAULT_TTL = Duration.ofHours(24);
+    private static final int DEFAULT_CAPACITY = 100;
+    private static final int MAX_DISK_ENTRIES = 1000;
+    private static final String EXTENSION = ".json";
+    private static final String KEY = "key";
+    private static final String STORED_AT = "storedAt";
+    private static final String RESULTS = "results";
+    private final GenDataAccessInterface delegate;
+    private final Path cacheDirectory;
+    private final long ttlMillis;
+    private final Map<String, CachedResults> entries;
+
+    /**
+     * Recommendations as returned by the wrapped DAO, and when they were returned.
+     */
+    private record CachedResults(String results, long storedAt) {
+    }
+
+    public CachingRecommendationDataAccessObject(GenDataAccessInterface delegate) {
+        this(delegate, null);
+    }
+
+    public CachingRecommendationDataAccessObject(GenDataAccessInterface delegate, Path cacheDirectory) {
+        this(delegate, cacheDirectory, DEFAULT_TTL, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates a recommendation cache in front of the given DAO.
+     * @param delegate the DAO to ask on a miss
+     * @param cacheDirectory the directory to keep entries in across restarts, or null to only keep them in memory
+     * @param ttl how long recommendations are reused for
+     * @param capacity the number of entries kept in memory
+     */
+    public CachingRecommendationDataAccessObject(GenDataAccessInterface delegate, Path cacheDirectory,
+                                                 Duration ttl, int capacity) {
+        this.delegate = delegate;
+        this.cacheDirectory = cacheDirectory;
+        this.ttlMillis = ttl.toMillis();
+        this.entries = new LinkedHashMap<>(capacity, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedResults> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    @Override
+    public JSONArray getRecommendation(List<String> query, String sourceType, String returnType)
+            throws GenDataAccessException {
+        final String key = cacheKey(query, sourceType, returnType);
+        final long now = System.currentTimeMillis();
+        CachedResults entry = cached(key, now);
+        if (entry == null) {
+            entry = new CachedResults(delegate.getRecommendation(query, sourceType, returnType).toString(), now);
+            synchronized (entries) {
+                entries.put(key, entry);
+            }
+            writeToDisk(key, entry);
+        }
+        // hand out a copy, so callers can not change the cached recommendations
+        return new JSONArray(entry.results());
+    }
+
+    @Override
+    public void setApiKey(String apiKey) {
+        delegate.setApiKey(apiKey);
+    }
+
+    /**
+     * Return the cache key of a query: the types, and the normalized seed titles in sorted order without
+     * duplicates.
+     */
+    private static String cacheKey(List<String> query, String sourceType, String returnType) {
+        final TreeSet<String> seeds = new TreeSet<>();
+        for (String title : query) {
+            final String seed = TextNormalizer.normalize(title);
+            if (!seed.isEmpty()) {
+                seeds.add(seed);
+            }
+        }
+        return sourceType + "\n" + returnType + "\n" + String.join("\n", seeds);
+    }
+
+    private CachedResults cached(String key, long now) {
+        CachedResults result;
+        synchronized (entries) {
+            result = entries.get(key);
+        }
+        if (result == null) {
+            result = readFromDisk(key);
+            if (result != null) {
+                synchronized (entries) {
+                    entries.put(key, result);
+                }
+            }
+        }
+        if (result != null && now - result.storedAt() >= ttlMillis) {
+            synchronized (entries) {
+                entries.remove(key, result);
+            }
+            result = null;
+        }
+        return result;
+    }
+
+    private CachedResults readFromDisk(String key) {
+        CachedResults result = null;
+        if (cacheDirectory != null) {
+            final Path file = pathFor(key);
+            try {
+                if (Files.isRegularFile(file)) {
+                    final JSONObject stored = new JSONObject(Files.readString(file));
+                    // the file name is a hash, so make sure the entry is really for this key
+                    if (key.equals(stored.getString(KEY))) {
+                        result = new CachedResults(stored.getJSONArray(RESULTS).toString(), stored.getLong(STORED_AT));
+                    }
+                }
+            }
+            catch (IOException | JSONException ex) {
+                System.out.println("Ignoring unreadable cached recommendations: " + ex.getMessage());
+            }
+        }
+        return result;
+    }
+
+    private void writeToDisk(String key, CachedResults entry) {
+        if (cacheDirectory != null) {
+            try {
+                Files.createDirectories(cacheDirectory);
+                final JSONObject stored = new JSONObject()
+                        .put(KEY, key)
+                        .put(STORED_AT, entry.storedAt())
+                        .put(RESULTS, new JSONArray(entry.results()));
+                final Path temporary = Files.createTempFile(cacheDirectory, "recommendation", ".tmp");
+                Files.writeString(temporary, stored.toString());
+                Files.move(temporary, pathFor(key), StandardCopyOption.REPLACE_EXISTING,
+                        StandardCopyOption.ATOMIC_MOVE);
+                pruneDisk();
+            }
+            catch (IOException ex) {
+                System.out.println("Could not cache recommendations on disk: " + ex.getMessage());
+            }
+        }
+    }
+
+    private void pruneDisk() throws IOException {
+        final List<Path> files = new ArrayList<>();
+        try (Stream<Path> listing = Files.list(cacheDirectory)) {
+            listing.filter(path -> path.toString().endsWith(EXTENSION)).forEach(files::add);
+        }
+        if (files.size() > MAX_DISK_ENTRIES) {
+            final Map<Path, Long> modified = new LinkedHashMap<>();
+            for (Path file : files) {
+                modified.put(file, Files.getLastModifiedTime(file).toMillis());
+            }
+            files.sort((first, second) -> Long.compare(modified.get(first), modified.get(second)));
+            for (Path file : files.subList(0, files.size() - MAX_DISK_ENTRIES)) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    private Path pathFor(String key) {
+        try {
+            final byte[] digest = MessageDigest.getInstance("SHA-256").digest(key.getBytes(StandardCharsets.UTF_8));
+            return cacheDirectory.resolve(toHex(digest) + EXTENSION);
+        }
+        catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 is not available.", ex);
+        }
+    }
+
+    private static String toHex(byte[] bytes) {
+        final StringBuilder result = new StringBuilder(bytes.length * 2);
+        for (byte value : bytes) {
+            result.append(Character.forDigit((value >> 4) & 0xF, 16)).append(Character.forDigit(value & 0xF, 16));
+        }
+        return result.toString();
+    }
+}
@@ -0,0 +1,244 @@
+package data_access;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import use_case.generate_recommendations.GenDataAccessException;
+import use_case.generate_recommendations.GenDataAccessInterface;
+
+/**
+ * A recommendation DAO which splits large seed lists into chunks, in front of another recommendation DAO.
+ *
+ * <p>TasteDive takes all seeds in a single query parameter, so a large library makes for URLs which are
+ * rejected or quietly truncated. Seed lists above a chunk's worth are split into chunks, which are
+ * queried concurrently up to a fixed limit. The seeds are sorted before chunking, so the same seeds in
+ * another order make the same chunk queries and hit the same cache entries further down. The results are
+ * merged without duplicates and ranked by how many chunks recommended each title, then by its average
+ * position in those chunks. Seeds are never recommended back, even if another chunk recommends them.</p>
+ *
+ * <p>A chunk which fails is left out of the merge. The query only fails if every chunk failed. While the
+ * chunks are running, the merge of those finished so far can be published as a partial result.</p>
+ */
+public class ChunkedRecommendationDataAccessObject implements GenDataAccessInterface {
+    private static final int DEFAULT_CHUNK_SEEDS = 10;
+    private static final int DEFAULT_CHUNK_CHARACTERS = 600;
+    private static final int DEFAULT_CONCURRENCY = 4;
+    private static final String NAME = "name";
+    private final GenDataAccessInterface delegate;
+    private final int chunkSeeds;
+    private final int chunkCharacters;
+    private final int concurrency;
+
+    /**
+     * How strongly a title was recommended across the chunks.
+     */
+    private static final class Ranking {
+        private final JSONObject recommendation;
+        private int chunks;
+        private int positions;
+
+        Ranking(JSONObject recommendation) {
+            this.recommendation = recommendation;
+        }
+
+        void add(int position) {
+            chunks++;
+            positions += position;
+        }
+
+        double averagePosition() {
+            return (double) positions / chunks;
+        }
+    }
+
+    public ChunkedRecommendationDataAccessObject(GenDataAccessInterface delegate) {
+        this(delegate, DEFAULT_CHUNK_SEEDS, DEFAULT_CHUNK_CHARACTERS, DEFAULT_CONCURRENCY);
+    }
+
+    /**
+     * Creates a chunking DAO in front of the given DAO.
+     * @param delegate the DAO to query with each chunk
+     * @param chunkSeeds the maximum number of seeds in a chunk
+     * @param chunkCharacters the maximum combined length of the seeds in a chunk; a longer seed gets a chunk
+     *     of its own
+     * @param concurrency the maximum number of chunks queried at once
+     * @throws IllegalArgumentException if a limit is not positive
+     */
+    public ChunkedRecommendationDataAccessObject(GenDataAccessInterface delegate, int chunkSeeds,
+                                                 int chunkCharacters, int concurrency) {
+        if (chunkSeeds < 1 || chunkCharacters < 1 || concurrency < 1) {
+            throw new IllegalArgumentException("The chunk limits and concurrency limit must be at least 1.");
+        }
+        this.delegate = delegate;
+        this.chunkSeeds = chunkSeeds;
+        this.chunkCharacters = chunkCharacters;
+        this.concurrency = concurrency;
+    }
+
+    @Override
+    public JSONArray getRecommendation(List<String> query, String sourceType, String returnType)
+            throws GenDataAccessException {
+        return getRecommendation(query, sourceType, returnType, partial -> { });
+    }
+
+    /**
+     * Get a recommendation, publishing the merge of the chunks finished so far whenever a chunk finishes
+     * before the others.
+     */
+    @Override
+    public JSONArray getRecommendation(List<String> query, String sourceType, String returnType,
+                                       Consumer<JSONArray> partialResults) throws GenDataAccessException {
+        final List<List<String>> chunks = chunk(query);
+        final JSONArray result;
+        if (chunks.size() <= 1) {
+            result = delegate.getRecommendation(chunks.isEmpty() ? query : chunks.get(0), sourceType, returnType);
+        }
+        else {
+            result = merge(query, queryChunks(query, chunks, sourceType, returnType, partialResults));
+        }
+        return result;
+    }
+
+    @Override
+    public void setApiKey(String apiKey) {
+        delegate.setApiKey(apiKey);
+    }
+
+    /**
+     * Split the non-blank, distinct seeds into chunks, sorted by their normalized titles.
+     */
+    private List<List<String>> chunk(List<String> query) {
+        final Map<String, String> seeds = new TreeMap<>();
+        for (String title : query) {
+            final String seed = title.strip();
+            if (!seed.isEmpty()) {
+                seeds.putIfAbsent(TextNormalizer.normalize(seed), seed);
+            }
+        }
+        final List<List<String>> result = new ArrayList<>();
+        List<String> current = new ArrayList<>();
+        int characters = 0;
+        for (String seed : seeds.values()) {
+            if (!current.isEmpty()
+                    && (current.size() == chunkSeeds || characters + seed.length() > chunkCharacters)) {
+                result.add(current);
+                current = new ArrayList<>();
+                characters = 0;
+            }
+            current.add(seed);
+            characters += seed.length() + 1;
+        }
+        if (!current.isEmpty()) {
+            result.add(current);
+        }
+        return result;
+    }
+
+    /**
+     * Query the chunks concurrently. Whenever a chunk finishes while others are still running, the merge of
+     * the chunks finished so far is published. The chunk results are kept in chunk order, so the final
+     * merge does not depend on which chunk finished first.
+     */
+    private List<JSONArray> queryChunks(List<String> query, List<List<String>> chunks, String sourceType,
+                                        String returnType, Consumer<JSONArray> partialResults)
+            throws GenDataAccessException {
+        final JSONArray[] chunkResults = new JSONArray[chunks.size()];
+        final AtomicInteger threadCount = new AtomicInteger();
+        final ExecutorService executor = Executors.newFixedThreadPool(Math.min(concurrency, chunks.size()),
+            runnable -> {
+                final Thread thread = new Thread(runnable, "recommendation-chunk-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        final CompletionService<JSONArray> queries = new ExecutorCompletionService<>(executor);
+        final Map<Future<JSONArray>, Integer> chunkIndices = new HashMap<>();
+        Throwable firstFailure = null;
+        try {
+            for (int i = 0; i < chunks.size(); i++) {
+                final List<String> chunk = chunks.get(i);
+                chunkIndices.put(queries.submit(() -> delegate.getRecommendation(chunk, sourceType, returnType)), i);
+            }
+            for (int remaining = chunks.size() - 1; remaining >= 0; remaining--) {
+                try {
+                    final Future<JSONArray> chunkQuery = queries.take();
+                    chunkResults[chunkIndices.get(chunkQuery)] = chunkQuery.get();
+                    if (remaining > 0) {
+                        partialResults.accept(merge(query, finished(chunkResults)));
+                    }
+                }
+                catch (ExecutionException ex) {
+                    if (firstFailure == null) {
+                        firstFailure = ex.getCause();
+                    }
+                }
+            }
+        }
+        catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new GenDataAccessException("The recommendation query was interrupted.");
+        }
+        finally {
+            executor.shutdownNow();
+        }
+        final List<JSONArray> result = finished(chunkResults);
+        if (result.isEmpty() && firstFailure != null) {
+            throw new GenDataAccessException("Every chunk of the recommendation query failed: "
+                    + firstFailure.getMessage());
+        }
+        return result;
+    }
+
+    private static List<JSONArray> finished(JSONArray[] chunkResults) {
+        final List<JSONArray> result = new ArrayList<>(chunkResults.length);
+        for (JSONArray chunkResult : chunkResults) {
+            if (chunkResult != null) {
+                result.add(chunkResult);
+            }
+        }
+        return result;
+    }
+
+    private static JSONArray merge(List<String> query, List<JSONArray> chunkResults) {
+        final Set<String> seeds = new HashSet<>();
+        for (String title : query) {
+            seeds.add(TextNormalizer.normalize(title));
+        }
+        final Map<String, Ranking> rankings = new LinkedHashMap<>();
+        for (JSONArray chunkResult : chunkResults) {
+            final Set<String> inChunk = new HashSet<>();
+            for (int i = 0; i < chunkResult.length(); i++) {
+                final JSONObject recommendation = chunkResult.getJSONObject(i);
+                final String key = TextNormalizer.normalize(recommendation.getString(NAME));
+                if (!seeds.contains(key) && inChunk.add(key)) {
+                    rankings.computeIfAbsent(key, name -> new Ranking(recommendation)).add(i);
+                }
+            }
+        }
+        final List<Ranking> ranked = new ArrayList<>(rankings.values());
+        ranked.sort(Comparator.comparingInt((Ranking ranking) -> ranking.chunks).reversed()
+                .thenComparingDouble(Ranking::averagePosition));
+        final JSONArray result = new JSONArray();
+        for (Ranking ranking : ranked) {
+            result.put(ranking.recommendation);
+        }
+        return result;
+    }
+}
@@ -4,22 +4,35 @@ import java.io.IOException;
 import java.net.URISyntaxException;
 import java.nio.file.Files;
 import java.nio.file.Paths;
-import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.json.JSONObject;
 
+import data_access.movies.MovieBatchLoader;
 import data_access.movies.MovieDBDataAccessException;
 import data_access.movies.MovieJSONFormat;
 import entity.Movie;
+import use_case.generate_recommendations.MovieBatchResult;
 import use_case.generate_recommendations.MovieDBDataAccessInterface;
 
 /**
  * An in-memory implementation of movie database access.
  */
 public class InMemoryMovieDAO implements MovieDBDataAccessInterface {
-    private final Map<String, Movie> movies = new HashMap<>();
+    private static final int DEFAULT_BATCH_CONCURRENCY = 4;
+    private final Map<String, Movie> movies = new ConcurrentHashMap<>();
+    private final MovieBatchLoader batchLoader;
+
+    public InMemoryMovieDAO() {
+        this(DEFAULT_BATCH_CONCURRENCY);
+    }
+
+    public InMemoryMovieDAO(int batchConcurrency) {
+        this.batchLoader = new MovieBatchLoader(this::getMovie, batchConcurrency);
+    }
 
     @Override
     public void setApiKey(String apikey) {
@@ -41,6 +54,17 @@ public class InMemoryMovieDAO implements MovieDBDataAccessInterface {
         return movies.get(movieName);
     }
 
+    /**
+     * Get a batch of movies from the in-memory database, through the same concurrent batch path as TMDB.
+     *
+     * @param movieNames The names of the movies to be looked up.
+     * @return the movies found and the titles not found, in request order
+     */
+    @Override
+    public MovieBatchResult getMovies(List<String> movieNames) {
+        return batchLoader.load(movieNames);
+    }
+
     /**
      * Add a movie to the in-memory database.
      * @param movie a movie
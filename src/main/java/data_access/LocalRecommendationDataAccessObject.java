@@ -0,0 +1,593 @@
+package data_access;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import entity.AbstractMedia;
+import entity.MediaCollection;
+import entity.Television;
+import use_case.generate_recommendations.GenDataAccessException;
+import use_case.generate_recommendations.GenDataAccessInterface;
+
+/**
+ * A content-based recommendation DAO which recommends from a local set of candidates, optionally in front of
+ * another recommendation DAO.
+ *
+ * <p>Every title is turned into a sparse feature vector of its genres, its leading cast members and the
+ * terms of its description. Candidates are kept in an inverted index, so a query only touches the
+ * candidates sharing a feature with it. The query is the sum of the seed titles and the user's highly
+ * rated titles, and candidates are scored as in Lucene's classic similarity: the term weights are
+ * multiplied by the squared inverse document frequency at query time, and each candidate is normalized by
+ * its own length. This keeps adding or removing a candidate incremental, since no other candidate has to be
+ * reweighted. The best candidates are kept in a bounded heap, and those which a {@link MediaSimilarityIndex}
+ * of the library finds to be near-duplicates of a library title are left out.</p>
+ *
+ * <p>The user's library is read from the library source on every query, on the library executor which owns
+ * the user's entities, e.g. the Swing event dispatch thread. There, each title is only fingerprinted, and
+ * only the terms of titles which are new or changed since the last query are copied out; the feature
+ * vectors are built on the querying thread. Collections the user has not opened are read without loading
+ * them into the collection, and only once as long as they stay unopened. Titles in the library and the
+ * seeds themselves are never recommended.</p>
+ *
+ * <p>With a wrapped DAO, the local recommendations are published as a partial result at once, and are
+ * returned instead of the wrapped DAO's if it fails or has no recommendations. Without a wrapped DAO, this
+ * is a complete offline recommendation DAO.</p>
+ */
+public class LocalRecommendationDataAccessObject implements GenDataAccessInterface {
+    private static final int DEFAULT_LIMIT = 20;
+    private static final int DUPLICATE_HEADROOM = 2;
+    private static final int HIGH_RATING = 70;
+    private static final int MAX_RATING = 100;
+    private static final float GENRE_WEIGHT = 2.0f;
+    private static final float CAST_WEIGHT = 1.5f;
+    private static final float DESCRIPTION_WEIGHT = 1.0f;
+    private static final String MOVIE_TYPE = "movie";
+    private static final String TELEVISION_TYPE = "show";
+
+    private final GenDataAccessInterface delegate;
+    private final Supplier<List<MediaCollection<? extends AbstractMedia>>> librarySource;
+    private final Executor libraryExecutor;
+    private final int limit;
+    private final Object lock = new Object();
+
+    private final Map<String, Integer> vocabulary = new HashMap<>();
+    private final List<Postings> postings = new ArrayList<>();
+    private final List<Candidate> candidates = new ArrayList<>();
+    private final Map<String, Integer> candidateIds = new HashMap<>();
+    private int liveCandidates;
+
+    private final Map<String, LibraryEntry> library = new HashMap<>();
+    private final MediaSimilarityIndex libraryIndex = new MediaSimilarityIndex();
+    private Map<Integer, Float> libraryProfile;
+    private final Object readLock = new Object();
+    private Map<Supplier<?>, Map<String, Integer>> unopenedFingerprints = new IdentityHashMap<>();
+
+    /**
+     * The weighted features of a title, as parallel arrays of term IDs and weights.
+     */
+    private static final class Features {
+        private final int[] terms;
+        private final float[] weights;
+        private final float norm;
+
+        Features(int[] terms, float[] weights) {
+            this.terms = terms;
+            this.weights = weights;
+            double squares = 0;
+            for (float weight : weights) {
+                squares += weight * weight;
+            }
+            this.norm = squares > 0 ? (float) (1 / Math.sqrt(squares)) : 0;
+        }
+    }
+
+    private record Candidate(String name, String key, String type, Features features) {
+    }
+
+    /**
+     * A title of the user's library, with the fingerprint of the fields its features were built from.
+     */
+    private record LibraryEntry(int fingerprint, int userRating, Features features) {
+    }
+
+    /**
+     * The terms of a title, copied out of the entity on the library executor.
+     */
+    private record TitleTerms(String name, int userRating, List<String> genres, List<String> cast,
+                              List<String> description) {
+        static TitleTerms of(AbstractMedia media) {
+            return new TitleTerms(media.getName(), media.getUserRating(), MediaFeatures.genreTerms(media),
+                    MediaFeatures.castTerms(media), MediaFeatures.descriptionTerms(media));
+        }
+    }
+
+    /**
+     * The library as read on the library executor: the fingerprint of every title by normalized name, and
+     * the terms of the titles which are new or changed.
+     */
+    private record LibraryRead(Map<String, Integer> fingerprints, Map<String, TitleTerms> changed) {
+    }
+
+    /**
+     * The candidates having a term, as parallel arrays of candidate IDs and weights.
+     */
+    private static final class Postings {
+        private int[] candidateIds = new int[4];
+        private float[] weights = new float[4];
+        private int size;
+
+        void add(int candidateId, float weight) {
+            if (size == candidateIds.length) {
+                candidateIds = Arrays.copyOf(candidateIds, size * 2);
+                weights = Arrays.copyOf(weights, size * 2);
+            }
+            candidateIds[size] = candidateId;
+            weights[size] = weight;
+            size++;
+        }
+
+        void remove(int candidateId) {
+            for (int i = 0; i < size; i++) {
+                if (candidateIds[i] == candidateId) {
+                    size--;
+                    candidateIds[i] = candidateIds[size];
+                    weights[i] = weights[size];
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * Creates an offline recommender without a library, for the seeds only.
+     */
+    public LocalRecommendationDataAccessObject() {
+        this(null, List::of, DEFAULT_LIMIT);
+    }
+
+    public LocalRecommendationDataAccessObject(GenDataAccessInterface delegate,
+                                               Supplier<List<MediaCollection<? extends AbstractMedia>>>
+                                                       librarySource) {
+        this(delegate, librarySource, DEFAULT_LIMIT);
+    }
+
+    public LocalRecommendationDataAccessObject(GenDataAccessInterface delegate,
+                                               Supplier<List<MediaCollection<? extends AbstractMedia>>>
+                                                       librarySource, Executor libraryExecutor) {
+        this(delegate, librarySource, DEFAULT_LIMIT, libraryExecutor);
+    }
+
+    public LocalRecommendationDataAccessObject(GenDataAccessInterface delegate,
+                                               Supplier<List<MediaCollection<? extends AbstractMedia>>>
+                                                       librarySource, int limit) {
+        this(delegate, librarySource, limit, Runnable::run);
+    }
+
+    /**
+     * Creates a local recommender.
+     * @param delegate the DAO to ask first, or null to only recommend locally
+     * @param librarySource supplies the collections of the current user, or an empty list if there is none
+     * @param limit the maximum number of recommendations
+     * @param libraryExecutor the executor owning the user's entities, on which the library is read; must not
+     *     be the thread asking for recommendations, which waits for it
+     * @throws IllegalArgumentException if the limit is not positive
+     */
+    public LocalRecommendationDataAccessObject(GenDataAccessInterface delegate,
+                                               Supplier<List<MediaCollection<? extends AbstractMedia>>>
+                                                       librarySource, int limit, Executor libraryExecutor) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("The recommendation limit must be at least 1.");
+        }
+        this.delegate = delegate;
+        this.librarySource = librarySource;
+        this.limit = limit;
+        this.libraryExecutor = libraryExecutor;
+    }
+
+    /**
+     * Add a title to the candidates, replacing a candidate with the same title.
+     * @param media the title to add
+     */
+    public void addCandidate(AbstractMedia media) {
+        final String key = TextNormalizer.normalize(media.getName());
+        synchronized (lock) {
+            final Integer replaced = candidateIds.get(key);
+            removeCandidateLocked(key);
+            final Features features = features(TitleTerms.of(media));
+            final Candidate candidate = new Candidate(media.getName(), key, typeOf(media), features);
+            final int candidateId;
+            if (replaced != null) {
+                candidateId = replaced;
+                candidates.set(candidateId, candidate);
+            }
+            else {
+                candidateId = candidates.size();
+                candidates.add(candidate);
+            }
+            candidateIds.put(key, candidateId);
+            for (int i = 0; i < features.terms.length; i++) {
+                postingsFor(features.terms[i]).add(candidateId, features.weights[i]);
+            }
+            liveCandidates++;
+        }
+    }
+
+    /**
+     * Remove a title from the candidates.
+     * @param name the title to remove
+     * @return true if the title was a candidate
+     */
+    public boolean removeCandidate(String name) {
+        synchronized (lock) {
+            return removeCandidateLocked(TextNormalizer.normalize(name));
+        }
+    }
+
+    /**
+     * Return the number of candidates.
+     * @return the number of candidates
+     */
+    public int size() {
+        synchronized (lock) {
+            return liveCandidates;
+        }
+    }
+
+    @Override
+    public JSONArray getRecommendation(List<String> query, String sourceType, String returnType)
+            throws GenDataAccessException {
+        return getRecommendation(query, sourceType, returnType, partial -> { });
+    }
+
+    /**
+     * Get a recommendation. With a wrapped DAO, the local recommendations are published as a partial result
+     * before asking the wrapped DAO, and are returned if the wrapped DAO fails or has no recommendations.
+     */
+    @Override
+    public JSONArray getRecommendation(List<String> query, String sourceType, String returnType,
+                                       Consumer<JSONArray> partialResults) throws GenDataAccessException {
+        final JSONArray local = recommend(query, returnType);
+        JSONArray result = local;
+        if (delegate != null) {
+            if (!local.isEmpty()) {
+                partialResults.accept(local);
+            }
+            try {
+                final JSONArray remote = delegate.getRecommendation(query, sourceType, returnType, partialResults);
+                if (!remote.isEmpty()) {
+                    result = remote;
+                }
+            }
+            catch (GenDataAccessException ex) {
+                if (local.isEmpty()) {
+                    throw ex;
+                }
+                System.out.println("Using local recommendations: " + ex.getMessage());
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public void setApiKey(String apiKey) {
+        if (delegate != null) {
+            delegate.setApiKey(apiKey);
+        }
+    }
+
+    /**
+     * Recommend from the local candidates, best first.
+     * @param query the seed titles
+     * @param returnType the type of title to recommend, or null for any
+     * @return the recommendations, as TasteDive results
+     * @throws GenDataAccessException if interrupted while waiting for the library
+     */
+    JSONArray recommend(List<String> query, String returnType) throws GenDataAccessException {
+        final Map<String, Integer> known = new HashMap<>();
+        synchronized (lock) {
+            library.forEach((key, entry) -> known.put(key, entry.fingerprint()));
+        }
+        final LibraryRead read = onLibraryExecutor(() -> readLibrary(known));
+        final JSONArray result = new JSONArray();
+        synchronized (lock) {
+            final Set<String> excluded = updateLibrary(read);
+            final Map<Integer, Float> profile = new HashMap<>(getLibraryProfile());
+            for (String title : query) {
+                final String key = TextNormalizer.normalize(title);
+                if (!key.isEmpty()) {
+                    excluded.add(key);
+                    final Features seed = findFeatures(key);
+                    if (seed != null) {
+                        addToProfile(profile, seed, 1.0f);
+                    }
+                }
+            }
+            for (int candidateId : topCandidates(score(profile), excluded, returnType, limit * DUPLICATE_HEADROOM)) {
+                final Candidate candidate = candidates.get(candidateId);
+                // another release or cut of a library title is not a new recommendation
+                if (result.length() < limit && libraryIndex.similarTo(null, candidate.features().terms, 1,
+                        MediaSimilarityIndex.NEAR_DUPLICATE_SIMILARITY).isEmpty()) {
+                    result.put(new JSONObject().put("name", candidate.name()).put("type", candidate.type()));
+                }
+            }
+        }
+        return result;
+    }
+
+    private boolean removeCandidateLocked(String key) {
+        final Integer candidateId = candidateIds.remove(key);
+        if (candidateId != null) {
+            final Features features = candidates.get(candidateId).features();
+            for (int term : features.terms) {
+                postings.get(term).remove(candidateId);
+            }
+            // the slot stays empty, so the IDs in the postings stay valid
+            candidates.set(candidateId, null);
+            liveCandidates--;
+        }
+        return candidateId != null;
+    }
+
+    /**
+     * Read the fingerprints of the library titles, and the terms of those which are not known with the same
+     * fingerprint. Runs on the library executor. Unopened collections are decoded without keeping the media
+     * in them, and only the first time they are seen.
+     */
+    private LibraryRead readLibrary(Map<String, Integer> known) {
+        final Map<String, Integer> fingerprints = new LinkedHashMap<>();
+        final Map<String, TitleTerms> changed = new HashMap<>();
+        synchronized (readLock) {
+            final Map<Supplier<?>, Map<String, Integer>> unopened = new IdentityHashMap<>();
+            for (MediaCollection<? extends AbstractMedia> collection : librarySource.get()) {
+                final Supplier<?> loader = collection.getPendingLoader();
+                Map<String, Integer> read = null;
+                if (loader != null) {
+                    read = unopenedFingerprints.get(loader);
+                }
+                if (read != null && known.keySet().containsAll(read.keySet())) {
+                    read.forEach(fingerprints::putIfAbsent);
+                }
+                else {
+                    read = readCollection(collection, known, fingerprints, changed);
+                }
+                if (loader != null) {
+                    unopened.put(loader, read);
+                }
+            }
+            // only collections which are still unopened are remembered
+            unopenedFingerprints = unopened;
+        }
+        return new LibraryRead(fingerprints, changed);
+    }
+
+    private static Map<String, Integer> readCollection(MediaCollection<? extends AbstractMedia> collection,
+                                                       Map<String, Integer> known, Map<String, Integer> fingerprints,
+                                                       Map<String, TitleTerms> changed) {
+        final Map<String, Integer> result = new LinkedHashMap<>();
+        final List<? extends AbstractMedia> media;
+        if (collection.isLoaded()) {
+            media = collection.getMediaList();
+        }
+        else {
+            media = collection.peekMediaList();
+        }
+        for (AbstractMedia title : media) {
+            final String key = TextNormalizer.normalize(title.getName());
+            final int fingerprint = MediaFeatures.fingerprint(title);
+            result.putIfAbsent(key, fingerprint);
+            if (fingerprints.putIfAbsent(key, fingerprint) == null
+                    && !Integer.valueOf(fingerprint).equals(known.get(key))) {
+                changed.put(key, TitleTerms.of(title));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Bring the library entries up to date with the titles read from the collections, only building
+     * features for titles which are new or changed.
+     * @return the normalized titles of the library
+     */
+    private Set<String> updateLibrary(LibraryRead read) {
+        final Set<String> titles = new HashSet<>(read.fingerprints().keySet());
+        boolean changed = false;
+        for (Map.Entry<String, TitleTerms> title : read.changed().entrySet()) {
+            final LibraryEntry entry = library.get(title.getKey());
+            final int fingerprint = read.fingerprints().get(title.getKey());
+            if (entry == null || entry.fingerprint() != fingerprint) {
+                final Features features = features(title.getValue());
+                library.put(title.getKey(), new LibraryEntry(fingerprint, title.getValue().userRating(), features));
+                libraryIndex.add(title.getValue().name(), features.terms);
+                changed = true;
+            }
+        }
+        for (String key : new ArrayList<>(library.keySet())) {
+            if (!titles.contains(key)) {
+                library.remove(key);
+                libraryIndex.remove(key);
+                changed = true;
+            }
+        }
+        if (changed) {
+            libraryProfile = null;
+        }
+        return titles;
+    }
+
+    /**
+     * Run the task on the library executor and wait for its result.
+     */
+    private <T> T onLibraryExecutor(Callable<T> task) throws GenDataAccessException {
+        final FutureTask<T> future = new FutureTask<>(task);
+        libraryExecutor.execute(future);
+        try {
+            return future.get();
+        }
+        catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            future.cancel(false);
+            throw new GenDataAccessException("Interrupted while waiting for the library.");
+        }
+        catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (ex.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw new GenDataAccessException(String.valueOf(ex.getCause()));
+        }
+    }
+
+    /**
+     * Return the sum of the user's highly rated titles, weighted by their rating.
+     */
+    private Map<Integer, Float> getLibraryProfile() {
+        if (libraryProfile == null) {
+            libraryProfile = new HashMap<>();
+            for (LibraryEntry entry : library.values()) {
+                if (entry.userRating() >= HIGH_RATING) {
+                    addToProfile(libraryProfile, entry.features(), (float) entry.userRating() / MAX_RATING);
+                }
+            }
+        }
+        return libraryProfile;
+    }
+
+    private Features findFeatures(String key) {
+        Features result = null;
+        final LibraryEntry entry = library.get(key);
+        final Integer candidateId = candidateIds.get(key);
+        if (entry != null) {
+            result = entry.features();
+        }
+        else if (candidateId != null) {
+            result = candidates.get(candidateId).features();
+        }
+        return result;
+    }
+
+    private static void addToProfile(Map<Integer, Float> profile, Features features, float weight) {
+        for (int i = 0; i < features.terms.length; i++) {
+            profile.merge(features.terms[i], weight * features.weights[i] * features.norm, Float::sum);
+        }
+    }
+
+    private float[] score(Map<Integer, Float> profile) {
+        final float[] scores = new float[candidates.size()];
+        for (Map.Entry<Integer, Float> term : profile.entrySet()) {
+            final Postings termPostings = postings.get(term.getKey());
+            if (termPostings != null && termPostings.size > 0) {
+                final double idf = Math.log((double) (liveCandidates + 1) / (termPostings.size + 1)) + 1;
+                final float queryWeight = (float) (term.getValue() * idf * idf);
+                for (int i = 0; i < termPostings.size; i++) {
+                    scores[termPostings.candidateIds[i]] += queryWeight * termPostings.weights[i];
+                }
+            }
+        }
+        for (int candidateId = 0; candidateId < scores.length; candidateId++) {
+            final Candidate candidate = candidates.get(candidateId);
+            if (candidate != null) {
+                scores[candidateId] *= candidate.features().norm;
+            }
+        }
+        return scores;
+    }
+
+    /**
+     * Return the best scoring candidates, best first, keeping only the current best in a bounded heap.
+     */
+    private List<Integer> topCandidates(float[] scores, Set<String> excluded, String returnType, int count) {
+        final PriorityQueue<Integer> best = new PriorityQueue<>(count + 1,
+            (first, second) -> {
+                final int byScore = Float.compare(scores[first], scores[second]);
+                return byScore != 0 ? byScore : Integer.compare(second, first);
+            });
+        for (int candidateId = 0; candidateId < scores.length; candidateId++) {
+            if (scores[candidateId] > 0) {
+                final Candidate candidate = candidates.get(candidateId);
+                if ((returnType == null || returnType.equals(candidate.type()))
+                        && !excluded.contains(candidate.key())) {
+                    best.add(candidateId);
+                    if (best.size() > count) {
+                        best.poll();
+                    }
+                }
+            }
+        }
+        final List<Integer> result = new ArrayList<>(best.size());
+        while (!best.isEmpty()) {
+            result.add(0, best.poll());
+        }
+        return result;
+    }
+
+    private Features features(TitleTerms title) {
+        final Map<Integer, Float> weights = new HashMap<>();
+        for (String term : title.genres()) {
+            weights.put(termId(term), GENRE_WEIGHT);
+        }
+        for (String term : title.cast()) {
+            weights.put(termId(term), CAST_WEIGHT);
+        }
+        final Map<Integer, Integer> counts = new HashMap<>();
+        for (String term : title.description()) {
+            counts.merge(termId(term), 1, Integer::sum);
+        }
+        // sublinear term frequency, so a word repeated in a long description does not dominate
+        counts.forEach((term, count) -> weights.put(term, DESCRIPTION_WEIGHT * (1 + (float) Math.log(count))));
+        final int[] terms = new int[weights.size()];
+        final float[] termWeights = new float[weights.size()];
+        int i = 0;
+        for (Map.Entry<Integer, Float> weight : weights.entrySet()) {
+            terms[i] = weight.getKey();
+            termWeights[i] = weight.getValue();
+            i++;
+        }
+        return new Features(terms, termWeights);
+    }
+
+    private int termId(String term) {
+        return vocabulary.computeIfAbsent(term, added -> {
+            postings.add(null);
+            return postings.size() - 1;
+        });
+    }
+
+    private Postings postingsFor(int term) {
+        Postings result = postings.get(term);
+        if (result == null) {
+            result = new Postings();
+            postings.set(term, result);
+        }
+        return result;
+    }
+
+    private static String typeOf(AbstractMedia media) {
+        final String result;
+        if (media instanceof Television) {
+            result = TELEVISION_TYPE;
+        }
+        else {
+            result = MOVIE_TYPE;
+        }
+        return result;
+    }
+}
@@ -0,0 +1,114 @@
+package data_access;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Set;
+
+import entity.AbstractMedia;
+import entity.Movie;
+import entity.Television;
+
+/**
+ * The content features of a title used for local recommendations and similarity lookups: its genres, its
+ * leading cast members and the keywords of its description, each as a prefixed term.
+ */
+final class MediaFeatures {
+    private static final int CAST_FEATURES = 10;
+    private static final int MIN_TERM_LENGTH = 3;
+    private static final Set<String> STOP_WORDS = Set.of("the", "and", "for", "with", "his", "her", "their",
+            "who", "that", "this", "from", "into", "when", "after", "they", "them", "are", "was", "but", "has",
+            "have", "its", "one", "out", "while", "where", "which", "what", "about", "than", "then", "only",
+            "must", "will", "can", "all", "not", "she", "him", "also", "been");
+
+    private MediaFeatures() {
+        throw new IllegalStateException("Utility class.");
+    }
+
+    /**
+     * Return the genre terms of a title.
+     * @param media the title
+     * @return the genre terms
+     */
+    static List<String> genreTerms(AbstractMedia media) {
+        final List<String> result = new ArrayList<>();
+        for (String genre : media.getGenres()) {
+            result.add("g:" + TextNormalizer.normalize(genre));
+        }
+        return result;
+    }
+
+    /**
+     * Return the terms of the leading cast members of a title.
+     * @param media the title
+     * @return the cast terms, lead first
+     */
+    static List<String> castTerms(AbstractMedia media) {
+        List<String> cast = List.of();
+        if (media instanceof Movie movie) {
+            cast = movie.getCastMembers();
+        }
+        else if (media instanceof Television television) {
+            cast = television.getCastMembers();
+        }
+        final List<String> result = new ArrayList<>();
+        for (String member : cast.subList(0, Math.min(CAST_FEATURES, cast.size()))) {
+            result.add("c:" + TextNormalizer.normalize(member));
+        }
+        return result;
+    }
+
+    /**
+     * Return the keyword terms of a title's description, in order and including repeats.
+     * @param media the title
+     * @return the description terms
+     */
+    static List<String> descriptionTerms(AbstractMedia media) {
+        String description = null;
+        if (media instanceof Movie movie) {
+            description = movie.getDescription();
+        }
+        else if (media instanceof Television television) {
+            description = television.getDescription();
+        }
+        final List<String> result = new ArrayList<>();
+        for (String word : Objects.requireNonNullElse(description, "").toLowerCase(Locale.ROOT)
+                .split("[^\\p{L}\\p{N}]+")) {
+            if (word.length() >= MIN_TERM_LENGTH && !STOP_WORDS.contains(word)) {
+                result.add("d:" + word);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Return the distinct terms of a title.
+     * @param media the title
+     * @return the genre, cast and description terms
+     */
+    static Set<String> terms(AbstractMedia media) {
+        final Set<String> result = new LinkedHashSet<>(genreTerms(media));
+        result.addAll(castTerms(media));
+        result.addAll(descriptionTerms(media));
+        return result;
+    }
+
+    /**
+     * Return a fingerprint of the fields of a title the features and ratings are built from, to tell
+     * whether a title has changed.
+     * @param media the title
+     * @return the fingerprint
+     */
+    static int fingerprint(AbstractMedia media) {
+        int result = Objects.hash(media.getName(), media.getUserRating(), media.getGenres());
+        if (media instanceof Movie movie) {
+            result = Objects.hash(result, movie.getDescription(), movie.getCastMembers());
+        }
+        else if (media instanceof Television television) {
+            result = Objects.hash(result, television.getDescription(), television.getCastMembers());
+        }
+        return result;
+    }
+}
@@ -0,0 +1,253 @@
+package data_access;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+import entity.AbstractMedia;
+
+/**
+ * A locality-sensitive hashing index over MinHash signatures of titles' feature sets, for "more like this"
+ * and near-duplicate lookups without comparing against every indexed title.
+ *
+ * <p>Each title's set of features is summarized by a MinHash signature, in which the fraction of equal
+ * positions of two signatures estimates the Jaccard similarity of the two sets. The signature is split into
+ * bands, and titles are bucketed by the hash of each band. A lookup only compares against the titles sharing
+ * a bucket in some band, which are likely to be similar; with the default 32 bands of 4 rows, titles from
+ * a Jaccard similarity of about 0.4 are likely to be found.</p>
+ *
+ * <p>Titles are keyed by their normalized name and are added, replaced and removed one at a time, so the
+ * owner of the index decides which titles changed and only re-indexes those. The local recommender keeps
+ * its index of the library in step this way, from the titles it finds changed on each query.</p>
+ *
+ * <p>A title is indexed either by its own genres, cast and description keywords, or by feature hashes of
+ * the owner's choosing. Lookups by title hash the same keywords as {@link #add(AbstractMedia)}, so an index
+ * should be filled one way or the other.</p>
+ */
+public class MediaSimilarityIndex {
+    /**
+     * The similarity from which two titles are considered near-duplicates.
+     */
+    public static final double NEAR_DUPLICATE_SIMILARITY = 0.8;
+    private static final int DEFAULT_BANDS = 32;
+    private static final int DEFAULT_ROWS = 4;
+    private static final long HASH_SEED = 0x5EEDL;
+
+    private final int bands;
+    private final int rows;
+    private final long[] multipliers;
+    private final long[] increments;
+    private final List<Map<Long, Set<String>>> buckets;
+    private final Map<String, Entry> entries = new HashMap<>();
+    private final Object lock = new Object();
+
+    /**
+     * A title similar to the one looked up.
+     * @param name the title's name
+     * @param similarity the estimated Jaccard similarity of the two titles' features, from 0 to 1
+     */
+    public record Match(String name, double similarity) {
+    }
+
+    private record Entry(String name, int[] signature) {
+    }
+
+    public MediaSimilarityIndex() {
+        this(DEFAULT_BANDS, DEFAULT_ROWS);
+    }
+
+    /**
+     * Creates an empty index. More rows per band find fewer, but more similar, titles; more bands find more.
+     * @param bands the number of bands of the signatures
+     * @param rows the number of rows in a band
+     * @throws IllegalArgumentException if the number of bands or rows is not positive
+     */
+    public MediaSimilarityIndex(int bands, int rows) {
+        if (bands < 1 || rows < 1) {
+            throw new IllegalArgumentException("The number of bands and rows must be at least 1.");
+        }
+        this.bands = bands;
+        this.rows = rows;
+        // fixed seed, so signatures are comparable across indexes and runs
+        final SplittableRandom random = new SplittableRandom(HASH_SEED);
+        this.multipliers = new long[bands * rows];
+        this.increments = new long[bands * rows];
+        for (int i = 0; i < multipliers.length; i++) {
+            multipliers[i] = random.nextLong() | 1;
+            increments[i] = random.nextLong();
+        }
+        this.buckets = new ArrayList<>(bands);
+        for (int band = 0; band < bands; band++) {
+            buckets.add(new HashMap<>());
+        }
+    }
+
+    /**
+     * Add a title by its genres, cast and description keywords, replacing a title with the same name.
+     * @param media the title to add
+     */
+    public void add(AbstractMedia media) {
+        add(media.getName(), featureHashes(media));
+    }
+
+    /**
+     * Add a title by its features, replacing a title with the same name.
+     * @param name the title's name
+     * @param features the hashes of the title's features; each distinct feature must have a distinct hash
+     */
+    public void add(String name, int[] features) {
+        final String key = TextNormalizer.normalize(name);
+        final int[] signature = signature(features);
+        synchronized (lock) {
+            removeLocked(key);
+            entries.put(key, new Entry(name, signature));
+            for (int band = 0; signature != null && band < bands; band++) {
+                buckets.get(band).computeIfAbsent(bandKey(signature, band), bucket -> new HashSet<>()).add(key);
+            }
+        }
+    }
+
+    /**
+     * Remove a title.
+     * @param name the title's name
+     * @return true if the title was in the index
+     */
+    public boolean remove(String name) {
+        synchronized (lock) {
+            return removeLocked(TextNormalizer.normalize(name));
+        }
+    }
+
+    /**
+     * Return the number of titles in the index.
+     * @return the number of titles
+     */
+    public int size() {
+        synchronized (lock) {
+            return entries.size();
+        }
+    }
+
+    /**
+     * Return the indexed titles most similar to the given title, leaving out the title itself.
+     * @param media the title to look up
+     * @param limit the maximum number of titles to return
+     * @return the similar titles, most similar first
+     */
+    public List<Match> similarTo(AbstractMedia media, int limit) {
+        return similarTo(media.getName(), featureHashes(media), limit, 0);
+    }
+
+    /**
+     * Return the indexed titles which are near-duplicates of the given title, leaving out the title itself.
+     * @param media the title to look up
+     * @return the near-duplicates, most similar first
+     */
+    public List<Match> nearDuplicatesOf(AbstractMedia media) {
+        return similarTo(media.getName(), featureHashes(media), Integer.MAX_VALUE, NEAR_DUPLICATE_SIMILARITY);
+    }
+
+    /**
+     * Return the indexed titles most similar to the given features.
+     * @param name the name of the title looked up, which is left out of the result, or null
+     * @param features the hashes of the title's features, as given to {@link #add(String, int[])}
+     * @param limit the maximum number of titles to return
+     * @param minSimilarity the minimum estimated similarity of a returned title
+     * @return the similar titles, most similar first
+     */
+    public List<Match> similarTo(String name, int[] features, int limit, double minSimilarity) {
+        final int[] signature = signature(features);
+        final String excluded = name == null ? null : TextNormalizer.normalize(name);
+        final List<Match> result = new ArrayList<>();
+        synchronized (lock) {
+            final Set<String> compared = new HashSet<>();
+            for (int band = 0; signature != null && band < bands; band++) {
+                final Set<String> bucket = buckets.get(band).get(bandKey(signature, band));
+                if (bucket != null) {
+                    for (String key : bucket) {
+                        if (!key.equals(excluded) && compared.add(key)) {
+                            final Entry entry = entries.get(key);
+                            final double similarity = similarity(signature, entry.signature());
+                            if (similarity >= minSimilarity) {
+                                result.add(new Match(entry.name(), similarity));
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        result.sort(Comparator.comparingDouble(Match::similarity).reversed().thenComparing(Match::name));
+        return result.subList(0, Math.min(limit, result.size()));
+    }
+
+    private boolean removeLocked(String key) {
+        final Entry entry = entries.remove(key);
+        if (entry != null && entry.signature() != null) {
+            for (int band = 0; band < bands; band++) {
+                final Map<Long, Set<String>> bandBuckets = buckets.get(band);
+                final long bandKey = bandKey(entry.signature(), band);
+                final Set<String> bucket = bandBuckets.get(bandKey);
+                bucket.remove(key);
+                if (bucket.isEmpty()) {
+                    bandBuckets.remove(bandKey);
+                }
+            }
+        }
+        return entry != null;
+    }
+
+    /**
+     * Return the MinHash signature of a feature set: for each of the hash functions, the smallest hash of
+     * any feature. A title without features has no signature, and is similar to nothing.
+     */
+    private int[] signature(int[] features) {
+        int[] result = null;
+        if (features.length > 0) {
+            result = new int[multipliers.length];
+        }
+        for (int i = 0; result != null && i < result.length; i++) {
+            long min = Long.MAX_VALUE;
+            for (int feature : features) {
+                min = Math.min(min, mix(feature * multipliers[i] + increments[i]));
+            }
+            result[i] = (int) (min >>> Integer.SIZE);
+        }
+        return result;
+    }
+
+    private long bandKey(int[] signature, int band) {
+        long result = band;
+        for (int row = band * rows; row < (band + 1) * rows; row++) {
+            result = result * 31 + signature[row];
+        }
+        return mix(result);
+    }
+
+    private static double similarity(int[] first, int[] second) {
+        int equal = 0;
+        for (int i = 0; i < first.length; i++) {
+            if (first[i] == second[i]) {
+                equal++;
+            }
+        }
+        return (double) equal / first.length;
+    }
+
+    private static int[] featureHashes(AbstractMedia media) {
+        return MediaFeatures.terms(media).stream().mapToInt(String::hashCode).toArray();
+    }
+
+    /**
+     * The SplitMix64 finalizer, spreading the bits of a linear hash.
+     */
+    private static long mix(long value) {
+        long result = (value ^ (value >>> 30)) * 0xbf58476d1ce4e5b9L;
+        result = (result ^ (result >>> 27)) * 0x94d049bb133111ebL;
+        return result ^ (result >>> 31);
+    }
+}
@@ -7,7 +7,7 @@ import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
 
-import okhttp3.OkHttpClient;
+import data_access.http.HttpTransport;
 import okhttp3.Request;
 import okhttp3.Response;
 import use_case.generate_recommendations.GenDataAccessException;
@@ -24,8 +24,17 @@ public class TasteDiveRecommendation implements GenDataAccessInterface {
     private static final String CONTENT_TYPE_LABEL = "Content-Type";
     private static final String CONTENT_TYPE_JSON = "application/json";
     private static final String MESSAGE = "message";
+    private final HttpTransport transport;
     private String apiKey;
 
+    public TasteDiveRecommendation() {
+        this(HttpTransport.getDefault());
+    }
+
+    public TasteDiveRecommendation(HttpTransport transport) {
+        this.transport = transport;
+    }
+
     /**
      * Get a recommendation from TasteDive with a list of media names.
      *
@@ -40,8 +49,6 @@ public class TasteDiveRecommendation implements GenDataAccessInterface {
                                        String sourceType,
                                        String returnType,
                                        int verbose) throws GenDataAccessException {
-        // Make an API call to get the user object.
-        final OkHttpClient client = new OkHttpClient().newBuilder().build();
         final String url = BASE_URL + "?k=" + this.apiKey
                 + "&q=" + sourceType + ":" + String.join(",", query)
                 + "&type=" + returnType
@@ -50,10 +57,8 @@ public class TasteDiveRecommendation implements GenDataAccessInterface {
                 .url(url)
                 .addHeader(CONTENT_TYPE_LABEL, CONTENT_TYPE_JSON)
                 .build();
-        try {
-            final Response response = client.newCall(request).execute();
-
-            final JSONObject responseBody = new JSONObject(response.body().string());
+        try (Response response = transport.execute(request)) {
+            final JSONObject responseBody = new JSONObject(transport.readBody(response.body()));
 
             if (response.code() == SUCCESS_CODE) {
                 return responseBody.getJSONObject("similar").getJSONArray("results");
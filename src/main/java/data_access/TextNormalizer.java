@@ -0,0 +1,26 @@
+package data_access;
+
+import java.text.Normalizer;
+import java.util.Locale;
+
+/**
+ * The one normalization of titles and names used wherever they are compared or used as keys, so that the
+ * TMDB lookups, the recommendation cache and the local recommender agree on when two titles are the same.
+ */
+public final class TextNormalizer {
+    private TextNormalizer() {
+        throw new IllegalStateException("Utility class.");
+    }
+
+    /**
+     * Normalize a title or name, so that names differing only in case, spacing or Unicode form are the same.
+     * @param text the title or name
+     * @return the text in NFKC form, lower case, with runs of whitespace collapsed
+     */
+    public static String normalize(String text) {
+        return Normalizer.normalize(text, Normalizer.Form.NFKC)
+                .strip()
+                .replaceAll("\\s+", " ")
+                .toLowerCase(Locale.ROOT);
+    }
+}
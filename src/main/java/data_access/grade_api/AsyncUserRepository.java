@@ -0,0 +1,207 @@
+package data_access.grade_api;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import entity.AbstractMedia;
+import entity.MediaCollection;
+import entity.User;
+
+/**
+ * A user repository whose asynchronous methods run the wrapped repository on background threads,
+ * so callers on the Swing event dispatch thread never wait for the Grade API.
+ *
+ * <p>Saves run one at a time on a single writer thread, in the order they were made, so an older
+ * save can never overwrite a newer one. Loads and lookups run on a separate pool. The synchronous
+ * methods are passed straight through. Since independent loads may overlap, the wrapped repository
+ * must tolerate being called from several threads.</p>
+ */
+public class AsyncUserRepository implements UserRepository {
+    private static final int DEFAULT_THREADS = 4;
+    private final UserRepository delegate;
+    private final ExecutorService executor;
+    private final ExecutorService writer;
+
+    public AsyncUserRepository(UserRepository delegate) {
+        this(delegate, DEFAULT_THREADS);
+    }
+
+    public AsyncUserRepository(UserRepository delegate, int threads) {
+        this.delegate = delegate;
+        final AtomicInteger threadCount = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(threads, runnable -> {
+            final Thread thread = new Thread(runnable, "user-repository-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.writer = Executors.newSingleThreadExecutor(runnable -> {
+            final Thread thread = new Thread(runnable, "user-repository-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Stop the background threads. Calls already submitted are allowed to finish.
+     */
+    public void shutdown() {
+        executor.shutdown();
+        writer.shutdown();
+    }
+
+    /**
+     * Wait for the calls submitted before {@link #shutdown()} to finish.
+     * @param timeout how long to wait at most
+     * @return true if all calls finished, false if the timeout elapsed first
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public boolean awaitTermination(Duration timeout) throws InterruptedException {
+        final long deadline = System.nanoTime() + timeout.toNanos();
+        final boolean saved = writer.awaitTermination(timeout.toNanos(), TimeUnit.NANOSECONDS);
+        return executor.awaitTermination(deadline - System.nanoTime(), TimeUnit.NANOSECONDS) && saved;
+    }
+
+    @Override
+    public CompletableFuture<List<MediaCollection<? extends AbstractMedia>>> saveMediaCollectionsAsync(
+            List<MediaCollection<? extends AbstractMedia>> mediaCollectionsList) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return delegate.saveMediaCollections(mediaCollectionsList);
+            }
+            catch (GradeDataAccessException ex) {
+                throw new CompletionException(ex);
+            }
+        }, writer);
+    }
+
+    @Override
+    public CompletableFuture<List<MediaCollection<? extends AbstractMedia>>> loadMediaCollectionsAsync() {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return delegate.loadMediaCollections();
+            }
+            catch (GradeDataAccessException ex) {
+                throw new CompletionException(ex);
+            }
+        }, executor);
+    }
+
+    @Override
+    public CompletableFuture<Boolean> existsByNameAsync(String username) {
+        return CompletableFuture.supplyAsync(() -> delegate.existsByName(username), executor);
+    }
+
+    @Override
+    public CompletableFuture<User> getAsync(String username) {
+        return CompletableFuture.supplyAsync(() -> delegate.get(username), executor);
+    }
+
+    @Override
+    public CompletableFuture<Optional<User>> findAsync(String username) {
+        return CompletableFuture.supplyAsync(() -> delegate.find(username), executor);
+    }
+
+    /**
+     * Reads the current user on the pool, fetching it again first if the cached copy is stale. While the
+     * user can not be fetched, the cached copy is returned.
+     * @return a future completed with the currently logged-in user, or null if no one is logged in
+     */
+    @Override
+    public CompletableFuture<User> getCurrentUserAsync() {
+        return CompletableFuture.supplyAsync(() -> {
+            User user;
+            try {
+                user = delegate.revalidateCurrentUser();
+            }
+            catch (GradeDataAccessException ex) {
+                System.out.println("Could not revalidate the current user: " + ex.getMessage());
+                user = delegate.getCurrentUser();
+            }
+            return user;
+        }, executor);
+    }
+
+    @Override
+    public User revalidateCurrentUser() throws GradeDataAccessException {
+        return delegate.revalidateCurrentUser();
+    }
+
+    @Override
+    public List<MediaCollection<? extends AbstractMedia>> saveMediaCollections(
+            List<MediaCollection<? extends AbstractMedia>> mediaCollectionsList) throws GradeDataAccessException {
+        return delegate.saveMediaCollections(mediaCollectionsList);
+    }
+
+    @Override
+    public List<MediaCollection<? extends AbstractMedia>> loadMediaCollections() throws GradeDataAccessException {
+        return delegate.loadMediaCollections();
+    }
+
+    @Override
+    public String convertCollectionsListToString(List<MediaCollection<? extends AbstractMedia>> mediaCollectionList) {
+        return delegate.convertCollectionsListToString(mediaCollectionList);
+    }
+
+    @Override
+    public List<MediaCollection<? extends AbstractMedia>> convertStringToMediaCollections(
+            String mediaCollectionsString) {
+        return delegate.convertStringToMediaCollections(mediaCollectionsString);
+    }
+
+    @Override
+    public <T extends AbstractMedia> MediaCollection<T> getNamedCollection(String collectionName, String mediaType) {
+        return delegate.getNamedCollection(collectionName, mediaType);
+    }
+
+    @Override
+    public boolean existsByName(String username) {
+        return delegate.existsByName(username);
+    }
+
+    @Override
+    public void save(User user) {
+        delegate.save(user);
+    }
+
+    @Override
+    public User get(String username) {
+        return delegate.get(username);
+    }
+
+    @Override
+    public Optional<User> find(String username) {
+        return delegate.find(username);
+    }
+
+    @Override
+    public void loginAccepted(User user) {
+        delegate.loginAccepted(user);
+    }
+
+    @Override
+    public String getCurrentUsername() {
+        return delegate.getCurrentUsername();
+    }
+
+    @Override
+    public void changePassword(User user) {
+        delegate.changePassword(user);
+    }
+
+    @Override
+    public void clearCurrentUser() {
+        delegate.clearCurrentUser();
+    }
+
+    @Override
+    public User getCurrentUser() {
+        return delegate.getCurrentUser();
+    }
+}
@@ -1,24 +1,44 @@
 package data_access.grade_api;
 
 import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.json.JSONArray;
+import org.json.JSONException;
 import org.json.JSONObject;
 
+import data_access.grade_api.incoming_data_formatting.StreamingUserDecoder;
 import data_access.grade_api.incoming_data_formatting.UserBuilder;
-import data_access.grade_api.outgoing_data_formatting.CollectionJSONBuilder;
+import data_access.grade_api.incoming_data_formatting.UserResponse;
+import data_access.grade_api.outgoing_data_formatting.StreamingCollectionWriter;
+import data_access.http.HttpTransport;
 import entity.AbstractMedia;
 import entity.MediaCollection;
 import entity.User;
 import okhttp3.MediaType;
-import okhttp3.OkHttpClient;
 import okhttp3.Request;
 import okhttp3.RequestBody;
 import okhttp3.Response;
 
 /**
  * The DAO for user data.
+ *
+ * <p>The currently logged-in user is cached locally with read-your-writes semantics: an acknowledged
+ * write updates the cached user in place and bumps its version, instead of refetching the user. Reading
+ * the current user never reaches the Grade API. The user is only fetched again on an explicit refresh
+ * ({@link #loadMediaCollections()}), or by {@link #revalidateCurrentUser()} when the cache is stale because a
+ * write failed, {@link #invalidateCache()} was called, or the cache is older than its maximum age. The
+ * application revalidates whenever it reads the current user through
+ * {@link AsyncUserRepository#getCurrentUserAsync()}, e.g. to show a list. The cache may be read and written
+ * from several threads.</p>
+ *
+ * <p>Usernames found not to exist are remembered for a short time, so repeated failed logins and signup
+ * availability checks do not reach the Grade API. Saving a user forgets that it was absent.</p>
  */
 public class DBUserDataAccessObject implements UserRepository {
     private static final int SUCCESS_CODE = 200;
@@ -30,22 +50,82 @@ public class DBUserDataAccessObject implements UserRepository {
     private static final String USERNAME = "username";
     private static final String PASSWORD = "password";
     private static final String MESSAGE = "message";
-    private static final String INFO = "info";
+    private static final Duration DEFAULT_CACHE_MAX_AGE = Duration.ofMinutes(10);
+    private static final Duration DEFAULT_ABSENT_TTL = Duration.ofSeconds(30);
+    private static final String DEFAULT_BASE_URL = "http://vm003.teach.cs.toronto.edu:20112";
+    private final HttpTransport transport;
+    private final String baseUrl;
+    private final Duration cacheMaxAge;
+    private final Duration absentTtl;
+    private final Map<String, Instant> absentUntil = new ConcurrentHashMap<>();
+    private final StreamingCollectionWriter collectionWriter = new StreamingCollectionWriter();
+    private final Object lock = new Object();
     private User currentUser;
+    private long cacheVersion;
+    private Instant cachedAt = Instant.MIN;
+    private boolean cacheStale;
+
+    public DBUserDataAccessObject() {
+        this(HttpTransport.getDefault());
+    }
+
+    public DBUserDataAccessObject(HttpTransport transport) {
+        this(transport, DEFAULT_CACHE_MAX_AGE);
+    }
+
+    public DBUserDataAccessObject(HttpTransport transport, Duration cacheMaxAge) {
+        this(transport, cacheMaxAge, DEFAULT_ABSENT_TTL);
+    }
+
+    public DBUserDataAccessObject(HttpTransport transport, Duration cacheMaxAge, Duration absentTtl) {
+        this(transport, cacheMaxAge, absentTtl, DEFAULT_BASE_URL);
+    }
+
+    /**
+     * Creates a DAO for the Grade API at the given address.
+     * @param transport the transport to send requests through
+     * @param cacheMaxAge how long the cached current user is fresh
+     * @param absentTtl how long a username found not to exist is remembered
+     * @param baseUrl the scheme, host and port of the Grade API
+     */
+    public DBUserDataAccessObject(HttpTransport transport, Duration cacheMaxAge, Duration absentTtl,
+                                  String baseUrl) {
+        this.transport = transport;
+        this.baseUrl = baseUrl;
+        this.cacheMaxAge = cacheMaxAge;
+        this.absentTtl = absentTtl;
+    }
+
+    /**
+     * Fetches the user in a single request to the Grade API, instead of checking for existence first.
+     *
+     * @param username the username to look up
+     * @return the user with the given username, or empty if there is no such user
+     */
+    @Override
+    public Optional<User> find(String username) {
+        Optional<User> result = Optional.empty();
+        if (!isKnownAbsent(username)) {
+            try {
+                final UserResponse response = getUserResponse(username);
+                if (response.getUser() == null) {
+                    markAbsent(username);
+                }
+                else {
+                    result = Optional.of(cacheUser(response.getUser()));
+                }
+            }
+            catch (GradeDataAccessException ex) {
+                throw new RuntimeException(ex);
+            }
+        }
+        return result;
+    }
 
     @Override
     public User get(String username) {
-        final Request request = new Request.Builder()
-                .url(String.format("http://vm003.teach.cs.toronto.edu:20112/user?username=%s", username))
-                .addHeader(CONTENT_TYPE_LABEL, CONTENT_TYPE_JSON)
-                .build();
         try {
-            final JSONObject responseBody = getGradeApiData(request);
-            final UserBuilder userBuilder = new UserBuilder();
-            final User user = userBuilder.createUser(responseBody.getJSONObject("user"));
-            this.currentUser = user;
-            return user;
-
+            return fetchUser(username);
         }
         catch (GradeDataAccessException ex) {
             throw new RuntimeException(ex);
@@ -54,22 +134,31 @@ public class DBUserDataAccessObject implements UserRepository {
 
     @Override
     public void clearCurrentUser() {
-        this.currentUser = null;
+        synchronized (lock) {
+            this.currentUser = null;
+        }
     }
 
     @Override
     public boolean existsByName(String username) {
-        final Request request = new Request.Builder()
-                .url(String.format("http://vm003.teach.cs.toronto.edu:20112/checkIfUserExists?username=%s", username))
-                .addHeader(CONTENT_TYPE_LABEL, CONTENT_TYPE_JSON)
-                .build();
-        try {
-            final JSONObject responseBody = getGradeApiData(request);
-            return responseBody.getInt(STATUS_CODE_LABEL) == SUCCESS_CODE;
-        }
-        catch (GradeDataAccessException ex) {
-            throw new RuntimeException(ex);
+        boolean exists = false;
+        if (!isKnownAbsent(username)) {
+            final Request request = new Request.Builder()
+                    .url(String.format("%s/checkIfUserExists?username=%s", baseUrl, username))
+                    .addHeader(CONTENT_TYPE_LABEL, CONTENT_TYPE_JSON)
+                    .build();
+            try {
+                final JSONObject responseBody = getGradeApiData(request);
+                exists = responseBody.getInt(STATUS_CODE_LABEL) == SUCCESS_CODE;
+            }
+            catch (GradeDataAccessException ex) {
+                throw new RuntimeException(ex);
+            }
+            if (!exists) {
+                markAbsent(username);
+            }
         }
+        return exists;
     }
 
     @Override
@@ -81,12 +170,13 @@ public class DBUserDataAccessObject implements UserRepository {
         requestBody.put(PASSWORD, user.getPassword());
         final RequestBody body = RequestBody.create(requestBody.toString(), mediaType);
         final Request request = new Request.Builder()
-                .url("http://vm003.teach.cs.toronto.edu:20112/user")
+                .url(baseUrl + "/user")
                 .method("POST", body)
                 .addHeader(CONTENT_TYPE_LABEL, CONTENT_TYPE_JSON)
                 .build();
         try {
             getGradeApiData(request);
+            absentUntil.remove(user.getName());
         }
         catch (GradeDataAccessException ex) {
             throw new RuntimeException(ex);
@@ -102,24 +192,31 @@ public class DBUserDataAccessObject implements UserRepository {
         requestBody.put(PASSWORD, user.getPassword());
         final RequestBody body = RequestBody.create(requestBody.toString(), mediaType);
         final Request request = new Request.Builder()
-                .url("http://vm003.teach.cs.toronto.edu:20112/user")
+                .url(baseUrl + "/user")
                 .method("PUT", body)
                 .addHeader(CONTENT_TYPE_LABEL, CONTENT_TYPE_JSON)
                 .build();
         try {
             getGradeApiData(request);
-            this.currentUser = get(user.getName());
+            synchronized (lock) {
+                if (currentUser != null && currentUser.getName().equals(user.getName())) {
+                    currentUser.setPassword(user.getPassword());
+                    markCacheFresh();
+                }
+            }
         }
         catch (GradeDataAccessException ex) {
+            invalidateCache();
             throw new RuntimeException(ex);
         }
     }
 
     @Override
     public String getCurrentUsername() {
+        final User user = getCurrentUser();
         final String result;
-        if (currentUser != null) {
-            result = currentUser.getName();
+        if (user != null) {
+            result = user.getName();
         }
         else {
             result = "";
@@ -130,53 +227,66 @@ public class DBUserDataAccessObject implements UserRepository {
     @Override
     public <T extends AbstractMedia> MediaCollection<T>
         getNamedCollection(String collectionName, String mediaType) {
-        if (currentUser == null) {
+        final User user = getCurrentUser();
+        if (user == null) {
             throw new NullPointerException("User not found.");
         }
-        return currentUser.getNamedCollection(collectionName, mediaType);
+        return user.getNamedCollection(collectionName, mediaType);
     }
 
     @Override
     public List<MediaCollection<? extends AbstractMedia>> saveMediaCollections(
             List<MediaCollection<? extends AbstractMedia>> mediaCollectionsList) throws GradeDataAccessException {
-        // POST METHOD
-        final JSONObject requestBody = new JSONObject();
-        requestBody.put(USERNAME, this.currentUser.getName());
-        requestBody.put(PASSWORD, this.currentUser.getPassword());
-        final MediaType mediaType = MediaType.parse(CONTENT_TYPE_JSON);
-
-        final CollectionJSONBuilder collectionsBuilder = new CollectionJSONBuilder();
-        final JSONArray mediaCollections =
-                collectionsBuilder.buildMediaCollections(mediaCollectionsList);
-
-        requestBody.put(INFO, mediaCollections);
-        final RequestBody body = RequestBody.create(requestBody.toString(), mediaType);
+        final User user = getCurrentUser();
+        if (user == null) {
+            throw new NullPointerException("User not found.");
+        }
+        // PUT METHOD; the collections are encoded while the request is sent
+        final RequestBody body = new UserInfoRequestBody(collectionWriter, user.getName(),
+                user.getPassword(), mediaCollectionsList);
         final Request request = new Request.Builder()
-                .url("http://vm003.teach.cs.toronto.edu:20112/modifyUserInfo")
+                .url(baseUrl + "/modifyUserInfo")
                 .method("PUT", body)
                 .addHeader(CONTENT_TYPE_LABEL, CONTENT_TYPE_JSON)
                 .build();
 
         try {
             getGradeApiData(request);
-            return loadMediaCollections();
+            synchronized (lock) {
+                user.setMediaCollections(mediaCollectionsList);
+                if (currentUser == user) {
+                    markCacheFresh();
+                }
+            }
+            return user.getAllMediaCollections();
         }
         catch (GradeDataAccessException ex) {
-            requestBody.remove(PASSWORD);
-            throw new GradeDataAccessException(ex.getMessage() + "%nSanitized Query:%n" + requestBody);
+            invalidateCache();
+            final JSONObject sanitizedQuery = new JSONObject();
+            sanitizedQuery.put(USERNAME, user.getName());
+            sanitizedQuery.put("collections", mediaCollectionsList.size());
+            throw new GradeDataAccessException(ex.getMessage() + "%nSanitized Query:%n" + sanitizedQuery);
         }
     }
 
+    /**
+     * Explicitly refreshes the current user from the Grade API and returns its media collections.
+     *
+     * @return the list of media collections
+     * @throws GradeDataAccessException if the user's list of media collections can not be loaded for any reason
+     */
     @Override
     public List<MediaCollection<? extends AbstractMedia>> loadMediaCollections() throws GradeDataAccessException {
-        refreshUser();
-        return currentUser.getAllMediaCollections();
+        final User user = getCurrentUser();
+        if (user == null) {
+            throw new NullPointerException("User not found.");
+        }
+        return fetchUser(user.getName()).getAllMediaCollections();
     }
 
     @Override
     public String convertCollectionsListToString(List<MediaCollection<? extends AbstractMedia>> mediaCollectionList) {
-        final CollectionJSONBuilder collectionsBuilder = new CollectionJSONBuilder();
-        return collectionsBuilder.buildMediaCollections(mediaCollectionList).toString();
+        return collectionWriter.toJSONString(mediaCollectionList, new StringBuilder());
     }
 
     @Override
@@ -193,16 +303,6 @@ public class DBUserDataAccessObject implements UserRepository {
         return mockUser.getAllMediaCollections();
     }
 
-    /**
-     * Refreshes the currently active user from database.
-     * Does nothing if not currently logged in, i.e. currentUser is null.
-     */
-    private void refreshUser() {
-        if (currentUser != null) {
-            currentUser = get(currentUser.getName());
-        }
-    }
-
     /**
      * Wrapper for making a request to the Grade API.
      * @param request the request to make to the Grade API
@@ -210,13 +310,12 @@ public class DBUserDataAccessObject implements UserRepository {
      * @throws GradeDataAccessException if Grade API is not available or request is malformed
      */
     private JSONObject getGradeApiData(Request request) throws GradeDataAccessException {
-        final OkHttpClient client = new OkHttpClient().newBuilder().build();
-        try (Response response = client.newCall(request).execute()) {
+        try (Response response = transport.execute(request)) {
             if (response.body() == null) {
                 final String error = "Got a null response while calling the Grade API.";
                 throw new GradeDataAccessException(error);
             }
-            final JSONObject responseBody = new JSONObject(response.body().string());
+            final JSONObject responseBody = new JSONObject(transport.readBody(response.body()));
             final int responseCode = responseBody.getInt(STATUS_CODE_LABEL);
             if (responseBody.getInt(STATUS_CODE_LABEL) == CREDENTIAL_ERROR) {
                 throw new GradeDataAccessException("message could not be found or password was incorrect");
@@ -233,8 +332,139 @@ public class DBUserDataAccessObject implements UserRepository {
         }
     }
 
+    /**
+     * Return the cached current user. This never reaches the Grade API, even if the cache is stale.
+     * @return the currently logged-in user, or null if no user is logged in
+     */
     @Override
     public User getCurrentUser() {
-        return currentUser;
+        synchronized (lock) {
+            return currentUser;
+        }
+    }
+
+    /**
+     * Refetch the current user if the cache is stale, and return it.
+     * @return the currently logged-in user, or null if no user is logged in
+     * @throws GradeDataAccessException if the cache is stale and the user could not be fetched; the cached
+     *     user stays stale
+     */
+    @Override
+    public User revalidateCurrentUser() throws GradeDataAccessException {
+        final User user = getCurrentUser();
+        User result = user;
+        if (isCacheStale()) {
+            result = fetchUser(user.getName());
+        }
+        return result;
+    }
+
+    /**
+     * Return the version of the cached user. The version increases on every fetch and acknowledged write.
+     * @return the cache version
+     */
+    public long getCacheVersion() {
+        synchronized (lock) {
+            return cacheVersion;
+        }
+    }
+
+    /**
+     * Mark the cached user as stale, so that it is fetched again on the next revalidation.
+     */
+    public void invalidateCache() {
+        synchronized (lock) {
+            this.cacheStale = true;
+        }
+    }
+
+    /**
+     * Return whether the cached user needs to be fetched again.
+     * @return true if the cache is stale or older than its maximum age
+     */
+    public boolean isCacheStale() {
+        synchronized (lock) {
+            return currentUser != null
+                    && (cacheStale || Instant.now().isAfter(cachedAt.plus(cacheMaxAge)));
+        }
+    }
+
+    /**
+     * Fetch the user with the given username from the Grade API, and cache it as the current user.
+     * @param username the username to look up
+     * @return the user with the given username
+     * @throws GradeDataAccessException if the Grade API could not be reached
+     */
+    private User fetchUser(String username) throws GradeDataAccessException {
+        final UserResponse response = getUserResponse(username);
+        if (response.getUser() == null) {
+            throw new GradeDataAccessException("User not found: " + username);
+        }
+        return cacheUser(response.getUser());
+    }
+
+    /**
+     * Look up a user, decoding the response as it is read instead of buffering it.
+     * @param username the username to look up
+     * @return the decoded response, without a user if there is no such user
+     * @throws GradeDataAccessException if Grade API is not available or request is malformed
+     */
+    private UserResponse getUserResponse(String username) throws GradeDataAccessException {
+        try (Response response = transport.execute(userRequest(username))) {
+            if (response.body() == null) {
+                throw new GradeDataAccessException("Got a null response while calling the Grade API.");
+            }
+            final UserResponse userResponse = new StreamingUserDecoder()
+                    .decode(transport.openReader(response.body()));
+            if (userResponse.getStatusCode() == CREDENTIAL_ERROR) {
+                throw new GradeDataAccessException("message could not be found or password was incorrect");
+            }
+            else if (!response.isSuccessful() && userResponse.getStatusCode() != NOT_FOUND) {
+                throw new GradeDataAccessException("database error: " + userResponse.getMessage());
+            }
+            else {
+                return userResponse;
+            }
+        }
+        catch (IOException | JSONException ex) {
+            throw new GradeDataAccessException(ex.getMessage());
+        }
+    }
+
+    private Request userRequest(String username) {
+        return new Request.Builder()
+                .url(String.format("%s/user?username=%s", baseUrl, username))
+                .addHeader(CONTENT_TYPE_LABEL, CONTENT_TYPE_JSON)
+                .build();
+    }
+
+    private User cacheUser(User user) {
+        synchronized (lock) {
+            this.currentUser = user;
+            markCacheFresh();
+        }
+        return user;
+    }
+
+    private boolean isKnownAbsent(String username) {
+        final Instant until = absentUntil.get(username);
+        final boolean result = until != null && Instant.now().isBefore(until);
+        if (until != null && !result) {
+            absentUntil.remove(username, until);
+        }
+        return result;
+    }
+
+    private void markAbsent(String username) {
+        absentUntil.put(username, Instant.now().plus(absentTtl));
+    }
+
+    /**
+     * Must be called while holding the lock.
+     */
+    private void markCacheFresh() {
+        cacheVersion++;
+        cachedAt = Instant.now();
+        cacheStale = false;
     }
 }
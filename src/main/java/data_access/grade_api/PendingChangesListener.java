@@ -0,0 +1,13 @@
+package data_access.grade_api;
+
+/**
+ * Listener notified when the number of locally buffered, not yet uploaded, edits changes.
+ */
+public interface PendingChangesListener {
+
+    /**
+     * Called whenever the number of pending changes is updated.
+     * @param pendingChanges the number of edits waiting to be uploaded
+     */
+    void pendingChangesUpdated(int pendingChanges);
+}
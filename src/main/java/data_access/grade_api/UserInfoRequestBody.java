@@ -0,0 +1,63 @@
+package data_access.grade_api;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.json.JSONException;
+
+import data_access.grade_api.outgoing_data_formatting.StreamingCollectionWriter;
+import entity.AbstractMedia;
+import entity.MediaCollection;
+import okhttp3.MediaType;
+import okhttp3.RequestBody;
+import okio.BufferedSink;
+
+/**
+ * A request body which encodes the user's media collections while OkHttp sends it, instead of building
+ * the whole JSON document first. The body length is unknown up front, so it is sent chunked.
+ */
+final class UserInfoRequestBody extends RequestBody {
+    private static final MediaType JSON = MediaType.parse("application/json; charset=utf-8");
+    private static final int BUFFER_SIZE = 8192;
+    private final StreamingCollectionWriter collectionWriter;
+    private final String username;
+    private final String password;
+    private final List<MediaCollection<? extends AbstractMedia>> mediaCollections;
+
+    UserInfoRequestBody(StreamingCollectionWriter collectionWriter, String username, String password,
+                        List<MediaCollection<? extends AbstractMedia>> mediaCollections) {
+        this.collectionWriter = collectionWriter;
+        this.username = username;
+        this.password = password;
+        this.mediaCollections = mediaCollections;
+    }
+
+    @Nullable
+    @Override
+    public MediaType contentType() {
+        return JSON;
+    }
+
+    @Override
+    public void writeTo(@NotNull BufferedSink sink) throws IOException {
+        // not closed: OkHttp owns the sink
+        final Writer out = new BufferedWriter(
+                new OutputStreamWriter(sink.outputStream(), StandardCharsets.UTF_8), BUFFER_SIZE);
+        try {
+            collectionWriter.writeUserInfo(username, password, mediaCollections, out);
+        }
+        catch (JSONException ex) {
+            if (ex.getCause() instanceof IOException cause) {
+                throw cause;
+            }
+            throw new IOException("Could not encode the media collections.", ex);
+        }
+        out.flush();
+    }
+}
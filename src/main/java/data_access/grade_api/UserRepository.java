@@ -1,13 +1,17 @@
 package data_access.grade_api;
 
+import java.util.concurrent.CompletableFuture;
+
 import org.jetbrains.annotations.Nullable;
 
 import entity.User;
+import use_case.add_recommendation.AddRecommendationUserDataAccessInterface;
 import use_case.change_password.ChangePasswordUserDataAccessInterface;
 import use_case.filter_list.FilterDataAccessInterface;
 import use_case.login.LoginUserDataAccessInterface;
 import use_case.logout.LogoutUserDataAccessInterface;
 import use_case.note.NoteDataAccessInterface;
+import use_case.refresh_ratings.RatingRefreshUserDataAccessInterface;
 import use_case.signup.SignupUserDataAccessInterface;
 
 /**
@@ -19,7 +23,9 @@ public interface UserRepository extends
         SignupUserDataAccessInterface,
         LoginUserDataAccessInterface,
         ChangePasswordUserDataAccessInterface,
-        LogoutUserDataAccessInterface {
+        LogoutUserDataAccessInterface,
+        RatingRefreshUserDataAccessInterface,
+        AddRecommendationUserDataAccessInterface {
 
     /**
      * Get the currently logged-in user.
@@ -27,4 +33,41 @@ public interface UserRepository extends
      */
     @Nullable
     User getCurrentUser();
+
+    /**
+     * Clears the current user if it is the user whose credentials were rejected.
+     * @param username the username whose credentials were rejected
+     */
+    @Override
+    default void loginRejected(String username) {
+        if (username.equals(getCurrentUsername())) {
+            clearCurrentUser();
+        }
+    }
+
+    /**
+     * Return the currently logged-in user, fetching it again first if the cached copy is stale.
+     * Unless overridden, the current user is never stale.
+     * @return the currently logged-in user, or null if no one is logged in
+     * @throws GradeDataAccessException if the user is stale and could not be fetched
+     */
+    default User revalidateCurrentUser() throws GradeDataAccessException {
+        return getCurrentUser();
+    }
+
+    /**
+     * Get the currently logged-in user without blocking the caller, since reading it may revalidate a cached
+     * copy. Unless overridden, the returned future is already complete.
+     * @return a future completed with the currently logged-in user, or null if no one is logged in
+     */
+    default CompletableFuture<User> getCurrentUserAsync() {
+        CompletableFuture<User> result;
+        try {
+            result = CompletableFuture.completedFuture(getCurrentUser());
+        }
+        catch (RuntimeException ex) {
+            result = CompletableFuture.failedFuture(ex);
+        }
+        return result;
+    }
 }
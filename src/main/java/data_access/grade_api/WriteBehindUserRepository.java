@@ -0,0 +1,453 @@
+package data_access.grade_api;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import data_access.grade_api.outgoing_data_formatting.StreamingCollectionWriter;
+import entity.AbstractMedia;
+import entity.MediaCollection;
+import entity.User;
+
+/**
+ * A user repository which buffers media collection saves locally and uploads them in the background.
+ *
+ * <p>Every call to {@link #saveMediaCollections(List)} is applied to the current user immediately and
+ * marks the changed collections as dirty. Once no further edits have arrived for the configured quiet
+ * period, all pending edits are merged into a single upload through the wrapped repository. Pending
+ * edits are flushed before logging out, switching users, changing passwords, explicit refreshes, and
+ * when the repository is closed.</p>
+ *
+ * <p>Logging out, switching users and changing passwords go ahead even if that flush fails, so the
+ * application stays usable while the Grade API is unreachable. The failed upload leaves its edits with the
+ * wrapped repository, e.g. as a dirty local snapshot to upload later. Without a session change, they stay
+ * pending: the pending changes count keeps showing them and the upload is retried after another quiet
+ * period.</p>
+ *
+ * <p>Uploads run one at a time, so a flush waits for an upload already running before uploading the
+ * edits made since.</p>
+ */
+public class WriteBehindUserRepository implements UserRepository {
+    private static final Duration CLOSE_TIMEOUT = Duration.ofSeconds(30);
+    private final UserRepository delegate;
+    private final Duration quietPeriod;
+    private final ScheduledExecutorService scheduler;
+    private final StreamingCollectionWriter collectionWriter = new StreamingCollectionWriter();
+    private final List<PendingChangesListener> listeners = new ArrayList<>();
+    private final Object lock = new Object();
+    private final Object uploadLock = new Object();
+
+    private final Set<String> dirtyCollections = new LinkedHashSet<>();
+    private Map<String, String> syncedFingerprints = new HashMap<>();
+    private Set<MediaCollection<? extends AbstractMedia>> syncedUnopened = identitySet();
+    private List<MediaCollection<? extends AbstractMedia>> pendingCollections;
+    private int pendingChangeCount;
+    private ScheduledFuture<?> scheduledFlush;
+    private GradeDataAccessException lastFlushError;
+
+    public WriteBehindUserRepository(UserRepository delegate, Duration quietPeriod) {
+        this.delegate = delegate;
+        this.quietPeriod = quietPeriod;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            final Thread thread = new Thread(runnable, "write-behind-sync");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Register a listener notified whenever the number of pending changes is updated.
+     * @param listener the listener to notify
+     */
+    public void addPendingChangesListener(PendingChangesListener listener) {
+        synchronized (lock) {
+            listeners.add(listener);
+        }
+    }
+
+    /**
+     * Return the number of edits which have been applied locally but not uploaded yet.
+     * @return the number of pending edits
+     */
+    public int getPendingChangeCount() {
+        synchronized (lock) {
+            return pendingChangeCount;
+        }
+    }
+
+    /**
+     * Return the names of the collections which have changed since the last upload.
+     * @return the names of the dirty collections
+     */
+    public Set<String> getDirtyCollections() {
+        synchronized (lock) {
+            return new LinkedHashSet<>(dirtyCollections);
+        }
+    }
+
+    /**
+     * Return the error raised by the last background upload, if any.
+     * @return the last upload error, or null if the last upload succeeded
+     */
+    public GradeDataAccessException getLastFlushError() {
+        synchronized (lock) {
+            return lastFlushError;
+        }
+    }
+
+    /**
+     * Records the collections locally and schedules a coalesced upload after the quiet period.
+     * The returned list is the local state; it does not wait for the upload.
+     *
+     * @param mediaCollectionsList the list of media collections to be saved
+     * @return the list of media collections
+     */
+    @Override
+    public List<MediaCollection<? extends AbstractMedia>> saveMediaCollections(
+            List<MediaCollection<? extends AbstractMedia>> mediaCollectionsList) {
+        final User user = delegate.getCurrentUser();
+        if (user == null) {
+            throw new NullPointerException("User not found.");
+        }
+        user.setMediaCollections(mediaCollectionsList);
+        final Set<String> changed = findChangedCollections(mediaCollectionsList);
+        final int count;
+        synchronized (lock) {
+            pendingCollections = mediaCollectionsList;
+            dirtyCollections.addAll(changed);
+            if (!dirtyCollections.isEmpty()) {
+                pendingChangeCount++;
+                reschedule();
+            }
+            count = pendingChangeCount;
+        }
+        notifyListeners(count);
+        return mediaCollectionsList;
+    }
+
+    /**
+     * Upload any pending edits now, blocking until the upload completes. If an upload is already running,
+     * it is waited for first.
+     * @throws GradeDataAccessException if the pending edits could not be uploaded
+     */
+    public void flush() throws GradeDataAccessException {
+        synchronized (uploadLock) {
+            List<MediaCollection<? extends AbstractMedia>> toUpload = null;
+            int uploadedChanges = 0;
+            synchronized (lock) {
+                if (scheduledFlush != null) {
+                    scheduledFlush.cancel(false);
+                    scheduledFlush = null;
+                }
+                if (!dirtyCollections.isEmpty()) {
+                    toUpload = pendingCollections;
+                    uploadedChanges = pendingChangeCount;
+                    dirtyCollections.clear();
+                }
+            }
+            if (toUpload != null) {
+                upload(toUpload, uploadedChanges);
+            }
+        }
+    }
+
+    /**
+     * Flush any pending edits and stop the background uploader, waiting for a background upload which is
+     * still running.
+     * @throws GradeDataAccessException if the pending edits could not be uploaded
+     */
+    public void close() throws GradeDataAccessException {
+        try {
+            flush();
+        }
+        finally {
+            scheduler.shutdown();
+            try {
+                if (!scheduler.awaitTermination(CLOSE_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS)) {
+                    System.out.println("Gave up waiting for the background upload to finish.");
+                }
+            }
+            catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    @Override
+    public List<MediaCollection<? extends AbstractMedia>> loadMediaCollections() throws GradeDataAccessException {
+        flush();
+        return delegate.loadMediaCollections();
+    }
+
+    @Override
+    public String convertCollectionsListToString(List<MediaCollection<? extends AbstractMedia>> mediaCollectionList) {
+        return delegate.convertCollectionsListToString(mediaCollectionList);
+    }
+
+    @Override
+    public List<MediaCollection<? extends AbstractMedia>> convertStringToMediaCollections(
+            String mediaCollectionsString) {
+        return delegate.convertStringToMediaCollections(mediaCollectionsString);
+    }
+
+    @Override
+    public <T extends AbstractMedia> MediaCollection<T> getNamedCollection(String collectionName, String mediaType) {
+        return delegate.getNamedCollection(collectionName, mediaType);
+    }
+
+    @Override
+    public boolean existsByName(String username) {
+        return delegate.existsByName(username);
+    }
+
+    @Override
+    public void save(User user) {
+        delegate.save(user);
+    }
+
+    @Override
+    public User get(String username) {
+        flushBestEffort();
+        final User user = delegate.get(username);
+        resetSyncState(user);
+        return user;
+    }
+
+    @Override
+    public Optional<User> find(String username) {
+        flushBestEffort();
+        final Optional<User> user = delegate.find(username);
+        user.ifPresent(this::resetSyncState);
+        return user;
+    }
+
+    @Override
+    public void loginAccepted(User user) {
+        delegate.loginAccepted(user);
+    }
+
+    @Override
+    public String getCurrentUsername() {
+        return delegate.getCurrentUsername();
+    }
+
+    @Override
+    public void changePassword(User user) {
+        flushBestEffort();
+        delegate.changePassword(user);
+    }
+
+    @Override
+    public void clearCurrentUser() {
+        flushBestEffort();
+        delegate.clearCurrentUser();
+        resetSyncState(null);
+    }
+
+    /**
+     * Revalidates the current user through the wrapped repository, keeping the pending edits on top of a
+     * refetched user.
+     * @return the currently logged-in user, or null if no one is logged in
+     * @throws GradeDataAccessException if the user is stale and could not be fetched
+     */
+    @Override
+    public User revalidateCurrentUser() throws GradeDataAccessException {
+        delegate.revalidateCurrentUser();
+        return getCurrentUser();
+    }
+
+    @Override
+    public User getCurrentUser() {
+        final User user = delegate.getCurrentUser();
+        synchronized (lock) {
+            if (user != null && !dirtyCollections.isEmpty()
+                    && user.getAllMediaCollections() != pendingCollections) {
+                // the wrapped repository refetched the user; keep the local edits on top of it
+                user.setMediaCollections(pendingCollections);
+            }
+        }
+        return user;
+    }
+
+    private void upload(List<MediaCollection<? extends AbstractMedia>> toUpload, int uploadedChanges)
+            throws GradeDataAccessException {
+        try {
+            delegate.saveMediaCollections(toUpload);
+        }
+        catch (GradeDataAccessException ex) {
+            synchronized (lock) {
+                for (MediaCollection<? extends AbstractMedia> collection : toUpload) {
+                    dirtyCollections.add(collection.getName());
+                }
+                lastFlushError = ex;
+            }
+            throw ex;
+        }
+        final Map<String, String> fingerprints = fingerprint(toUpload);
+        final Set<MediaCollection<? extends AbstractMedia>> unopened = unopened(toUpload);
+        final int count;
+        synchronized (lock) {
+            syncedFingerprints = fingerprints;
+            syncedUnopened = unopened;
+            pendingChangeCount -= uploadedChanges;
+            lastFlushError = null;
+            if (pendingCollections != toUpload && delegate.getCurrentUser() != null) {
+                // newer edits arrived during the upload; keep them visible on the refreshed user
+                delegate.getCurrentUser().setMediaCollections(pendingCollections);
+            }
+            count = pendingChangeCount;
+        }
+        notifyListeners(count);
+    }
+
+    /**
+     * Flush before a session change without letting a failed upload block it. The edits stay pending, and
+     * the upload is retried after another quiet period.
+     */
+    private void flushBestEffort() {
+        try {
+            flush();
+        }
+        catch (GradeDataAccessException ex) {
+            System.out.println("Could not upload pending changes, keeping them for later: " + ex.getMessage());
+            final int count;
+            synchronized (lock) {
+                reschedule();
+                count = pendingChangeCount;
+            }
+            notifyListeners(count);
+        }
+    }
+
+    private void reschedule() {
+        if (scheduledFlush != null) {
+            scheduledFlush.cancel(false);
+        }
+        scheduledFlush = scheduler.schedule(this::backgroundFlush, quietPeriod.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    private void backgroundFlush() {
+        try {
+            flush();
+        }
+        catch (GradeDataAccessException ex) {
+            // keep the edits dirty and try again after another quiet period
+            synchronized (lock) {
+                reschedule();
+            }
+        }
+    }
+
+    private void resetSyncState(User user) {
+        final Map<String, String> fingerprints;
+        final Set<MediaCollection<? extends AbstractMedia>> unopened;
+        if (user == null || user.getAllMediaCollections() == null) {
+            fingerprints = new HashMap<>();
+            unopened = identitySet();
+        }
+        else {
+            fingerprints = fingerprint(user.getAllMediaCollections());
+            unopened = unopened(user.getAllMediaCollections());
+        }
+        synchronized (lock) {
+            syncedFingerprints = fingerprints;
+            syncedUnopened = unopened;
+            dirtyCollections.clear();
+            pendingCollections = null;
+            pendingChangeCount = 0;
+        }
+        notifyListeners(0);
+    }
+
+    /**
+     * Compare the collections against the last synced state. Collections which have not been opened since
+     * they were synced are unchanged without decoding them. A collection opened since it was synced has no
+     * fingerprint to compare against, so it is treated as changed.
+     */
+    private Set<String> findChangedCollections(List<MediaCollection<? extends AbstractMedia>> mediaCollectionsList) {
+        final Map<String, String> synced;
+        final Set<MediaCollection<? extends AbstractMedia>> unopened;
+        synchronized (lock) {
+            synced = syncedFingerprints;
+            unopened = syncedUnopened;
+        }
+        final Set<String> changed = new LinkedHashSet<>();
+        final Set<String> present = new HashSet<>();
+        final StringBuilder buffer = new StringBuilder();
+        for (MediaCollection<? extends AbstractMedia> collection : mediaCollectionsList) {
+            present.add(collection.getName());
+            if (collection.isLoaded() || !unopened.contains(collection)) {
+                final String fingerprint = fingerprint(collection, buffer);
+                if (!fingerprint.equals(synced.get(collection.getName()))) {
+                    changed.add(collection.getName());
+                }
+            }
+        }
+        for (String name : synced.keySet()) {
+            if (!present.contains(name)) {
+                changed.add(name);
+            }
+        }
+        for (MediaCollection<? extends AbstractMedia> collection : unopened) {
+            if (!present.contains(collection.getName())) {
+                changed.add(collection.getName());
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * Fingerprint the opened collections. Collections whose media have not been loaded are skipped.
+     */
+    private Map<String, String> fingerprint(List<MediaCollection<? extends AbstractMedia>> mediaCollectionsList) {
+        final Map<String, String> result = new HashMap<>();
+        final StringBuilder buffer = new StringBuilder();
+        for (MediaCollection<? extends AbstractMedia> collection : mediaCollectionsList) {
+            if (collection.isLoaded()) {
+                result.put(collection.getName(), fingerprint(collection, buffer));
+            }
+        }
+        return result;
+    }
+
+    private String fingerprint(MediaCollection<? extends AbstractMedia> collection, StringBuilder buffer) {
+        return collectionWriter.toJSONString(List.of(collection), buffer);
+    }
+
+    private static Set<MediaCollection<? extends AbstractMedia>> unopened(
+            List<MediaCollection<? extends AbstractMedia>> mediaCollectionsList) {
+        final Set<MediaCollection<? extends AbstractMedia>> result = identitySet();
+        for (MediaCollection<? extends AbstractMedia> collection : mediaCollectionsList) {
+            if (!collection.isLoaded()) {
+                result.add(collection);
+            }
+        }
+        return result;
+    }
+
+    private static Set<MediaCollection<? extends AbstractMedia>> identitySet() {
+        return Collections.newSetFromMap(new IdentityHashMap<>());
+    }
+
+    private void notifyListeners(int count) {
+        final List<PendingChangesListener> toNotify;
+        synchronized (lock) {
+            toNotify = new ArrayList<>(listeners);
+        }
+        for (PendingChangesListener listener : toNotify) {
+            listener.pendingChangesUpdated(count);
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package data_access.grade_api.codec;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.json.JSONWriter;
+
+import entity.AbstractMedia;
+import entity.Rating;
+
+/**
+ * Shared encoding of the fields every media type has.
+ * @param <T> the type of media handled by the codec
+ */
+abstract class AbstractMediaCodec<T extends AbstractMedia> implements MediaCodec<T> {
+    static final String NAME = "name";
+    static final String GENRES = "genres";
+    static final String CAST = "cast";
+    static final String USER_RATING = "userRating";
+    static final String EXTERNAL_RATING = "externalRating";
+    static final String DESCRIPTION = "description";
+
+    /**
+     * Builds a JSON object holding the fields common to all media.
+     *
+     * @param media the media object to build the JSON object from
+     * @return the JSON object representing the common fields
+     */
+    JSONObject encodeCommon(AbstractMedia media) {
+        final JSONObject mediaJSON = new JSONObject();
+        mediaJSON.put(NAME, media.getName());
+        mediaJSON.put(USER_RATING, media.getUserRating());
+        mediaJSON.put(EXTERNAL_RATING, media.getExternalRating());
+        mediaJSON.put(GENRES, new JSONArray(media.getGenres()));
+        return mediaJSON;
+    }
+
+    /**
+     * Opens a JSON object and writes the fields common to all media. The caller writes its own fields
+     * and closes the object.
+     *
+     * @param media the media object to write
+     * @param writer the writer to write to
+     */
+    void writeCommon(AbstractMedia media, JSONWriter writer) {
+        writer.object();
+        writer.key(NAME).value(media.getName());
+        writer.key(USER_RATING).value(media.getUserRating());
+        writer.key(EXTERNAL_RATING).value(media.getExternalRating());
+        writer.key(GENRES);
+        writeStrings(media.getGenres(), writer);
+    }
+
+    /**
+     * Writes the binary form of the fields common to all media. Strings are stored as a length followed by
+     * UTF-8 bytes.
+     *
+     * @param media the media object to write
+     * @param out the output to write to
+     * @throws IOException if the output could not be written
+     */
+    void writeCommonBinary(AbstractMedia media, DataOutput out) throws IOException {
+        writeString(media.getName(), out);
+        out.writeInt(media.getUserRating());
+        out.writeInt(media.getExternalRating());
+        writeStrings(media.getGenres(), out);
+    }
+
+    /**
+     * The fields common to all media, as read from their binary form.
+     */
+    record CommonFields(String name, Rating userRating, Rating externalRating, List<String> genres) {
+    }
+
+    static CommonFields readCommonBinary(ByteBuffer buffer) {
+        return new CommonFields(readString(buffer), new Rating(buffer.getInt()), new Rating(buffer.getInt()),
+                readStrings(buffer));
+    }
+
+    static void writeString(String value, DataOutput out) throws IOException {
+        final byte[] encoded = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(encoded.length);
+        out.write(encoded);
+    }
+
+    static String readString(ByteBuffer buffer) {
+        final int length = buffer.getInt();
+        if (length < 0 || length > buffer.remaining()) {
+            throw new BufferUnderflowException();
+        }
+        final byte[] encoded = new byte[length];
+        buffer.get(encoded);
+        return new String(encoded, StandardCharsets.UTF_8);
+    }
+
+    static void writeStrings(List<String> values, DataOutput out) throws IOException {
+        out.writeInt(values.size());
+        for (String value : values) {
+            writeString(value, out);
+        }
+    }
+
+    static List<String> readStrings(ByteBuffer buffer) {
+        final int size = buffer.getInt();
+        if (size < 0 || size > buffer.remaining()) {
+            throw new BufferUnderflowException();
+        }
+        final List<String> result = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            result.add(readString(buffer));
+        }
+        return result;
+    }
+
+    static void writeStrings(List<String> values, JSONWriter writer) {
+        writer.array();
+        for (String value : values) {
+            writer.value(value);
+        }
+        writer.endArray();
+    }
+
+    static List<String> getStrings(JSONArray jsonArray) {
+        final List<String> result = new ArrayList<>(jsonArray.length());
+        for (int i = 0; i < jsonArray.length(); i++) {
+            result.add(jsonArray.getString(i));
+        }
+        return result;
+    }
+}
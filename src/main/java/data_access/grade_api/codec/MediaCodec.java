@@ -0,0 +1,70 @@
+package data_access.grade_api.codec;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import org.json.JSONObject;
+import org.json.JSONWriter;
+
+import entity.AbstractMedia;
+
+/**
+ * Converts one type of media to and from its Grade API JSON representation, and to and from the compact
+ * binary form kept in the local user snapshot.
+ * @param <T> the type of media handled by the codec
+ */
+public interface MediaCodec<T extends AbstractMedia> {
+
+    /**
+     * Return the type of media handled by this codec.
+     * @return the media class
+     */
+    Class<T> getMediaType();
+
+    /**
+     * Return the name the Grade API stores as the collection's media type, e.g. entity.Movie.
+     * @return the media type name
+     */
+    default String getTypeName() {
+        return getMediaType().getName();
+    }
+
+    /**
+     * Create a media entity from its JSON representation.
+     * @param media the JSON data to create the media from
+     * @return the media created from the JSON data
+     */
+    T decode(JSONObject media);
+
+    /**
+     * Create the JSON representation of a media entity.
+     * @param media the media to convert
+     * @return the JSON object representing the media
+     */
+    JSONObject encode(T media);
+
+    /**
+     * Write the JSON representation of a media entity, without building it in memory first.
+     * The fields written are the same as those of {@link #encode(AbstractMedia)}.
+     * @param media the media to write
+     * @param writer the writer, positioned where a value is expected
+     */
+    void write(T media, JSONWriter writer);
+
+    /**
+     * Write the compact binary form of a media entity.
+     * @param media the media to write
+     * @param out the output to write to
+     * @throws IOException if the output could not be written
+     */
+    void writeBinary(T media, DataOutput out) throws IOException;
+
+    /**
+     * Read a media entity from its compact binary form, as written by {@link #writeBinary}.
+     * @param buffer the buffer positioned at the start of the media
+     * @return the media read
+     * @throws java.nio.BufferUnderflowException if the buffer ends before the media does
+     */
+    T readBinary(ByteBuffer buffer);
+}
@@ -0,0 +1,71 @@
+package data_access.grade_api.codec;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import entity.AbstractMedia;
+
+/**
+ * The codecs for every supported media type, looked up by media class or by the type name stored by the
+ * Grade API. Callers resolve a codec once per collection and use it for every item in the collection.
+ *
+ * <p>To support a new media type, implement {@link MediaCodec} and register it in {@link #getDefault()}.</p>
+ */
+public final class MediaCodecRegistry {
+    private static final MediaCodecRegistry DEFAULT_REGISTRY = new MediaCodecRegistry()
+            .register(new MovieCodec())
+            .register(new TelevisionCodec());
+
+    private final Map<Class<?>, MediaCodec<?>> codecsByType = new HashMap<>();
+    private final Map<String, MediaCodec<?>> codecsByName = new HashMap<>();
+
+    /**
+     * Return the registry holding the codecs for all media types supported by the program.
+     * @return the default registry
+     */
+    public static MediaCodecRegistry getDefault() {
+        return DEFAULT_REGISTRY;
+    }
+
+    /**
+     * Register a codec, replacing any codec previously registered for the same media type.
+     * @param codec the codec to register
+     * @return this registry
+     */
+    public MediaCodecRegistry register(MediaCodec<?> codec) {
+        codecsByType.put(codec.getMediaType(), codec);
+        codecsByName.put(codec.getTypeName(), codec);
+        return this;
+    }
+
+    /**
+     * Return the codec for the given media class.
+     * @param mediaType the media class
+     * @param <T> the type of media
+     * @return the codec for the media class
+     * @throws UnsupportedOperationException if the media type is not supported
+     */
+    @SuppressWarnings("unchecked")
+    public <T extends AbstractMedia> MediaCodec<T> forType(Class<? extends T> mediaType) {
+        final MediaCodec<?> codec = codecsByType.get(mediaType);
+        if (codec == null) {
+            throw new UnsupportedOperationException("Unsupported entity type.");
+        }
+        // registration keys every codec by its own media type
+        return (MediaCodec<T>) codec;
+    }
+
+    /**
+     * Return the codec for the given media type name, e.g. entity.Movie.
+     * @param typeName the media type name stored by the Grade API
+     * @return the codec for the media type
+     * @throws UnsupportedOperationException if the media type is not supported
+     */
+    public MediaCodec<? extends AbstractMedia> forTypeName(String typeName) {
+        final MediaCodec<?> codec = codecsByName.get(typeName);
+        if (codec == null) {
+            throw new UnsupportedOperationException("Unsupported entity type.");
+        }
+        return (MediaCodec<? extends AbstractMedia>) codec;
+    }
+}
@@ -0,0 +1,73 @@
+package data_access.grade_api.codec;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.List;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.json.JSONWriter;
+
+import entity.Movie;
+import entity.Rating;
+
+/**
+ * Converts movies to and from their Grade API JSON representation.
+ */
+public class MovieCodec extends AbstractMediaCodec<Movie> {
+    private static final String RUNTIME = "runtime";
+
+    @Override
+    public Class<Movie> getMediaType() {
+        return Movie.class;
+    }
+
+    @Override
+    public Movie decode(JSONObject media) {
+        return new Movie(
+                media.getString(NAME),
+                getStrings(media.getJSONArray(GENRES)),
+                new Rating(media.getInt(USER_RATING)),
+                new Rating(media.getInt(EXTERNAL_RATING)),
+                media.getString(DESCRIPTION),
+                getStrings(media.getJSONArray(CAST)),
+                media.getInt(RUNTIME));
+    }
+
+    @Override
+    public JSONObject encode(Movie movie) {
+        final JSONObject movieJSON = encodeCommon(movie);
+        movieJSON.put(CAST, new JSONArray(movie.getCastMembers()));
+        movieJSON.put(DESCRIPTION, movie.getDescription());
+        movieJSON.put(RUNTIME, movie.getMinuteRuntime());
+        return movieJSON;
+    }
+
+    @Override
+    public void write(Movie movie, JSONWriter writer) {
+        writeCommon(movie, writer);
+        writer.key(CAST);
+        writeStrings(movie.getCastMembers(), writer);
+        writer.key(DESCRIPTION).value(movie.getDescription());
+        writer.key(RUNTIME).value(movie.getMinuteRuntime());
+        writer.endObject();
+    }
+
+    @Override
+    public void writeBinary(Movie movie, DataOutput out) throws IOException {
+        writeCommonBinary(movie, out);
+        writeString(movie.getDescription(), out);
+        writeStrings(movie.getCastMembers(), out);
+        out.writeInt(movie.getMinuteRuntime());
+    }
+
+    @Override
+    public Movie readBinary(ByteBuffer buffer) {
+        final CommonFields common = readCommonBinary(buffer);
+        final String description = readString(buffer);
+        final List<String> cast = readStrings(buffer);
+        return new Movie(common.name(), common.genres(), common.userRating(), common.externalRating(), description,
+                cast, buffer.getInt());
+    }
+}
@@ -0,0 +1,98 @@
+package data_access.grade_api.codec;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.json.JSONWriter;
+
+import entity.Rating;
+import entity.Television;
+
+/**
+ * Converts television shows to and from their Grade API JSON representation.
+ */
+public class TelevisionCodec extends AbstractMediaCodec<Television> {
+    private static final String SEASON_EPISODE_COUNT = "season-episode-count";
+
+    @Override
+    public Class<Television> getMediaType() {
+        return Television.class;
+    }
+
+    @Override
+    public Television decode(JSONObject media) {
+        final Television result = new Television(
+                media.getString(NAME),
+                getStrings(media.getJSONArray(GENRES)),
+                new Rating(media.getInt(USER_RATING)),
+                new Rating(media.getInt(EXTERNAL_RATING)),
+                media.getString(DESCRIPTION),
+                getStrings(media.getJSONArray(CAST)));
+        final JSONObject seasonsJSON = media.getJSONObject(SEASON_EPISODE_COUNT);
+        final Map<Integer, Integer> seasonToEpisodeCount = new HashMap<>();
+        for (String season : seasonsJSON.keySet()) {
+            seasonToEpisodeCount.put(Integer.valueOf(season), seasonsJSON.getInt(season));
+        }
+        result.setSeasonToEpisodeCount(seasonToEpisodeCount);
+        return result;
+    }
+
+    @Override
+    public JSONObject encode(Television television) {
+        final JSONObject televisionJSON = encodeCommon(television);
+        televisionJSON.put(CAST, new JSONArray(television.getCastMembers()));
+        final JSONObject seasonEpisodeMap = new JSONObject();
+        for (Map.Entry<Integer, Integer> season : television.getSeasonToEpisodeCount().entrySet()) {
+            seasonEpisodeMap.put(String.valueOf(season.getKey()), season.getValue());
+        }
+        televisionJSON.put(SEASON_EPISODE_COUNT, seasonEpisodeMap);
+        televisionJSON.put(DESCRIPTION, television.getDescription());
+        return televisionJSON;
+    }
+
+    @Override
+    public void write(Television television, JSONWriter writer) {
+        writeCommon(television, writer);
+        writer.key(CAST);
+        writeStrings(television.getCastMembers(), writer);
+        writer.key(SEASON_EPISODE_COUNT).object();
+        for (Map.Entry<Integer, Integer> season : television.getSeasonToEpisodeCount().entrySet()) {
+            writer.key(String.valueOf(season.getKey())).value(season.getValue());
+        }
+        writer.endObject();
+        writer.key(DESCRIPTION).value(television.getDescription());
+        writer.endObject();
+    }
+
+    @Override
+    public void writeBinary(Television television, DataOutput out) throws IOException {
+        writeCommonBinary(television, out);
+        writeString(television.getDescription(), out);
+        writeStrings(television.getCastMembers(), out);
+        final Map<Integer, Integer> seasons = television.getSeasonToEpisodeCount();
+        out.writeInt(seasons.size());
+        for (Map.Entry<Integer, Integer> season : seasons.entrySet()) {
+            out.writeInt(season.getKey());
+            out.writeInt(season.getValue());
+        }
+    }
+
+    @Override
+    public Television readBinary(ByteBuffer buffer) {
+        final CommonFields common = readCommonBinary(buffer);
+        final Television result = new Television(common.name(), common.genres(), common.userRating(),
+                common.externalRating(), readString(buffer), readStrings(buffer));
+        final int seasonCount = buffer.getInt();
+        final Map<Integer, Integer> seasons = new HashMap<>();
+        for (int i = 0; i < seasonCount; i++) {
+            seasons.put(buffer.getInt(), buffer.getInt());
+        }
+        result.setSeasonToEpisodeCount(seasons);
+        return result;
+    }
+}
@@ -3,8 +3,13 @@ package data_access.grade_api.incoming_data_formatting;
 import java.util.ArrayList;
 import java.util.List;
 
+import org.json.JSONArray;
+import org.json.JSONException;
 import org.json.JSONObject;
+import org.json.JSONTokener;
 
+import data_access.grade_api.codec.MediaCodec;
+import data_access.grade_api.codec.MediaCodecRegistry;
 import entity.AbstractMedia;
 import entity.MediaCollection;
 
@@ -14,29 +19,83 @@ import entity.MediaCollection;
  */
 public class MediaCollectionBuilder<T extends AbstractMedia> {
 
-    private final Class<T> type;
+    private final MediaCodec<T> codec;
 
     public MediaCollectionBuilder(Class<T> type) {
-        this.type = type;
+        this(MediaCodecRegistry.getDefault().forType(type));
+    }
+
+    public MediaCollectionBuilder(MediaCodec<T> codec) {
+        this.codec = codec;
     }
 
     /**
-     * Creates a MediaCollection object from JSON data.
+     * Creates a MediaCollection object from JSON data. Only the header is read here; the media are
+     * created when the collection is first used.
      * @param collection the JSON data to create the MediaCollection object from
      * @return the MediaCollection object created from the JSON data
      */
     public MediaCollection<T> createCollection(JSONObject collection) {
-        final List<T> mediaList = new ArrayList<>();
-        for (int i = 0; i < collection.getJSONArray("media").length(); i++) {
-            final JSONObject media = collection.getJSONArray("media").getJSONObject(i);
-            final MediaFactory<T> mediaFactory = new MediaFactory<>(type);
-            mediaList.add(mediaFactory.createMedia(media));
-        }
+        final JSONArray media = collection.getJSONArray("media");
         return new MediaCollection<>(
                 collection.getString("name"),
                 collection.getString("collectionType"),
-                type,
-                mediaList
+                codec.getMediaType(),
+                media.length(),
+                () -> createMedia(media)
         );
     }
+
+    /**
+     * Creates a MediaCollection object from its header and the JSON text of its media array.
+     * The media are created when the collection is first used, reading the text one media at a time, so the
+     * array is never parsed as a whole.
+     * @param name the name of the collection
+     * @param collectionType the watch status type of the collection
+     * @param size the number of media in the collection
+     * @param mediaJSON the JSON text of the media array
+     * @return the MediaCollection object
+     */
+    public MediaCollection<T> createCollection(String name, String collectionType, int size, String mediaJSON) {
+        return new MediaCollection<>(name, collectionType, codec.getMediaType(), size,
+            () -> readMedia(new JSONTokener(mediaJSON), size));
+    }
+
+    /**
+     * Decode the media of a JSON array as they are read. Only the JSON of the media being decoded is held
+     * in memory.
+     * @param tokener the tokener positioned at the start of the array
+     * @param size the expected number of media
+     * @return the media
+     * @throws JSONException if the text is not an array of JSON objects
+     */
+    private List<T> readMedia(JSONTokener tokener, int size) throws JSONException {
+        final List<T> mediaList = new ArrayList<>(size);
+        if (tokener.nextClean() != '[') {
+            throw tokener.syntaxError("Expected '['");
+        }
+        char next = tokener.nextClean();
+        if (next != ']') {
+            tokener.back();
+            do {
+                if (!(tokener.nextValue() instanceof JSONObject media)) {
+                    throw tokener.syntaxError("Expected a media object");
+                }
+                mediaList.add(codec.decode(media));
+                next = tokener.nextClean();
+            } while (next == ',');
+            if (next != ']') {
+                throw tokener.syntaxError("Expected ',' or ']'");
+            }
+        }
+        return mediaList;
+    }
+
+    private List<T> createMedia(JSONArray media) {
+        final List<T> mediaList = new ArrayList<>(media.length());
+        for (int i = 0; i < media.length(); i++) {
+            mediaList.add(codec.decode(media.getJSONObject(i)));
+        }
+        return mediaList;
+    }
 }
@@ -0,0 +1,232 @@
+package data_access.grade_api.incoming_data_formatting;
+
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.json.JSONException;
+import org.json.JSONTokener;
+
+import data_access.grade_api.codec.MediaCodec;
+import data_access.grade_api.codec.MediaCodecRegistry;
+import entity.AbstractMedia;
+import entity.MediaCollection;
+import entity.Movie;
+import entity.Television;
+import entity.User;
+
+/**
+ * A pull-based decoder for Grade API user responses.
+ *
+ * <p>Unlike {@link UserBuilder}, the response is never held in memory as a whole. The decoder walks the
+ * response as it is read and decodes each collection header-first: the media array is kept as compact JSON
+ * text, and only turned into {@link Movie} or {@link Television} entities when the collection is first
+ * used. Even then the text is read one media at a time, so the array is never held as JSON objects.</p>
+ */
+public class StreamingUserDecoder {
+    private static final String STATUS_CODE = "status_code";
+    private static final String MESSAGE = "message";
+    private static final String USER = "user";
+    private static final String USERNAME = "username";
+    private static final String PASSWORD = "password";
+    private static final String INFO = "info";
+    private static final String NAME = "name";
+    private static final String COLLECTION_TYPE = "collectionType";
+    private static final String MEDIA_TYPE = "mediaType";
+    private static final String MEDIA = "media";
+    private final MediaCodecRegistry codecs;
+
+    public StreamingUserDecoder() {
+        this(MediaCodecRegistry.getDefault());
+    }
+
+    public StreamingUserDecoder(MediaCodecRegistry codecs) {
+        this.codecs = codecs;
+    }
+
+    /**
+     * Decode a user response as it is read.
+     *
+     * @param reader the response body
+     * @return the decoded response
+     * @throws JSONException if the response is not valid JSON
+     * @throws UnsupportedOperationException if the media type is not supported
+     */
+    public UserResponse decode(Reader reader) throws JSONException {
+        final JSONTokener tokener = new JSONTokener(reader);
+        int statusCode = 0;
+        String message = "";
+        User user = null;
+        expect(tokener, '{');
+        if (!isEmpty(tokener, '}')) {
+            do {
+                final String key = readKey(tokener);
+                switch (key) {
+                    case STATUS_CODE -> statusCode = ((Number) tokener.nextValue()).intValue();
+                    case MESSAGE -> message = String.valueOf(tokener.nextValue());
+                    case USER -> user = readUser(tokener);
+                    default -> tokener.nextValue();
+                }
+            } while (hasMore(tokener, '}'));
+        }
+        return new UserResponse(statusCode, message, user);
+    }
+
+    private User readUser(JSONTokener tokener) {
+        String username = "";
+        String password = "";
+        List<MediaCollection<? extends AbstractMedia>> mediaCollections = new ArrayList<>();
+        expect(tokener, '{');
+        if (!isEmpty(tokener, '}')) {
+            do {
+                final String key = readKey(tokener);
+                switch (key) {
+                    case USERNAME -> username = String.valueOf(tokener.nextValue());
+                    case PASSWORD -> password = String.valueOf(tokener.nextValue());
+                    case INFO -> mediaCollections = readInfo(tokener);
+                    default -> tokener.nextValue();
+                }
+            } while (hasMore(tokener, '}'));
+        }
+        final User user = new User(username, password);
+        user.setMediaCollections(mediaCollections);
+        return user;
+    }
+
+    private List<MediaCollection<? extends AbstractMedia>> readInfo(JSONTokener tokener) {
+        final List<MediaCollection<? extends AbstractMedia>> result = new ArrayList<>();
+        final char first = tokener.nextClean();
+        tokener.back();
+        if (first == '[') {
+            expect(tokener, '[');
+            if (!isEmpty(tokener, ']')) {
+                do {
+                    result.add(readCollection(tokener));
+                } while (hasMore(tokener, ']'));
+            }
+        }
+        else {
+            // a user without any collections stores an empty object instead of an array
+            tokener.nextValue();
+        }
+        return result;
+    }
+
+    private MediaCollection<? extends AbstractMedia> readCollection(JSONTokener tokener) {
+        String name = "";
+        String collectionType = "";
+        MediaCodec<? extends AbstractMedia> codec = null;
+        final StringBuilder mediaJSON = new StringBuilder();
+        int size = 0;
+        expect(tokener, '{');
+        if (!isEmpty(tokener, '}')) {
+            do {
+                final String key = readKey(tokener);
+                switch (key) {
+                    case NAME -> name = String.valueOf(tokener.nextValue());
+                    case COLLECTION_TYPE -> collectionType = String.valueOf(tokener.nextValue());
+                    case MEDIA_TYPE -> codec = codecs.forTypeName(String.valueOf(tokener.nextValue()));
+                    case MEDIA -> size = captureArray(tokener, mediaJSON);
+                    default -> tokener.nextValue();
+                }
+            } while (hasMore(tokener, '}'));
+        }
+        if (codec == null) {
+            throw new UnsupportedOperationException("Unsupported entity type.");
+        }
+        if (mediaJSON.length() == 0) {
+            mediaJSON.append("[]");
+        }
+        return new MediaCollectionBuilder<>(codec).createCollection(name, collectionType, size, mediaJSON.toString());
+    }
+
+    /**
+     * Copy the next array verbatim without parsing its elements.
+     * @return the number of elements in the array
+     */
+    private static int captureArray(JSONTokener tokener, StringBuilder out) {
+        expect(tokener, '[');
+        out.append('[');
+        int depth = 1;
+        int separators = 0;
+        boolean sawElement = false;
+        while (depth > 0) {
+            final char next = tokener.next();
+            if (next == 0) {
+                throw tokener.syntaxError("Unterminated array");
+            }
+            out.append(next);
+            if (depth == 1 && next != ']' && next != ',' && !Character.isWhitespace(next)) {
+                sawElement = true;
+            }
+            switch (next) {
+                case '"' -> captureString(tokener, out);
+                case '[', '{' -> depth++;
+                case ']', '}' -> depth--;
+                case ',' -> {
+                    if (depth == 1) {
+                        separators++;
+                    }
+                }
+                default -> {
+                    // other characters are copied as they are
+                }
+            }
+        }
+        int result = 0;
+        if (sawElement) {
+            result = separators + 1;
+        }
+        return result;
+    }
+
+    private static void captureString(JSONTokener tokener, StringBuilder out) {
+        char next = tokener.next();
+        while (next != '"') {
+            if (next == 0) {
+                throw tokener.syntaxError("Unterminated string");
+            }
+            out.append(next);
+            if (next == '\\') {
+                out.append(tokener.next());
+            }
+            next = tokener.next();
+        }
+        out.append(next);
+    }
+
+    private static String readKey(JSONTokener tokener) {
+        expect(tokener, '"');
+        final String key = tokener.nextString('"');
+        expect(tokener, ':');
+        return key;
+    }
+
+    private static void expect(JSONTokener tokener, char expected) {
+        if (tokener.nextClean() != expected) {
+            throw tokener.syntaxError("Expected '" + expected + "'");
+        }
+    }
+
+    /**
+     * Consume the closing character if the object or array is empty.
+     */
+    private static boolean isEmpty(JSONTokener tokener, char closing) {
+        final boolean result = tokener.nextClean() == closing;
+        if (!result) {
+            tokener.back();
+        }
+        return result;
+    }
+
+    /**
+     * Consume the separator after a member, returning whether another member follows.
+     */
+    private static boolean hasMore(JSONTokener tokener, char closing) {
+        final char next = tokener.nextClean();
+        if (next != ',' && next != closing) {
+            throw tokener.syntaxError("Expected ',' or '" + closing + "'");
+        }
+        return next == ',';
+    }
+}
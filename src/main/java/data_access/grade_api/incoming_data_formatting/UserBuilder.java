@@ -6,10 +6,10 @@ import java.util.List;
 import org.json.JSONArray;
 import org.json.JSONObject;
 
+import data_access.grade_api.codec.MediaCodec;
+import data_access.grade_api.codec.MediaCodecRegistry;
 import entity.AbstractMedia;
 import entity.MediaCollection;
-import entity.Movie;
-import entity.Television;
 import entity.User;
 
 /**
@@ -37,17 +37,9 @@ public class UserBuilder {
         }
         for (int i = 0; i < collections.length(); i++) {
             final JSONObject collectionJSON = collections.getJSONObject(i);
-            switch (collectionJSON.getString("mediaType")) {
-                case "entity.Movie" -> {
-                    final MediaCollectionBuilder<Movie> movieBuilder = new MediaCollectionBuilder<>(Movie.class);
-                    mediaCollections.add(movieBuilder.createCollection(collectionJSON));
-                }
-                case "entity.Television" -> {
-                    final MediaCollectionBuilder<Television> tvBuilder = new MediaCollectionBuilder<>(Television.class);
-                    mediaCollections.add(tvBuilder.createCollection(collectionJSON));
-                }
-                default -> throw new UnsupportedOperationException("Unsupported entity type.");
-            }
+            final MediaCodec<? extends AbstractMedia> codec =
+                    MediaCodecRegistry.getDefault().forTypeName(collectionJSON.getString("mediaType"));
+            mediaCollections.add(new MediaCollectionBuilder<>(codec).createCollection(collectionJSON));
         }
         user.setMediaCollections(mediaCollections);
         return user;
@@ -0,0 +1,34 @@
+package data_access.grade_api.incoming_data_formatting;
+
+import entity.User;
+
+/**
+ * A decoded Grade API response to a user lookup.
+ */
+public class UserResponse {
+    private final int statusCode;
+    private final String message;
+    private final User user;
+
+    public UserResponse(int statusCode, String message, User user) {
+        this.statusCode = statusCode;
+        this.message = message;
+        this.user = user;
+    }
+
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    /**
+     * Return the user in the response.
+     * @return the user, or null if the response does not contain one
+     */
+    public User getUser() {
+        return user;
+    }
+}
@@ -1,12 +1,12 @@
 package data_access.grade_api.outgoing_data_formatting;
 
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 import org.json.JSONArray;
 import org.json.JSONObject;
 
+import data_access.grade_api.codec.MediaCodec;
+import data_access.grade_api.codec.MediaCodecRegistry;
 import entity.AbstractMedia;
 import entity.MediaCollection;
 
@@ -14,12 +14,14 @@ import entity.MediaCollection;
  * A builder for creating a JSON array of media collections.
  */
 public class CollectionJSONBuilder {
-    private final Map<String, AbstractMediaJSONBuilder> builders = new HashMap<>();
+    private final MediaCodecRegistry codecs;
 
     public CollectionJSONBuilder() {
-        builders.put("entity.Movie", new MovieJSONBuilder());
-        builders.put("entity.Television", new TelevisionJSONBuilder());
-        // Add other media type builders here
+        this(MediaCodecRegistry.getDefault());
+    }
+
+    public CollectionJSONBuilder(MediaCodecRegistry codecs) {
+        this.codecs = codecs;
     }
 
     /**
@@ -45,18 +47,18 @@ public class CollectionJSONBuilder {
      * @return the JSON object representing the media collection
      * @throws UnsupportedOperationException if the media type is not supported
      */
-    private JSONObject buildMediaCollection(MediaCollection<
-            ? extends AbstractMedia> mediaCollection)
+    private <T extends AbstractMedia> JSONObject buildMediaCollection(MediaCollection<T> mediaCollection)
             throws UnsupportedOperationException {
+        final MediaCodec<T> codec = codecs.forType(mediaCollection.getMediaType());
         final JSONObject collectionJSON = new JSONObject();
 
         collectionJSON.put("name", mediaCollection.getName());
         collectionJSON.put("collectionType", mediaCollection.getCollectionType());
-        final String mediaType = mediaCollection.getMediaType().getName();
-        collectionJSON.put("mediaType", mediaType);
-        final JSONArray mediaJSONArray = new JSONArray();
-        for (AbstractMedia media : mediaCollection) {
-            mediaJSONArray.put(builders.get(mediaType).buildJSON(media));
+        collectionJSON.put("mediaType", codec.getTypeName());
+        final List<T> mediaList = mediaCollection.peekMediaList();
+        final JSONArray mediaJSONArray = new JSONArray(mediaList.size());
+        for (T media : mediaList) {
+            mediaJSONArray.put(codec.encode(media));
         }
         collectionJSON.put("media", mediaJSONArray);
         return collectionJSON;
@@ -0,0 +1,108 @@
+package data_access.grade_api.outgoing_data_formatting;
+
+import java.util.List;
+
+import org.json.JSONException;
+import org.json.JSONWriter;
+
+import data_access.grade_api.codec.MediaCodec;
+import data_access.grade_api.codec.MediaCodecRegistry;
+import entity.AbstractMedia;
+import entity.MediaCollection;
+
+/**
+ * A streaming encoder for media collections.
+ *
+ * <p>Unlike {@link CollectionJSONBuilder}, no {@code JSONObject} tree or intermediate string is built: each
+ * media item is written straight to the given {@link Appendable}, e.g. a writer over an HTTP request body or
+ * a reused {@link StringBuilder}. Memory use therefore does not grow with the size of the library.</p>
+ */
+public class StreamingCollectionWriter {
+    private static final String USERNAME = "username";
+    private static final String PASSWORD = "password";
+    private static final String INFO = "info";
+    private final MediaCodecRegistry codecs;
+
+    public StreamingCollectionWriter() {
+        this(MediaCodecRegistry.getDefault());
+    }
+
+    public StreamingCollectionWriter(MediaCodecRegistry codecs) {
+        this.codecs = codecs;
+    }
+
+    /**
+     * Writes the body of a Grade API user info update: the credentials and the user's media collections.
+     *
+     * @param username the username of the user
+     * @param password the password of the user
+     * @param mediaCollections the media collections to write
+     * @param out where to write the JSON text
+     * @throws JSONException if writing to the output fails
+     * @throws UnsupportedOperationException if the media type is not supported
+     */
+    public void writeUserInfo(String username, String password,
+                              List<MediaCollection<? extends AbstractMedia>> mediaCollections, Appendable out)
+            throws JSONException {
+        final JSONWriter writer = new JSONWriter(out);
+        writer.object();
+        writer.key(USERNAME).value(username);
+        writer.key(PASSWORD).value(password);
+        writer.key(INFO);
+        writeMediaCollections(mediaCollections, writer);
+        writer.endObject();
+    }
+
+    /**
+     * Writes a JSON array of media collections, in the same format as {@link CollectionJSONBuilder}.
+     *
+     * @param mediaCollections the media collections to write
+     * @param out where to write the JSON text
+     * @throws JSONException if writing to the output fails
+     * @throws UnsupportedOperationException if the media type is not supported
+     */
+    public void writeMediaCollections(List<MediaCollection<? extends AbstractMedia>> mediaCollections,
+                                      Appendable out) throws JSONException {
+        writeMediaCollections(mediaCollections, new JSONWriter(out));
+    }
+
+    /**
+     * Returns the JSON text of the media collections, written into the given buffer. The buffer is cleared
+     * first, so a caller encoding many collections can reuse one buffer.
+     *
+     * @param mediaCollections the media collections to write
+     * @param buffer the buffer to write into
+     * @return the JSON text
+     * @throws UnsupportedOperationException if the media type is not supported
+     */
+    public String toJSONString(List<MediaCollection<? extends AbstractMedia>> mediaCollections,
+                               StringBuilder buffer) {
+        buffer.setLength(0);
+        writeMediaCollections(mediaCollections, buffer);
+        return buffer.toString();
+    }
+
+    private void writeMediaCollections(List<MediaCollection<? extends AbstractMedia>> mediaCollections,
+                                       JSONWriter writer) {
+        writer.array();
+        for (MediaCollection<? extends AbstractMedia> mediaCollection : mediaCollections) {
+            writeMediaCollection(mediaCollection, writer);
+        }
+        writer.endArray();
+    }
+
+    private <T extends AbstractMedia> void writeMediaCollection(MediaCollection<T> mediaCollection,
+                                                                JSONWriter writer) {
+        final MediaCodec<T> codec = codecs.forType(mediaCollection.getMediaType());
+        writer.object();
+        writer.key("name").value(mediaCollection.getName());
+        writer.key("collectionType").value(mediaCollection.getCollectionType());
+        writer.key("mediaType").value(codec.getTypeName());
+        writer.key("media").array();
+        for (T media : mediaCollection.peekMediaList()) {
+            codec.write(media, writer);
+        }
+        writer.endArray();
+        writer.endObject();
+    }
+}
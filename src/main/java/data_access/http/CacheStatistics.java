@@ -0,0 +1,63 @@
+package data_access.http;
+
+/**
+ * A snapshot of the response cache statistics of an {@link HttpTransport}.
+ */
+public class CacheStatistics {
+    private final int requestCount;
+    private final int hitCount;
+    private final int networkCount;
+    private final long size;
+    private final long maxSize;
+
+    public CacheStatistics(int requestCount, int hitCount, int networkCount, long size, long maxSize) {
+        this.requestCount = requestCount;
+        this.hitCount = hitCount;
+        this.networkCount = networkCount;
+        this.size = size;
+        this.maxSize = maxSize;
+    }
+
+    public int getRequestCount() {
+        return requestCount;
+    }
+
+    /**
+     * Return the number of responses served by the cache, including stale entries the server confirmed
+     * to be unchanged.
+     * @return the number of cache hits
+     */
+    public int getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * Return the number of requests the cache could not answer.
+     * @return the number of cache misses
+     */
+    public int getMissCount() {
+        return Math.max(0, requestCount - hitCount);
+    }
+
+    public int getNetworkCount() {
+        return networkCount;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    public long getMaxSize() {
+        return maxSize;
+    }
+
+    @Override
+    public String toString() {
+        return "requests=" + requestCount
+                + ", hits=" + hitCount
+                + ", misses=" + getMissCount()
+                + ", network=" + networkCount
+                + ", size=" + size
+                + ", maxSize=" + maxSize;
+    }
+}
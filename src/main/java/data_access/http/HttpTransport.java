@@ -0,0 +1,487 @@
+package data_access.http;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.net.InetSocketAddress;
+import java.io.InterruptedIOException;
+import java.net.Proxy;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.jetbrains.annotations.NotNull;
+
+import okhttp3.Cache;
+import okhttp3.Call;
+import okhttp3.Connection;
+import okhttp3.ConnectionPool;
+import okhttp3.EventListener;
+import okhttp3.HttpUrl;
+import okhttp3.Interceptor;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.Buffer;
+import okio.BufferedSource;
+import okio.ForwardingSource;
+import okio.Okio;
+import okio.Source;
+
+/**
+ * A shared HTTP transport for every external API used by the program.
+ *
+ * <p>One instance owns a single {@link OkHttpClient}, so all DAOs using it share the same connection pool,
+ * TLS sessions and dispatcher threads instead of paying a full handshake on every call. HTTP/2 is
+ * negotiated where the server offers it.</p>
+ *
+ * <p>Optionally, responses are kept in an on-disk cache with a size cap and least-recently-used eviction.
+ * Stale entries are revalidated with a conditional request where the server supports it. Query parameters
+ * holding credentials can be left out of the cache key, and responses from selected hosts can be cached
+ * for a fixed time regardless of their own cache headers.</p>
+ *
+ * <p>A request tagged with a {@link RateLimiter} waits for a permit before it goes to the network. Requests
+ * answered from the cache do not.</p>
+ */
+public final class HttpTransport {
+    private static final int DEFAULT_MAX_IDLE_CONNECTIONS = 8;
+    private static final Duration DEFAULT_KEEP_ALIVE = Duration.ofMinutes(5);
+    private static final Duration DEFAULT_TIMEOUT = Duration.ofSeconds(10);
+    private static final long DEFAULT_MAX_BODY_BYTES = 16L * 1024 * 1024;
+    private static HttpTransport defaultTransport;
+
+    private final OkHttpClient client;
+    private final ConnectionPool connectionPool;
+    private final Cache cache;
+    private final long maxBodyBytes;
+    private final AtomicLong callsStarted = new AtomicLong();
+    private final AtomicLong connectionsAcquired = new AtomicLong();
+    private final AtomicLong connectionsOpened = new AtomicLong();
+
+    private HttpTransport(Builder builder) {
+        this.connectionPool = new ConnectionPool(builder.maxIdleConnections,
+                builder.keepAlive.toMillis(), TimeUnit.MILLISECONDS);
+        this.maxBodyBytes = builder.maxBodyBytes;
+        final OkHttpClient.Builder clientBuilder = new OkHttpClient.Builder()
+                .connectionPool(connectionPool)
+                .protocols(List.of(Protocol.HTTP_2, Protocol.HTTP_1_1))
+                .connectTimeout(builder.timeout)
+                .readTimeout(builder.timeout)
+                .writeTimeout(builder.timeout)
+                .addInterceptor(new HostTimeoutInterceptor(new HashMap<>(builder.hostTimeouts)))
+                .addNetworkInterceptor(new NetworkInterceptor(new HashMap<>(builder.cacheTtls)))
+                .eventListener(new StatisticsListener());
+        if (builder.cacheDirectory != null) {
+            this.cache = new Cache(builder.cacheDirectory.toFile(), builder.cacheMaxBytes);
+            clientBuilder.cache(cache)
+                    .addInterceptor(new CacheKeyInterceptor(new HashSet<>(builder.uncachedQueryParameters)));
+        }
+        else {
+            this.cache = null;
+        }
+        this.client = clientBuilder.build();
+    }
+
+    /**
+     * Return the transport shared by DAOs that were not given one explicitly.
+     * @return the process-wide default transport
+     */
+    public static synchronized HttpTransport getDefault() {
+        if (defaultTransport == null) {
+            defaultTransport = new Builder().build();
+        }
+        return defaultTransport;
+    }
+
+    /**
+     * Prepare a call for the given request on the shared client.
+     * @param request the request to make
+     * @return a call ready to be executed
+     */
+    public Call newCall(Request request) {
+        return client.newCall(request);
+    }
+
+    /**
+     * Execute the given request synchronously on the shared client.
+     * @param request the request to make
+     * @return the response; the caller is responsible for closing it
+     * @throws IOException if the request could not be executed
+     */
+    public Response execute(Request request) throws IOException {
+        return client.newCall(request).execute();
+    }
+
+    /**
+     * Read a response body as a string, refusing bodies larger than the configured limit.
+     * @param body the response body to read
+     * @return the decoded body
+     * @throws IOException if the body could not be read or exceeds the size limit
+     */
+    public String readBody(ResponseBody body) throws IOException {
+        if (body.contentLength() > maxBodyBytes) {
+            throw new IOException("Response body of " + body.contentLength()
+                    + " bytes exceeds the limit of " + maxBodyBytes + " bytes.");
+        }
+        final BufferedSource source = body.source();
+        if (source.request(maxBodyBytes + 1)) {
+            throw new IOException("Response body exceeds the limit of " + maxBodyBytes + " bytes.");
+        }
+        return source.readString(charsetOf(body));
+    }
+
+    /**
+     * Open a response body as a character stream for incremental parsing. The size limit is enforced
+     * while the body is read, so the body is never buffered as a whole.
+     * @param body the response body to read
+     * @return a reader over the decoded body; closing the response closes it
+     * @throws IOException if the body is known to exceed the size limit
+     */
+    public Reader openReader(ResponseBody body) throws IOException {
+        if (body.contentLength() > maxBodyBytes) {
+            throw new IOException("Response body of " + body.contentLength()
+                    + " bytes exceeds the limit of " + maxBodyBytes + " bytes.");
+        }
+        final BufferedSource limited = Okio.buffer(new LimitedSource(body.source(), maxBodyBytes));
+        return new InputStreamReader(limited.inputStream(), charsetOf(body));
+    }
+
+    /**
+     * Return a snapshot of the connection pool statistics, used to confirm that connections are reused.
+     * @return the current pool statistics
+     */
+    public PoolStatistics getPoolStatistics() {
+        return new PoolStatistics(
+                connectionPool.connectionCount(),
+                connectionPool.idleConnectionCount(),
+                callsStarted.get(),
+                connectionsAcquired.get(),
+                connectionsOpened.get());
+    }
+
+    /**
+     * Return a snapshot of the response cache statistics. All counts are zero when caching is disabled.
+     * @return the current cache statistics
+     */
+    public CacheStatistics getCacheStatistics() {
+        CacheStatistics result = new CacheStatistics(0, 0, 0, 0, 0);
+        if (cache != null) {
+            long size;
+            try {
+                size = cache.size();
+            }
+            catch (IOException ex) {
+                size = -1;
+            }
+            result = new CacheStatistics(cache.requestCount(), cache.hitCount(), cache.networkCount(),
+                    size, cache.maxSize());
+        }
+        return result;
+    }
+
+    /**
+     * Return the maximum response body size accepted by this transport.
+     * @return the maximum number of bytes read from a response body
+     */
+    public long getMaxBodyBytes() {
+        return maxBodyBytes;
+    }
+
+    /**
+     * Close idle connections and stop the dispatcher threads. In-flight calls are allowed to finish.
+     */
+    public void shutdown() {
+        client.dispatcher().executorService().shutdown();
+        connectionPool.evictAll();
+        if (cache != null) {
+            try {
+                cache.close();
+            }
+            catch (IOException ex) {
+                // the cache journal is rebuilt from the entries on disk when the cache is next opened
+            }
+        }
+    }
+
+    private static Charset charsetOf(ResponseBody body) {
+        Charset charset = StandardCharsets.UTF_8;
+        final MediaType contentType = body.contentType();
+        if (contentType != null) {
+            charset = contentType.charset(StandardCharsets.UTF_8);
+        }
+        return charset;
+    }
+
+    /**
+     * Fails once more than the given number of bytes have been read.
+     */
+    private static final class LimitedSource extends ForwardingSource {
+        private final long limit;
+        private long bytesRead;
+
+        LimitedSource(Source delegate, long limit) {
+            super(delegate);
+            this.limit = limit;
+        }
+
+        @Override
+        public long read(@NotNull Buffer sink, long byteCount) throws IOException {
+            final long read = super.read(sink, byteCount);
+            if (read > 0) {
+                bytesRead += read;
+                if (bytesRead > limit) {
+                    throw new IOException("Response body exceeds the limit of " + limit + " bytes.");
+                }
+            }
+            return read;
+        }
+    }
+
+    /**
+     * Applies per-host timeouts on top of the client defaults.
+     */
+    private static final class HostTimeoutInterceptor implements Interceptor {
+        private final Map<String, Duration> hostTimeouts;
+
+        HostTimeoutInterceptor(Map<String, Duration> hostTimeouts) {
+            this.hostTimeouts = hostTimeouts;
+        }
+
+        @NotNull
+        @Override
+        public Response intercept(@NotNull Chain chain) throws IOException {
+            final Duration timeout = hostTimeouts.get(chain.request().url().host());
+            Chain timedChain = chain;
+            if (timeout != null) {
+                final int millis = (int) timeout.toMillis();
+                timedChain = chain.withConnectTimeout(millis, TimeUnit.MILLISECONDS)
+                        .withReadTimeout(millis, TimeUnit.MILLISECONDS)
+                        .withWriteTimeout(millis, TimeUnit.MILLISECONDS);
+            }
+            return timedChain.proceed(chain.request());
+        }
+    }
+
+    /**
+     * The URL a request was made with, and the URL its response is cached under.
+     */
+    private record CacheKey(HttpUrl original, HttpUrl cached) {
+    }
+
+    /**
+     * Rewrites the request URL into its cache key before the cache is consulted: the excluded query
+     * parameters are removed and the rest are sorted by name.
+     */
+    private static final class CacheKeyInterceptor implements Interceptor {
+        private final Set<String> excludedParameters;
+
+        CacheKeyInterceptor(Set<String> excludedParameters) {
+            this.excludedParameters = excludedParameters;
+        }
+
+        @NotNull
+        @Override
+        public Response intercept(@NotNull Chain chain) throws IOException {
+            final Request request = chain.request();
+            final HttpUrl original = request.url();
+            final HttpUrl.Builder cached = original.newBuilder().query(null);
+            for (String name : new TreeSet<>(original.queryParameterNames())) {
+                if (!excludedParameters.contains(name)) {
+                    for (String value : original.queryParameterValues(name)) {
+                        cached.addQueryParameter(name, value);
+                    }
+                }
+            }
+            final HttpUrl cacheUrl = cached.build();
+            return chain.proceed(request.newBuilder()
+                    .url(cacheUrl)
+                    .tag(CacheKey.class, new CacheKey(original, cacheUrl))
+                    .build());
+        }
+    }
+
+    /**
+     * Runs for requests which reach the network: restores the URL hidden by {@link CacheKeyInterceptor},
+     * waits for the request's rate limit, and applies the cache lifetime configured for the host.
+     */
+    private static final class NetworkInterceptor implements Interceptor {
+        private static final int NOT_MODIFIED = 304;
+        private final Map<String, Duration> cacheTtls;
+
+        NetworkInterceptor(Map<String, Duration> cacheTtls) {
+            this.cacheTtls = cacheTtls;
+        }
+
+        @NotNull
+        @Override
+        public Response intercept(@NotNull Chain chain) throws IOException {
+            final Request request = chain.request();
+            Request networkRequest = request;
+            final CacheKey cacheKey = request.tag(CacheKey.class);
+            if (cacheKey != null && cacheKey.cached().equals(request.url())) {
+                networkRequest = request.newBuilder().url(cacheKey.original()).build();
+            }
+            final RateLimiter rateLimiter = request.tag(RateLimiter.class);
+            if (rateLimiter != null) {
+                try {
+                    rateLimiter.acquire();
+                }
+                catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("Interrupted while waiting for the rate limit.");
+                }
+            }
+            final Response networkResponse = chain.proceed(networkRequest);
+            // report the cache key URL, so the response is stored under it
+            final Response.Builder response = networkResponse.newBuilder().request(request);
+            final Duration ttl = cacheTtls.get(request.url().host());
+            if (ttl != null && (networkResponse.isSuccessful() || networkResponse.code() == NOT_MODIFIED)) {
+                response.removeHeader("Pragma")
+                        .header("Cache-Control", "public, max-age=" + ttl.toSeconds());
+            }
+            return response.build();
+        }
+    }
+
+    /**
+     * Counts calls, acquired connections and newly opened connections.
+     */
+    private final class StatisticsListener extends EventListener {
+        @Override
+        public void callStart(@NotNull Call call) {
+            callsStarted.incrementAndGet();
+        }
+
+        @Override
+        public void connectionAcquired(@NotNull Call call, @NotNull Connection connection) {
+            connectionsAcquired.incrementAndGet();
+        }
+
+        @Override
+        public void connectStart(@NotNull Call call, @NotNull InetSocketAddress inetSocketAddress,
+                                 @NotNull Proxy proxy) {
+            connectionsOpened.incrementAndGet();
+        }
+    }
+
+    /**
+     * Builder for {@link HttpTransport}.
+     */
+    public static final class Builder {
+        private int maxIdleConnections = DEFAULT_MAX_IDLE_CONNECTIONS;
+        private Duration keepAlive = DEFAULT_KEEP_ALIVE;
+        private Duration timeout = DEFAULT_TIMEOUT;
+        private long maxBodyBytes = DEFAULT_MAX_BODY_BYTES;
+        private Path cacheDirectory;
+        private long cacheMaxBytes;
+        private final Map<String, Duration> hostTimeouts = new HashMap<>();
+        private final Map<String, Duration> cacheTtls = new HashMap<>();
+        private final Set<String> uncachedQueryParameters = new HashSet<>();
+
+        /**
+         * Set the number of idle connections kept in the pool.
+         * @param connections the maximum number of idle connections
+         * @return this builder
+         */
+        public Builder maxIdleConnections(int connections) {
+            this.maxIdleConnections = connections;
+            return this;
+        }
+
+        /**
+         * Set how long an idle connection is kept alive in the pool.
+         * @param duration the keep-alive duration
+         * @return this builder
+         */
+        public Builder keepAlive(Duration duration) {
+            this.keepAlive = duration;
+            return this;
+        }
+
+        /**
+         * Set the default connect, read and write timeout.
+         * @param duration the default timeout
+         * @return this builder
+         */
+        public Builder timeout(Duration duration) {
+            this.timeout = duration;
+            return this;
+        }
+
+        /**
+         * Set the connect, read and write timeout used for a single host.
+         * @param host the host name, e.g. api.themoviedb.org
+         * @param duration the timeout for that host
+         * @return this builder
+         */
+        public Builder hostTimeout(String host, Duration duration) {
+            this.hostTimeouts.put(host, duration);
+            return this;
+        }
+
+        /**
+         * Set the largest response body that will be read.
+         * @param bytes the maximum number of bytes
+         * @return this builder
+         */
+        public Builder maxBodyBytes(long bytes) {
+            this.maxBodyBytes = bytes;
+            return this;
+        }
+
+        /**
+         * Keep responses in an on-disk cache. The least recently used entries are evicted once the cache
+         * grows beyond its size cap.
+         * @param directory the directory holding the cache, used by this transport only
+         * @param maxBytes the size cap of the cache
+         * @return this builder
+         */
+        public Builder cache(Path directory, long maxBytes) {
+            this.cacheDirectory = directory;
+            this.cacheMaxBytes = maxBytes;
+            return this;
+        }
+
+        /**
+         * Cache successful responses from a host for a fixed time, overriding the host's cache headers.
+         * Only has an effect when a cache is configured.
+         * @param host the host name, e.g. api.themoviedb.org
+         * @param ttl how long a response is served from the cache before it is revalidated
+         * @return this builder
+         */
+        public Builder cacheTtl(String host, Duration ttl) {
+            this.cacheTtls.put(host, ttl);
+            return this;
+        }
+
+        /**
+         * Leave a query parameter out of the cache key, e.g. one holding an API key.
+         * @param name the query parameter name
+         * @return this builder
+         */
+        public Builder excludeFromCacheKey(String name) {
+            this.uncachedQueryParameters.add(name);
+            return this;
+        }
+
+        /**
+         * Build the transport.
+         * @return a new transport
+         */
+        public HttpTransport build() {
+            return new HttpTransport(this);
+        }
+    }
+}
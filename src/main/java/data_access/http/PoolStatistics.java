@@ -0,0 +1,58 @@
+package data_access.http;
+
+/**
+ * A snapshot of the connection pool statistics of an {@link HttpTransport}.
+ */
+public class PoolStatistics {
+    private final int connectionCount;
+    private final int idleConnectionCount;
+    private final long callCount;
+    private final long acquiredConnectionCount;
+    private final long openedConnectionCount;
+
+    public PoolStatistics(int connectionCount, int idleConnectionCount, long callCount,
+                          long acquiredConnectionCount, long openedConnectionCount) {
+        this.connectionCount = connectionCount;
+        this.idleConnectionCount = idleConnectionCount;
+        this.callCount = callCount;
+        this.acquiredConnectionCount = acquiredConnectionCount;
+        this.openedConnectionCount = openedConnectionCount;
+    }
+
+    public int getConnectionCount() {
+        return connectionCount;
+    }
+
+    public int getIdleConnectionCount() {
+        return idleConnectionCount;
+    }
+
+    public long getCallCount() {
+        return callCount;
+    }
+
+    public long getAcquiredConnectionCount() {
+        return acquiredConnectionCount;
+    }
+
+    public long getOpenedConnectionCount() {
+        return openedConnectionCount;
+    }
+
+    /**
+     * Return the number of times a pooled connection was reused instead of opening a new one.
+     * @return the number of reused connections
+     */
+    public long getReusedConnectionCount() {
+        return Math.max(0, acquiredConnectionCount - openedConnectionCount);
+    }
+
+    @Override
+    public String toString() {
+        return "connections=" + connectionCount
+                + ", idle=" + idleConnectionCount
+                + ", calls=" + callCount
+                + ", opened=" + openedConnectionCount
+                + ", reused=" + getReusedConnectionCount();
+    }
+}
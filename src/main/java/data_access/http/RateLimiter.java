@@ -0,0 +1,45 @@
+package data_access.http;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Spaces out calls to an external API so that no more than the given number start per second,
+ * however many threads are making them.
+ */
+public final class RateLimiter {
+    private static final double NANOS_PER_SECOND = 1_000_000_000.0;
+    private final long intervalNanos;
+    private long nextPermit = System.nanoTime();
+
+    /**
+     * Creates a rate limiter.
+     * @param permitsPerSecond the number of calls allowed per second
+     * @throws IllegalArgumentException if the rate is not positive
+     */
+    public RateLimiter(double permitsPerSecond) {
+        if (permitsPerSecond <= 0) {
+            throw new IllegalArgumentException("The rate must be positive.");
+        }
+        this.intervalNanos = (long) (NANOS_PER_SECOND / permitsPerSecond);
+    }
+
+    /**
+     * Block until the caller may make its call.
+     * @throws InterruptedException if the thread was interrupted while waiting
+     */
+    public void acquire() throws InterruptedException {
+        final long wait;
+        synchronized (this) {
+            final long now = System.nanoTime();
+            long permit = nextPermit;
+            if (permit - now < 0) {
+                permit = now;
+            }
+            nextPermit = permit + intervalNanos;
+            wait = permit - now;
+        }
+        if (wait > 0) {
+            TimeUnit.NANOSECONDS.sleep(wait);
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package data_access.movies;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import data_access.TextNormalizer;
+import entity.Movie;
+import entity.Rating;
+import entity.Television;
+import use_case.generate_recommendations.MovieBatchResult;
+import use_case.generate_recommendations.MovieDBDataAccessInterface;
+
+/**
+ * A movie DAO which keeps the most recently looked up movies in memory, in front of another movie DAO.
+ *
+ * <p>Looking up a batch of titles, e.g. to prefetch recommended movies, fills the cache, so a later lookup
+ * of one of those titles is answered without a call to TMDB. Titles are compared after the same
+ * normalization as TMDB title lookups. Callers receive copies of the cached movies, so setting a user
+ * rating on a returned movie does not change the cache.</p>
+ */
+public class CachingMovieDataAccessObject implements MovieDBDataAccessInterface {
+    private static final int DEFAULT_CAPACITY = 500;
+    private final MovieDBDataAccessInterface delegate;
+    private final Map<String, Movie> movies;
+
+    public CachingMovieDataAccessObject(MovieDBDataAccessInterface delegate) {
+        this(delegate, DEFAULT_CAPACITY);
+    }
+
+    public CachingMovieDataAccessObject(MovieDBDataAccessInterface delegate, int capacity) {
+        this.delegate = delegate;
+        this.movies = new LinkedHashMap<>(capacity, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Movie> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    @Override
+    public Movie getMovie(String movieName) throws MovieDBDataAccessException {
+        Movie movie = cached(movieName);
+        if (movie == null) {
+            movie = delegate.getMovie(movieName);
+            cache(movieName, movie);
+        }
+        return copy(movie);
+    }
+
+    /**
+     * Look up the titles which are not cached in a single batch through the wrapped DAO, and cache the
+     * movies found.
+     *
+     * @param movieNames The names of the movies to be looked up.
+     * @return the movies found and the per-title failures, in request order.
+     */
+    @Override
+    public MovieBatchResult getMovies(List<String> movieNames) {
+        final Map<String, Movie> found = new LinkedHashMap<>();
+        final List<String> missing = new ArrayList<>();
+        for (String movieName : movieNames) {
+            final Movie movie = cached(movieName);
+            if (movie == null) {
+                missing.add(movieName);
+            }
+            else {
+                found.put(movieName, movie);
+            }
+        }
+        Map<String, String> failures = Map.of();
+        if (!missing.isEmpty()) {
+            final MovieBatchResult fetched = delegate.getMovies(missing);
+            fetched.getMovies().forEach(this::cache);
+            found.putAll(fetched.getMovies());
+            failures = fetched.getFailures();
+        }
+        // restore request order, and hand out copies
+        final Map<String, Movie> movies = new LinkedHashMap<>();
+        for (String movieName : movieNames) {
+            final Movie movie = found.get(movieName);
+            if (movie != null) {
+                movies.put(movieName, copy(movie));
+            }
+        }
+        return new MovieBatchResult(movies, failures);
+    }
+
+    /**
+     * Return whether the movie with the given title is cached.
+     * @param movieName The name of the movie.
+     * @return true if a lookup of the title would not reach the wrapped DAO
+     */
+    public boolean isCached(String movieName) {
+        return cached(movieName) != null;
+    }
+
+    /**
+     * Look up a TV show through the wrapped DAO. TV shows are not cached.
+     *
+     * @param showName The name of the TV show to be looked up.
+     * @return the show's genres, cast, rating, description, and seasons.
+     * @throws MovieDBDataAccessException if the show can not be looked up.
+     */
+    @Override
+    public Television getTelevision(String showName) throws MovieDBDataAccessException {
+        return delegate.getTelevision(showName);
+    }
+
+    @Override
+    public void setApiKey(String apikey) {
+        delegate.setApiKey(apikey);
+    }
+
+    private Movie cached(String movieName) {
+        synchronized (movies) {
+            return movies.get(TextNormalizer.normalize(movieName));
+        }
+    }
+
+    private void cache(String movieName, Movie movie) {
+        synchronized (movies) {
+            movies.put(TextNormalizer.normalize(movieName), movie);
+        }
+    }
+
+    private static Movie copy(Movie movie) {
+        return new Movie(movie.getName(), new ArrayList<>(movie.getGenres()), new Rating(movie.getUserRating()),
+                new Rating(movie.getExternalRating()), movie.getDescription(),
+                new ArrayList<>(movie.getCastMembers()), movie.getMinuteRuntime());
+    }
+}
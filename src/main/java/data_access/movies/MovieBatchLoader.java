@@ -0,0 +1,134 @@
+package data_access.movies;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import entity.Movie;
+import use_case.generate_recommendations.MovieBatchResult;
+
+/**
+ * Looks up a batch of movie titles, or any other batch of TMDB lookups, with at most a fixed number of
+ * lookups in flight at once. A failed lookup is recorded with its reason and does not stop the rest of
+ * the batch.
+ */
+public final class MovieBatchLoader {
+    private final MovieLookup lookup;
+    private final int concurrency;
+
+    /**
+     * Looks up a single movie.
+     */
+    @FunctionalInterface
+    public interface MovieLookup {
+        /**
+         * Look up a single movie.
+         * @param movieName the title to look up
+         * @return the movie
+         * @throws MovieDBDataAccessException if the movie could not be looked up
+         */
+        Movie getMovie(String movieName) throws MovieDBDataAccessException;
+    }
+
+    /**
+     * Looks up a single item of a batch.
+     * @param <K> the type of the keys looked up
+     * @param <V> the type of the values found
+     */
+    @FunctionalInterface
+    public interface Lookup<K, V> {
+        /**
+         * Look up a single item.
+         * @param key the key to look up
+         * @return the value found
+         * @throws MovieDBDataAccessException if the item could not be looked up
+         */
+        V get(K key) throws MovieDBDataAccessException;
+    }
+
+    /**
+     * Creates a batch loader.
+     * @param lookup how to look up a single title
+     * @param concurrency the maximum number of lookups in flight at once
+     * @throws IllegalArgumentException if the concurrency is not positive
+     */
+    public MovieBatchLoader(MovieLookup lookup, int concurrency) {
+        if (concurrency < 1) {
+            throw new IllegalArgumentException("The concurrency limit must be at least 1.");
+        }
+        this.lookup = lookup;
+        this.concurrency = concurrency;
+    }
+
+    /**
+     * Look up every title. Duplicate titles are looked up once.
+     * @param movieNames the titles to look up
+     * @return the movies found and the per-title failures, in request order
+     */
+    public MovieBatchResult load(List<String> movieNames) {
+        final Map<String, String> failures = new LinkedHashMap<>();
+        final Map<String, Movie> movies = loadEach(movieNames, lookup::getMovie, failures);
+        return new MovieBatchResult(movies, failures);
+    }
+
+    /**
+     * Run a lookup for every key, with the same concurrency limit as title lookups. Duplicate keys are
+     * looked up once.
+     * @param keys the keys to look up
+     * @param keyLookup how to look up a single key
+     * @param failures receives the reason each failed key could not be looked up
+     * @param <K> the type of the keys looked up
+     * @param <V> the type of the values found
+     * @return the value found for each key which did not fail, in request order
+     */
+    public <K, V> Map<K, V> loadEach(List<K> keys, Lookup<K, V> keyLookup, Map<K, String> failures) {
+        final List<K> distinctKeys = new ArrayList<>(new LinkedHashSet<>(keys));
+        final Map<K, V> result = new LinkedHashMap<>();
+        if (!distinctKeys.isEmpty()) {
+            final ExecutorService executor = newExecutor(Math.min(concurrency, distinctKeys.size()));
+            try {
+                final List<Future<V>> lookups = new ArrayList<>(distinctKeys.size());
+                for (K key : distinctKeys) {
+                    lookups.add(executor.submit(() -> keyLookup.get(key)));
+                }
+                for (int i = 0; i < distinctKeys.size(); i++) {
+                    collect(distinctKeys.get(i), lookups.get(i), result, failures);
+                }
+            }
+            finally {
+                executor.shutdownNow();
+            }
+        }
+        return result;
+    }
+
+    private static <K, V> void collect(K key, Future<V> lookup, Map<K, V> values, Map<K, String> failures) {
+        try {
+            values.put(key, lookup.get());
+        }
+        catch (ExecutionException ex) {
+            failures.put(key, String.valueOf(ex.getCause().getMessage()));
+        }
+        catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            lookup.cancel(true);
+            failures.put(key, "Interrupted before the lookup finished.");
+        }
+    }
+
+    private static ExecutorService newExecutor(int threads) {
+        final AtomicInteger threadCount = new AtomicInteger();
+        return Executors.newFixedThreadPool(threads, runnable -> {
+            final Thread thread = new Thread(runnable, "movie-batch-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+}
@@ -0,0 +1,248 @@
+package data_access.movies;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import data_access.TextNormalizer;
+import entity.Movie;
+import entity.Television;
+import use_case.generate_recommendations.MovieBatchResult;
+import use_case.generate_recommendations.MovieDBDataAccessInterface;
+
+/**
+ * A movie DAO which answers lookups from a local catalog built by {@link MovieCatalogImporter}.
+ *
+ * <p>The catalog files are memory-mapped, so opening a catalog does not read it, and a lookup only
+ * touches the index pages of a binary search and the record found. Titles are compared after the same
+ * normalization as TMDB title lookups.</p>
+ *
+ * <p>Titles missing from the catalog are looked up through the wrapped DAO, if there is one. Without a
+ * wrapped DAO, the catalog is the only source, which makes this a complete offline movie DAO.</p>
+ */
+public class MovieCatalog implements MovieDBDataAccessInterface {
+    private final MovieDBDataAccessInterface delegate;
+    private final ByteBuffer data;
+    private final ByteBuffer index;
+    private final int titleCount;
+    private final int idCount;
+
+    /**
+     * Opens the catalog in the given directory.
+     * @param catalogDirectory the directory the catalog was imported into
+     * @param delegate the DAO for titles missing from the catalog, or null to only use the catalog
+     * @throws IOException if the catalog could not be read, or was written by an incompatible version
+     */
+    public MovieCatalog(Path catalogDirectory, MovieDBDataAccessInterface delegate) throws IOException {
+        this.delegate = delegate;
+        this.data = map(catalogDirectory.resolve(MovieCatalogFormat.DATA_FILE));
+        this.index = map(catalogDirectory.resolve(MovieCatalogFormat.INDEX_FILE));
+        if (data.remaining() < MovieCatalogFormat.DATA_HEADER_BYTES
+                || index.remaining() < MovieCatalogFormat.INDEX_HEADER_BYTES
+                || data.getInt(0) != MovieCatalogFormat.DATA_MAGIC
+                || data.getInt(Integer.BYTES) != MovieCatalogFormat.FORMAT_VERSION
+                || index.getInt(0) != MovieCatalogFormat.INDEX_MAGIC
+                || index.getInt(Integer.BYTES) != MovieCatalogFormat.FORMAT_VERSION) {
+            throw new IOException("Not a movie catalog, or written by an incompatible version.");
+        }
+        if (data.getLong(MovieCatalogFormat.GENERATION_OFFSET) != index.getLong(MovieCatalogFormat.GENERATION_OFFSET)) {
+            throw new IOException("The movie catalog's index and data are from different imports; import it again.");
+        }
+        this.titleCount = index.getInt(MovieCatalogFormat.TITLE_COUNT_OFFSET);
+        this.idCount = index.getInt(MovieCatalogFormat.ID_COUNT_OFFSET);
+        final long entries = (long) titleCount + idCount;
+        if (titleCount < 0 || idCount < 0
+                || MovieCatalogFormat.INDEX_HEADER_BYTES + entries * MovieCatalogFormat.ENTRY_BYTES
+                    > index.remaining()) {
+            throw new IOException("Truncated movie catalog index.");
+        }
+    }
+
+    /**
+     * Return whether a catalog has been imported into the given directory.
+     * @param catalogDirectory the directory to check
+     * @return true if both catalog files exist
+     */
+    public static boolean exists(Path catalogDirectory) {
+        return Files.isRegularFile(catalogDirectory.resolve(MovieCatalogFormat.DATA_FILE))
+                && Files.isRegularFile(catalogDirectory.resolve(MovieCatalogFormat.INDEX_FILE));
+    }
+
+    /**
+     * Return the number of distinct titles in the catalog.
+     * @return the number of titles
+     */
+    public int size() {
+        return titleCount;
+    }
+
+    /**
+     * Return the movie with the given title from the catalog only.
+     * @param movieName the title to look up
+     * @return the movie, or empty if the catalog does not hold it
+     */
+    public Optional<Movie> find(String movieName) {
+        final String key = TextNormalizer.normalize(movieName);
+        final long offset = search(MovieCatalogFormat.INDEX_HEADER_BYTES, titleCount,
+                MovieCatalogFormat.hash(key));
+        Optional<Movie> result = Optional.empty();
+        if (offset >= 0) {
+            final Movie movie = readMovie(offset);
+            // distinct titles may share a hash; only a matching title counts as a hit
+            if (TextNormalizer.normalize(movie.getName()).equals(key)) {
+                result = Optional.of(movie);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Return the movie with the given TMDB ID from the catalog only.
+     * @param movieID the TMDB ID to look up
+     * @return the movie, or empty if the catalog does not hold it
+     */
+    public Optional<Movie> findById(int movieID) {
+        final long offset = search(MovieCatalogFormat.INDEX_HEADER_BYTES
+                + (long) titleCount * MovieCatalogFormat.ENTRY_BYTES, idCount, movieID);
+        Optional<Movie> result = Optional.empty();
+        if (offset >= 0) {
+            result = Optional.of(readMovie(offset));
+        }
+        return result;
+    }
+
+    /**
+     * Pass every distinct title in the catalog to the consumer, in index order.
+     * @param consumer the consumer of the movies
+     */
+    public void forEachMovie(Consumer<? super Movie> consumer) {
+        for (int i = 0; i < titleCount; i++) {
+            final int entry = (int) (MovieCatalogFormat.INDEX_HEADER_BYTES + (long) i * MovieCatalogFormat.ENTRY_BYTES);
+            consumer.accept(readMovie(index.getLong(entry + Long.BYTES)));
+        }
+    }
+
+    @Override
+    public Movie getMovie(String movieName) throws MovieDBDataAccessException {
+        final Optional<Movie> movie = find(movieName);
+        final Movie result;
+        if (movie.isPresent()) {
+            result = movie.get();
+        }
+        else if (delegate != null) {
+            result = delegate.getMovie(movieName);
+        }
+        else {
+            throw new MovieDBDataAccessException("No movie found for " + movieName + ".");
+        }
+        return result;
+    }
+
+    /**
+     * Answer the titles held by the catalog, and look up the rest in a single batch through the wrapped DAO.
+     *
+     * @param movieNames The names of the movies to be looked up.
+     * @return the movies found and the per-title failures, in request order.
+     */
+    @Override
+    public MovieBatchResult getMovies(List<String> movieNames) {
+        final Map<String, Movie> found = new LinkedHashMap<>();
+        final List<String> missing = new ArrayList<>();
+        for (String movieName : movieNames) {
+            final Optional<Movie> movie = find(movieName);
+            if (movie.isPresent()) {
+                found.put(movieName, movie.get());
+            }
+            else {
+                missing.add(movieName);
+            }
+        }
+        final Map<String, String> failures = new LinkedHashMap<>();
+        if (delegate != null && !missing.isEmpty()) {
+            final MovieBatchResult fetched = delegate.getMovies(missing);
+            found.putAll(fetched.getMovies());
+            failures.putAll(fetched.getFailures());
+        }
+        else {
+            missing.forEach(movieName -> failures.put(movieName, "No movie found for " + movieName + "."));
+        }
+        final Map<String, Movie> movies = new LinkedHashMap<>();
+        for (String movieName : movieNames) {
+            final Movie movie = found.get(movieName);
+            if (movie != null) {
+                movies.put(movieName, movie);
+            }
+        }
+        return new MovieBatchResult(movies, failures);
+    }
+
+    /**
+     * Look up a TV show through the wrapped DAO. The catalog only holds movies.
+     *
+     * @param showName The name of the TV show to be looked up.
+     * @return the show's genres, cast, rating, description, and seasons.
+     * @throws MovieDBDataAccessException if there is no wrapped DAO, or the show can not be looked up.
+     */
+    @Override
+    public Television getTelevision(String showName) throws MovieDBDataAccessException {
+        if (delegate == null) {
+            throw new MovieDBDataAccessException("The movie catalog does not hold TV shows.");
+        }
+        return delegate.getTelevision(showName);
+    }
+
+    @Override
+    public void setApiKey(String apikey) {
+        if (delegate != null) {
+            delegate.setApiKey(apikey);
+        }
+    }
+
+    private static ByteBuffer map(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+    }
+
+    /**
+     * Binary search a section of sorted index entries for a key.
+     * @return the data offset of the matching entry, or -1 if there is none
+     */
+    private long search(long sectionStart, int count, long key) {
+        int low = 0;
+        int high = count - 1;
+        long result = -1;
+        while (low <= high && result < 0) {
+            final int middle = (low + high) >>> 1;
+            final int entry = (int) (sectionStart + (long) middle * MovieCatalogFormat.ENTRY_BYTES);
+            final long entryKey = index.getLong(entry);
+            if (entryKey < key) {
+                low = middle + 1;
+            }
+            else if (entryKey > key) {
+                high = middle - 1;
+            }
+            else {
+                result = index.getLong(entry + Long.BYTES);
+            }
+        }
+        return result;
+    }
+
+    private Movie readMovie(long offset) {
+        if (offset > data.limit()) {
+            throw new IllegalStateException("Movie catalog index points past the end of the data file.");
+        }
+        // absolute reads on a duplicate, so concurrent lookups do not share a position
+        return MovieCatalogFormat.readMovie(data.duplicate().position((int) offset));
+    }
+}
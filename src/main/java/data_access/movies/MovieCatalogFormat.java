@@ -0,0 +1,126 @@
+package data_access.movies;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import entity.Movie;
+import entity.Rating;
+
+/**
+ * The binary layout of a local movie catalog, shared by {@link MovieCatalogImporter} and {@link MovieCatalog}.
+ *
+ * <p>A catalog is two files. The data file holds a header followed by one record per movie: TMDB ID, title,
+ * overview, external rating, runtime, genres and cast. The index file holds a header, the number of title
+ * entries and ID entries, the title entries sorted by title hash, and the ID entries sorted by ID. Every
+ * entry is a key and the offset of its record in the data file, both 8 bytes. Strings are stored as a
+ * length followed by UTF-8 bytes, and all numbers are big-endian.</p>
+ *
+ * <p>Both headers hold the magic number, the format version and the generation of the import which wrote
+ * them. The two files are replaced one after the other, so a catalog whose headers hold different
+ * generations was left half-replaced by a failed import, and is not used.</p>
+ */
+final class MovieCatalogFormat {
+    static final String DATA_FILE = "movies.dat";
+    static final String INDEX_FILE = "movies.idx";
+    static final int DATA_MAGIC = 0x4D434454;
+    static final int INDEX_MAGIC = 0x4D434958;
+    static final int FORMAT_VERSION = 2;
+    static final int ENTRY_BYTES = 16;
+    static final int GENERATION_OFFSET = 8;
+    static final int DATA_HEADER_BYTES = 16;
+    static final int TITLE_COUNT_OFFSET = 16;
+    static final int ID_COUNT_OFFSET = 20;
+    static final int INDEX_HEADER_BYTES = 24;
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private MovieCatalogFormat() {
+        throw new IllegalStateException("Utility class.");
+    }
+
+    /**
+     * Return the 64-bit FNV-1a hash of a normalized title, used as its index key.
+     * @param normalizedTitle the title, normalized as by {@link data_access.TextNormalizer#normalize(String)}
+     * @return the title hash
+     */
+    static long hash(String normalizedTitle) {
+        long hash = FNV_OFFSET_BASIS;
+        for (byte b : normalizedTitle.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= FNV_PRIME;
+        }
+        return hash;
+    }
+
+    static void writeMovie(DataOutputStream out, int movieID, Movie movie) throws IOException {
+        out.writeInt(movieID);
+        writeString(out, movie.getName());
+        writeString(out, movie.getDescription());
+        out.writeInt(movie.getExternalRating());
+        out.writeInt(movie.getMinuteRuntime());
+        writeStringList(out, movie.getGenres());
+        writeStringList(out, movie.getCastMembers());
+    }
+
+    /**
+     * Decode the record at the buffer's position.
+     * @param buffer the data file, positioned at a record
+     * @return the movie
+     * @throws IllegalStateException if the record is truncated
+     */
+    static Movie readMovie(ByteBuffer buffer) {
+        try {
+            buffer.getInt();
+            final String name = readString(buffer);
+            final String description = readString(buffer);
+            final Rating externalRating = new Rating(buffer.getInt());
+            final int runtime = buffer.getInt();
+            final List<String> genres = readStringList(buffer);
+            final List<String> cast = readStringList(buffer);
+            return new Movie(name, genres, new Rating(-1), externalRating, description, cast, runtime);
+        }
+        catch (BufferUnderflowException ex) {
+            throw new IllegalStateException("Truncated record in movie catalog.");
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        final byte[] encoded = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(encoded.length);
+        out.write(encoded);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        final int length = buffer.getInt();
+        if (length < 0 || length > buffer.remaining()) {
+            throw new BufferUnderflowException();
+        }
+        final byte[] encoded = new byte[length];
+        buffer.get(encoded);
+        return new String(encoded, StandardCharsets.UTF_8);
+    }
+
+    private static void writeStringList(DataOutputStream out, List<String> values) throws IOException {
+        out.writeInt(values.size());
+        for (String value : values) {
+            writeString(out, value);
+        }
+    }
+
+    private static List<String> readStringList(ByteBuffer buffer) {
+        final int size = buffer.getInt();
+        if (size < 0 || size > buffer.remaining()) {
+            throw new BufferUnderflowException();
+        }
+        final List<String> result = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            result.add(readString(buffer));
+        }
+        return result;
+    }
+}
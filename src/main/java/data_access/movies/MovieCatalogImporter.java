@@ -0,0 +1,240 @@
+package data_access.movies;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import data_access.TextNormalizer;
+import entity.Movie;
+
+/**
+ * Builds a local movie catalog from TMDB-style JSON, for {@link MovieCatalog} to serve offline.
+ *
+ * <p>A source is either a directory of {@code .json} files holding one movie each, or a line-delimited
+ * dump holding one movie per line. Each movie is a TMDB movie details response, with its credits appended
+ * under {@code credits} if the cast is wanted. When several movies share a title, the most popular one
+ * is the one found by title, as with a TMDB search; all of them can still be found by ID.</p>
+ *
+ * <p>Records are written as they are read, so only the index entries are held in memory during an
+ * import.</p>
+ */
+public final class MovieCatalogImporter {
+    private static final String CREDITS = "credits";
+    private static final String POPULARITY = "popularity";
+
+    private MovieCatalogImporter() {
+        throw new IllegalStateException("Utility class.");
+    }
+
+    /**
+     * The index entry of a title: the record offset, and the popularity used to pick between movies
+     * with the same title.
+     */
+    private record TitleEntry(long offset, double popularity) {
+    }
+
+    /**
+     * The result of an import.
+     * @param imported the number of movies written to the catalog
+     * @param skipped the number of records which could not be read as a movie
+     */
+    public record ImportSummary(int imported, int skipped) {
+    }
+
+    /**
+     * Build a catalog in the given directory, replacing any catalog already there.
+     * @param catalogDirectory the directory to write the catalog to
+     * @param sources the directories and line-delimited dumps to import
+     * @return the number of movies imported and skipped
+     * @throws IOException if a source could not be read or the catalog could not be written
+     */
+    public static ImportSummary importCatalog(Path catalogDirectory, List<Path> sources) throws IOException {
+        Files.createDirectories(catalogDirectory);
+        final Map<Long, TitleEntry> titles = new HashMap<>();
+        final Map<Integer, Long> ids = new HashMap<>();
+        final int[] counts = new int[2];
+        // stamped into both files, so a catalog left half-replaced by a failed import is not opened
+        final long generation = new SecureRandom().nextLong();
+        final Path data = Files.createTempFile(catalogDirectory, "movies", ".tmp");
+        Path index = null;
+        try {
+            try (DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(data)))) {
+                out.writeInt(MovieCatalogFormat.DATA_MAGIC);
+                out.writeInt(MovieCatalogFormat.FORMAT_VERSION);
+                out.writeLong(generation);
+                for (Path source : sources) {
+                    addRecords(out, source, titles, ids, counts);
+                }
+            }
+            index = Files.createTempFile(catalogDirectory, "movies", ".tmp");
+            writeIndex(index, generation, titles, ids);
+            Files.move(data, catalogDirectory.resolve(MovieCatalogFormat.DATA_FILE),
+                    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            Files.move(index, catalogDirectory.resolve(MovieCatalogFormat.INDEX_FILE),
+                    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+        finally {
+            deleteTemporary(data);
+            deleteTemporary(index);
+        }
+        return new ImportSummary(counts[0], counts[1]);
+    }
+
+    /**
+     * Import movies into a catalog from the command line.
+     * @param args the catalog directory, followed by the sources to import
+     * @throws IOException if the import failed
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.out.println("Usage: MovieCatalogImporter <catalog directory> <source>...");
+        }
+        else {
+            final List<Path> sources = new ArrayList<>();
+            for (int i = 1; i < args.length; i++) {
+                sources.add(Path.of(args[i]));
+            }
+            final ImportSummary summary = importCatalog(Path.of(args[0]), sources);
+            System.out.println("Imported " + summary.imported() + " movies, skipped " + summary.skipped()
+                    + " unreadable records.");
+        }
+    }
+
+    /**
+     * Return the JSON records of a source: one per file of a directory, or one per line of a dump. Records
+     * are read as the stream is consumed, so only one is held in memory at a time. A file which can not be
+     * read fails the stream with an {@link UncheckedIOException}.
+     */
+    private static Stream<String> readRecords(Path source) throws IOException {
+        final Stream<String> result;
+        if (Files.isDirectory(source)) {
+            final Stream<Path> listing = Files.list(source);
+            result = listing.filter(path -> path.toString().endsWith(".json"))
+                    .sorted(Comparator.naturalOrder())
+                    .map(MovieCatalogImporter::readFile)
+                    .onClose(listing::close);
+        }
+        else {
+            final BufferedReader reader = Files.newBufferedReader(source);
+            result = reader.lines().filter(line -> !line.isBlank()).onClose(() -> {
+                try {
+                    reader.close();
+                }
+                catch (IOException ex) {
+                    // nothing more to read
+                }
+            });
+        }
+        return result;
+    }
+
+    private static String readFile(Path file) {
+        try {
+            return Files.readString(file);
+        }
+        catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    /**
+     * Write the movies of a source to the data file, counting the records imported and skipped.
+     */
+    private static void addRecords(DataOutputStream out, Path source, Map<Long, TitleEntry> titles,
+                                   Map<Integer, Long> ids, int[] counts) throws IOException {
+        try (Stream<String> records = readRecords(source)) {
+            for (String record : (Iterable<String>) records::iterator) {
+                if (addRecord(out, record, titles, ids)) {
+                    counts[0]++;
+                }
+                else {
+                    counts[1]++;
+                }
+            }
+        }
+        catch (UncheckedIOException ex) {
+            throw ex.getCause();
+        }
+    }
+
+    /**
+     * Delete a temporary file left behind by an import, if it is still there.
+     */
+    private static void deleteTemporary(Path file) {
+        if (file != null) {
+            try {
+                Files.deleteIfExists(file);
+            }
+            catch (IOException ex) {
+                System.out.println("Could not delete " + file + ": " + ex.getMessage());
+            }
+        }
+    }
+
+    private static boolean addRecord(DataOutputStream out, String record, Map<Long, TitleEntry> titles,
+                                     Map<Integer, Long> ids) throws IOException {
+        boolean added = false;
+        try {
+            final JSONObject details = new JSONObject(record);
+            final int movieID = details.getInt("id");
+            List<String> cast = List.of();
+            if (details.has(CREDITS)) {
+                cast = MovieJSONFormat.parseCast(details.getJSONObject(CREDITS));
+            }
+            final Movie movie = MovieJSONFormat.parseMovie(details, cast);
+            if (out.size() == Integer.MAX_VALUE) {
+                throw new IOException("The movie catalog can not grow beyond 2 GB.");
+            }
+            final long offset = out.size();
+            MovieCatalogFormat.writeMovie(out, movieID, movie);
+            ids.putIfAbsent(movieID, offset);
+            final TitleEntry entry = new TitleEntry(offset, details.optDouble(POPULARITY, 0));
+            titles.merge(MovieCatalogFormat.hash(TextNormalizer.normalize(movie.getName())), entry,
+                (existing, candidate) -> candidate.popularity() > existing.popularity() ? candidate : existing);
+            added = true;
+        }
+        catch (JSONException ex) {
+            // not a movie; counted as skipped
+        }
+        return added;
+    }
+
+    private static void writeIndex(Path index, long generation, Map<Long, TitleEntry> titles,
+                                   Map<Integer, Long> ids) throws IOException {
+        final List<Map.Entry<Long, TitleEntry>> titleEntries = new ArrayList<>(titles.entrySet());
+        titleEntries.sort(Map.Entry.comparingByKey());
+        final List<Map.Entry<Integer, Long>> idEntries = new ArrayList<>(ids.entrySet());
+        idEntries.sort(Map.Entry.comparingByKey());
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(index)))) {
+            out.writeInt(MovieCatalogFormat.INDEX_MAGIC);
+            out.writeInt(MovieCatalogFormat.FORMAT_VERSION);
+            out.writeLong(generation);
+            out.writeInt(titleEntries.size());
+            out.writeInt(idEntries.size());
+            for (Map.Entry<Long, TitleEntry> entry : titleEntries) {
+                out.writeLong(entry.getKey());
+                out.writeLong(entry.getValue().offset());
+            }
+            for (Map.Entry<Integer, Long> entry : idEntries) {
+                out.writeLong(entry.getKey());
+                out.writeLong(entry.getValue());
+            }
+        }
+    }
+}
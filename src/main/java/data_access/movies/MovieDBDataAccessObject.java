@@ -1,15 +1,45 @@
 package data_access.movies;
 
 import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.Reader;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalInt;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
 
 import org.jetbrains.annotations.NotNull;
+import org.json.JSONArray;
+import org.json.JSONException;
 import org.json.JSONObject;
+import org.json.JSONTokener;
 
+import data_access.http.HttpTransport;
+import data_access.http.RateLimiter;
 import entity.Movie;
-import okhttp3.OkHttpClient;
+import entity.Television;
+import okhttp3.Call;
+import okhttp3.HttpUrl;
 import okhttp3.Request;
 import okhttp3.Response;
+import use_case.generate_recommendations.MovieBatchResult;
 import use_case.generate_recommendations.MovieDBDataAccessInterface;
+import use_case.refresh_ratings.RatingChanges;
+import use_case.refresh_ratings.RatingRefreshDataAccessInterface;
+import use_case.search.SearchDataAccessInterface;
+import use_case.search.SearchResultPage;
 
 /**
  * The DAO for TMDB, responsible for getting information about movies and shows.
@@ -17,71 +47,403 @@ import use_case.generate_recommendations.MovieDBDataAccessInterface;
  *  * <a href= "https://developer.themoviedb.org/docs/getting-started">
  *  the documentation</a>
  * for more details.
+ *
+ * <p>Every lookup of a single movie has a latency budget shared by all of its requests. A lookup which has
+ * not finished within the budget fails instead of holding up the caller.</p>
+ *
+ * <p>Batches of titles are looked up concurrently, up to a fixed limit. All requests made by one DAO share
+ * a rate limit, which keeps large batches below TMDB's request rate limit.</p>
+ *
+ * <p>The seasons of a TV show are fetched concurrently, up to a fixed limit, so a long-running show does
+ * not cost one round trip after another.</p>
+ *
+ * <p>Refreshing external ratings reads TMDB's feed of changed movies, and fetches ratings past the HTTP
+ * cache, so that only movies which actually changed cost a request.</p>
  */
-public class MovieDBDataAccessObject implements MovieDBDataAccessInterface {
+public class MovieDBDataAccessObject implements MovieDBDataAccessInterface, RatingRefreshDataAccessInterface,
+        SearchDataAccessInterface {
 
-    private static final String MESSAGE = "message";
+    private static final String STATUS_MESSAGE = "status_message";
     private static final String ACCEPT = "accept";
     private static final String CONTENT_TYPE = "application/json";
     private static final String AUTHORIZATION = "Authorization";
     private static final String BEARER = "Bearer ";
+    private static final Duration DEFAULT_LATENCY_BUDGET = Duration.ofSeconds(5);
+    private static final int DEFAULT_BATCH_CONCURRENCY = 8;
+    private static final double DEFAULT_REQUESTS_PER_SECOND = 40;
+    private static final int DEFAULT_SEASON_CONCURRENCY = 6;
+    private static final String MOVIE = "movie";
+    private static final String TV = "tv";
+    private static final String CACHE_CONTROL = "Cache-Control";
+    private static final String NO_CACHE = "no-cache";
+    private static final Duration CHANGE_FEED_WINDOW = Duration.ofDays(14);
+    private static final Duration MOVIE_ID_TTL = Duration.ofDays(7);
+    private static final Duration MOVIE_NOT_FOUND_TTL = Duration.ofHours(1);
+    private final HttpTransport transport;
+    private final Duration latencyBudget;
+    private final MovieBatchLoader batchLoader;
+    private final RateLimiter rateLimiter;
+    private final int seasonConcurrency;
+    private final MovieIdCache movieIdCache = new MovieIdCache(MOVIE_ID_TTL, MOVIE_NOT_FOUND_TTL);
+    private final MovieIdCache showIdCache = new MovieIdCache(MOVIE_ID_TTL, MOVIE_NOT_FOUND_TTL);
     private String apiKey;
 
+    public MovieDBDataAccessObject() {
+        this(HttpTransport.getDefault());
+    }
+
+    public MovieDBDataAccessObject(HttpTransport transport) {
+        this(transport, DEFAULT_LATENCY_BUDGET);
+    }
+
+    public MovieDBDataAccessObject(HttpTransport transport, Duration latencyBudget) {
+        this(transport, latencyBudget, DEFAULT_BATCH_CONCURRENCY, DEFAULT_REQUESTS_PER_SECOND);
+    }
+
+    public MovieDBDataAccessObject(HttpTransport transport, Duration latencyBudget, int batchConcurrency,
+                                   double requestsPerSecond) {
+        this(transport, latencyBudget, batchConcurrency, requestsPerSecond, DEFAULT_SEASON_CONCURRENCY);
+    }
+
+    public MovieDBDataAccessObject(HttpTransport transport, Duration latencyBudget, int batchConcurrency,
+                                   double requestsPerSecond, int seasonConcurrency) {
+        if (seasonConcurrency < 1) {
+            throw new IllegalArgumentException("The season concurrency limit must be at least 1.");
+        }
+        this.transport = transport;
+        this.seasonConcurrency = seasonConcurrency;
+        this.latencyBudget = latencyBudget;
+        this.batchLoader = new MovieBatchLoader(this::getMovie, batchConcurrency);
+        this.rateLimiter = new RateLimiter(requestsPerSecond);
+    }
+
     /**
      * Get the complete details of a movie from TMDB.
+     * The details and the credits are fetched in a single request once the movie's ID is known.
      *
      * @param movieName The name of the movie to be looked up.
      * @return a JSONObject containing the movie genres, cast, runtime, rating, and description.
-     * @throws MovieDBDataAccessException if TMDB API is unsuccessfully called.
+     * @throws MovieDBDataAccessException if TMDB API is unsuccessfully called, or the latency budget ran out.
      */
     public Movie getMovie(String movieName) throws MovieDBDataAccessException {
-        final int movieID = getMovieID(movieName);
-        final JSONObject movieDetails = getMovieDetails(movieID);
-        final JSONObject castDetails = getMovieCast(movieID);
+        final long deadline = System.nanoTime() + latencyBudget.toNanos();
+        final int movieID = getMovieID(movieName, deadline);
+        final StreamingMovieParser.MovieDetails movieDetails = getMovieDetails(movieID, deadline);
+        List<String> castMembers = movieDetails.castMembers();
+        if (castMembers == null) {
+            castMembers = getMovieCast(movieID, deadline);
+        }
+
+        return MovieJSONFormat.parseMovie(movieDetails.details(), castMembers);
+    }
+
+    /**
+     * Get the complete details of a batch of movies from TMDB, looking up several titles at once.
+     *
+     * @param movieNames The names of the movies to be looked up.
+     * @return the movies found and the per-title failures, in request order.
+     */
+    @Override
+    public MovieBatchResult getMovies(List<String> movieNames) {
+        return batchLoader.load(movieNames);
+    }
+
+    /**
+     * Get the complete details of a TV show from TMDB. Once the show's details are known, the details of all
+     * of its seasons are fetched concurrently to count their episodes. The whole lookup shares one latency
+     * budget.
+     *
+     * <p>A season whose details could not be fetched keeps the episode count listed in the show's
+     * details.</p>
+     *
+     * @param showName The name of the TV show to be looked up.
+     * @return the show's genres, cast, rating, description, and the episode count of every season.
+     * @throws MovieDBDataAccessException if TMDB API is unsuccessfully called, or the latency budget ran out.
+     */
+    @Override
+    public Television getTelevision(String showName) throws MovieDBDataAccessException {
+        final long deadline = System.nanoTime() + latencyBudget.toNanos();
+        final OptionalInt showID = showIdCache.resolve(showName, deadline, title -> searchID(TV, title, deadline));
+        if (showID.isEmpty()) {
+            throw new MovieDBDataAccessException("No TV show found for " + showName + ".");
+        }
+        final JSONObject showDetails = getShowDetails(showID.getAsInt(), deadline);
+        final Television television = TelevisionJSONFormat.parseTelevision(showDetails,
+                TelevisionJSONFormat.parseCast(showDetails));
+        television.setSeasonToEpisodeCount(getEpisodeCounts(showID.getAsInt(),
+                TelevisionJSONFormat.parseSeasons(showDetails), deadline));
+        return television;
+    }
 
-        return MovieJSONFormat.parseMovie(movieDetails, castDetails);
+    /**
+     * Get one page of the movies matching a search on TMDB.
+     *
+     * @param query the text to search for.
+     * @param page the page to get, starting at 1.
+     * @return the matches on the page, and the number of pages.
+     * @throws MovieDBDataAccessException if TMDB API is unsuccessfully called, or the latency budget ran out.
+     */
+    @Override
+    public SearchResultPage searchMovies(String query, int page) throws MovieDBDataAccessException {
+        // the query is typed by the user, so let the URL builder escape it
+        final HttpUrl url = HttpUrl.get("https://api.themoviedb.org/3/search/movie").newBuilder()
+                .addQueryParameter("query", query)
+                .addQueryParameter("include_adult", "false")
+                .addQueryParameter("language", "en-US")
+                .addQueryParameter("page", Integer.toString(page))
+                .addQueryParameter("api_key", apiKey)
+                .build();
+        final Request request = new Request.Builder()
+                .url(url)
+                .get()
+                .addHeader(ACCEPT, CONTENT_TYPE)
+                .build();
+        final JSONObject response = getExternalData(request, System.nanoTime() + latencyBudget.toNanos(),
+            reader -> new JSONObject(new JSONTokener(reader)));
+        return MovieJSONFormat.parseSearchResults(query, response);
     }
 
     /**
-     * Get the ID of a movie from TMDB.
+     * Get the movies which changed on TMDB since the watermark, from TMDB's change feed. The feed only
+     * reaches back 14 days and is kept by day, so changes on the watermark's day are included again.
+     *
+     * @param since the watermark of the last refresh, or null if there has not been one.
+     * @return the changed movies, or an incomplete change set if the feed does not reach back to the watermark.
+     * @throws MovieDBDataAccessException if TMDB API is unsuccessfully called.
+     */
+    @Override
+    public RatingChanges getChangedMovies(Instant since) throws MovieDBDataAccessException {
+        final Instant until = Instant.now();
+        final RatingChanges result;
+        if (since == null || since.isBefore(until.minus(CHANGE_FEED_WINDOW))) {
+            result = RatingChanges.incomplete(until);
+        }
+        else {
+            final Set<Integer> movieIDs = new LinkedHashSet<>();
+            int totalPages = 1;
+            for (int page = 1; page <= totalPages; page++) {
+                final Request request = new Request.Builder()
+                        .url("https://api.themoviedb.org/3/movie/changes?start_date="
+                                + since.atOffset(ZoneOffset.UTC).toLocalDate()
+                                + "&end_date=" + until.atOffset(ZoneOffset.UTC).toLocalDate()
+                                + "&page=" + page + "&api_key=" + apiKey)
+                        .get()
+                        .addHeader(ACCEPT, CONTENT_TYPE)
+                        .addHeader(CACHE_CONTROL, NO_CACHE)
+                        .build();
+                final JSONObject response = getExternalData(request, System.nanoTime() + latencyBudget.toNanos(),
+                    reader -> new JSONObject(new JSONTokener(reader)));
+                final JSONArray changes = response.getJSONArray("results");
+                for (int i = 0; i < changes.length(); i++) {
+                    movieIDs.add(changes.getJSONObject(i).getInt("id"));
+                }
+                totalPages = response.optInt("total_pages", page);
+            }
+            result = new RatingChanges(movieIDs, until, true);
+        }
+        return result;
+    }
+
+    @Override
+    public OptionalInt getMovieID(String movieName) throws MovieDBDataAccessException {
+        final long deadline = System.nanoTime() + latencyBudget.toNanos();
+        return movieIdCache.resolve(movieName, deadline, title -> searchID(MOVIE, title, deadline));
+    }
+
+    /**
+     * Get the current external ratings of a batch of movies from TMDB, fetching several at once and
+     * bypassing the HTTP cache. A movie whose rating could not be fetched is left out of the result.
+     *
+     * @param movieIDs the TMDB IDs of the movies.
+     * @return the external rating of each movie, normalized to 0-100, by TMDB ID.
+     */
+    @Override
+    public Map<Integer, Integer> getExternalRatings(List<Integer> movieIDs) {
+        final Map<Integer, String> failures = new LinkedHashMap<>();
+        final Map<Integer, Integer> result = batchLoader.loadEach(movieIDs, this::getExternalRating, failures);
+        failures.forEach((movieID, reason) ->
+                System.out.println("Could not refresh the rating of movie " + movieID + ": " + reason));
+        return result;
+    }
+
+    /**
+     * Get the ID of a movie from TMDB. Titles resolved recently, including those without a match, are
+     * answered from memory, and concurrent lookups of the same title share one search.
      * @param movieName The name of the movie to be looked up.
+     * @param deadline the {@link System#nanoTime()} by which the lookup must have finished.
      * @return TMDB ID of the corresponding movie.
+     * @throws MovieDBDataAccessException if TMDB API is unsuccessfully called, or no movie matches the name.
+     */
+    private int getMovieID(String movieName, long deadline) throws MovieDBDataAccessException {
+        final OptionalInt movieID = movieIdCache.resolve(movieName, deadline,
+            title -> searchID(MOVIE, title, deadline));
+        if (movieID.isEmpty()) {
+            throw new MovieDBDataAccessException("No movie found for " + movieName + ".");
+        }
+        return movieID.getAsInt();
+    }
+
+    /**
+     * Search TMDB for the ID of a movie or TV show.
+     * @param mediaType the kind of media to search for, either "movie" or "tv".
+     * @param name The name of the movie or show to be looked up.
+     * @param deadline the {@link System#nanoTime()} by which the lookup must have finished.
+     * @return TMDB ID of the best match, or empty if there is none.
      * @throws MovieDBDataAccessException if TMDB API is unsuccessfully called.
      */
-    private int getMovieID(String movieName) throws MovieDBDataAccessException {
+    private OptionalInt searchID(String mediaType, String name, long deadline) throws MovieDBDataAccessException {
+        // titles may contain characters such as & or #, so let the URL builder escape them
+        final HttpUrl url = HttpUrl.get("https://api.themoviedb.org/3/search/" + mediaType).newBuilder()
+                .addQueryParameter("query", name)
+                .addQueryParameter("include_adult", "true")
+                .addQueryParameter("language", "en-US")
+                .addQueryParameter("page", "1")
+                .addQueryParameter("api_key", apiKey)
+                .build();
         final Request request = new Request.Builder()
-                .url("https://api.themoviedb.org/3/search/movie?query=" + movieName
-                        + "&include_adult=true&language=en-US&page=1&api_key=" + apiKey)
+                .url(url)
                 .get()
                 .build();
-        final JSONObject responseBody = getExternalData(request);
-        return responseBody.getJSONArray("results").getJSONObject(0).getInt("id");
+        final JSONArray results = getExternalData(request, deadline, reader -> new JSONObject(new JSONTokener(reader)))
+                .getJSONArray("results");
+        OptionalInt result = OptionalInt.empty();
+        if (!results.isEmpty()) {
+            result = OptionalInt.of(results.getJSONObject(0).getInt("id"));
+        }
+        return result;
     }
 
     /**
-     * Get the details of a movie from TMDB.
+     * Get the details of a movie from TMDB, with its credits appended to the response.
      * @param movieID The ID of the movie to be looked up.
-     * @return a JSONObject containing the movie's genres (in a JSONArray),
-     *      its runtime (in minutes), a description, a rating (out of 10.0).
+     * @param deadline the {@link System#nanoTime()} by which the lookup must have finished.
+     * @return the movie's genres (in a JSONArray), its runtime (in minutes), a description, a rating
+     *      (out of 10.0), and its cast members if the credits were included.
      * @throws MovieDBDataAccessException if TMDB API is unsuccessfully called.
      */
-    private JSONObject getMovieDetails(int movieID) throws MovieDBDataAccessException {
+    private StreamingMovieParser.MovieDetails getMovieDetails(int movieID, long deadline)
+            throws MovieDBDataAccessException {
+        final Request request = new Request.Builder()
+                .url("https://api.themoviedb.org/3/movie/" + movieID
+                        + "?append_to_response=credits&language=en-US&api_key=" + apiKey)
+                .get()
+                .addHeader(ACCEPT, CONTENT_TYPE)
+                .addHeader(AUTHORIZATION, BEARER + apiKey)
+                .build();
+        return getExternalData(request, deadline, StreamingMovieParser::parseMovieDetails);
+    }
+
+    /**
+     * Get the current external rating of a movie from TMDB, bypassing the HTTP cache.
+     * @param movieID The ID of the movie to be looked up.
+     * @return the movie's rating, normalized to 0-100.
+     * @throws MovieDBDataAccessException if TMDB API is unsuccessfully called.
+     */
+    private int getExternalRating(int movieID) throws MovieDBDataAccessException {
         final Request request = new Request.Builder()
                 .url("https://api.themoviedb.org/3/movie/" + movieID + "?language=en-US&api_key=" + apiKey)
                 .get()
                 .addHeader(ACCEPT, CONTENT_TYPE)
                 .addHeader(AUTHORIZATION, BEARER + apiKey)
+                .addHeader(CACHE_CONTROL, NO_CACHE)
+                .build();
+        final JSONObject details = getExternalData(request, System.nanoTime() + latencyBudget.toNanos(),
+                StreamingMovieParser::parseMovieDetails).details();
+        return (int) (details.getDouble("vote_average") * 10);
+    }
+
+    /**
+     * Get the details of a TV show from TMDB, with its credits appended to the response.
+     * @param showID The ID of the show to be looked up.
+     * @param deadline the {@link System#nanoTime()} by which the lookup must have finished.
+     * @return the show details response, listing its seasons.
+     * @throws MovieDBDataAccessException if TMDB API is unsuccessfully called.
+     */
+    private JSONObject getShowDetails(int showID, long deadline) throws MovieDBDataAccessException {
+        final Request request = new Request.Builder()
+                .url("https://api.themoviedb.org/3/tv/" + showID
+                        + "?append_to_response=credits&language=en-US&api_key=" + apiKey)
+                .get()
+                .addHeader(ACCEPT, CONTENT_TYPE)
+                .addHeader(AUTHORIZATION, BEARER + apiKey)
+                .build();
+        return getExternalData(request, deadline, reader -> new JSONObject(new JSONTokener(reader)));
+    }
+
+    /**
+     * Fetch the details of every listed season concurrently, and count the episodes of each.
+     * @param showID The ID of the show.
+     * @param listedSeasons the episode counts listed in the show's details, by season number.
+     * @param deadline the {@link System#nanoTime()} by which the lookup must have finished.
+     * @return the episode count of every season, in season order.
+     */
+    private Map<Integer, Integer> getEpisodeCounts(int showID, Map<Integer, Integer> listedSeasons, long deadline) {
+        final Map<Integer, Integer> result = new LinkedHashMap<>(listedSeasons);
+        if (!listedSeasons.isEmpty()) {
+            final ExecutorService executor = newExecutor("tv-season-", Math.min(seasonConcurrency,
+                    listedSeasons.size()));
+            try {
+                final Map<Integer, Future<Integer>> fetches = new LinkedHashMap<>();
+                for (int season : listedSeasons.keySet()) {
+                    fetches.put(season, executor.submit(() -> getEpisodeCount(showID, season, deadline)));
+                }
+                for (Map.Entry<Integer, Future<Integer>> fetch : fetches.entrySet()) {
+                    try {
+                        result.put(fetch.getKey(), fetch.getValue().get());
+                    }
+                    catch (ExecutionException ex) {
+                        System.out.println("Keeping the listed episode count of season " + fetch.getKey()
+                                + ": " + ex.getCause().getMessage());
+                    }
+                    catch (InterruptedException ex) {
+                        Thread.currentThread().interrupt();
+                        fetch.getValue().cancel(true);
+                    }
+                }
+            }
+            finally {
+                executor.shutdownNow();
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Count the episodes of a season from its details on TMDB.
+     * @param showID The ID of the show.
+     * @param season the season number.
+     * @param deadline the {@link System#nanoTime()} by which the lookup must have finished.
+     * @return the number of episodes in the season.
+     * @throws MovieDBDataAccessException if TMDB API is unsuccessfully called.
+     */
+    private int getEpisodeCount(int showID, int season, long deadline) throws MovieDBDataAccessException {
+        final Request request = new Request.Builder()
+                .url("https://api.themoviedb.org/3/tv/" + showID + "/season/" + season
+                        + "?language=en-US&api_key=" + apiKey)
+                .get()
+                .addHeader(ACCEPT, CONTENT_TYPE)
+                .addHeader(AUTHORIZATION, BEARER + apiKey)
                 .build();
-        return getExternalData(request);
+        return getExternalData(request, deadline, StreamingMovieParser::countEpisodes);
+    }
+
+    private static ExecutorService newExecutor(String threadName, int threads) {
+        final AtomicInteger threadCount = new AtomicInteger();
+        return Executors.newFixedThreadPool(threads, runnable -> {
+            final Thread thread = new Thread(runnable, threadName + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
     }
 
     /**
-     * Get the cast of a movie from TMDB.
+     * Get the cast of a movie from TMDB. Only needed when the details response did not include the credits.
      * @param movieID The ID of the movie to be looked up.
-     * @return the JSON response as returned by The Movie Database.
+     * @param deadline the {@link System#nanoTime()} by which the lookup must have finished.
+     * @return the names of the movie's cast members.
      * @throws MovieDBDataAccessException if TMDB API is unsuccessfully called.
      */
-    private JSONObject getMovieCast(int movieID) throws MovieDBDataAccessException {
+    private List<String> getMovieCast(int movieID, long deadline) throws MovieDBDataAccessException {
         final Request request = new Request.Builder()
                 .url("https://api.themoviedb.org/3/movie/" + movieID + "/credits?language=en-US&api_key=" + apiKey)
                 .get()
@@ -89,40 +451,76 @@ public class MovieDBDataAccessObject implements MovieDBDataAccessInterface {
                 .addHeader(AUTHORIZATION, BEARER + apiKey)
                 .build();
 
-        return getExternalData(request);
+        return getExternalData(request, deadline, StreamingMovieParser::parseCast);
     }
 
     /**
-     * A call to TMDB API.
+     * A call to TMDB API, limited to the time left until the deadline.
+     * A successful response is handed to the parser as it is read; the parser need not read all of it.
      *
      * @param request the request for TMDB
-     * @return the JSON response from TMDB
-     * @throws MovieDBDataAccessException the error provided by the API
+     * @param deadline the {@link System#nanoTime()} by which the call must have finished
+     * @param parser reads what is needed from a successful response
+     * @param <T> the type of the parsed response
+     * @return the parsed response from TMDB
+     * @throws MovieDBDataAccessException the error provided by the API, if the response could not be parsed, or
+     *     if the deadline has passed
      */
     @NotNull
-    private JSONObject getExternalData(Request request) throws MovieDBDataAccessException {
-        final OkHttpClient client = new OkHttpClient();
-
-        try (Response response = client.newCall(request).execute()) {
+    private <T> T getExternalData(Request request, long deadline, Function<Reader, T> parser)
+            throws MovieDBDataAccessException {
+        final long remaining = deadline - System.nanoTime();
+        if (remaining <= 0) {
+            throw new MovieDBDataAccessException("TMDB lookup exceeded its latency budget of "
+                    + latencyBudget.toMillis() + " ms.");
+        }
+        // the transport only waits for the rate limit when the response is not cached
+        final Call call = transport.newCall(request.newBuilder().tag(RateLimiter.class, rateLimiter).build());
+        call.timeout().timeout(remaining, TimeUnit.NANOSECONDS);
+        try (Response response = call.execute()) {
             final Request sanitizedRequest = new Request.Builder(request).removeHeader(AUTHORIZATION).build();
             if (response.body() == null) {
                 final String error = "Got a null response while calling TMDB API. "
                         + "Request without authorization: " + sanitizedRequest;
                 throw new MovieDBDataAccessException(error);
             }
-            final JSONObject responseBody = new JSONObject(response.body().string());
+            final Reader reader = transport.openReader(response.body());
             if (response.isSuccessful()) {
-                return responseBody;
+                return parser.apply(reader);
             }
             else {
-                throw new MovieDBDataAccessException(responseBody.getString(MESSAGE));
+                throw new MovieDBDataAccessException(errorMessage(reader, response.code()));
             }
         }
+        catch (JSONException ex) {
+            throw new MovieDBDataAccessException("Could not read the TMDB API response: " + ex.getMessage());
+        }
+        catch (InterruptedIOException ex) {
+            throw new MovieDBDataAccessException("TMDB call timed out within the latency budget of "
+                    + latencyBudget.toMillis() + " ms: " + ex.getMessage());
+        }
         catch (IOException ex) {
             throw new MovieDBDataAccessException("IOException occurred while calling TMDB API: " + ex.getMessage());
         }
     }
 
+    /**
+     * Return the error TMDB gives in the body of an unsuccessful response.
+     * @param reader the response body
+     * @param code the HTTP status code of the response
+     * @return TMDB's status message, or the status code if the body has none
+     */
+    private static String errorMessage(Reader reader, int code) {
+        String result = "TMDB API call failed with HTTP status " + code + ".";
+        try {
+            result = new JSONObject(new JSONTokener(reader)).optString(STATUS_MESSAGE, result);
+        }
+        catch (JSONException ex) {
+            // not a TMDB error body, e.g. from a proxy
+        }
+        return result;
+    }
+
     /**
      * Load the api key to be used for api calls.
      *
@@ -0,0 +1,138 @@
+package data_access.movies;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.OptionalInt;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import data_access.TextNormalizer;
+
+/**
+ * Remembers which TMDB ID a movie title resolved to, including titles which resolved to nothing.
+ *
+ * <p>Titles are compared after normalization, so differences in case, spacing and Unicode form share an
+ * entry. Concurrent lookups of the same title share one search: the first caller runs it, and the others
+ * wait for its result until their own deadline. A failed search is not remembered.</p>
+ */
+final class MovieIdCache {
+    private static final int MAX_ENTRIES = 10_000;
+    private final Map<String, CompletableFuture<Entry>> entries = new ConcurrentHashMap<>();
+    private final Duration foundTtl;
+    private final Duration notFoundTtl;
+
+    /**
+     * Searches TMDB for a title.
+     */
+    @FunctionalInterface
+    interface Search {
+        /**
+         * Search for the ID of a movie.
+         * @param movieName the title to search for
+         * @return the ID of the best match, or empty if there is none
+         * @throws MovieDBDataAccessException if the search failed
+         */
+        OptionalInt search(String movieName) throws MovieDBDataAccessException;
+    }
+
+    /**
+     * A resolved title, and the {@link System#nanoTime()} after which it must be resolved again.
+     */
+    private record Entry(OptionalInt movieID, long expiresAt) {
+        boolean isExpired(long now) {
+            return expiresAt - now < 0;
+        }
+    }
+
+    MovieIdCache(Duration foundTtl, Duration notFoundTtl) {
+        this.foundTtl = foundTtl;
+        this.notFoundTtl = notFoundTtl;
+    }
+
+    /**
+     * Return the ID the title resolves to, running the search only if no valid entry exists and no other
+     * caller is already running it.
+     * @param movieName the title to resolve
+     * @param deadline the {@link System#nanoTime()} after which to stop waiting for another caller's search
+     * @param search how to search for the title
+     * @return the ID of the best match, or empty if there is none
+     * @throws MovieDBDataAccessException if the search failed, or another caller's search did not finish in time
+     */
+    OptionalInt resolve(String movieName, long deadline, Search search) throws MovieDBDataAccessException {
+        final String key = TextNormalizer.normalize(movieName);
+        final CompletableFuture<Entry> pending = new CompletableFuture<>();
+        final CompletableFuture<Entry> shared = entries.compute(key, (title, existing) -> {
+            CompletableFuture<Entry> result = existing;
+            if (existing == null || isStale(existing, System.nanoTime())) {
+                result = pending;
+            }
+            return result;
+        });
+        if (shared == pending) {
+            runSearch(key, movieName, search, pending);
+        }
+        return await(shared, deadline).movieID();
+    }
+
+    private void runSearch(String key, String movieName, Search search, CompletableFuture<Entry> pending) {
+        try {
+            final OptionalInt movieID = search.search(movieName);
+            final Duration ttl;
+            if (movieID.isPresent()) {
+                ttl = foundTtl;
+            }
+            else {
+                ttl = notFoundTtl;
+            }
+            pending.complete(new Entry(movieID, System.nanoTime() + ttl.toNanos()));
+            if (entries.size() > MAX_ENTRIES) {
+                evict();
+            }
+        }
+        catch (MovieDBDataAccessException | RuntimeException ex) {
+            entries.remove(key, pending);
+            pending.completeExceptionally(ex);
+        }
+    }
+
+    private static Entry await(CompletableFuture<Entry> shared, long deadline) throws MovieDBDataAccessException {
+        try {
+            return shared.get(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+        }
+        catch (TimeoutException ex) {
+            throw new MovieDBDataAccessException("Timed out waiting for a TMDB search of the same title.");
+        }
+        catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new MovieDBDataAccessException("Interrupted while waiting for a TMDB search.");
+        }
+        catch (ExecutionException ex) {
+            if (ex.getCause() instanceof MovieDBDataAccessException cause) {
+                throw new MovieDBDataAccessException(cause.getMessage());
+            }
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new MovieDBDataAccessException(String.valueOf(ex.getCause()));
+        }
+    }
+
+    private static boolean isStale(CompletableFuture<Entry> entry, long now) {
+        return entry.isCompletedExceptionally() || entry.isDone() && entry.join().isExpired(now);
+    }
+
+    /**
+     * Drop expired entries, or every resolved entry if that is not enough to get back under the cap.
+     * Searches still running are kept, so their waiting callers are not affected.
+     */
+    private void evict() {
+        final long now = System.nanoTime();
+        entries.values().removeIf(entry -> isStale(entry, now));
+        if (entries.size() > MAX_ENTRIES) {
+            entries.values().removeIf(CompletableFuture::isDone);
+        }
+    }
+}
@@ -8,6 +8,8 @@ import org.json.JSONObject;
 
 import entity.Movie;
 import entity.Rating;
+import use_case.search.SearchResult;
+import use_case.search.SearchResultPage;
 
 /**
  * Utility class to convert between JSON representation of a movie as returned by
@@ -16,7 +18,7 @@ import entity.Rating;
 public final class MovieJSONFormat {
     private static final String GENRES = "genres";
     private static final String RUNTIME = "runtime";
-    private static final int CAST_LIMIT = 5;
+    static final int CAST_LIMIT = 5;
 
     private MovieJSONFormat() {
         throw new IllegalStateException("Utility class.");
@@ -29,6 +31,16 @@ public final class MovieJSONFormat {
      * @return a Movie entity
      */
     public static Movie parseMovie(JSONObject movieDetails, JSONObject movieCast) {
+        return parseMovie(movieDetails, parseCast(movieCast));
+    }
+
+    /**
+     * Return a Movie entity representation of the provided data.
+     * @param movieDetails movie details json response as returned by The Movie Database
+     * @param castMembers the names of the movie's cast members
+     * @return a Movie entity
+     */
+    public static Movie parseMovie(JSONObject movieDetails, List<String> castMembers) {
         final double ratingNormalized = movieDetails.getDouble("vote_average") * 10;
 
         final String name = movieDetails.getString("title");
@@ -36,7 +48,6 @@ public final class MovieJSONFormat {
         final Rating externalRating = new Rating((int) ratingNormalized);
         final Rating userRating = new Rating(-1);
         final String description = movieDetails.getString("overview");
-        final List<String> castMembers = parseCast(movieCast);
         final int minuteRunTime = movieDetails.getInt(RUNTIME);
         return new Movie(name, genres, userRating, externalRating, description, castMembers, minuteRunTime);
     }
@@ -64,11 +75,29 @@ public final class MovieJSONFormat {
         final JSONArray cast = castData.getJSONArray("cast");
         final List<String> parsedCast = new ArrayList<>();
         for (int i = 0; i < cast.length() && parsedCast.size() < CAST_LIMIT; i++) {
-            if (cast.getJSONObject(i).getString("known_for_department").equals("Acting")) {
-                parsedCast.add(cast.getJSONObject(i).getString("name"));
+            final JSONObject castMember = cast.getJSONObject(i);
+            if (castMember.getString("known_for_department").equals("Acting")) {
+                parsedCast.add(castMember.getString("name"));
             }
         }
         return parsedCast;
     }
 
+    /**
+     * Return the page of matches in a search response.
+     * @param query the text searched for
+     * @param searchResponse movie search json response as returned by The Movie Database
+     * @return the matches on the page, and the number of pages
+     */
+    public static SearchResultPage parseSearchResults(String query, JSONObject searchResponse) {
+        final JSONArray results = searchResponse.getJSONArray("results");
+        final List<SearchResult> parsedResults = new ArrayList<>(results.length());
+        for (int i = 0; i < results.length(); i++) {
+            final JSONObject result = results.getJSONObject(i);
+            parsedResults.add(new SearchResult(result.getInt("id"), result.getString("title"),
+                    result.optString("release_date", ""), (int) (result.optDouble("vote_average", 0) * 10)));
+        }
+        final int page = searchResponse.optInt("page", 1);
+        return new SearchResultPage(query, page, searchResponse.optInt("total_pages", page), parsedResults);
+    }
 }
@@ -0,0 +1,71 @@
+package data_access.movies;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+
+import use_case.refresh_ratings.RatingRefreshState;
+import use_case.refresh_ratings.RatingRefreshStateDataAccessInterface;
+
+/**
+ * Keeps the progress of the rating refresh job in a properties file, replaced atomically when saved.
+ */
+public class RatingRefreshStateStore implements RatingRefreshStateDataAccessInterface {
+    private static final String WATERMARK = "watermark.";
+    private static final String MOVIE_ID = "id.";
+    private final Path file;
+
+    public RatingRefreshStateStore(Path file) {
+        this.file = file;
+    }
+
+    @Override
+    public RatingRefreshState load() throws IOException {
+        final Map<String, Instant> watermarks = new HashMap<>();
+        final Map<String, Integer> movieIDs = new HashMap<>();
+        if (Files.isRegularFile(file)) {
+            final Properties properties = new Properties();
+            try (Reader reader = Files.newBufferedReader(file)) {
+                properties.load(reader);
+            }
+            try {
+                for (String key : properties.stringPropertyNames()) {
+                    if (key.startsWith(WATERMARK)) {
+                        watermarks.put(key.substring(WATERMARK.length()), Instant.parse(properties.getProperty(key)));
+                    }
+                    else if (key.startsWith(MOVIE_ID)) {
+                        movieIDs.put(key.substring(MOVIE_ID.length()), Integer.valueOf(properties.getProperty(key)));
+                    }
+                }
+            }
+            catch (DateTimeParseException | NumberFormatException ex) {
+                throw new IOException("Malformed rating refresh state: " + ex.getMessage());
+            }
+        }
+        return new RatingRefreshState(watermarks, movieIDs);
+    }
+
+    @Override
+    public void save(RatingRefreshState state) throws IOException {
+        final Properties properties = new Properties();
+        state.getWatermarks().forEach((username, watermark) ->
+                properties.setProperty(WATERMARK + username, watermark.toString()));
+        state.getMovieIDs().forEach((movieName, movieID) ->
+                properties.setProperty(MOVIE_ID + movieName, movieID.toString()));
+        final Path directory = file.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        final Path temporary = Files.createTempFile(directory, "rating-refresh", ".tmp");
+        try (Writer writer = Files.newBufferedWriter(temporary)) {
+            properties.store(writer, "Rating refresh watermarks and TMDB IDs");
+        }
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
@@ -0,0 +1,282 @@
+package data_access.movies;
+
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.json.JSONTokener;
+
+/**
+ * Pull-based parsing of TMDB movie and TV responses, for when only a few fields of a large response are needed.
+ *
+ * <p>Unlike {@link MovieJSONFormat}, the response is never turned into a {@link JSONObject} as a whole.
+ * Fields which are not needed, such as the {@code crew} array of the credits, are scanned past without
+ * building them, and parsing stops as soon as everything needed has been read, leaving the rest of the
+ * response unread.</p>
+ */
+public final class StreamingMovieParser {
+    private static final String CAST = "cast";
+    private static final String CREDITS = "credits";
+    private static final String NAME = "name";
+    private static final String DEPARTMENT = "known_for_department";
+    private static final String ACTING = "Acting";
+    private static final String EPISODES = "episodes";
+    private static final Set<String> DETAIL_FIELDS = Set.of("title", "overview", "vote_average", "runtime",
+            "genres");
+
+    private StreamingMovieParser() {
+        throw new IllegalStateException("Utility class.");
+    }
+
+    /**
+     * The fields of a movie details response needed to build a movie.
+     * @param details the detail fields, in the form of a TMDB details response
+     * @param castMembers the acting cast members, or null if the response did not include the credits
+     */
+    public record MovieDetails(JSONObject details, List<String> castMembers) {
+    }
+
+    /**
+     * Count the episodes in a TMDB season details response, without building any of them.
+     * @param reader the season details response
+     * @return the number of episodes listed for the season
+     * @throws JSONException if the response is not valid JSON, or does not list the episodes
+     */
+    public static int countEpisodes(Reader reader) throws JSONException {
+        final JSONTokener tokener = new JSONTokener(reader);
+        int result = -1;
+        expect(tokener, '{');
+        boolean more = !isEmpty(tokener, '}');
+        while (more) {
+            final String key = readKey(tokener);
+            if (EPISODES.equals(key)) {
+                result = countElements(tokener);
+            }
+            else {
+                skipValue(tokener);
+            }
+            more = result < 0 && hasMore(tokener, '}');
+        }
+        if (result < 0) {
+            throw new JSONException("Season details without episodes.");
+        }
+        return result;
+    }
+
+    /**
+     * Read the (Acting) cast members from a TMDB credits response, stopping once enough have been read.
+     * @param reader the credits response
+     * @return a list of at most five cast member names
+     * @throws JSONException if the response is not valid JSON
+     */
+    public static List<String> parseCast(Reader reader) throws JSONException {
+        return readCredits(new JSONTokener(reader), false);
+    }
+
+    /**
+     * Read the fields needed to build a movie from a TMDB details response, optionally with the credits
+     * appended to it. Reading stops once all of them have been found.
+     * @param reader the details response
+     * @return the detail fields and the cast members
+     * @throws JSONException if the response is not valid JSON
+     */
+    public static MovieDetails parseMovieDetails(Reader reader) throws JSONException {
+        final JSONTokener tokener = new JSONTokener(reader);
+        final JSONObject details = new JSONObject();
+        List<String> castMembers = null;
+        expect(tokener, '{');
+        boolean more = !isEmpty(tokener, '}');
+        while (more) {
+            final String key = readKey(tokener);
+            if (DETAIL_FIELDS.contains(key)) {
+                details.put(key, tokener.nextValue());
+            }
+            else if (CREDITS.equals(key)) {
+                castMembers = readCredits(tokener, details.length() < DETAIL_FIELDS.size());
+            }
+            else {
+                skipValue(tokener);
+            }
+            more = (castMembers == null || details.length() < DETAIL_FIELDS.size()) && hasMore(tokener, '}');
+        }
+        return new MovieDetails(details, castMembers);
+    }
+
+    /**
+     * Read a credits object up to the end of its cast, or until enough cast members have been found.
+     * @param tokener the tokener positioned at the credits object
+     * @param finish whether to scan to the end of the credits object, so that reading can continue after it;
+     *      otherwise the tokener is left inside the object
+     */
+    private static List<String> readCredits(JSONTokener tokener, boolean finish) {
+        final List<String> result = new ArrayList<>(MovieJSONFormat.CAST_LIMIT);
+        boolean castRead = false;
+        boolean castClosed = false;
+        expect(tokener, '{');
+        boolean more = !isEmpty(tokener, '}');
+        while (more) {
+            final String key = readKey(tokener);
+            if (CAST.equals(key)) {
+                castClosed = readCast(tokener, result);
+                castRead = true;
+            }
+            else {
+                skipValue(tokener);
+            }
+            more = !castRead && hasMore(tokener, '}');
+        }
+        if (finish && castRead) {
+            if (!castClosed) {
+                skipToClose(tokener);
+            }
+            skipToClose(tokener);
+        }
+        return result;
+    }
+
+    /**
+     * Read cast members until the limit is reached.
+     * @return whether the whole cast array was read
+     */
+    private static boolean readCast(JSONTokener tokener, List<String> result) {
+        expect(tokener, '[');
+        boolean more = !isEmpty(tokener, ']');
+        boolean closed = !more;
+        while (more) {
+            final String name = readCastMember(tokener);
+            if (name != null) {
+                result.add(name);
+            }
+            more = result.size() < MovieJSONFormat.CAST_LIMIT;
+            if (more) {
+                more = hasMore(tokener, ']');
+                closed = !more;
+            }
+        }
+        return closed;
+    }
+
+    /**
+     * Read one cast member, returning its name if it is known for acting.
+     */
+    private static String readCastMember(JSONTokener tokener) {
+        String name = null;
+        String department = null;
+        expect(tokener, '{');
+        boolean more = !isEmpty(tokener, '}');
+        while (more) {
+            final String key = readKey(tokener);
+            if (NAME.equals(key)) {
+                name = String.valueOf(tokener.nextValue());
+            }
+            else if (DEPARTMENT.equals(key)) {
+                department = String.valueOf(tokener.nextValue());
+            }
+            else {
+                skipValue(tokener);
+            }
+            more = hasMore(tokener, '}');
+        }
+        String result = null;
+        if (ACTING.equals(department)) {
+            result = name;
+        }
+        return result;
+    }
+
+    /**
+     * Scan past the next value without building it.
+     */
+    private static void skipValue(JSONTokener tokener) {
+        final char next = tokener.nextClean();
+        if (next == '"' || next == '\'') {
+            skipString(tokener, next);
+        }
+        else if (next == '{' || next == '[') {
+            skipToClose(tokener);
+        }
+        else {
+            tokener.back();
+            tokener.nextValue();
+        }
+    }
+
+    /**
+     * Scan past the end of the object or array the tokener is currently inside.
+     */
+    private static void skipToClose(JSONTokener tokener) {
+        int depth = 1;
+        while (depth > 0) {
+            final char c = tokener.next();
+            switch (c) {
+                case 0 -> throw tokener.syntaxError("Unterminated object or array");
+                case '"', '\'' -> skipString(tokener, c);
+                case '{', '[' -> depth++;
+                case '}', ']' -> depth--;
+                default -> {
+                    // part of a number, literal or separator
+                }
+            }
+        }
+    }
+
+    private static void skipString(JSONTokener tokener, char quote) {
+        char c = tokener.next();
+        while (c != quote) {
+            if (c == 0 || c == '\n' || c == '\r') {
+                throw tokener.syntaxError("Unterminated string");
+            }
+            if (c == '\\') {
+                tokener.next();
+            }
+            c = tokener.next();
+        }
+    }
+
+    private static int countElements(JSONTokener tokener) {
+        expect(tokener, '[');
+        int count = 0;
+        boolean more = !isEmpty(tokener, ']');
+        while (more) {
+            skipValue(tokener);
+            count++;
+            more = hasMore(tokener, ']');
+        }
+        return count;
+    }
+
+    private static void expect(JSONTokener tokener, char expected) {
+        if (tokener.nextClean() != expected) {
+            throw tokener.syntaxError("Expected '" + expected + "'");
+        }
+    }
+
+    private static boolean isEmpty(JSONTokener tokener, char close) {
+        final boolean empty = tokener.nextClean() == close;
+        if (!empty) {
+            tokener.back();
+        }
+        return empty;
+    }
+
+    private static boolean hasMore(JSONTokener tokener, char close) {
+        final char separator = tokener.nextClean();
+        if (separator != ',' && separator != close) {
+            throw tokener.syntaxError("Expected ',' or '" + close + "'");
+        }
+        return separator == ',';
+    }
+
+    private static String readKey(JSONTokener tokener) {
+        final char quote = tokener.nextClean();
+        if (quote != '"' && quote != '\'') {
+            throw tokener.syntaxError("Expected a key");
+        }
+        final String key = tokener.nextString(quote);
+        expect(tokener, ':');
+        return key;
+    }
+}
@@ -0,0 +1,73 @@
+package data_access.movies;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import entity.Rating;
+import entity.Television;
+
+/**
+ * Utility class to convert between JSON representation of a TV show as returned by
+ * The Movie Database, and a Television entity representation as used by the program.
+ */
+public final class TelevisionJSONFormat {
+    private static final String SEASONS = "seasons";
+    private static final String CREDITS = "credits";
+
+    private TelevisionJSONFormat() {
+        throw new IllegalStateException("Utility class.");
+    }
+
+    /**
+     * Return a Television entity representation of the provided data, without its seasons.
+     * @param showDetails TV show details json response as returned by The Movie Database
+     * @param castMembers the names of the show's cast members
+     * @return a Television entity
+     */
+    public static Television parseTelevision(JSONObject showDetails, List<String> castMembers) {
+        final double ratingNormalized = showDetails.getDouble("vote_average") * 10;
+
+        final String name = showDetails.getString("name");
+        final List<String> genres = MovieJSONFormat.parseGenres(showDetails);
+        final Rating externalRating = new Rating((int) ratingNormalized);
+        final Rating userRating = new Rating(-1);
+        final String description = showDetails.getString("overview");
+        return new Television(name, genres, userRating, externalRating, description, castMembers);
+    }
+
+    /**
+     * Return the cast of a TV show, if its credits were appended to the details response.
+     * @param showDetails TV show details json response as returned by The Movie Database
+     * @return a list of cast member names, or an empty list if the credits were not included
+     */
+    public static List<String> parseCast(JSONObject showDetails) {
+        List<String> result = List.of();
+        if (showDetails.has(CREDITS)) {
+            result = MovieJSONFormat.parseCast(showDetails.getJSONObject(CREDITS));
+        }
+        return result;
+    }
+
+    /**
+     * Return the episode count of every regular season listed in a TV show's details. Specials, which
+     * TMDB lists as season 0, are left out.
+     * @param showDetails TV show details json response as returned by The Movie Database
+     * @return a map of season number to episode count, in season order
+     */
+    public static Map<Integer, Integer> parseSeasons(JSONObject showDetails) {
+        final Map<Integer, Integer> result = new LinkedHashMap<>();
+        final JSONArray seasons = showDetails.optJSONArray(SEASONS, new JSONArray());
+        for (int i = 0; i < seasons.length(); i++) {
+            final JSONObject season = seasons.getJSONObject(i);
+            final int seasonNumber = season.getInt("season_number");
+            if (seasonNumber > 0) {
+                result.put(seasonNumber, season.optInt("episode_count", 0));
+            }
+        }
+        return result;
+    }
+}
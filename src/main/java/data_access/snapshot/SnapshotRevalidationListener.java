@@ -0,0 +1,14 @@
+package data_access.snapshot;
+
+import entity.User;
+
+/**
+ * Listener notified when a user served from a local snapshot has been revalidated against the Grade API.
+ */
+public interface SnapshotRevalidationListener {
+    /**
+     * Called from the background revalidation thread once the up-to-date user is known.
+     * @param user the revalidated current user
+     */
+    void userRevalidated(User user);
+}
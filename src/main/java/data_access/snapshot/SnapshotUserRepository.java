@@ -0,0 +1,456 @@
+package data_access.snapshot;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import data_access.grade_api.GradeDataAccessException;
+import data_access.grade_api.UserRepository;
+import data_access.grade_api.incoming_data_formatting.UserBuilder;
+import data_access.grade_api.outgoing_data_formatting.StreamingCollectionWriter;
+import entity.AbstractMedia;
+import entity.MediaCollection;
+import entity.User;
+
+/**
+ * A user repository backed by a local snapshot of the last loaded user.
+ *
+ * <p>Looking up a user with a snapshot on disk returns the snapshot immediately. Once the login has been
+ * accepted through {@link #loginAccepted(User)}, the snapshot is revalidated against the wrapped repository
+ * in the background; a plain lookup never starts a revalidation. Revalidation either adopts the server copy,
+ * or uploads the snapshot if it holds edits which could not be uploaded earlier. Registered
+ * {@link SnapshotRevalidationListener}s are told about the revalidated user, as long as it is still the
+ * logged-in user.</p>
+ *
+ * <p>Without a wrapped repository, the snapshots are the only store, which makes this a complete
+ * local-only user repository.</p>
+ */
+public class SnapshotUserRepository implements UserRepository {
+    private final UserRepository delegate;
+    private final UserSnapshotStore store;
+    private final ExecutorService revalidator;
+    private final List<SnapshotRevalidationListener> listeners = new ArrayList<>();
+    private final Object lock = new Object();
+
+    private User currentUser;
+    private boolean dirty;
+    private boolean loggedIn;
+    private boolean revalidationPending;
+    private Future<?> revalidation;
+
+    /**
+     * Creates a snapshot repository in front of the given repository.
+     * @param delegate the repository to revalidate against, or null to only use local snapshots
+     * @param snapshotDirectory the directory holding the snapshot files
+     */
+    public SnapshotUserRepository(UserRepository delegate, Path snapshotDirectory) {
+        this.delegate = delegate;
+        this.store = new UserSnapshotStore(snapshotDirectory);
+        this.revalidator = Executors.newSingleThreadExecutor(runnable -> {
+            final Thread thread = new Thread(runnable, "snapshot-revalidation");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Register a listener notified whenever the current user has been revalidated.
+     * @param listener the listener to notify
+     */
+    public void addRevalidationListener(SnapshotRevalidationListener listener) {
+        synchronized (lock) {
+            listeners.add(listener);
+        }
+    }
+
+    /**
+     * Return whether the current user holds edits which have only been saved locally.
+     * @return true if the local snapshot has not been uploaded yet
+     */
+    public boolean isDirty() {
+        synchronized (lock) {
+            return dirty;
+        }
+    }
+
+    /**
+     * Block until the running background revalidation, if any, has finished.
+     */
+    public void awaitRevalidation() {
+        final Future<?> running;
+        synchronized (lock) {
+            running = revalidation;
+        }
+        if (running != null) {
+            try {
+                running.get();
+            }
+            catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            catch (ExecutionException ex) {
+                System.out.println("Snapshot revalidation failed: " + ex.getCause().getMessage());
+            }
+        }
+    }
+
+    @Override
+    public boolean existsByName(String username) {
+        return store.exists(username) || delegate != null && delegate.existsByName(username);
+    }
+
+    @Override
+    public void save(User user) {
+        if (delegate != null) {
+            delegate.save(user);
+        }
+        if (user.getAllMediaCollections() == null) {
+            user.setMediaCollections(new ArrayList<>());
+        }
+        writeSnapshot(user, false);
+    }
+
+    /**
+     * Return the user from its local snapshot if there is one, which is revalidated once the login has been
+     * accepted. Otherwise, the user is fetched from the wrapped repository and a snapshot is taken.
+     *
+     * @param username the username to look up
+     * @return the user with the given username
+     */
+    @Override
+    public User get(String username) {
+        awaitRevalidation();
+        final Optional<UserSnapshot> snapshot = readSnapshot(username);
+        final User user;
+        if (snapshot.isPresent()) {
+            user = adoptSnapshot(snapshot.get());
+        }
+        else {
+            if (delegate == null) {
+                throw new NullPointerException("User not found.");
+            }
+            user = adoptFetched(delegate.get(username));
+        }
+        return user;
+    }
+
+    /**
+     * Return the user from its local snapshot if there is one, which is revalidated once the login has been
+     * accepted. Otherwise, the user is looked up in the wrapped repository and a snapshot is taken if it
+     * exists.
+     *
+     * @param username the username to look up
+     * @return the user with the given username, or empty if there is no such user
+     */
+    @Override
+    public Optional<User> find(String username) {
+        awaitRevalidation();
+        final Optional<UserSnapshot> snapshot = readSnapshot(username);
+        Optional<User> result = Optional.empty();
+        if (snapshot.isPresent()) {
+            result = Optional.of(adoptSnapshot(snapshot.get()));
+        }
+        else if (delegate != null) {
+            result = delegate.find(username).map(this::adoptFetched);
+        }
+        return result;
+    }
+
+    /**
+     * Marks the current user as logged in, and starts revalidating it if it was served from a snapshot.
+     * @param user the user whose credentials were accepted
+     */
+    @Override
+    public void loginAccepted(User user) {
+        final boolean revalidate;
+        synchronized (lock) {
+            revalidate = currentUser == user && revalidationPending;
+            if (currentUser == user) {
+                loggedIn = true;
+                revalidationPending = false;
+            }
+        }
+        if (revalidate) {
+            startRevalidation();
+        }
+    }
+
+    /**
+     * Revalidates the current user through the wrapped repository, and takes a snapshot of a refetched user.
+     * A user whose login has not been accepted yet, or whose snapshot holds edits which have not been
+     * uploaded, is left to the background revalidation and returned as is.
+     *
+     * @return the currently logged-in user, or null if no one is logged in
+     * @throws GradeDataAccessException if the user is stale and could not be fetched
+     */
+    @Override
+    public User revalidateCurrentUser() throws GradeDataAccessException {
+        final User local;
+        final boolean revalidate;
+        synchronized (lock) {
+            local = currentUser;
+            revalidate = delegate != null && local != null && loggedIn && !dirty;
+        }
+        User result = local;
+        if (revalidate) {
+            final User fetched = delegate.revalidateCurrentUser();
+            final boolean adopted;
+            synchronized (lock) {
+                adopted = fetched != null && fetched != local && currentUser == local;
+                if (adopted) {
+                    currentUser = fetched;
+                }
+                result = currentUser;
+            }
+            if (adopted) {
+                writeSnapshot(fetched, false);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public String getCurrentUsername() {
+        final User user = getCurrentUser();
+        final String result;
+        if (user != null) {
+            result = user.getName();
+        }
+        else {
+            result = "";
+        }
+        return result;
+    }
+
+    @Override
+    public void clearCurrentUser() {
+        awaitRevalidation();
+        if (delegate != null) {
+            delegate.clearCurrentUser();
+        }
+        synchronized (lock) {
+            currentUser = null;
+            dirty = false;
+            loggedIn = false;
+            revalidationPending = false;
+        }
+    }
+
+    @Override
+    public void changePassword(User user) {
+        if (delegate != null) {
+            delegate.changePassword(user);
+        }
+        final User current = getCurrentUser();
+        if (current != null && current.getName().equals(user.getName())) {
+            current.setPassword(user.getPassword());
+            writeSnapshot(current, isDirty());
+        }
+    }
+
+    /**
+     * Saves the collections to the local snapshot and uploads them through the wrapped repository.
+     * If the upload fails, the snapshot is kept dirty and uploaded again on the next revalidation.
+     *
+     * @param mediaCollectionsList the list of media collections to be saved
+     * @return the list of media collections
+     * @throws GradeDataAccessException if the collections were saved locally but could not be uploaded
+     */
+    @Override
+    public List<MediaCollection<? extends AbstractMedia>> saveMediaCollections(
+            List<MediaCollection<? extends AbstractMedia>> mediaCollectionsList) throws GradeDataAccessException {
+        awaitRevalidation();
+        final User user = getCurrentUser();
+        if (user == null) {
+            throw new NullPointerException("User not found.");
+        }
+        user.setMediaCollections(mediaCollectionsList);
+        if (delegate == null) {
+            writeSnapshot(user, false);
+        }
+        else if (delegate.getCurrentUser() == null) {
+            // logged in offline; keep the edits locally and retry the login in the background
+            writeSnapshot(user, true);
+            startRevalidation();
+        }
+        else {
+            upload(user);
+        }
+        return user.getAllMediaCollections();
+    }
+
+    /**
+     * Explicitly refreshes the current user from the wrapped repository, uploading local edits first.
+     * Returns the snapshot contents when there is nothing to refresh from.
+     *
+     * @return the list of media collections
+     * @throws GradeDataAccessException if the user's list of media collections can not be loaded for any reason
+     */
+    @Override
+    public List<MediaCollection<? extends AbstractMedia>> loadMediaCollections() throws GradeDataAccessException {
+        awaitRevalidation();
+        final User user = getCurrentUser();
+        if (user == null) {
+            throw new NullPointerException("User not found.");
+        }
+        if (delegate != null && delegate.getCurrentUser() != null) {
+            if (isDirty()) {
+                upload(user);
+            }
+            user.setMediaCollections(delegate.loadMediaCollections());
+            writeSnapshot(user, false);
+        }
+        return user.getAllMediaCollections();
+    }
+
+    @Override
+    public String convertCollectionsListToString(List<MediaCollection<? extends AbstractMedia>> mediaCollectionList) {
+        return new StreamingCollectionWriter().toJSONString(mediaCollectionList, new StringBuilder());
+    }
+
+    @Override
+    public List<MediaCollection<? extends AbstractMedia>> convertStringToMediaCollections(
+            String mediaCollectionsString) {
+        // borrowing the UserBuilder to build the correct media collections list
+        final JSONObject mockJsonUser = new JSONObject();
+        mockJsonUser.put("username", "mock");
+        mockJsonUser.put("password", "mock");
+        mockJsonUser.put("info", new JSONArray(mediaCollectionsString));
+        final UserBuilder userBuilder = new UserBuilder();
+        return userBuilder.createUser(mockJsonUser).getAllMediaCollections();
+    }
+
+    @Override
+    public <T extends AbstractMedia> MediaCollection<T> getNamedCollection(String collectionName, String mediaType) {
+        final User user = getCurrentUser();
+        if (user == null) {
+            throw new NullPointerException("User not found.");
+        }
+        return user.getNamedCollection(collectionName, mediaType);
+    }
+
+    @Override
+    public User getCurrentUser() {
+        synchronized (lock) {
+            return currentUser;
+        }
+    }
+
+    private User adoptSnapshot(UserSnapshot snapshot) {
+        synchronized (lock) {
+            currentUser = snapshot.getUser();
+            dirty = snapshot.isDirty();
+            loggedIn = false;
+            revalidationPending = true;
+        }
+        return snapshot.getUser();
+    }
+
+    private User adoptFetched(User user) {
+        synchronized (lock) {
+            currentUser = user;
+            dirty = false;
+            loggedIn = false;
+            revalidationPending = false;
+        }
+        writeSnapshot(user, false);
+        return user;
+    }
+
+    private void upload(User user) throws GradeDataAccessException {
+        try {
+            delegate.saveMediaCollections(user.getAllMediaCollections());
+        }
+        catch (GradeDataAccessException ex) {
+            writeSnapshot(user, true);
+            throw ex;
+        }
+        writeSnapshot(user, false);
+    }
+
+    private void startRevalidation() {
+        if (delegate != null) {
+            synchronized (lock) {
+                revalidation = revalidator.submit(this::revalidate);
+            }
+        }
+    }
+
+    private void revalidate() {
+        final User local = getCurrentUser();
+        if (local != null) {
+            try {
+                final User server = delegate.get(local.getName());
+                final User revalidated;
+                if (isDirty()) {
+                    // the snapshot holds edits the server has never seen; push them instead of adopting
+                    server.setMediaCollections(local.getAllMediaCollections());
+                    delegate.saveMediaCollections(local.getAllMediaCollections());
+                    revalidated = local;
+                }
+                else {
+                    revalidated = server;
+                }
+                final boolean notify;
+                synchronized (lock) {
+                    notify = currentUser == local && loggedIn;
+                    if (currentUser == local) {
+                        currentUser = revalidated;
+                    }
+                }
+                writeSnapshot(revalidated, false);
+                if (notify) {
+                    notifyListeners(revalidated);
+                }
+            }
+            catch (GradeDataAccessException | RuntimeException ex) {
+                // offline; keep serving the snapshot
+                System.out.println("Could not revalidate the local snapshot: " + ex.getMessage());
+            }
+        }
+    }
+
+    private Optional<UserSnapshot> readSnapshot(String username) {
+        Optional<UserSnapshot> result = Optional.empty();
+        try {
+            result = store.read(username);
+        }
+        catch (IOException ex) {
+            System.out.println("Ignoring unreadable snapshot for " + username + ": " + ex.getMessage());
+        }
+        return result;
+    }
+
+    private void writeSnapshot(User user, boolean isDirty) {
+        synchronized (lock) {
+            if (currentUser == user) {
+                dirty = isDirty;
+            }
+        }
+        try {
+            store.write(new UserSnapshot(user, System.currentTimeMillis(), isDirty));
+        }
+        catch (IOException ex) {
+            System.out.println("Could not write the local snapshot: " + ex.getMessage());
+        }
+    }
+
+    private void notifyListeners(User user) {
+        final List<SnapshotRevalidationListener> toNotify;
+        synchronized (lock) {
+            toNotify = new ArrayList<>(listeners);
+        }
+        for (SnapshotRevalidationListener listener : toNotify) {
+            listener.userRevalidated(user);
+        }
+    }
+}
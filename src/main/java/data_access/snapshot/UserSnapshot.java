@@ -0,0 +1,36 @@
+package data_access.snapshot;
+
+import entity.User;
+
+/**
+ * A locally persisted copy of a user and their media collections.
+ */
+public class UserSnapshot {
+    private final User user;
+    private final long savedAt;
+    private final boolean dirty;
+
+    /**
+     * Creates a snapshot of a user.
+     * @param user the user, including their media collections
+     * @param savedAt when the snapshot was taken, in epoch milliseconds
+     * @param dirty whether the snapshot contains edits which have not been uploaded to the Grade API
+     */
+    public UserSnapshot(User user, long savedAt, boolean dirty) {
+        this.user = user;
+        this.savedAt = savedAt;
+        this.dirty = dirty;
+    }
+
+    public User getUser() {
+        return user;
+    }
+
+    public long getSavedAt() {
+        return savedAt;
+    }
+
+    public boolean isDirty() {
+        return dirty;
+    }
+}
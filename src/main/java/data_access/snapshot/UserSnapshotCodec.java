@@ -0,0 +1,196 @@
+package data_access.snapshot;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import data_access.grade_api.codec.MediaCodec;
+import data_access.grade_api.codec.MediaCodecRegistry;
+import entity.AbstractMedia;
+import entity.MediaCollection;
+import entity.User;
+
+/**
+ * Converts between a {@link UserSnapshot} and its compact binary representation on disk.
+ *
+ * <p>Layout (big-endian): magic, format version, saved-at epoch millis, dirty flag, username, password,
+ * collection count, then for each collection its name, collection type, media type name, media count, the
+ * byte length of its media records and the media records. Strings are stored as a length followed by UTF-8
+ * bytes. The media records are written and read by the {@link MediaCodec} the {@link MediaCodecRegistry}
+ * holds for the collection's media type.</p>
+ *
+ * <p>Decoding only reads the collection headers. Each collection keeps a slice of the buffer and decodes
+ * its media records when it is first used. Encoding copies the records of a collection which was never
+ * opened straight from that slice.</p>
+ */
+public final class UserSnapshotCodec {
+    private static final int MAGIC = 0x4D534E50;
+    private static final int FORMAT_VERSION = 3;
+
+    private UserSnapshotCodec() {
+        throw new IllegalStateException("Utility class.");
+    }
+
+    /**
+     * Encode the snapshot into its binary representation.
+     * @param snapshot the snapshot to encode
+     * @return the encoded bytes
+     * @throws IOException if the snapshot could not be encoded
+     */
+    public static byte[] encode(UserSnapshot snapshot) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            final User user = snapshot.getUser();
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.writeLong(snapshot.getSavedAt());
+            out.writeBoolean(snapshot.isDirty());
+            writeString(out, user.getName());
+            writeString(out, user.getPassword());
+            final List<MediaCollection<? extends AbstractMedia>> collections = user.getAllMediaCollections();
+            out.writeInt(collections.size());
+            for (MediaCollection<? extends AbstractMedia> collection : collections) {
+                writeCollection(out, collection);
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Decode a snapshot from its binary representation.
+     * @param buffer the buffer positioned at the start of the snapshot, e.g. a memory-mapped file
+     * @return the decoded snapshot
+     * @throws IOException if the buffer does not contain a valid snapshot
+     */
+    public static UserSnapshot decode(ByteBuffer buffer) throws IOException {
+        try {
+            if (buffer.getInt() != MAGIC || buffer.getInt() != FORMAT_VERSION) {
+                throw new IOException("Not a user snapshot, or written by an incompatible version.");
+            }
+            final long savedAt = buffer.getLong();
+            final boolean dirty = buffer.get() != 0;
+            final User user = new User(readString(buffer), readString(buffer));
+            final int collectionCount = buffer.getInt();
+            final List<MediaCollection<? extends AbstractMedia>> collections = new ArrayList<>(collectionCount);
+            for (int i = 0; i < collectionCount; i++) {
+                collections.add(readCollection(buffer));
+            }
+            user.setMediaCollections(collections);
+            return new UserSnapshot(user, savedAt, dirty);
+        }
+        catch (BufferUnderflowException ex) {
+            throw new IOException("Truncated user snapshot.");
+        }
+    }
+
+    private static void writeCollection(DataOutputStream out, MediaCollection<? extends AbstractMedia> collection)
+            throws IOException {
+        writeString(out, collection.getName());
+        writeString(out, collection.getCollectionType());
+        final MediaCodec<AbstractMedia> codec = codecFor(collection);
+        writeString(out, codec.getTypeName());
+        final Supplier<?> loader = collection.getPendingLoader();
+        if (loader instanceof EncodedMedia<?> encoded) {
+            final ByteBuffer records = encoded.records().duplicate();
+            out.writeInt(encoded.count());
+            out.writeInt(records.remaining());
+            final byte[] copied = new byte[records.remaining()];
+            records.get(copied);
+            out.write(copied);
+        }
+        else {
+            final List<? extends AbstractMedia> mediaList = collection.peekMediaList();
+            out.writeInt(mediaList.size());
+            final ByteArrayOutputStream mediaBytes = new ByteArrayOutputStream();
+            try (DataOutputStream mediaOut = new DataOutputStream(mediaBytes)) {
+                for (AbstractMedia media : mediaList) {
+                    codec.writeBinary(media, mediaOut);
+                }
+            }
+            out.writeInt(mediaBytes.size());
+            mediaBytes.writeTo(out);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static MediaCodec<AbstractMedia> codecFor(MediaCollection<? extends AbstractMedia> collection)
+            throws IOException {
+        try {
+            // a collection only holds media of its own media type
+            return (MediaCodec<AbstractMedia>) MediaCodecRegistry.getDefault().forType(collection.getMediaType());
+        }
+        catch (UnsupportedOperationException ex) {
+            throw new IOException("Unsupported media type: " + collection.getMediaType().getName());
+        }
+    }
+
+    private static MediaCollection<? extends AbstractMedia> readCollection(ByteBuffer buffer) throws IOException {
+        final String name = readString(buffer);
+        final String collectionType = readString(buffer);
+        final String typeName = readString(buffer);
+        final int mediaCount = buffer.getInt();
+        final int mediaLength = buffer.getInt();
+        if (mediaLength < 0 || mediaLength > buffer.remaining()) {
+            throw new BufferUnderflowException();
+        }
+        final ByteBuffer mediaRecords = buffer.slice(buffer.position(), mediaLength);
+        buffer.position(buffer.position() + mediaLength);
+        final MediaCodec<? extends AbstractMedia> codec;
+        try {
+            codec = MediaCodecRegistry.getDefault().forTypeName(typeName);
+        }
+        catch (UnsupportedOperationException ex) {
+            throw new IOException("Unknown media type in snapshot: " + typeName);
+        }
+        return collectionOf(name, collectionType, codec, mediaCount, mediaRecords);
+    }
+
+    private static <T extends AbstractMedia> MediaCollection<T> collectionOf(
+            String name, String collectionType, MediaCodec<T> codec, int mediaCount, ByteBuffer mediaRecords) {
+        return new MediaCollection<>(name, collectionType, codec.getMediaType(), mediaCount,
+                new EncodedMedia<>(mediaRecords, mediaCount, codec));
+    }
+
+    /**
+     * The still encoded media records of a collection, decoded when the collection is first used.
+     */
+    private record EncodedMedia<T extends AbstractMedia>(ByteBuffer records, int count, MediaCodec<T> codec)
+            implements Supplier<List<T>> {
+        @Override
+        public List<T> get() {
+            final ByteBuffer buffer = records.duplicate();
+            final List<T> result = new ArrayList<>(count);
+            try {
+                for (int i = 0; i < count; i++) {
+                    result.add(codec.readBinary(buffer));
+                }
+            }
+            catch (BufferUnderflowException ex) {
+                throw new IllegalStateException("Truncated media records in user snapshot.");
+            }
+            return result;
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        final byte[] encoded = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(encoded.length);
+        out.write(encoded);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        final int length = buffer.getInt();
+        if (length < 0 || length > buffer.remaining()) {
+            throw new BufferUnderflowException();
+        }
+        final byte[] encoded = new byte[length];
+        buffer.get(encoded);
+        return new String(encoded, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,171 @@
+package data_access.snapshot;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Stores the binary snapshots of users in a directory. Snapshots are memory-mapped when read.
+ *
+ * <p>Collections decoded from a snapshot keep slices of its mapping until they are opened, and some platforms
+ * refuse to replace or delete a file while it is mapped. So each write goes to a new file named after the
+ * next generation of the user's snapshot, reads pick the latest generation, and older generations are deleted
+ * once they can be; one that is still mapped is left for a later write to delete.</p>
+ */
+public class UserSnapshotStore {
+    private static final String EXTENSION = ".snapshot";
+    private static final char SEPARATOR = '.';
+    private final Path directory;
+
+    public UserSnapshotStore(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Return whether a snapshot exists for the given user.
+     * @param username the username to look up
+     * @return true if a snapshot exists, false if there is none or the directory could not be listed
+     */
+    public boolean exists(String username) {
+        boolean result;
+        try {
+            result = !generationsOf(username).isEmpty();
+        }
+        catch (IOException ex) {
+            result = false;
+        }
+        return result;
+    }
+
+    /**
+     * Read the snapshot of the given user.
+     * @param username the username to look up
+     * @return the snapshot, or empty if there is none
+     * @throws IOException if the snapshot exists but could not be read
+     */
+    public Optional<UserSnapshot> read(String username) throws IOException {
+        final List<Path> generations = generationsOf(username);
+        Optional<UserSnapshot> result = Optional.empty();
+        if (!generations.isEmpty()) {
+            final Path path = generations.get(generations.size() - 1);
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                result = Optional.of(UserSnapshotCodec.decode(buffer));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Write the snapshot as the next generation of the user's snapshot, superseding any previous one.
+     * @param snapshot the snapshot to write
+     * @throws IOException if the snapshot could not be written
+     */
+    public void write(UserSnapshot snapshot) throws IOException {
+        Files.createDirectories(directory);
+        final String username = snapshot.getUser().getName();
+        final List<Path> previous = generationsOf(username);
+        long generation = 1;
+        if (!previous.isEmpty()) {
+            generation = generationOf(previous.get(previous.size() - 1), username) + 1;
+        }
+        final Path temporary = Files.createTempFile(directory, "snapshot", ".tmp");
+        if (Files.getFileStore(directory).supportsFileAttributeView("posix")) {
+            // the snapshot holds the password, so keep it readable by the owner only
+            Files.setPosixFilePermissions(temporary, PosixFilePermissions.fromString("rw-------"));
+        }
+        Files.write(temporary, UserSnapshotCodec.encode(snapshot));
+        Files.move(temporary, pathFor(username, generation), StandardCopyOption.ATOMIC_MOVE);
+        for (Path path : previous) {
+            try {
+                Files.deleteIfExists(path);
+            }
+            catch (IOException ex) {
+                // still mapped by collections which were never opened; the next write deletes it
+            }
+        }
+    }
+
+    /**
+     * Delete every generation of the snapshot of the given user, if any.
+     * @param username the username whose snapshot should be deleted
+     * @throws IOException if the snapshot could not be deleted
+     */
+    public void delete(String username) throws IOException {
+        for (Path path : generationsOf(username)) {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    /**
+     * Return the snapshot files of the given user, oldest generation first.
+     * @param username the username to look up
+     * @return the snapshot files of the user
+     * @throws IOException if the directory could not be listed
+     */
+    private List<Path> generationsOf(String username) throws IOException {
+        final List<Path> result = new ArrayList<>();
+        if (Files.isDirectory(directory)) {
+            final String prefix = prefixFor(username);
+            try (DirectoryStream<Path> paths = Files.newDirectoryStream(directory, path -> {
+                final String name = path.getFileName().toString();
+                return name.startsWith(prefix + SEPARATOR) && name.endsWith(EXTENSION) && Files.isRegularFile(path);
+            })) {
+                paths.forEach(result::add);
+            }
+            result.sort(Comparator.comparingLong(path -> generationOf(path, username)));
+        }
+        return result;
+    }
+
+    /**
+     * Return the generation of a snapshot file of the given user. Files written before snapshots had
+     * generations are named without one and count as generation 0.
+     * @param path the snapshot file
+     * @param username the user the snapshot file belongs to
+     * @return the generation of the snapshot file
+     */
+    private static long generationOf(Path path, String username) {
+        final String name = path.getFileName().toString();
+        final String generation = name.substring(prefixFor(username).length(), name.length() - EXTENSION.length());
+        long result = 0;
+        if (!generation.isEmpty()) {
+            try {
+                result = Long.parseLong(generation.substring(1));
+            }
+            catch (NumberFormatException ex) {
+                // not written by this store, so older than any generation it wrote
+                result = -1;
+            }
+        }
+        return result;
+    }
+
+    private Path pathFor(String username, long generation) {
+        return directory.resolve(prefixFor(username) + SEPARATOR + generation + EXTENSION);
+    }
+
+    private static String prefixFor(String username) {
+        // hex-encode the username so that any name maps to a safe file name
+        return toHex(username.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String toHex(byte[] bytes) {
+        final StringBuilder result = new StringBuilder(bytes.length * 2);
+        for (byte value : bytes) {
+            result.append(Character.forDigit((value >> 4) & 0xF, 16)).append(Character.forDigit(value & 0xF, 16));
+        }
+        return result.toString();
+    }
+}
@@ -3,18 +3,24 @@ package entity;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
+import java.util.function.Supplier;
 
 import org.jetbrains.annotations.NotNull;
 
 /**
  * The representation of a list of media.
+ *
+ * <p>A collection may be created from its header alone, with a loader which decodes the media the first
+ * time they are needed. Until then only the header and the number of media are held.</p>
  * @param <T> the type of media stored in the collection
  */
 public class MediaCollection<T extends AbstractMedia> implements Iterable<T> {
     private String name;
     private final String collectionType;
     private final Class<? extends T> mediaType;
-    private final List<T> mediaList;
+    private final int declaredSize;
+    private List<T> mediaList;
+    private Supplier<List<T>> mediaLoader;
 
     /**
      * Constructs a list of Media.
@@ -29,6 +35,26 @@ public class MediaCollection<T extends AbstractMedia> implements Iterable<T> {
         this.collectionType = collectionType;
         this.mediaType = mediaType;
         this.mediaList = mediaList;
+        this.declaredSize = mediaList.size();
+    }
+
+    /**
+     * Constructs a list of Media whose contents are decoded on first use.
+     * @param name the name of the list, provided by the user
+     * @param collectionType the watch status type of the collection
+     *                 (e.g. "watched", "to watch", "watching")
+     * @param mediaType the type of media stored in the collection
+     * @param size the number of media in the collection
+     * @param mediaLoader decodes the media contained in the collection; called at most once
+     *                    unless {@link #peekMediaList()} is used before the media are loaded
+     */
+    public MediaCollection(String name, String collectionType, Class<? extends T> mediaType,
+                           int size, Supplier<List<T>> mediaLoader) {
+        this.name = name;
+        this.collectionType = collectionType;
+        this.mediaType = mediaType;
+        this.declaredSize = size;
+        this.mediaLoader = mediaLoader;
     }
 
     public String getName() {
@@ -48,7 +74,7 @@ public class MediaCollection<T extends AbstractMedia> implements Iterable<T> {
      * @param media the media to add
      */
     public void addMedia(T media) {
-        mediaList.add(media);
+        loadedMedia().add(media);
     }
 
     /**
@@ -56,7 +82,7 @@ public class MediaCollection<T extends AbstractMedia> implements Iterable<T> {
      * @param media the media to remove
      */
     public void removeMedia(T media) {
-        mediaList.remove(media);
+        loadedMedia().remove(media);
     }
 
     /**
@@ -70,7 +96,7 @@ public class MediaCollection<T extends AbstractMedia> implements Iterable<T> {
     @NotNull
     @Override
     public Iterator<T> iterator() {
-        return mediaList.iterator();
+        return loadedMedia().iterator();
     }
 
     /**
@@ -78,7 +104,55 @@ public class MediaCollection<T extends AbstractMedia> implements Iterable<T> {
      * @return the list of media in the collection
      */
     public List<T> getMediaList() {
-        return new ArrayList<>(mediaList);
+        return new ArrayList<>(loadedMedia());
+    }
+
+    /**
+     * Return the list of media in the collection without keeping them if they have not been loaded yet.
+     * Used to write the collection out without holding on to media the user has not opened.
+     * @return the list of media in the collection
+     */
+    public synchronized List<T> peekMediaList() {
+        final List<T> result;
+        if (mediaList != null) {
+            result = new ArrayList<>(mediaList);
+        }
+        else {
+            result = mediaLoader.get();
+        }
+        return result;
+    }
+
+    /**
+     * Return the loader of the media if they have not been loaded yet. Used to write the collection out
+     * in the form it was read in, without decoding media the user has not opened.
+     * @return the loader the collection was constructed with, or null once the media have been loaded
+     */
+    public synchronized Supplier<List<T>> getPendingLoader() {
+        return mediaLoader;
+    }
+
+    /**
+     * Return the number of media in the collection, without loading them.
+     * @return the number of media in the collection
+     */
+    public synchronized int size() {
+        final int result;
+        if (mediaList != null) {
+            result = mediaList.size();
+        }
+        else {
+            result = declaredSize;
+        }
+        return result;
+    }
+
+    /**
+     * Return whether the media in the collection have been loaded.
+     * @return true if the media have been decoded
+     */
+    public synchronized boolean isLoaded() {
+        return mediaList != null;
     }
 
     /**
@@ -87,9 +161,17 @@ public class MediaCollection<T extends AbstractMedia> implements Iterable<T> {
      */
     public List<String> getMediaNames() {
         final List<String> mediaNames = new ArrayList<>();
-        for (T media : mediaList) {
+        for (T media : loadedMedia()) {
             mediaNames.add(media.getName());
         }
         return mediaNames;
     }
+
+    private synchronized List<T> loadedMedia() {
+        if (mediaList == null) {
+            mediaList = mediaLoader.get();
+            mediaLoader = null;
+        }
+        return mediaList;
+    }
 }
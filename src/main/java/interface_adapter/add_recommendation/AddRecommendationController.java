@@ -0,0 +1,25 @@
+package interface_adapter.add_recommendation;
+
+import use_case.add_recommendation.AddRecommendationInputBoundary;
+import use_case.add_recommendation.AddRecommendationInputData;
+
+/**
+ * The controller for adding a recommended movie to a movie list.
+ */
+public class AddRecommendationController {
+
+    private final AddRecommendationInputBoundary addRecommendationInteractor;
+
+    public AddRecommendationController(AddRecommendationInputBoundary addRecommendationInteractor) {
+        this.addRecommendationInteractor = addRecommendationInteractor;
+    }
+
+    /**
+     * Executes the add recommendation use case.
+     * @param movieName the name of the recommended movie
+     * @param collectionName the name of the movie list to add it to
+     */
+    public void execute(String movieName, String collectionName) {
+        addRecommendationInteractor.execute(new AddRecommendationInputData(movieName, collectionName));
+    }
+}
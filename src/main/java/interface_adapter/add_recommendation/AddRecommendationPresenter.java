@@ -0,0 +1,49 @@
+package interface_adapter.add_recommendation;
+
+import interface_adapter.list.ListState;
+import interface_adapter.list.ListViewModel;
+import use_case.add_recommendation.AddRecommendationOutputBoundary;
+import use_case.add_recommendation.AddRecommendationOutputData;
+
+/**
+ * Presenter for adding a recommended movie to a movie list.
+ */
+public class AddRecommendationPresenter implements AddRecommendationOutputBoundary {
+
+    private final ListViewModel listViewModel;
+
+    public AddRecommendationPresenter(ListViewModel listViewModel) {
+        this.listViewModel = listViewModel;
+    }
+
+    /**
+     * Removes the added movie from the recommendations shown.
+     *
+     * @param outputData the movie added and the list it was added to
+     */
+    @Override
+    public void prepareSuccessView(AddRecommendationOutputData outputData) {
+        final ListState state = listViewModel.getState();
+        final StringBuilder remaining = new StringBuilder();
+        if (state.getGeneratedRecommendations() != null) {
+            for (String line : state.getGeneratedRecommendations().split("\n")) {
+                if (!line.isBlank() && !line.strip().equals(outputData.getMovieName())) {
+                    remaining.append(line).append("\n");
+                }
+            }
+        }
+        state.setGeneratedRecommendations(remaining.toString());
+        listViewModel.firePropertyChanged("recommendation");
+    }
+
+    /**
+     * Prepares the failure view for the add recommendation use case.
+     *
+     * @param errorMessage the explanation of the failure
+     */
+    @Override
+    public void prepareFailView(String errorMessage) {
+        listViewModel.getState().setErrorMessage(errorMessage);
+        listViewModel.firePropertyChanged("recommendation error");
+    }
+}
@@ -8,6 +8,7 @@ public class LoggedInState {
 
     private String password = "";
     private String passwordError;
+    private int pendingChanges;
 
     public String getUsername() {
         return username;
@@ -32,4 +33,12 @@ public class LoggedInState {
     public String getPassword() {
         return password;
     }
+
+    public int getPendingChanges() {
+        return pendingChanges;
+    }
+
+    public void setPendingChanges(int pendingChanges) {
+        this.pendingChanges = pendingChanges;
+    }
 }
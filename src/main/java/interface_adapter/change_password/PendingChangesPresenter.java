@@ -0,0 +1,31 @@
+package interface_adapter.change_password;
+
+import javax.swing.SwingUtilities;
+
+import data_access.grade_api.PendingChangesListener;
+
+/**
+ * Presents the number of edits waiting to be uploaded in the Logged In View.
+ */
+public class PendingChangesPresenter implements PendingChangesListener {
+    private final LoggedInViewModel loggedInViewModel;
+
+    public PendingChangesPresenter(LoggedInViewModel loggedInViewModel) {
+        this.loggedInViewModel = loggedInViewModel;
+    }
+
+    /**
+     * Updates the pending changes counter. Uploads finish on a background thread,
+     * so the view model is updated on the Swing event dispatch thread.
+     *
+     * @param pendingChanges the number of edits waiting to be uploaded
+     */
+    @Override
+    public void pendingChangesUpdated(int pendingChanges) {
+        SwingUtilities.invokeLater(() -> {
+            final LoggedInState state = loggedInViewModel.getState();
+            state.setPendingChanges(pendingChanges);
+            loggedInViewModel.firePropertyChanged("pending changes");
+        });
+    }
+}
@@ -17,4 +17,11 @@ public class GenController {
     public void execute(String movies) {
         genInteractor.execute(movies);
     }
+
+    /**
+     * Cancels the recommendations being generated.
+     */
+    public void cancel() {
+        genInteractor.cancel();
+    }
 }
@@ -25,6 +25,17 @@ public class GenPresenter implements GenOutputBoundary {
         listViewModel.firePropertyChanged("recommendation");
     }
 
+    /**
+     * Shows the recommendations found so far, while the rest are still being generated.
+     *
+     * @param recommendations the recommendations found so far
+     */
+    @Override
+    public void preparePartialView(String recommendations) {
+        listViewModel.getState().setGeneratedRecommendations(recommendations);
+        listViewModel.firePropertyChanged("recommendation");
+    }
+
     /**
      * Prepares the failure view for the generate recommendations Use Case.
      *
@@ -33,6 +44,6 @@ public class GenPresenter implements GenOutputBoundary {
     @Override
     public void prepareFailView(String errorMessage) {
         listViewModel.getState().setErrorMessage(errorMessage);
-        listViewModel.firePropertyChanged("recommendation");
+        listViewModel.firePropertyChanged("recommendation error");
     }
 }
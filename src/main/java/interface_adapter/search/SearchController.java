@@ -0,0 +1,33 @@
+package interface_adapter.search;
+
+import use_case.search.SearchInputBoundary;
+import use_case.search.SearchInputData;
+
+/**
+ * The controller for the Search Use Case.
+ */
+public class SearchController {
+
+    private final SearchInputBoundary searchInteractor;
+
+    public SearchController(SearchInputBoundary searchInteractor) {
+        this.searchInteractor = searchInteractor;
+    }
+
+    /**
+     * Executes the Search Use Case, showing the first page of matches.
+     * @param query the text to search for
+     */
+    public void execute(String query) {
+        searchInteractor.execute(new SearchInputData(query));
+    }
+
+    /**
+     * Executes the Search Use Case, showing the given page of matches.
+     * @param query the text to search for
+     * @param page the page to show, starting at 1
+     */
+    public void showPage(String query, int page) {
+        searchInteractor.execute(new SearchInputData(query, page));
+    }
+}
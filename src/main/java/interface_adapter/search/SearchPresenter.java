@@ -0,0 +1,50 @@
+package interface_adapter.search;
+
+import use_case.search.SearchOutputBoundary;
+import use_case.search.SearchOutputData;
+import use_case.search.SearchResult;
+
+/**
+ * The Presenter for the Search Use Case.
+ */
+public class SearchPresenter implements SearchOutputBoundary {
+
+    private final SearchViewModel searchViewModel;
+
+    public SearchPresenter(SearchViewModel searchViewModel) {
+        this.searchViewModel = searchViewModel;
+    }
+
+    /**
+     * Shows one match per line, with its release year and rating.
+     *
+     * @param outputData the page of matches to show
+     */
+    @Override
+    public void prepareSuccessView(SearchOutputData outputData) {
+        final StringBuilder results = new StringBuilder();
+        for (SearchResult result : outputData.getResults()) {
+            results.append(result.getTitle());
+            if (result.getReleaseDate().length() >= 4) {
+                results.append(" (").append(result.getReleaseDate(), 0, 4).append(')');
+            }
+            results.append(" - ").append(result.getExternalRating()).append("/100\n");
+        }
+        if (outputData.getResults().isEmpty()) {
+            results.append("No movies found for \"").append(outputData.getQuery()).append("\".");
+        }
+        searchViewModel.setErrorMessage("");
+        searchViewModel.setSearchPage(outputData.getQuery(), outputData.getPage(), outputData.getTotalPages());
+        searchViewModel.setSearchResults(results.toString());
+    }
+
+    /**
+     * Prepares the failure view for the Search Use Case.
+     *
+     * @param errorMessage the explanation of the failure
+     */
+    @Override
+    public void prepareFailView(String errorMessage) {
+        searchViewModel.setErrorMessage(errorMessage);
+    }
+}
@@ -12,6 +12,9 @@ public class SearchViewModel extends ViewModel<NoteState> {
 
     private String searchResults;
     private String errorMessage;
+    private String query = "";
+    private int page;
+    private int totalPages;
     private final PropertyChangeSupport propertyChangeSupport;
 
     public SearchViewModel() {
@@ -40,6 +43,30 @@ public class SearchViewModel extends ViewModel<NoteState> {
         notifyObservers("errorMessage", oldMessage, errorMessage);
     }
 
+    /**
+     * Sets which page of which search the results belong to. Observers are notified when the results are set.
+     * @param searchQuery the text searched for
+     * @param resultPage the page shown, starting at 1
+     * @param resultPages the number of pages of matches
+     */
+    public void setSearchPage(String searchQuery, int resultPage, int resultPages) {
+        this.query = searchQuery;
+        this.page = resultPage;
+        this.totalPages = resultPages;
+    }
+
+    public String getQuery() {
+        return query;
+    }
+
+    public int getPage() {
+        return page;
+    }
+
+    public int getTotalPages() {
+        return totalPages;
+    }
+
     /**
      * Gets the search results.
      * @return the search results
@@ -0,0 +1,56 @@
+package use_case;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.BiConsumer;
+
+/**
+ * Helper for interactors which finish a use case once an asynchronous data access call completes.
+ */
+public final class Callbacks {
+    private Callbacks() {
+        throw new IllegalStateException("Utility class.");
+    }
+
+    /**
+     * Run the callback on the executor once the future completes. The callback receives either the
+     * result or the unwrapped failure. If the callback runs on the calling thread and throws, the
+     * exception is rethrown to the caller instead of being lost in the future.
+     *
+     * @param future the data access call
+     * @param executor the executor to run the callback on, e.g. the Swing event dispatch thread
+     * @param callback the callback receiving the result, or null and the failure
+     * @param <T> the type of the result
+     */
+    public static <T> void whenComplete(CompletableFuture<T> future, Executor executor,
+                                        BiConsumer<? super T, Throwable> callback) {
+        final CompletableFuture<Void> finished = future.handleAsync((result, error) -> {
+            callback.accept(result, unwrap(error));
+            return null;
+        }, executor);
+        if (finished.isCompletedExceptionally()) {
+            try {
+                finished.join();
+            }
+            catch (CompletionException ex) {
+                final Throwable cause = ex.getCause();
+                if (cause instanceof RuntimeException runtimeException) {
+                    throw runtimeException;
+                }
+                if (cause instanceof Error error) {
+                    throw error;
+                }
+                throw ex;
+            }
+        }
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        Throwable result = error;
+        if (error instanceof CompletionException && error.getCause() != null) {
+            result = error.getCause();
+        }
+        return result;
+    }
+}
@@ -0,0 +1,13 @@
+package use_case.add_recommendation;
+
+/**
+ * The Input Boundary for adding a recommended movie to a movie list.
+ */
+public interface AddRecommendationInputBoundary {
+
+    /**
+     * Executes the add recommendation use case.
+     * @param addRecommendationInputData the input data
+     */
+    void execute(AddRecommendationInputData addRecommendationInputData);
+}
@@ -0,0 +1,136 @@
+package use_case.add_recommendation;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
+import data_access.grade_api.GradeDataAccessException;
+import data_access.movies.MovieDBDataAccessException;
+import entity.AbstractMedia;
+import entity.MediaCollection;
+import entity.Movie;
+import entity.User;
+import use_case.Callbacks;
+import use_case.generate_recommendations.MovieDBDataAccessInterface;
+import use_case.list.ListInputBoundary;
+import use_case.list.ListInputData;
+
+/**
+ * The add recommendation Interactor. The details of the recommended movie are looked up through the movie
+ * DAO on the lookup executor, and the movie is added to the list on the callback executor, which owns the
+ * user's library.
+ *
+ * <p>The app gives this interactor the caching movie DAO which the recommendation prefetch fills, so adding
+ * one of the top recommendations usually does not wait for TMDB. If another user logs in while the movie is
+ * looked up, the movie is not added.</p>
+ */
+public class AddRecommendationInteractor implements AddRecommendationInputBoundary {
+    private final MovieDBDataAccessInterface movieDataAccessInterface;
+    private final AddRecommendationUserDataAccessInterface userDataAccessObject;
+    private final AddRecommendationOutputBoundary addRecommendationPresenter;
+    private final ListInputBoundary listInteractor;
+    private final Executor lookupExecutor;
+    private final Executor callbackExecutor;
+
+    public AddRecommendationInteractor(MovieDBDataAccessInterface movieDataAccessInterface,
+                                       AddRecommendationUserDataAccessInterface userDataAccessInterface,
+                                       AddRecommendationOutputBoundary addRecommendationOutputBoundary,
+                                       ListInputBoundary listInteractor) {
+        this(movieDataAccessInterface, userDataAccessInterface, addRecommendationOutputBoundary, listInteractor,
+                Runnable::run, Runnable::run);
+    }
+
+    public AddRecommendationInteractor(MovieDBDataAccessInterface movieDataAccessInterface,
+                                       AddRecommendationUserDataAccessInterface userDataAccessInterface,
+                                       AddRecommendationOutputBoundary addRecommendationOutputBoundary,
+                                       ListInputBoundary listInteractor,
+                                       Executor lookupExecutor,
+                                       Executor callbackExecutor) {
+        this.movieDataAccessInterface = movieDataAccessInterface;
+        this.userDataAccessObject = userDataAccessInterface;
+        this.addRecommendationPresenter = addRecommendationOutputBoundary;
+        this.listInteractor = listInteractor;
+        this.lookupExecutor = lookupExecutor;
+        this.callbackExecutor = callbackExecutor;
+    }
+
+    /**
+     * Looks up the recommended movie and adds it to the movie list with the given name. The list is shown
+     * again once the movie has been added.
+     * @param addRecommendationInputData the recommended movie and the name of the list to add it to
+     */
+    @Override
+    public void execute(AddRecommendationInputData addRecommendationInputData) {
+        final String movieName = addRecommendationInputData.getMovieName().strip();
+        final User user = userDataAccessObject.getCurrentUser();
+        if (movieName.isEmpty()) {
+            addRecommendationPresenter.prepareFailView("Select a recommended movie to add.");
+        }
+        else if (user == null) {
+            addRecommendationPresenter.prepareFailView("Not currently logged-in.");
+        }
+        else {
+            final CompletableFuture<Movie> movie = CompletableFuture.supplyAsync(() -> {
+                try {
+                    return movieDataAccessInterface.getMovie(movieName);
+                }
+                catch (MovieDBDataAccessException ex) {
+                    throw new CompletionException(ex);
+                }
+            }, lookupExecutor);
+            Callbacks.whenComplete(movie, callbackExecutor, (found, error) -> {
+                if (error != null) {
+                    addRecommendationPresenter.prepareFailView(
+                            "Could not look up \"" + movieName + "\": " + error.getMessage());
+                }
+                else if (user == userDataAccessObject.getCurrentUser()) {
+                    addMovie(user, movieName, found, addRecommendationInputData.getCollectionName());
+                }
+            });
+        }
+    }
+
+    private void addMovie(User user, String movieName, Movie movie, String collectionName) {
+        final MediaCollection<Movie> collection = findMovieCollection(user, collectionName);
+        if (collection == null) {
+            addRecommendationPresenter.prepareFailView("There is no movie list named " + collectionName + ".");
+        }
+        else if (collection.getMediaNames().contains(movie.getName())) {
+            addRecommendationPresenter.prepareFailView(movie.getName() + " is already in " + collectionName + ".");
+        }
+        else {
+            collection.addMedia(movie);
+            try {
+                userDataAccessObject.saveMediaCollections(user.getAllMediaCollections());
+                addRecommendationPresenter.prepareSuccessView(
+                        new AddRecommendationOutputData(movieName, collectionName));
+                final ListInputData listInputData = new ListInputData();
+                listInputData.setNameOfDesiredCollection(collectionName);
+                listInteractor.execute(listInputData);
+            }
+            catch (GradeDataAccessException ex) {
+                collection.removeMedia(movie);
+                addRecommendationPresenter.prepareFailView(
+                        "Could not save " + collectionName + ": " + ex.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Return the user's movie collection with the given name.
+     * @param user the user
+     * @param collectionName the name of the collection
+     * @return the movie collection, or null if the user has no movie collection with that name
+     */
+    @SuppressWarnings("unchecked")
+    private static MediaCollection<Movie> findMovieCollection(User user, String collectionName) {
+        MediaCollection<Movie> result = null;
+        for (MediaCollection<? extends AbstractMedia> collection : user.getAllMediaCollections()) {
+            if (collection.getName().equals(collectionName) && collection.getMediaType() == Movie.class) {
+                result = (MediaCollection<Movie>) collection;
+                break;
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,19 @@
+package use_case.add_recommendation;
+
+/**
+ * The Output Boundary for the add recommendation use case.
+ */
+public interface AddRecommendationOutputBoundary {
+
+    /**
+     * Prepares the success view for the add recommendation use case.
+     * @param outputData the movie added and the list it was added to
+     */
+    void prepareSuccessView(AddRecommendationOutputData outputData);
+
+    /**
+     * Prepares the failure view for the add recommendation use case.
+     * @param errorMessage the explanation of the failure
+     */
+    void prepareFailView(String errorMessage);
+}
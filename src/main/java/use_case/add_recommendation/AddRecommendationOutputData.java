@@ -0,0 +1,22 @@
+package use_case.add_recommendation;
+
+/**
+ * The Output Data for the add recommendation use case.
+ */
+public class AddRecommendationOutputData {
+    private final String movieName;
+    private final String collectionName;
+
+    public AddRecommendationOutputData(String movieName, String collectionName) {
+        this.movieName = movieName;
+        this.collectionName = collectionName;
+    }
+
+    public String getMovieName() {
+        return movieName;
+    }
+
+    public String getCollectionName() {
+        return collectionName;
+    }
+}
@@ -0,0 +1,31 @@
+package use_case.add_recommendation;
+
+import java.util.List;
+
+import data_access.grade_api.GradeDataAccessException;
+import entity.AbstractMedia;
+import entity.MediaCollection;
+import entity.User;
+
+/**
+ * DAO for the add recommendation use case.
+ */
+public interface AddRecommendationUserDataAccessInterface {
+
+    /**
+     * Get the currently logged-in user.
+     * @return the currently logged-in user, or null if no one is logged in
+     */
+    User getCurrentUser();
+
+    /**
+     * Saves a list of media collections for the current user, replacing any existing media collections list.
+     *
+     * @param mediaCollectionsList the list of media collections to be saved
+     * @return the list of media collections
+     * @throws GradeDataAccessException if the user's list of media collections can not be saved for any reason
+     */
+    List<MediaCollection<? extends AbstractMedia>> saveMediaCollections(
+            List<MediaCollection<? extends AbstractMedia>> mediaCollectionsList)
+            throws GradeDataAccessException;
+}
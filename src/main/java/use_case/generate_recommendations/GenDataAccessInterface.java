@@ -1,6 +1,7 @@
 package use_case.generate_recommendations;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 import org.json.JSONArray;
 
@@ -22,6 +23,22 @@ public interface GenDataAccessInterface {
                                 String sourceType,
                                 String returnType) throws GenDataAccessException;
 
+    /**
+     * Get a recommendation with a list of media names, publishing partial recommendations while the
+     * query is still running. By default, there are no partial recommendations.
+     *
+     * @param query list of media names
+     * @param sourceType the type of media to base recommendations from
+     * @param returnType the type of media to recommend
+     * @param partialResults receives the recommendations found so far, best first
+     * @return the complete list of media recommendations
+     * @throws GenDataAccessException error accessing the recommendation API
+     */
+    default JSONArray getRecommendation(List<String> query, String sourceType, String returnType,
+                                        Consumer<JSONArray> partialResults) throws GenDataAccessException {
+        return getRecommendation(query, sourceType, returnType);
+    }
+
     /**
      * Set api key at runtime.
      * @param apiKey the api key
@@ -9,4 +9,9 @@ public interface GenInputBoundary {
      * @param movies the movies to generate a recommendation from.
      */
     void execute(String movies);
+
+    /**
+     * Cancels the recommendations being generated, if any. Nothing is presented for them.
+     */
+    void cancel();
 }
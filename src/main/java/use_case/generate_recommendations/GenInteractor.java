@@ -1,46 +1,186 @@
 package use_case.generate_recommendations;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.json.JSONArray;
 import org.json.JSONObject;
 
 /**
  * The "Use Case Interactor" for the "generate movie recommendations" use case.
+ *
+ * <p>Recommendations are generated on the generation executor and presented on the callback executor, so
+ * the caller never waits for TasteDive. Starting a new generation cancels the one in flight, and only the
+ * most recent generation is presented. While a generation runs, the recommendations found so far are
+ * presented as partial results.</p>
+ *
+ * <p>When given a movie DAO, the details of the top recommendations are looked up in the background as
+ * soon as the recommendations have been presented, so that following up on a recommendation finds them
+ * already cached.</p>
  */
 public class GenInteractor implements GenInputBoundary {
 
     private final GenDataAccessInterface genDataAccessInterface;
     private final GenOutputBoundary genOutputBoundary;
+    private final MovieDBDataAccessInterface movieDataAccessInterface;
+    private final int prefetchCount;
+    private final Executor prefetchExecutor;
+    private final Executor generationExecutor;
+    private final Executor callbackExecutor;
+    private final AtomicLong latestGeneration = new AtomicLong();
+    private final Object lock = new Object();
+    private Future<?> running;
 
     public GenInteractor(GenDataAccessInterface genDataAccessInterface, GenOutputBoundary genOutputBoundary) {
+        this(genDataAccessInterface, genOutputBoundary, null, 0, Runnable::run);
+    }
+
+    public GenInteractor(GenDataAccessInterface genDataAccessInterface, GenOutputBoundary genOutputBoundary,
+                         MovieDBDataAccessInterface movieDataAccessInterface, int prefetchCount,
+                         Executor prefetchExecutor) {
+        this(genDataAccessInterface, genOutputBoundary, movieDataAccessInterface, prefetchCount, prefetchExecutor,
+                Runnable::run, Runnable::run);
+    }
+
+    public GenInteractor(GenDataAccessInterface genDataAccessInterface, GenOutputBoundary genOutputBoundary,
+                         MovieDBDataAccessInterface movieDataAccessInterface, int prefetchCount,
+                         Executor prefetchExecutor, Executor generationExecutor, Executor callbackExecutor) {
         this.genDataAccessInterface = genDataAccessInterface;
         this.genOutputBoundary = genOutputBoundary;
+        this.movieDataAccessInterface = movieDataAccessInterface;
+        this.prefetchCount = prefetchCount;
+        this.prefetchExecutor = prefetchExecutor;
+        this.generationExecutor = generationExecutor;
+        this.callbackExecutor = callbackExecutor;
     }
 
     /**
-     * Executes the generate movie recommendations use case.
+     * Executes the generate movie recommendations use case, superseding the generation in flight.
      * @param movies the text to generate a recommendation from.
      */
     @Override
     public void execute(String movies) {
+        // Assumes the note contains only movie names separated by a newline character.
+        final List<String> formattedMovies = Arrays.asList(movies.split("\\R"));
+        final FutureTask<Void> task;
+        synchronized (lock) {
+            cancelRunning();
+            final long generation = latestGeneration.incrementAndGet();
+            task = new FutureTask<>(() -> generate(generation, formattedMovies), null);
+            running = task;
+        }
+        generationExecutor.execute(task);
+        rethrowFailure(task);
+    }
+
+    /**
+     * Cancels the generation in flight, if any. Nothing more is presented for it.
+     */
+    @Override
+    public void cancel() {
+        synchronized (lock) {
+            latestGeneration.incrementAndGet();
+            cancelRunning();
+        }
+    }
+
+    private void cancelRunning() {
+        if (running != null) {
+            running.cancel(true);
+            running = null;
+        }
+    }
+
+    private void generate(long generation, List<String> movies) {
         try {
-            final List<String> formattedMovies = Arrays.asList(movies.split("\\R"));
-            // Assumes the note contains only movie names separated by a newline character.
-            final JSONArray response = genDataAccessInterface
-                    .getRecommendation(formattedMovies, "movie", "movie");
-            final StringBuilder recommendedMovies = new StringBuilder();
-            for (int i = 0; i < response.length(); i++) {
-                final JSONObject movieRepresentation = (JSONObject) response.get(i);
-                final String movieName = movieRepresentation.getString("name");
-                recommendedMovies.append(movieName);
-                recommendedMovies.append("\n");
+            final JSONArray response = genDataAccessInterface.getRecommendation(movies, "movie", "movie",
+                partial -> {
+                    final String recommendations = format(getNames(partial));
+                    present(generation, () -> genOutputBoundary.preparePartialView(recommendations));
+                });
+            final List<String> movieNames = getNames(response);
+            final String recommendations = format(movieNames);
+            present(generation, () -> genOutputBoundary.prepareSuccessView(recommendations));
+            if (generation == latestGeneration.get()) {
+                prefetch(movieNames);
+            }
+        }
+        catch (GenDataAccessException | RuntimeException ex) {
+            present(generation,
+                () -> genOutputBoundary.prepareFailView("Could not generate recommendations: " + ex.getMessage()));
+        }
+    }
+
+    /**
+     * Run the presentation on the callback executor, unless the generation has been superseded or cancelled
+     * by then.
+     */
+    private void present(long generation, Runnable presentation) {
+        if (generation == latestGeneration.get()) {
+            callbackExecutor.execute(() -> {
+                if (generation == latestGeneration.get()) {
+                    presentation.run();
+                }
+            });
+        }
+    }
+
+    private static List<String> getNames(JSONArray response) {
+        final List<String> movieNames = new ArrayList<>(response.length());
+        for (int i = 0; i < response.length(); i++) {
+            final JSONObject movieRepresentation = (JSONObject) response.get(i);
+            movieNames.add(movieRepresentation.getString("name"));
+        }
+        return movieNames;
+    }
+
+    private static String format(List<String> movieNames) {
+        final StringBuilder recommendedMovies = new StringBuilder();
+        for (String movieName : movieNames) {
+            recommendedMovies.append(movieName);
+            recommendedMovies.append("\n");
+        }
+        return recommendedMovies.toString();
+    }
+
+    /**
+     * If the generation already ran on the calling thread, rethrow what it threw instead of losing it in
+     * the task, e.g. an exception from the presenter.
+     */
+    private static void rethrowFailure(FutureTask<Void> task) {
+        if (task.isDone() && !task.isCancelled()) {
+            try {
+                task.get();
+            }
+            catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            catch (ExecutionException ex) {
+                if (ex.getCause() instanceof RuntimeException runtimeException) {
+                    throw runtimeException;
+                }
+                if (ex.getCause() instanceof Error error) {
+                    throw error;
+                }
             }
-            genOutputBoundary.prepareSuccessView(recommendedMovies.toString());
         }
-        catch (GenDataAccessException ex) {
-            throw new RuntimeException(ex);
+    }
+
+    /**
+     * Look up the details of the top recommendations in the background, so they are cached by the time
+     * the user acts on them. Failures only mean the titles are looked up again later.
+     * @param movieNames the recommended movie names, best first
+     */
+    private void prefetch(List<String> movieNames) {
+        if (movieDataAccessInterface != null && prefetchCount > 0 && !movieNames.isEmpty()) {
+            final List<String> top = List.copyOf(movieNames.subList(0, Math.min(prefetchCount, movieNames.size())));
+            prefetchExecutor.execute(() -> movieDataAccessInterface.getMovies(top));
         }
     }
 }
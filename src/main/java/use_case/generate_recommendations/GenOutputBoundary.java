@@ -10,6 +10,14 @@ public interface GenOutputBoundary {
      */
     void prepareSuccessView(String message);
 
+    /**
+     * Prepares the view for recommendations found so far, while the rest are still being generated.
+     * By default, only the complete recommendations are presented.
+     * @param message the recommendations found so far
+     */
+    default void preparePartialView(String message) {
+    }
+
     /**
      * Prepares the failure view for the movie recommendations Use Case.
      * @param errorMessage the explanation of the failure
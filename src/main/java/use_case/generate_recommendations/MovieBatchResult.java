@@ -0,0 +1,55 @@
+package use_case.generate_recommendations;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import entity.Movie;
+
+/**
+ * The outcome of looking up a batch of movie titles: the movies which were found, and why the others failed.
+ * Both are kept in the order the titles were requested.
+ */
+public class MovieBatchResult {
+    private final Map<String, Movie> movies;
+    private final Map<String, String> failures;
+
+    public MovieBatchResult(Map<String, Movie> movies, Map<String, String> failures) {
+        this.movies = Collections.unmodifiableMap(new LinkedHashMap<>(movies));
+        this.failures = Collections.unmodifiableMap(new LinkedHashMap<>(failures));
+    }
+
+    /**
+     * Return the movies which were found, keyed by the requested title.
+     * @return the resolved movies
+     */
+    public Map<String, Movie> getMovies() {
+        return movies;
+    }
+
+    /**
+     * Return the movies which were found, in request order.
+     * @return the list of resolved movies
+     */
+    public List<Movie> getMovieList() {
+        return new ArrayList<>(movies.values());
+    }
+
+    /**
+     * Return the titles which could not be looked up, with the reason for each.
+     * @return the failure message for each failed title
+     */
+    public Map<String, String> getFailures() {
+        return failures;
+    }
+
+    /**
+     * Return whether every title was found.
+     * @return true if there were no failures
+     */
+    public boolean isComplete() {
+        return failures.isEmpty();
+    }
+}
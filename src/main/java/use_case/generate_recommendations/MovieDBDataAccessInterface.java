@@ -1,10 +1,15 @@
 package use_case.generate_recommendations;
 
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
 import data_access.movies.MovieDBDataAccessException;
 import entity.Movie;
+import entity.Television;
 
 /**
- * Interface for the TMDB. Includes methods for setting the API key and getting movie information.
+ * Interface for the TMDB. Includes methods for setting the API key and getting movie and TV show information.
  */
 public interface MovieDBDataAccessInterface {
 
@@ -17,6 +22,41 @@ public interface MovieDBDataAccessInterface {
      */
     Movie getMovie(String movieName) throws MovieDBDataAccessException;
 
+    /**
+     * Get the Movie entities for a batch of titles. A title which can not be looked up is reported in the
+     * result's failures instead of failing the whole batch.
+     * By default, the titles are looked up one after another.
+     *
+     * @param movieNames The names of the movies to be looked up.
+     * @return the movies found and the per-title failures, in request order.
+     */
+    default MovieBatchResult getMovies(List<String> movieNames) {
+        final Map<String, Movie> movies = new LinkedHashMap<>();
+        final Map<String, String> failures = new LinkedHashMap<>();
+        for (String movieName : movieNames) {
+            try {
+                movies.put(movieName, getMovie(movieName));
+            }
+            catch (MovieDBDataAccessException ex) {
+                failures.put(movieName, ex.getMessage());
+            }
+        }
+        return new MovieBatchResult(movies, failures);
+    }
+
+    /**
+     * Get a Television entity, containing the complete details of a TV show from TMDB, including the
+     * episode count of every season.
+     * By default, TV shows are not supported.
+     *
+     * @param showName The name of the TV show to be looked up.
+     * @return the show's genres, cast, rating, description, and seasons.
+     * @throws MovieDBDataAccessException if the show can not be looked up.
+     */
+    default Television getTelevision(String showName) throws MovieDBDataAccessException {
+        throw new MovieDBDataAccessException("TV show lookups are not supported.");
+    }
+
     /**
      * Sets the TMDB API key apikey.
      *
@@ -2,6 +2,7 @@ package use_case.list;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Executor;
 
 import org.jetbrains.annotations.Nullable;
 
@@ -10,6 +11,7 @@ import entity.AbstractMedia;
 import entity.MediaCollection;
 import entity.Movie;
 import entity.User;
+import use_case.Callbacks;
 
 /**
  * The list display Interactor.
@@ -17,23 +19,45 @@ import entity.User;
 public class ListInteractor implements ListInputBoundary {
     private final UserRepository userDataAccessObject;
     private final ListOutputBoundary listPresenter;
+    private final Executor callbackExecutor;
 
     public ListInteractor(UserRepository signupDataAccessInterface,
                           ListOutputBoundary listOutputBoundary) {
+        this(signupDataAccessInterface, listOutputBoundary, Runnable::run);
+    }
+
+    public ListInteractor(UserRepository signupDataAccessInterface,
+                          ListOutputBoundary listOutputBoundary,
+                          Executor callbackExecutor) {
         this.userDataAccessObject = signupDataAccessInterface;
         this.listPresenter = listOutputBoundary;
+        this.callbackExecutor = callbackExecutor;
     }
 
     /**
      * Entrypoint for calling the list interactor to display a media collection with the given name.
+     * The presenter is called on the callback executor once the current user has been read.
      * @param listInputData the input data containing the name of a media collection to display
      */
     @Override
     public void execute(ListInputData listInputData) {
-        final User user = userDataAccessObject.getCurrentUser();
-        if (user == null) {
-            throw new RuntimeException("Not currently logged-in.");
+        Callbacks.whenComplete(userDataAccessObject.getCurrentUserAsync(), callbackExecutor,
+                (user, error) -> presentCollection(listInputData, user, error));
+    }
+
+    private void presentCollection(ListInputData listInputData, User user, Throwable error) {
+        if (error != null) {
+            listPresenter.prepareFailView(new ListOutputData(error.getMessage(), new ArrayList<>()));
         }
+        else if (user == null) {
+            listPresenter.prepareFailView(new ListOutputData("Not currently logged-in.", new ArrayList<>()));
+        }
+        else {
+            presentCollection(listInputData, user);
+        }
+    }
+
+    private void presentCollection(ListInputData listInputData, User user) {
         final List<MediaCollection<? extends AbstractMedia>> mediaCollections = user.getAllMediaCollections();
         final MediaCollection<? extends AbstractMedia> desiredCollection = findCollectionWithName(mediaCollections,
                 listInputData.getNameOfDesiredCollection());
@@ -1,21 +1,34 @@
 package use_case.login;
 
+import java.util.Optional;
+import java.util.concurrent.Executor;
+
 import entity.User;
+import use_case.Callbacks;
 import use_case.list.ListInteractor;
 
 /**
- * The Login Interactor.
+ * The Login Interactor. The user lookup does not block the caller; the presenters are called on the
+ * callback executor once it completes.
  */
 public class LoginInteractor implements LoginInputBoundary {
     private final LoginUserDataAccessInterface userDataAccessObject;
     private final LoginOutputBoundary loginPresenter;
+    private final Executor callbackExecutor;
     // jank solution
     private ListInteractor listInteractor;
 
     public LoginInteractor(LoginUserDataAccessInterface userDataAccessInterface,
                            LoginOutputBoundary loginOutputBoundary) {
+        this(userDataAccessInterface, loginOutputBoundary, Runnable::run);
+    }
+
+    public LoginInteractor(LoginUserDataAccessInterface userDataAccessInterface,
+                           LoginOutputBoundary loginOutputBoundary,
+                           Executor callbackExecutor) {
         this.userDataAccessObject = userDataAccessInterface;
         this.loginPresenter = loginOutputBoundary;
+        this.callbackExecutor = callbackExecutor;
     }
 
     public LoginInteractor(LoginUserDataAccessInterface userDataAccessInterface,
@@ -25,20 +38,38 @@ public class LoginInteractor implements LoginInputBoundary {
         this.listInteractor = listInteractor;
     }
 
+    public LoginInteractor(LoginUserDataAccessInterface userDataAccessInterface,
+                           LoginOutputBoundary loginOutputBoundary,
+                           ListInteractor listInteractor,
+                           Executor callbackExecutor) {
+        this(userDataAccessInterface, loginOutputBoundary, callbackExecutor);
+        this.listInteractor = listInteractor;
+    }
+
     @Override
     public void execute(LoginInputData loginInputData) {
         final String username = loginInputData.getUsername();
         final String password = loginInputData.getPassword();
-        if (!userDataAccessObject.existsByName(username)) {
+        Callbacks.whenComplete(userDataAccessObject.findAsync(username), callbackExecutor,
+            (found, error) -> presentLogin(username, password, found, error));
+    }
+
+    private void presentLogin(String username, String password, Optional<User> found, Throwable error) {
+        if (error != null) {
+            loginPresenter.prepareFailView("Could not log in \"" + username + "\": " + error.getMessage());
+        }
+        else if (found.isEmpty()) {
             loginPresenter.prepareFailView(username + ": Account does not exist.");
         }
         else {
-            final User user = userDataAccessObject.get(username);
+            final User user = found.get();
             final String pwd = user.getPassword();
             if (!password.equals(pwd)) {
+                userDataAccessObject.loginRejected(username);
                 loginPresenter.prepareFailView("Incorrect password for \"" + username + "\".");
             }
             else {
+                userDataAccessObject.loginAccepted(user);
                 listInteractor.executeOnLogin(user.getAllMediaCollections());
                 final LoginOutputData loginOutputData = new LoginOutputData(user.getName(), false);
                 loginPresenter.prepareSuccessView(loginOutputData);
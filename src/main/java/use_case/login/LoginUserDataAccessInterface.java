@@ -1,5 +1,8 @@
 package use_case.login;
 
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
 import entity.User;
 
 /**
@@ -27,6 +30,88 @@ public interface LoginUserDataAccessInterface {
      */
     User get(String username);
 
+    /**
+     * Returns the user with the given username if it exists, and saves it as the currently active user.
+     * Unless overridden, this checks for existence and then fetches the user, which takes two lookups.
+     * @param username the username to look up
+     * @return the user with the given username, or empty if there is no such user
+     */
+    default Optional<User> find(String username) {
+        Optional<User> result = Optional.empty();
+        if (existsByName(username)) {
+            result = Optional.of(get(username));
+        }
+        return result;
+    }
+
+    /**
+     * Returns the user with the given username if it exists without blocking the caller.
+     * Unless overridden, the lookup runs on the calling thread and the returned future is already complete.
+     * @param username the username to look up
+     * @return a future completed with the user with the given username, or empty if there is no such user
+     */
+    default CompletableFuture<Optional<User>> findAsync(String username) {
+        CompletableFuture<Optional<User>> result;
+        try {
+            result = CompletableFuture.completedFuture(find(username));
+        }
+        catch (RuntimeException ex) {
+            result = CompletableFuture.failedFuture(ex);
+        }
+        return result;
+    }
+
+    /**
+     * Checks if the given username exists without blocking the caller.
+     * Unless overridden, the check runs on the calling thread and the returned future is already complete.
+     * @param username the username to look for
+     * @return a future completed with true if a user with the given username exists
+     */
+    default CompletableFuture<Boolean> existsByNameAsync(String username) {
+        CompletableFuture<Boolean> result;
+        try {
+            result = CompletableFuture.completedFuture(existsByName(username));
+        }
+        catch (RuntimeException ex) {
+            result = CompletableFuture.failedFuture(ex);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the user with the given username without blocking the caller, and saves it as the currently
+     * active user. Unless overridden, the lookup runs on the calling thread and the returned future is
+     * already complete.
+     * @param username the username to look up
+     * @return a future completed with the user with the given username
+     */
+    default CompletableFuture<User> getAsync(String username) {
+        CompletableFuture<User> result;
+        try {
+            result = CompletableFuture.completedFuture(get(username));
+        }
+        catch (RuntimeException ex) {
+            result = CompletableFuture.failedFuture(ex);
+        }
+        return result;
+    }
+
+    /**
+     * Tells the DAO that the password of the user just looked up has been checked, so the user is now
+     * logged in. Unless overridden, this does nothing.
+     * @param user the user whose credentials were accepted
+     */
+    default void loginAccepted(User user) {
+    }
+
+    /**
+     * Tells the DAO that the password check failed for the user just looked up, so that user must not stay
+     * the currently active user. Unless overridden, this does nothing.
+     * @param username the username whose credentials were rejected
+     */
+    default void loginRejected(String username) {
+    }
+
     /**
      * Returns the username of the curren user of the application.
      * @return the username of the current user; null indicates that no one is logged into the application.
@@ -1,6 +1,7 @@
 package use_case.note;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import data_access.grade_api.GradeDataAccessException;
 import entity.AbstractMedia;
@@ -33,6 +34,42 @@ public interface NoteDataAccessInterface {
      */
     List<MediaCollection<? extends AbstractMedia>> loadMediaCollections() throws GradeDataAccessException;
 
+    /**
+     * Saves a list of media collections without blocking the caller.
+     * Unless overridden, the save runs on the calling thread and the returned future is already complete.
+     *
+     * @param mediaCollectionsList the list of media collections to be saved
+     * @return a future completed with the saved list, or completed exceptionally with a GradeDataAccessException
+     */
+    default CompletableFuture<List<MediaCollection<? extends AbstractMedia>>> saveMediaCollectionsAsync(
+            List<MediaCollection<? extends AbstractMedia>> mediaCollectionsList) {
+        CompletableFuture<List<MediaCollection<? extends AbstractMedia>>> result;
+        try {
+            result = CompletableFuture.completedFuture(saveMediaCollections(mediaCollectionsList));
+        }
+        catch (GradeDataAccessException | RuntimeException ex) {
+            result = CompletableFuture.failedFuture(ex);
+        }
+        return result;
+    }
+
+    /**
+     * Loads the list of media collections without blocking the caller.
+     * Unless overridden, the load runs on the calling thread and the returned future is already complete.
+     *
+     * @return a future completed with the loaded list, or completed exceptionally with a GradeDataAccessException
+     */
+    default CompletableFuture<List<MediaCollection<? extends AbstractMedia>>> loadMediaCollectionsAsync() {
+        CompletableFuture<List<MediaCollection<? extends AbstractMedia>>> result;
+        try {
+            result = CompletableFuture.completedFuture(loadMediaCollections());
+        }
+        catch (GradeDataAccessException | RuntimeException ex) {
+            result = CompletableFuture.failedFuture(ex);
+        }
+        return result;
+    }
+
     /**
      * Converts the list of media collections to string representation for debug use.
      *
@@ -1,25 +1,37 @@
 package use_case.note;
 
 import java.util.List;
+import java.util.concurrent.Executor;
 
-import data_access.grade_api.GradeDataAccessException;
 import entity.AbstractMedia;
 import entity.MediaCollection;
+import use_case.Callbacks;
 
 /**
  * The "Use Case Interactor" for our two note-related use cases of refreshing
  * the contents of the note and saving the contents of the note. Since they
  * are closely related, we have combined them here for simplicity.
+ *
+ * <p>The data access calls do not block the caller; the presenter is called on the callback executor
+ * once they complete.</p>
  */
 public class NoteInteractor implements NoteInputBoundary {
 
     private final NoteDataAccessInterface noteDataAccessInterface;
     private final NoteOutputBoundary noteOutputBoundary;
+    private final Executor callbackExecutor;
 
     public NoteInteractor(NoteDataAccessInterface noteDataAccessInterface,
                           NoteOutputBoundary noteOutputBoundary) {
+        this(noteDataAccessInterface, noteOutputBoundary, Runnable::run);
+    }
+
+    public NoteInteractor(NoteDataAccessInterface noteDataAccessInterface,
+                          NoteOutputBoundary noteOutputBoundary,
+                          Executor callbackExecutor) {
         this.noteDataAccessInterface = noteDataAccessInterface;
         this.noteOutputBoundary = noteOutputBoundary;
+        this.callbackExecutor = callbackExecutor;
     }
 
     /**
@@ -27,15 +39,8 @@ public class NoteInteractor implements NoteInputBoundary {
      */
     @Override
     public void executeRefresh() {
-        try {
-            final List<MediaCollection<? extends AbstractMedia>> mediaCollections =
-                    noteDataAccessInterface.loadMediaCollections();
-            noteOutputBoundary.prepareSuccessView(
-                    noteDataAccessInterface.convertCollectionsListToString(mediaCollections));
-        }
-        catch (GradeDataAccessException ex) {
-            noteOutputBoundary.prepareFailView(ex.getMessage());
-        }
+        Callbacks.whenComplete(noteDataAccessInterface.loadMediaCollectionsAsync(), callbackExecutor,
+                this::presentResult);
     }
 
     /**
@@ -45,14 +50,17 @@ public class NoteInteractor implements NoteInputBoundary {
     public void executeSave(String mediaCollectionsString) {
         final List<MediaCollection<? extends AbstractMedia>> mediaCollections =
                 noteDataAccessInterface.convertStringToMediaCollections(mediaCollectionsString);
-        try {
-            final List<MediaCollection<? extends AbstractMedia>> updatedMediaCollections =
-                    noteDataAccessInterface.saveMediaCollections(mediaCollections);
+        Callbacks.whenComplete(noteDataAccessInterface.saveMediaCollectionsAsync(mediaCollections), callbackExecutor,
+                this::presentResult);
+    }
+
+    private void presentResult(List<MediaCollection<? extends AbstractMedia>> mediaCollections, Throwable error) {
+        if (error == null) {
             noteOutputBoundary.prepareSuccessView(
-                    noteDataAccessInterface.convertCollectionsListToString(updatedMediaCollections));
+                    noteDataAccessInterface.convertCollectionsListToString(mediaCollections));
         }
-        catch (GradeDataAccessException ex) {
-            noteOutputBoundary.prepareFailView(ex.getMessage());
+        else {
+            noteOutputBoundary.prepareFailView(error.getMessage());
         }
     }
 }
@@ -0,0 +1,66 @@
+package use_case.refresh_ratings;
+
+import java.time.Instant;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * The movies whose details changed on TMDB between a watermark and the time the change feed was read.
+ *
+ * <p>A change feed only reaches back so far. When the watermark is older than that, the changes are
+ * incomplete and every movie has to be treated as changed.</p>
+ */
+public class RatingChanges {
+    private final Set<Integer> movieIDs;
+    private final Instant until;
+    private final boolean complete;
+
+    public RatingChanges(Set<Integer> movieIDs, Instant until, boolean complete) {
+        this.movieIDs = Collections.unmodifiableSet(new LinkedHashSet<>(movieIDs));
+        this.until = until;
+        this.complete = complete;
+    }
+
+    /**
+     * Return a change set which covers nothing, for when the feed can not reach back to the watermark.
+     * @param until the time the feed was read
+     * @return an incomplete change set
+     */
+    public static RatingChanges incomplete(Instant until) {
+        return new RatingChanges(Set.of(), until, false);
+    }
+
+    /**
+     * Return the TMDB IDs of the movies which changed.
+     * @return the changed movie IDs
+     */
+    public Set<Integer> getMovieIDs() {
+        return movieIDs;
+    }
+
+    /**
+     * Return the time up to which changes have been read, the watermark for the next refresh.
+     * @return the new watermark
+     */
+    public Instant getUntil() {
+        return until;
+    }
+
+    /**
+     * Return whether every change since the watermark is included.
+     * @return false if every movie has to be treated as changed
+     */
+    public boolean isComplete() {
+        return complete;
+    }
+
+    /**
+     * Return whether the given movie has to be refreshed.
+     * @param movieID the TMDB ID of the movie
+     * @return true if the movie changed, or the changes are incomplete
+     */
+    public boolean hasChanged(int movieID) {
+        return !complete || movieIDs.contains(movieID);
+    }
+}
@@ -0,0 +1,41 @@
+package use_case.refresh_ratings;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalInt;
+
+import data_access.movies.MovieDBDataAccessException;
+
+/**
+ * Interface for refreshing the external ratings of movies from TMDB.
+ */
+public interface RatingRefreshDataAccessInterface {
+
+    /**
+     * Get the movies which changed on TMDB since the watermark.
+     *
+     * @param since the watermark of the last refresh, or null if there has not been one.
+     * @return the changed movies, and the watermark for the next refresh.
+     * @throws MovieDBDataAccessException if the change feed could not be read.
+     */
+    RatingChanges getChangedMovies(Instant since) throws MovieDBDataAccessException;
+
+    /**
+     * Get the TMDB ID of a movie.
+     *
+     * @param movieName The name of the movie to be looked up.
+     * @return the TMDB ID of the best match, or empty if there is none.
+     * @throws MovieDBDataAccessException if TMDB API is unsuccessfully called.
+     */
+    OptionalInt getMovieID(String movieName) throws MovieDBDataAccessException;
+
+    /**
+     * Get the current external ratings of a batch of movies, bypassing any cached copies.
+     * A movie whose rating could not be fetched is left out of the result.
+     *
+     * @param movieIDs the TMDB IDs of the movies.
+     * @return the external rating of each movie, normalized to 0-100, by TMDB ID.
+     */
+    Map<Integer, Integer> getExternalRatings(List<Integer> movieIDs);
+}
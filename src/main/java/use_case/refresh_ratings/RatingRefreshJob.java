@@ -0,0 +1,245 @@
+package use_case.refresh_ratings;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalInt;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+
+import data_access.grade_api.GradeDataAccessException;
+import data_access.movies.MovieDBDataAccessException;
+import entity.AbstractMedia;
+import entity.MediaCollection;
+import entity.Movie;
+import entity.User;
+
+/**
+ * A background job which keeps the external ratings of the current user's movies up to date.
+ *
+ * <p>Each run reads the TMDB change feed since the user's watermark and only re-fetches the ratings of
+ * the movies in the library which changed, a batch at a time. All updated ratings are written back with
+ * a single save. The watermark only advances once every changed movie has been refreshed, and it is kept
+ * with the TMDB IDs of the titles seen so far, so a restarted job resumes where it left off.</p>
+ *
+ * <p>Without a watermark, as on the first run, every movie in the library is refreshed once.</p>
+ *
+ * <p>The library belongs to the callback executor, e.g. the Swing event dispatch thread. The job reads the
+ * titles and applies and saves the fetched ratings there, and only talks to TMDB on its own thread. A run
+ * during which another user logged in is dropped without saving or advancing the watermark.</p>
+ */
+public class RatingRefreshJob implements Runnable {
+    private static final int DEFAULT_BATCH_SIZE = 20;
+    private final RatingRefreshUserDataAccessInterface userDataAccessInterface;
+    private final RatingRefreshDataAccessInterface ratingDataAccessInterface;
+    private final RatingRefreshStateDataAccessInterface stateDataAccessInterface;
+    private final int batchSize;
+    private final Executor callbackExecutor;
+    private RatingRefreshState state;
+
+    public RatingRefreshJob(RatingRefreshUserDataAccessInterface userDataAccessInterface,
+                            RatingRefreshDataAccessInterface ratingDataAccessInterface,
+                            RatingRefreshStateDataAccessInterface stateDataAccessInterface) {
+        this(userDataAccessInterface, ratingDataAccessInterface, stateDataAccessInterface, DEFAULT_BATCH_SIZE);
+    }
+
+    public RatingRefreshJob(RatingRefreshUserDataAccessInterface userDataAccessInterface,
+                            RatingRefreshDataAccessInterface ratingDataAccessInterface,
+                            RatingRefreshStateDataAccessInterface stateDataAccessInterface, int batchSize) {
+        this(userDataAccessInterface, ratingDataAccessInterface, stateDataAccessInterface, batchSize,
+                Runnable::run);
+    }
+
+    public RatingRefreshJob(RatingRefreshUserDataAccessInterface userDataAccessInterface,
+                            RatingRefreshDataAccessInterface ratingDataAccessInterface,
+                            RatingRefreshStateDataAccessInterface stateDataAccessInterface, int batchSize,
+                            Executor callbackExecutor) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("The batch size must be at least 1.");
+        }
+        this.userDataAccessInterface = userDataAccessInterface;
+        this.ratingDataAccessInterface = ratingDataAccessInterface;
+        this.stateDataAccessInterface = stateDataAccessInterface;
+        this.batchSize = batchSize;
+        this.callbackExecutor = callbackExecutor;
+    }
+
+    /**
+     * Refresh the current user's ratings, logging instead of throwing if the refresh fails.
+     * Meant to be scheduled; a failed run is retried from the same watermark on the next run.
+     */
+    @Override
+    public void run() {
+        try {
+            final int updated = refresh();
+            if (updated > 0) {
+                System.out.println("Refreshed the external rating of " + updated + " movies.");
+            }
+        }
+        catch (MovieDBDataAccessException | GradeDataAccessException | IOException | RuntimeException ex) {
+            System.out.println("Could not refresh external ratings: " + ex.getMessage());
+        }
+    }
+
+    /**
+     * Refresh the external ratings of the current user's movies which changed since the last refresh.
+     * Does nothing if no one is logged in. Must not be called on the callback executor, which it waits for.
+     *
+     * @return the number of movies whose rating changed
+     * @throws MovieDBDataAccessException if the change feed could not be read
+     * @throws GradeDataAccessException if the updated ratings could not be saved
+     * @throws IOException if the watermark could not be read or saved
+     */
+    public synchronized int refresh() throws MovieDBDataAccessException, GradeDataAccessException, IOException {
+        final User user = userDataAccessInterface.getCurrentUser();
+        int updated = 0;
+        if (user != null) {
+            final Set<String> titles = onCallbackExecutor(() -> movieTitles(user));
+            final RatingRefreshState current = loadState();
+            final RatingChanges changes = ratingDataAccessInterface.getChangedMovies(
+                    current.getWatermark(user.getName()));
+            final Map<Integer, List<String>> changed = new LinkedHashMap<>();
+            boolean complete = collectChangedMovies(titles, changes, current, changed);
+            final Map<String, Integer> ratings = new HashMap<>();
+            final List<Integer> movieIDs = new ArrayList<>(changed.keySet());
+            for (int start = 0; start < movieIDs.size(); start += batchSize) {
+                final List<Integer> batch = movieIDs.subList(start, Math.min(start + batchSize, movieIDs.size()));
+                final Map<Integer, Integer> fetched = ratingDataAccessInterface.getExternalRatings(batch);
+                complete &= fetched.keySet().containsAll(batch);
+                for (Map.Entry<Integer, Integer> rating : fetched.entrySet()) {
+                    changed.getOrDefault(rating.getKey(), List.of())
+                            .forEach(title -> ratings.put(title, rating.getValue()));
+                }
+            }
+            final OptionalInt applied = onCallbackExecutor(() -> applyRatings(user, ratings));
+            // if someone else logged in meanwhile, the run is dropped and the watermark stays put
+            if (applied.isPresent()) {
+                updated = applied.getAsInt();
+                if (complete) {
+                    current.setWatermark(user.getName(), changes.getUntil());
+                }
+            }
+            stateDataAccessInterface.save(current);
+        }
+        return updated;
+    }
+
+    private RatingRefreshState loadState() throws IOException {
+        if (state == null) {
+            state = stateDataAccessInterface.load();
+        }
+        return state;
+    }
+
+    private static Set<String> movieTitles(User user) {
+        final Set<String> result = new LinkedHashSet<>();
+        if (user.getAllMediaCollections() != null) {
+            for (MediaCollection<? extends AbstractMedia> collection : user.getAllMediaCollections()) {
+                for (AbstractMedia media : collection) {
+                    if (media instanceof Movie) {
+                        result.add(media.getName());
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Group the titles which have to be refreshed by TMDB ID, looking up the IDs of new titles.
+     * @return false if the ID of a title could not be looked up, so its changes may have been missed
+     */
+    private boolean collectChangedMovies(Set<String> titles, RatingChanges changes, RatingRefreshState current,
+                                         Map<Integer, List<String>> changed) {
+        boolean complete = true;
+        for (String title : titles) {
+            try {
+                final OptionalInt movieID = resolveMovieID(title, current);
+                if (movieID.isPresent() && changes.hasChanged(movieID.getAsInt())) {
+                    changed.computeIfAbsent(movieID.getAsInt(), id -> new ArrayList<>()).add(title);
+                }
+            }
+            catch (MovieDBDataAccessException ex) {
+                complete = false;
+            }
+        }
+        return complete;
+    }
+
+    private OptionalInt resolveMovieID(String movieName, RatingRefreshState current)
+            throws MovieDBDataAccessException {
+        final Integer known = current.getMovieID(movieName);
+        final OptionalInt result;
+        if (known != null) {
+            result = OptionalInt.of(known);
+        }
+        else {
+            result = ratingDataAccessInterface.getMovieID(movieName);
+            result.ifPresent(movieID -> current.setMovieID(movieName, movieID));
+        }
+        return result;
+    }
+
+    /**
+     * Set the fetched ratings on the user's movies, and save the library once if any of them changed.
+     * Runs on the callback executor.
+     * @return the number of movies whose rating changed, or empty if the user is no longer the current user
+     */
+    private OptionalInt applyRatings(User user, Map<String, Integer> ratings) throws GradeDataAccessException {
+        OptionalInt result = OptionalInt.empty();
+        // the save goes to whoever is logged in now, which must still be the user the ratings were fetched for
+        if (user == userDataAccessInterface.getCurrentUser()) {
+            int updated = 0;
+            for (MediaCollection<? extends AbstractMedia> collection : user.getAllMediaCollections()) {
+                for (AbstractMedia media : collection) {
+                    final Integer rating = ratings.get(media.getName());
+                    if (media instanceof Movie movie && rating != null && movie.getExternalRating() != rating) {
+                        movie.setExternalRating(rating);
+                        updated++;
+                    }
+                }
+            }
+            if (updated > 0) {
+                // one save for the whole run, however many movies changed
+                userDataAccessInterface.saveMediaCollections(user.getAllMediaCollections());
+            }
+            result = OptionalInt.of(updated);
+        }
+        return result;
+    }
+
+    /**
+     * Run the task on the callback executor and wait for its result.
+     */
+    private <T> T onCallbackExecutor(Callable<T> task) throws GradeDataAccessException {
+        final FutureTask<T> future = new FutureTask<>(task);
+        callbackExecutor.execute(future);
+        try {
+            return future.get();
+        }
+        catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            future.cancel(false);
+            throw new GradeDataAccessException("Interrupted while waiting for the library.");
+        }
+        catch (ExecutionException ex) {
+            if (ex.getCause() instanceof GradeDataAccessException cause) {
+                throw cause;
+            }
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (ex.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw new GradeDataAccessException(String.valueOf(ex.getCause()));
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package use_case.refresh_ratings;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The progress of the rating refresh job: the watermark of each user's last refresh, and the TMDB IDs of
+ * the titles seen so far, so a title is only searched for once.
+ */
+public class RatingRefreshState {
+    private final Map<String, Instant> watermarks;
+    private final Map<String, Integer> movieIDs;
+
+    public RatingRefreshState() {
+        this(new HashMap<>(), new HashMap<>());
+    }
+
+    public RatingRefreshState(Map<String, Instant> watermarks, Map<String, Integer> movieIDs) {
+        this.watermarks = new HashMap<>(watermarks);
+        this.movieIDs = new HashMap<>(movieIDs);
+    }
+
+    /**
+     * Return the watermark of the user's last refresh.
+     * @param username the user
+     * @return the watermark, or null if the user's movies have never been refreshed
+     */
+    public Instant getWatermark(String username) {
+        return watermarks.get(username);
+    }
+
+    /**
+     * Record the watermark of the user's last refresh.
+     * @param username the user
+     * @param watermark the time up to which changes have been applied
+     */
+    public void setWatermark(String username, Instant watermark) {
+        watermarks.put(username, watermark);
+    }
+
+    public Map<String, Instant> getWatermarks() {
+        return new HashMap<>(watermarks);
+    }
+
+    /**
+     * Return the TMDB ID recorded for a title.
+     * @param movieName the title
+     * @return the TMDB ID, or null if the title has not been looked up
+     */
+    public Integer getMovieID(String movieName) {
+        return movieIDs.get(movieName);
+    }
+
+    /**
+     * Record the TMDB ID of a title.
+     * @param movieName the title
+     * @param movieID the TMDB ID
+     */
+    public void setMovieID(String movieName, int movieID) {
+        movieIDs.put(movieName, movieID);
+    }
+
+    public Map<String, Integer> getMovieIDs() {
+        return new HashMap<>(movieIDs);
+    }
+}
@@ -0,0 +1,23 @@
+package use_case.refresh_ratings;
+
+import java.io.IOException;
+
+/**
+ * Interface for keeping the progress of the rating refresh job across restarts.
+ */
+public interface RatingRefreshStateDataAccessInterface {
+
+    /**
+     * Load the saved state, or an empty state if none has been saved.
+     * @return the saved state
+     * @throws IOException if the saved state could not be read
+     */
+    RatingRefreshState load() throws IOException;
+
+    /**
+     * Save the state, replacing the saved state.
+     * @param state the state to save
+     * @throws IOException if the state could not be saved
+     */
+    void save(RatingRefreshState state) throws IOException;
+}
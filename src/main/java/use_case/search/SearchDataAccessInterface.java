@@ -0,0 +1,19 @@
+package use_case.search;
+
+import data_access.movies.MovieDBDataAccessException;
+
+/**
+ * DAO for the Search Use Case.
+ */
+public interface SearchDataAccessInterface {
+
+    /**
+     * Get one page of the movies matching a search.
+     *
+     * @param query the text to search for.
+     * @param page the page to get, starting at 1.
+     * @return the matches on the page, and the number of pages.
+     * @throws MovieDBDataAccessException if the search could not be made.
+     */
+    SearchResultPage searchMovies(String query, int page) throws MovieDBDataAccessException;
+}
@@ -0,0 +1,13 @@
+package use_case.search;
+
+/**
+ * Input Boundary for the Search Use Case.
+ */
+public interface SearchInputBoundary {
+
+    /**
+     * Executes the Search Use Case, showing one page of the matches.
+     * @param searchInputData the input data
+     */
+    void execute(SearchInputData searchInputData);
+}
@@ -5,12 +5,22 @@ package use_case.search;
  */
 public class SearchInputData {
     private final String query;
+    private final int page;
 
     public SearchInputData(String query) {
+        this(query, 1);
+    }
+
+    public SearchInputData(String query, int page) {
         this.query = query;
+        this.page = page;
     }
 
     public String getQuery() {
         return query;
     }
-}
\ No newline at end of file
+
+    public int getPage() {
+        return page;
+    }
+}
@@ -0,0 +1,128 @@
+package use_case.search;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+
+import data_access.movies.MovieDBDataAccessException;
+import use_case.Callbacks;
+
+/**
+ * The Search Interactor. Pages of matches are fetched on the search executor and presented on the
+ * callback executor, so the caller never waits for TMDB.
+ *
+ * <p>Pages are kept for the rest of the session, and once a page has been presented the next one is
+ * fetched in the background, so paging through the matches rarely waits for TMDB either. Only the most
+ * recent search is presented; a slower, earlier search finishing later is ignored.</p>
+ */
+public class SearchInteractor implements SearchInputBoundary {
+    private static final int MAX_CACHED_PAGES = 200;
+    private final SearchDataAccessInterface searchDataAccessObject;
+    private final SearchOutputBoundary searchPresenter;
+    private final Executor searchExecutor;
+    private final Executor callbackExecutor;
+    private final Map<PageKey, CompletableFuture<SearchResultPage>> pages;
+    private final AtomicLong latestSearch = new AtomicLong();
+
+    public SearchInteractor(SearchDataAccessInterface searchDataAccessInterface,
+                            SearchOutputBoundary searchOutputBoundary) {
+        this(searchDataAccessInterface, searchOutputBoundary, Runnable::run, Runnable::run);
+    }
+
+    public SearchInteractor(SearchDataAccessInterface searchDataAccessInterface,
+                            SearchOutputBoundary searchOutputBoundary,
+                            Executor searchExecutor,
+                            Executor callbackExecutor) {
+        this.searchDataAccessObject = searchDataAccessInterface;
+        this.searchPresenter = searchOutputBoundary;
+        this.searchExecutor = searchExecutor;
+        this.callbackExecutor = callbackExecutor;
+        this.pages = new LinkedHashMap<>(MAX_CACHED_PAGES, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<PageKey, CompletableFuture<SearchResultPage>> eldest) {
+                return size() > MAX_CACHED_PAGES;
+            }
+        };
+    }
+
+    /**
+     * A page of a search, with the query normalized so that searches differing only in case or spacing
+     * share their pages.
+     */
+    private record PageKey(String query, int page) {
+        static PageKey of(String query, int page) {
+            return new PageKey(query.strip().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT), page);
+        }
+    }
+
+    @Override
+    public void execute(SearchInputData searchInputData) {
+        final String query = searchInputData.getQuery().strip();
+        if (query.isEmpty()) {
+            searchPresenter.prepareFailView("Enter a title to search for.");
+        }
+        else {
+            final int page = Math.max(1, searchInputData.getPage());
+            final long search = latestSearch.incrementAndGet();
+            final CompletableFuture<SearchResultPage> resultPage = getPage(query, page);
+            Callbacks.whenComplete(resultPage, callbackExecutor, (result, error) -> {
+                if (search == latestSearch.get()) {
+                    present(query, result, error);
+                }
+            });
+            // fetch the next page while the user looks at this one
+            resultPage.thenAccept(result -> {
+                if (result.hasNextPage()) {
+                    getPage(query, page + 1);
+                }
+            });
+        }
+    }
+
+    private void present(String query, SearchResultPage result, Throwable error) {
+        if (error != null) {
+            searchPresenter.prepareFailView("Could not search for \"" + query + "\": " + error.getMessage());
+        }
+        else {
+            searchPresenter.prepareSuccessView(new SearchOutputData(result));
+        }
+    }
+
+    /**
+     * Return the page from this session's pages, fetching it if it has not been fetched yet. A page which
+     * could not be fetched is forgotten, so asking for it again retries.
+     */
+    private CompletableFuture<SearchResultPage> getPage(String query, int page) {
+        final PageKey key = PageKey.of(query, page);
+        final CompletableFuture<SearchResultPage> result;
+        synchronized (pages) {
+            final CompletableFuture<SearchResultPage> cached = pages.get(key);
+            if (cached != null) {
+                result = cached;
+            }
+            else {
+                result = CompletableFuture.supplyAsync(() -> {
+                    try {
+                        return searchDataAccessObject.searchMovies(query, page);
+                    }
+                    catch (MovieDBDataAccessException ex) {
+                        throw new CompletionException(ex);
+                    }
+                }, searchExecutor);
+                pages.put(key, result);
+                result.whenComplete((fetched, error) -> {
+                    if (error != null) {
+                        synchronized (pages) {
+                            pages.remove(key, result);
+                        }
+                    }
+                });
+            }
+        }
+        return result;
+    }
+}
@@ -1,18 +1,30 @@
 package use_case.search;
 
-import entity.AbstractMedia;
+import java.util.List;
 
 /**
- * Contains the output data for the search results.
+ * Contains the output data for the search results: one page of matches.
  */
 public class SearchOutputData {
-    private final AbstractMedia media;
+    private final SearchResultPage resultPage;
 
-    public SearchOutputData(AbstractMedia media) {
-        this.media = media;
+    public SearchOutputData(SearchResultPage resultPage) {
+        this.resultPage = resultPage;
     }
 
-    public AbstractMedia getMedia() {
-        return media;
+    public String getQuery() {
+        return resultPage.getQuery();
+    }
+
+    public int getPage() {
+        return resultPage.getPage();
+    }
+
+    public int getTotalPages() {
+        return resultPage.getTotalPages();
+    }
+
+    public List<SearchResult> getResults() {
+        return resultPage.getResults();
     }
 }
@@ -0,0 +1,42 @@
+package use_case.search;
+
+/**
+ * A summary of a movie matching a search, with just enough to tell the matches apart.
+ */
+public class SearchResult {
+    private final int movieID;
+    private final String title;
+    private final String releaseDate;
+    private final int externalRating;
+
+    public SearchResult(int movieID, String title, String releaseDate, int externalRating) {
+        this.movieID = movieID;
+        this.title = title;
+        this.releaseDate = releaseDate;
+        this.externalRating = externalRating;
+    }
+
+    public int getMovieID() {
+        return movieID;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    /**
+     * Return the release date, as yyyy-mm-dd.
+     * @return the release date, or an empty string if it is not known
+     */
+    public String getReleaseDate() {
+        return releaseDate;
+    }
+
+    /**
+     * Return the external rating, normalized to 0-100.
+     * @return the external rating
+     */
+    public int getExternalRating() {
+        return externalRating;
+    }
+}
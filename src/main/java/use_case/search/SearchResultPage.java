@@ -0,0 +1,44 @@
+package use_case.search;
+
+import java.util.List;
+
+/**
+ * One page of the movies matching a search.
+ */
+public class SearchResultPage {
+    private final String query;
+    private final int page;
+    private final int totalPages;
+    private final List<SearchResult> results;
+
+    public SearchResultPage(String query, int page, int totalPages, List<SearchResult> results) {
+        this.query = query;
+        this.page = page;
+        this.totalPages = totalPages;
+        this.results = List.copyOf(results);
+    }
+
+    public String getQuery() {
+        return query;
+    }
+
+    public int getPage() {
+        return page;
+    }
+
+    public int getTotalPages() {
+        return totalPages;
+    }
+
+    public List<SearchResult> getResults() {
+        return results;
+    }
+
+    /**
+     * Return whether there are more matches after this page.
+     * @return true if this is not the last page
+     */
+    public boolean hasNextPage() {
+        return page < totalPages;
+    }
+}
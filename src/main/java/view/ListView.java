@@ -23,10 +23,12 @@ import javax.swing.JTable;
 import javax.swing.JTextArea;
 import javax.swing.RowFilter;
 import javax.swing.SwingUtilities;
+import javax.swing.text.BadLocationException;
 import javax.swing.table.DefaultTableModel;
 import javax.swing.table.TableModel;
 import javax.swing.table.TableRowSorter;
 
+import interface_adapter.add_recommendation.AddRecommendationController;
 import interface_adapter.filter_list.FilterController;
 import interface_adapter.filter_list.FilterViewModel;
 import interface_adapter.generate_recommendations.GenController;
@@ -47,6 +49,7 @@ public class ListView extends JPanel implements ActionListener, PropertyChangeLi
     private final JButton removeButton = new JButton("Remove");
     private final JButton moveToButton = new JButton("Move to");
     private final JButton recommendButton = new JButton("Generate Recommendation");
+    private final JButton addRecommendationButton = new JButton("Add to List");
     private final JTextArea recommendBox = new JTextArea();
     private final JTable mediaListTable = new JTable();
     private final List<JRadioButton> radioButtonList = new ArrayList<>();
@@ -56,6 +59,7 @@ public class ListView extends JPanel implements ActionListener, PropertyChangeLi
     private ListController listController;
     private GenController genController;
     private FilterController filterController;
+    private AddRecommendationController addRecommendationController;
 
     // View Models
     private final ListViewModel listViewModel;
@@ -117,6 +121,7 @@ public class ListView extends JPanel implements ActionListener, PropertyChangeLi
         buttonPanel.add(removeButton);
         buttonPanel.add(moveToButton);
         buttonPanel.add(recommendButton);
+        buttonPanel.add(addRecommendationButton);
         bottomPanel.add(buttonPanel);
     }
 
@@ -150,6 +155,15 @@ public class ListView extends JPanel implements ActionListener, PropertyChangeLi
                 }
         );
 
+        addRecommendationButton.addActionListener(
+                evt -> {
+                    if (evt.getSource().equals(addRecommendationButton)) {
+                        addRecommendationController.execute(getSelectedRecommendation(),
+                                listViewModel.getState().getCurrentCollectionName());
+                    }
+                }
+        );
+
         mediaCollectionSelector.addActionListener(
                 evt -> {
                     if (evt.getSource().equals(mediaCollectionSelector) && isUserAction) {
@@ -309,6 +323,9 @@ public class ListView extends JPanel implements ActionListener, PropertyChangeLi
         isUserAction = false;
         final ListState state = (ListState) evt.getNewValue();
         if ("logout".equals(evt.getPropertyName())) {
+            if (genController != null) {
+                genController.cancel();
+            }
             clearTable();
         }
         else if ("display data".equals(evt.getPropertyName())) {
@@ -321,6 +338,9 @@ public class ListView extends JPanel implements ActionListener, PropertyChangeLi
         else if ("recommendation".equals(evt.getPropertyName())) {
             setRecommendationFields(state);
         }
+        else if ("recommendation error".equals(evt.getPropertyName())) {
+            JOptionPane.showMessageDialog(null, state.getErrorMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+        }
         isUserAction = true;
     }
 
@@ -364,6 +384,25 @@ public class ListView extends JPanel implements ActionListener, PropertyChangeLi
         mediaCollectionSelector.removeAllItems();
     }
 
+    /**
+     * Return the recommendation the user picked: the selected text, or else the line with the caret.
+     * @return the name of the recommended movie, or an empty string if there is none
+     */
+    private String getSelectedRecommendation() {
+        String result = recommendBox.getSelectedText();
+        if (result == null) {
+            try {
+                final int line = recommendBox.getLineOfOffset(recommendBox.getCaretPosition());
+                final int start = recommendBox.getLineStartOffset(line);
+                result = recommendBox.getText(start, recommendBox.getLineEndOffset(line) - start);
+            }
+            catch (BadLocationException ex) {
+                result = "";
+            }
+        }
+        return result.strip();
+    }
+
     private void setRecommendationFields(ListState state) {
         recommendBox.setText(state.getGeneratedRecommendations());
     }
@@ -375,4 +414,8 @@ public class ListView extends JPanel implements ActionListener, PropertyChangeLi
     public void setFilterController(FilterController filterController) {
         this.filterController = filterController;
     }
+
+    public void setAddRecommendationController(AddRecommendationController addRecommendationController) {
+        this.addRecommendationController = addRecommendationController;
+    }
 }
@@ -26,6 +26,7 @@ public class LoggedInView extends JPanel implements PropertyChangeListener {
     private final String viewName = "logged in";
     private final LoggedInViewModel loggedInViewModel;
     private final JLabel passwordErrorField = new JLabel();
+    private final JLabel pendingChangesField = new JLabel();
     private ChangePasswordController changePasswordController;
     private LogoutController logoutController;
     private final JLabel username;
@@ -112,6 +113,7 @@ public class LoggedInView extends JPanel implements PropertyChangeListener {
         this.add(passwordInfo);
         this.add(passwordErrorField);
         this.add(buttons);
+        this.add(pendingChangesField);
     }
 
     @Override
@@ -125,6 +127,15 @@ public class LoggedInView extends JPanel implements PropertyChangeListener {
             final LoggedInState state = (LoggedInState) evt.getNewValue();
             JOptionPane.showMessageDialog(null, "password updated for " + state.getUsername());
         }
+        else if (evt.getPropertyName().equals("pending changes")) {
+            final LoggedInState state = (LoggedInState) evt.getNewValue();
+            if (state.getPendingChanges() == 0) {
+                pendingChangesField.setText("");
+            }
+            else {
+                pendingChangesField.setText("Pending changes: " + state.getPendingChanges());
+            }
+        }
     }
 
     public String getViewName() {
@@ -1,5 +1,6 @@
 package view;
 
+import interface_adapter.search.SearchController;
 import interface_adapter.search.SearchViewModel;
 
 import javax.swing.BorderFactory;
@@ -36,6 +37,9 @@ public class SearchView extends JPanel implements PropertyChangeListener {
     private final JButton genreAddButton = new JButton("Add Genre");
     private final JButton castAddButton = new JButton("Add Cast");
     private final JButton mainSearchButton = new JButton("Search");
+    private final JButton previousPageButton = new JButton("Previous");
+    private final JButton nextPageButton = new JButton("Next");
+    private final JLabel pageLabel = new JLabel("");
 
     private final JTextArea resultsArea = new JTextArea(10, 30);
     private final JLabel errorLabel = new JLabel("");
@@ -44,6 +48,7 @@ public class SearchView extends JPanel implements PropertyChangeListener {
     private final JPanel queryPanel = new JPanel();
     // List to store query filters
     private final List<String> queryFilters = new ArrayList<>();
+    private SearchController searchController;
 
     public SearchView(SearchViewModel searchViewModel) {
         this.searchViewModel = searchViewModel;
@@ -92,6 +97,15 @@ public class SearchView extends JPanel implements PropertyChangeListener {
         final JScrollPane scrollPane = new JScrollPane(resultsArea);
         add(scrollPane);
 
+        // Paging panel
+        final JPanel pagingPanel = new JPanel(new FlowLayout());
+        pagingPanel.add(previousPageButton);
+        pagingPanel.add(pageLabel);
+        pagingPanel.add(nextPageButton);
+        previousPageButton.setEnabled(false);
+        nextPageButton.setEnabled(false);
+        add(pagingPanel);
+
         // Error label
         errorLabel.setForeground(Color.RED);
         add(errorLabel);
@@ -112,6 +126,29 @@ public class SearchView extends JPanel implements PropertyChangeListener {
                 SearchView.this.addFilter("Cast", castField.getText());
             }
         });
+        keywordSearchButton.addActionListener(new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                if (searchController == null) {
+                    showError("Search is not available.");
+                }
+                else {
+                    searchController.execute(keywordField.getText());
+                }
+            }
+        });
+        previousPageButton.addActionListener(new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                searchController.showPage(searchViewModel.getQuery(), searchViewModel.getPage() - 1);
+            }
+        });
+        nextPageButton.addActionListener(new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                searchController.showPage(searchViewModel.getQuery(), searchViewModel.getPage() + 1);
+            }
+        });
     }
 
     /**
@@ -159,6 +196,12 @@ public class SearchView extends JPanel implements PropertyChangeListener {
      */
     private void updateResultsDisplay(String results) {
         resultsArea.setText(results);
+        resultsArea.setCaretPosition(0);
+        final int page = searchViewModel.getPage();
+        final int totalPages = searchViewModel.getTotalPages();
+        pageLabel.setText("Page " + page + " of " + Math.max(page, totalPages));
+        previousPageButton.setEnabled(page > 1);
+        nextPageButton.setEnabled(page < totalPages);
     }
 
     /**
@@ -177,6 +220,10 @@ public class SearchView extends JPanel implements PropertyChangeListener {
         errorLabel.setText("");
     }
 
+    public void setSearchController(SearchController searchController) {
+        this.searchController = searchController;
+    }
+
     public String getViewName() {
         return viewName;
     }
@@ -0,0 +1,61 @@
+package data_access;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import use_case.generate_recommendations.GenDataAccessInterface;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CachingRecommendationDataAccessObjectTest {
+    @TempDir
+    Path directory;
+
+    private final List<List<String>> calls = new ArrayList<>();
+
+    private final GenDataAccessInterface tasteDive = new GenDataAccessInterface() {
+        @Override
+        public JSONArray getRecommendation(List<String> query, String sourceType, String returnType) {
+            calls.add(query);
+            return new JSONArray().put(new JSONObject().put("name", "Recommended " + calls.size()));
+        }
+
+        @Override
+        public void setApiKey(String apiKey) {
+        }
+    };
+
+    @Test
+    void testReorderedSeedsShareAnEntry() throws Exception {
+        final CachingRecommendationDataAccessObject cache = new CachingRecommendationDataAccessObject(tasteDive);
+
+        final JSONArray first = cache.getRecommendation(List.of("Heat", "Alien"), "movie", "movie");
+        first.clear();
+        final JSONArray second = cache.getRecommendation(List.of(" alien", "HEAT", "", "heat"), "movie", "movie");
+        assertEquals(1, calls.size());
+        assertEquals("Recommended 1", second.getJSONObject(0).getString("name"));
+
+        cache.getRecommendation(List.of("Heat", "Alien"), "movie", "show");
+        assertEquals(2, calls.size());
+    }
+
+    @Test
+    void testDiskTierSurvivesRestartUntilExpired() throws Exception {
+        new CachingRecommendationDataAccessObject(tasteDive, directory)
+                .getRecommendation(List.of("Heat"), "movie", "movie");
+        final JSONArray restored = new CachingRecommendationDataAccessObject(tasteDive, directory)
+                .getRecommendation(List.of("heat"), "movie", "movie");
+        assertEquals(1, calls.size());
+        assertEquals("Recommended 1", restored.getJSONObject(0).getString("name"));
+
+        new CachingRecommendationDataAccessObject(tasteDive, directory, Duration.ZERO, 10)
+                .getRecommendation(List.of("Heat"), "movie", "movie");
+        assertEquals(2, calls.size());
+    }
+}
@@ -0,0 +1,94 @@
+package data_access;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.jupiter.api.Test;
+import use_case.generate_recommendations.GenDataAccessException;
+import use_case.generate_recommendations.GenDataAccessInterface;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChunkedRecommendationDataAccessObjectTest {
+    private final List<List<String>> chunks = Collections.synchronizedList(new ArrayList<>());
+
+    private GenDataAccessInterface tasteDive(Map<String, List<String>> recommendations) {
+        return new GenDataAccessInterface() {
+            @Override
+            public JSONArray getRecommendation(List<String> query, String sourceType, String returnType)
+                    throws GenDataAccessException {
+                chunks.add(query);
+                if (!recommendations.containsKey(query.get(0))) {
+                    throw new GenDataAccessException("quota exceeded");
+                }
+                final JSONArray result = new JSONArray();
+                recommendations.get(query.get(0)).forEach(name -> result.put(new JSONObject().put("name", name)));
+                return result;
+            }
+
+            @Override
+            public void setApiKey(String apiKey) {
+            }
+        };
+    }
+
+    @Test
+    void testChunksAreMergedByRank() throws Exception {
+        final GenDataAccessInterface chunked = new ChunkedRecommendationDataAccessObject(tasteDive(Map.of(
+                "A", List.of("Ronin", "Heat", "Thief"),
+                "C", List.of("Heat", "E", "Ronin"),
+                "E", List.of("Thief", "Heat", "A"))), 2, 100, 2);
+
+        final JSONArray merged = chunked.getRecommendation(List.of("A", "B", "", "C", "D", "E", "a"), "movie", "movie");
+        assertEquals(List.of(List.of("A", "B"), List.of("C", "D"), List.of("E")),
+                chunks.stream().sorted((x, y) -> x.get(0).compareTo(y.get(0))).toList());
+        final List<String> names = new ArrayList<>();
+        for (int i = 0; i < merged.length(); i++) {
+            names.add(merged.getJSONObject(i).getString("name"));
+        }
+        // Heat is recommended by all three chunks; seeds are never recommended back
+        assertEquals(List.of("Heat", "Ronin", "Thief"), names);
+    }
+
+    @Test
+    void testReorderedSeedsMakeTheSameChunkQueries() throws Exception {
+        final GenDataAccessInterface chunked = new ChunkedRecommendationDataAccessObject(tasteDive(Map.of(
+                "Alien", List.of("Heat"),
+                "Ronin", List.of("Heat"))), 2, 100, 1);
+
+        chunked.getRecommendation(List.of("Ronin", "Alien", "Heat", "Thief"), "movie", "movie");
+        final List<List<String>> first = List.copyOf(chunks);
+        chunks.clear();
+        chunked.getRecommendation(List.of("Thief", " Heat", "Alien ", "Ronin", "ronin"), "movie", "movie");
+        assertEquals(List.of(List.of("Alien", "Heat"), List.of("Ronin", "Thief")), first);
+        assertEquals(first, chunks);
+    }
+
+    @Test
+    void testFailedChunksAreLeftOut() throws Exception {
+        final GenDataAccessInterface chunked = new ChunkedRecommendationDataAccessObject(tasteDive(Map.of(
+                "A", List.of("Heat"))), 1, 100, 1);
+
+        assertEquals(1, chunked.getRecommendation(List.of("A", "B"), "movie", "movie").length());
+        assertThrows(GenDataAccessException.class,
+            () -> chunked.getRecommendation(List.of("B", "C"), "movie", "movie"));
+    }
+
+    @Test
+    void testPartialMergesArePublishedBeforeTheLastChunk() throws Exception {
+        final GenDataAccessInterface chunked = new ChunkedRecommendationDataAccessObject(tasteDive(Map.of(
+                "A", List.of("Heat"),
+                "B", List.of("Ronin"),
+                "C", List.of("Thief"))), 1, 100, 1);
+        final List<Integer> partialLengths = new ArrayList<>();
+
+        final JSONArray merged = chunked.getRecommendation(List.of("A", "B", "C"), "movie", "movie",
+            partial -> partialLengths.add(partial.length()));
+        assertEquals(List.of(1, 2), partialLengths);
+        assertEquals(3, merged.length());
+    }
+}
@@ -0,0 +1,135 @@
+package data_access;
+
+import entity.AbstractMedia;
+import entity.MediaCollection;
+import entity.Movie;
+import entity.Rating;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.jupiter.api.Test;
+import use_case.generate_recommendations.GenDataAccessException;
+import use_case.generate_recommendations.GenDataAccessInterface;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LocalRecommendationDataAccessObjectTest {
+    private final List<Movie> library = new ArrayList<>();
+
+    private static Movie movie(String name, int userRating, String genre, String lead, String description) {
+        return new Movie(name, List.of(genre), new Rating(userRating), new Rating(70), description,
+                List.of(lead), 120);
+    }
+
+    private LocalRecommendationDataAccessObject recommender(GenDataAccessInterface delegate) {
+        final LocalRecommendationDataAccessObject result = new LocalRecommendationDataAccessObject(delegate,
+            () -> List.of(new MediaCollection<>("Watched", "watched", Movie.class, new ArrayList<>(library))), 2);
+        result.addCandidate(movie("Aliens", -1, "Science Fiction", "Sigourney Weaver",
+                "Marines fight an alien colony on a distant planet."));
+        result.addCandidate(movie("The Thing", -1, "Horror", "Kurt Russell",
+                "An alien shapeshifter hunts researchers at an antarctic station."));
+        result.addCandidate(movie("Notting Hill", -1, "Romance", "Julia Roberts",
+                "A bookseller falls in love with a famous actress."));
+        result.addCandidate(movie("Alien", -1, "Science Fiction", "Sigourney Weaver",
+                "The crew of a spaceship is hunted by an alien."));
+        return result;
+    }
+
+    private static List<String> names(JSONArray recommendations) {
+        final List<String> result = new ArrayList<>();
+        for (int i = 0; i < recommendations.length(); i++) {
+            result.add(recommendations.getJSONObject(i).getString("name"));
+        }
+        return result;
+    }
+
+    @Test
+    void testHighlyRatedLibraryTitlesDriveTheRecommendations() throws Exception {
+        library.add(movie("Alien", 95, "Science Fiction", "Sigourney Weaver",
+                "The crew of a spaceship is hunted by an alien."));
+        library.add(movie("Love Actually", 20, "Romance", "Hugh Grant", "Love stories at christmas."));
+        final LocalRecommendationDataAccessObject local = recommender(null);
+        local.addCandidate(movie("Alien (Director's Cut)", -1, "Science Fiction", "Sigourney Weaver",
+                "The crew of a spaceship is hunted by an alien."));
+
+        // neither the library title nor another cut of it is recommended, and the disliked romance does not count
+        assertEquals(List.of("Aliens", "The Thing"), names(local.getRecommendation(List.of(), "movie", "movie")));
+        assertTrue(local.getRecommendation(List.of(), "movie", "show").isEmpty());
+
+        // the library is re-read on every query
+        library.set(1, movie("Love Actually", 90, "Romance", "Julia Roberts", "Love stories at christmas."));
+        library.remove(0);
+        assertEquals(List.of("Notting Hill"), names(local.getRecommendation(List.of(), "movie", "movie")));
+    }
+
+    @Test
+    void testSeedsAreUsedAndCandidatesCanBeRemoved() throws Exception {
+        final LocalRecommendationDataAccessObject local = recommender(null);
+
+        assertEquals(List.of("Aliens", "The Thing"),
+                names(local.getRecommendation(List.of(" alien "), "movie", "movie")));
+        assertTrue(local.removeCandidate("ALIENS"));
+        assertFalse(local.removeCandidate("Aliens"));
+        assertEquals(3, local.size());
+        assertEquals(List.of("The Thing"), names(local.getRecommendation(List.of("Alien"), "movie", "movie")));
+    }
+
+    @Test
+    void testLocalRecommendationsStandInForAFailingDelegate() throws Exception {
+        final boolean[] fail = {true};
+        final GenDataAccessInterface tasteDive = new GenDataAccessInterface() {
+            @Override
+            public JSONArray getRecommendation(List<String> query, String sourceType, String returnType)
+                    throws GenDataAccessException {
+                if (fail[0]) {
+                    throw new GenDataAccessException("rate limited");
+                }
+                return new JSONArray().put(new JSONObject().put("name", "Heat"));
+            }
+
+            @Override
+            public void setApiKey(String apiKey) {
+            }
+        };
+        final LocalRecommendationDataAccessObject local = recommender(tasteDive);
+        final List<JSONArray> partials = new ArrayList<>();
+
+        assertEquals(List.of("Aliens", "The Thing"),
+                names(local.getRecommendation(List.of("Alien"), "movie", "movie", partials::add)));
+        assertEquals(1, partials.size());
+        fail[0] = false;
+        assertEquals(List.of("Heat"), names(local.getRecommendation(List.of("Alien"), "movie", "movie")));
+        assertThrows(GenDataAccessException.class, () -> {
+            fail[0] = true;
+            local.getRecommendation(List.of("Unknown"), "movie", "movie");
+        });
+    }
+
+    @Test
+    void testUnopenedCollectionsAreReadOnceOnTheLibraryExecutor() throws Exception {
+        final List<String> loaderThreads = new ArrayList<>();
+        final MediaCollection<Movie> unopened = new MediaCollection<>("Watched", "watched", Movie.class, 1, () -> {
+            loaderThreads.add(Thread.currentThread().getName());
+            return new ArrayList<>(List.of(movie("Alien", 95, "Science Fiction", "Sigourney Weaver",
+                    "The crew of a spaceship is hunted by an alien.")));
+        });
+        final ExecutorService libraryThread = Executors.newSingleThreadExecutor(
+            runnable -> new Thread(runnable, "library"));
+        final LocalRecommendationDataAccessObject local = new LocalRecommendationDataAccessObject(null,
+            () -> List.of(unopened), 2, libraryThread);
+        local.addCandidate(movie("Aliens", -1, "Science Fiction", "Sigourney Weaver",
+                "Marines fight an alien colony on a distant planet."));
+
+        assertEquals(List.of("Aliens"), names(local.getRecommendation(List.of(), "movie", "movie")));
+        assertEquals(List.of("Aliens"), names(local.getRecommendation(List.of(), "movie", "movie")));
+        libraryThread.shutdown();
+
+        // the collection stays unopened, and is only decoded once
+        assertFalse(unopened.isLoaded());
+        assertEquals(List.of("library"), loaderThreads);
+    }
+}
@@ -0,0 +1,102 @@
+package data_access;
+
+import entity.Movie;
+import entity.Rating;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MediaSimilarityIndexTest {
+    private static int[] features(String... terms) {
+        return List.of(terms).stream().mapToInt(String::hashCode).toArray();
+    }
+
+    private static final int[] ALIEN = features("g:science fiction", "g:horror", "c:sigourney weaver",
+            "c:tom skerritt", "c:john hurt", "d:crew", "d:commercial", "d:spaceship", "d:nostromo", "d:hunted",
+            "d:deadly", "d:alien", "d:creature");
+    private static final int[] ALIEN_DIRECTORS_CUT = features("g:science fiction", "g:horror",
+            "c:sigourney weaver", "c:tom skerritt", "c:john hurt", "d:crew", "d:commercial", "d:spaceship",
+            "d:nostromo", "d:hunted", "d:deadly", "d:alien", "d:creature", "d:restored");
+    private static final int[] ALIENS = features("g:science fiction", "g:horror", "g:action",
+            "c:sigourney weaver", "c:michael biehn", "d:ripley", "d:returns", "d:colonial", "d:marines",
+            "d:fight", "d:deadly", "d:alien", "d:creature");
+    private static final int[] NOTTING_HILL = features("g:romance", "g:comedy", "c:julia roberts",
+            "c:hugh grant", "d:bookseller", "d:falls", "d:love", "d:famous", "d:actress");
+
+    private static Movie movie(String name, List<String> genres, List<String> cast, String description) {
+        return new Movie(name, genres, new Rating(-1), new Rating(70), description, cast, 120);
+    }
+
+    private static final Movie ALIEN_MOVIE = movie("Alien", List.of("Science Fiction", "Horror"),
+            List.of("Sigourney Weaver", "Tom Skerritt", "John Hurt"),
+            "The crew of the commercial spaceship Nostromo is hunted by a deadly alien creature.");
+    private static final Movie ALIEN_DIRECTORS_CUT_MOVIE = movie("Alien (Director's Cut)",
+            List.of("Science Fiction", "Horror"), List.of("Sigourney Weaver", "Tom Skerritt", "John Hurt"),
+            "The crew of the commercial spaceship Nostromo is hunted by a deadly alien creature. Restored.");
+    private static final Movie ALIENS_MOVIE = movie("Aliens", List.of("Science Fiction", "Horror", "Action"),
+            List.of("Sigourney Weaver", "Michael Biehn"),
+            "Ripley returns with colonial marines to fight the deadly alien creature.");
+    private static final Movie NOTTING_HILL_MOVIE = movie("Notting Hill", List.of("Romance", "Comedy"),
+            List.of("Julia Roberts", "Hugh Grant"), "A bookseller falls in love with a famous actress.");
+
+    private static List<String> names(List<MediaSimilarityIndex.Match> matches) {
+        return matches.stream().map(MediaSimilarityIndex.Match::name).toList();
+    }
+
+    @Test
+    void testNearDuplicatesAndSimilarTitlesAreFound() {
+        final MediaSimilarityIndex index = new MediaSimilarityIndex();
+        index.add("Alien", ALIEN);
+        index.add("Alien (Director's Cut)", ALIEN_DIRECTORS_CUT);
+        index.add("Aliens", ALIENS);
+        index.add("Notting Hill", NOTTING_HILL);
+
+        assertEquals(List.of("Alien (Director's Cut)"),
+                names(index.similarTo("Alien", ALIEN, 10, MediaSimilarityIndex.NEAR_DUPLICATE_SIMILARITY)));
+        final List<MediaSimilarityIndex.Match> similar = index.similarTo("Alien", ALIEN, 10, 0);
+        assertEquals("Alien (Director's Cut)", similar.get(0).name());
+        assertTrue(similar.get(0).similarity() >= MediaSimilarityIndex.NEAR_DUPLICATE_SIMILARITY);
+        assertFalse(names(similar).contains("Alien"));
+        assertFalse(names(similar).contains("Notting Hill"));
+    }
+
+    @Test
+    void testTitlesAreAddedReplacedAndRemovedOneAtATime() {
+        final MediaSimilarityIndex index = new MediaSimilarityIndex();
+        index.add("Alien (Director's Cut)", ALIEN_DIRECTORS_CUT);
+        index.add("Notting Hill", NOTTING_HILL);
+        assertEquals(2, index.size());
+        assertEquals(List.of("Alien (Director's Cut)"),
+                names(index.similarTo(null, ALIEN, 10, MediaSimilarityIndex.NEAR_DUPLICATE_SIMILARITY)));
+
+        // replacing a title moves it to the buckets of its new features
+        index.add("alien (director's cut)", NOTTING_HILL);
+        assertEquals(2, index.size());
+        assertTrue(index.similarTo(null, ALIEN, 10, MediaSimilarityIndex.NEAR_DUPLICATE_SIMILARITY).isEmpty());
+
+        assertTrue(index.remove("Alien (Director's Cut)"));
+        assertFalse(index.remove("Alien (Director's Cut)"));
+        assertEquals(1, index.size());
+        assertTrue(index.similarTo(null, new int[0], 10, 0).isEmpty());
+    }
+
+    @Test
+    void testTitlesAreLookedUpByTheirOwnFeatures() {
+        final MediaSimilarityIndex index = new MediaSimilarityIndex();
+        List.of(ALIEN_MOVIE, ALIEN_DIRECTORS_CUT_MOVIE, ALIENS_MOVIE, NOTTING_HILL_MOVIE).forEach(index::add);
+
+        assertEquals(List.of("Alien (Director's Cut)"), names(index.nearDuplicatesOf(ALIEN_MOVIE)));
+        final List<MediaSimilarityIndex.Match> similar = index.similarTo(ALIEN_MOVIE, 10);
+        assertEquals("Alien (Director's Cut)", similar.get(0).name());
+        assertFalse(names(similar).contains("Alien"));
+        assertFalse(names(similar).contains("Notting Hill"));
+        assertEquals(1, index.similarTo(ALIEN_MOVIE, 1).size());
+
+        // a title's own features are its genre, cast and description terms
+        final MediaSimilarityIndex byFeatures = new MediaSimilarityIndex();
+        byFeatures.add("Alien", ALIEN);
+        assertEquals(List.of("Alien"), names(byFeatures.nearDuplicatesOf(ALIEN_DIRECTORS_CUT_MOVIE)));
+    }
+}
@@ -0,0 +1,96 @@
+package data_access.grade_api;
+
+import entity.AbstractMedia;
+import entity.MediaCollection;
+import entity.Movie;
+import entity.User;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class AsyncUserRepositoryTest {
+    private static List<MediaCollection<? extends AbstractMedia>> collections(int count) {
+        final List<MediaCollection<? extends AbstractMedia>> result = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            result.add(new MediaCollection<>("list " + i, "list", Movie.class, new ArrayList<>()));
+        }
+        return result;
+    }
+
+    @Test
+    void testSavesRunOneAtATimeInOrder() throws Exception {
+        final UserRepository delegate = mock(UserRepository.class);
+        final AtomicInteger running = new AtomicInteger();
+        final AtomicInteger maxRunning = new AtomicInteger();
+        final List<Integer> saved = new ArrayList<>();
+        when(delegate.saveMediaCollections(any())).thenAnswer(invocation -> {
+            final List<?> collections = invocation.getArgument(0);
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            Thread.sleep(5);
+            synchronized (saved) {
+                saved.add(collections.size());
+            }
+            running.decrementAndGet();
+            return collections;
+        });
+        final AsyncUserRepository repository = new AsyncUserRepository(delegate, 4);
+
+        final List<CompletableFuture<?>> saves = new ArrayList<>();
+        for (int i = 1; i <= 8; i++) {
+            saves.add(repository.saveMediaCollectionsAsync(collections(i)));
+        }
+        CompletableFuture.allOf(saves.toArray(new CompletableFuture<?>[0])).get(5, TimeUnit.SECONDS);
+
+        assertEquals(1, maxRunning.get());
+        assertEquals(List.of(1, 2, 3, 4, 5, 6, 7, 8), saved);
+        repository.shutdown();
+    }
+
+    @Test
+    void testFailuresCompleteTheFutureExceptionally() throws Exception {
+        final UserRepository delegate = mock(UserRepository.class);
+        when(delegate.saveMediaCollections(any())).thenThrow(new GradeDataAccessException("down"));
+        when(delegate.find("alice")).thenReturn(Optional.of(new User("alice", "secret")));
+        final AsyncUserRepository repository = new AsyncUserRepository(delegate);
+
+        final ExecutionException failure = assertThrows(ExecutionException.class,
+                () -> repository.saveMediaCollectionsAsync(collections(1)).get(5, TimeUnit.SECONDS));
+        assertInstanceOf(GradeDataAccessException.class, failure.getCause());
+        assertEquals("alice", repository.findAsync("alice").get(5, TimeUnit.SECONDS).orElseThrow().getName());
+        repository.shutdown();
+    }
+
+    @Test
+    void testAwaitTerminationWaitsForQueuedSaves() throws Exception {
+        final UserRepository delegate = mock(UserRepository.class);
+        final CountDownLatch release = new CountDownLatch(1);
+        final AtomicInteger saves = new AtomicInteger();
+        when(delegate.saveMediaCollections(any())).thenAnswer(invocation -> {
+            release.await();
+            saves.incrementAndGet();
+            return invocation.getArgument(0);
+        });
+        final AsyncUserRepository repository = new AsyncUserRepository(delegate);
+
+        repository.saveMediaCollectionsAsync(collections(1));
+        repository.saveMediaCollectionsAsync(collections(2));
+        repository.shutdown();
+        assertFalse(repository.awaitTermination(Duration.ofMillis(50)));
+
+        release.countDown();
+        assertTrue(repository.awaitTermination(Duration.ofSeconds(5)));
+        assertEquals(2, saves.get());
+    }
+}
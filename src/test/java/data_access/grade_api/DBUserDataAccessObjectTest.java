@@ -0,0 +1,182 @@
+package data_access.grade_api;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import data_access.http.HttpTransport;
+import entity.AbstractMedia;
+import entity.MediaCollection;
+import entity.Movie;
+import entity.User;
+import org.json.JSONObject;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DBUserDataAccessObjectTest {
+    private HttpServer server;
+    private String baseUrl;
+    private final HttpTransport transport = new HttpTransport.Builder().build();
+    private final AtomicInteger userRequests = new AtomicInteger();
+    private final AtomicBoolean writesFail = new AtomicBoolean();
+    private final Set<String> usernames = ConcurrentHashMap.newKeySet();
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        final byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    @BeforeEach
+    void setUp() throws IOException {
+        usernames.add("alice");
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/user", exchange -> {
+            if ("POST".equals(exchange.getRequestMethod())) {
+                final String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+                usernames.add(new JSONObject(body).getString("username"));
+                respond(exchange, 200, "{\"status_code\": 200}");
+            }
+            else {
+                userRequests.incrementAndGet();
+                final String username = exchange.getRequestURI().getQuery().substring("username=".length());
+                if (usernames.contains(username)) {
+                    respond(exchange, 200, "{\"status_code\": 200, \"user\": {\"username\": \"" + username
+                            + "\", \"password\": \"secret\", \"info\": []}}");
+                }
+                else {
+                    respond(exchange, 404, "{\"status_code\": 404, \"message\": \"no such user\"}");
+                }
+            }
+        });
+        server.createContext("/modifyUserInfo", exchange -> {
+            if (writesFail.get()) {
+                respond(exchange, 500, "{\"status_code\": 500, \"message\": \"down\"}");
+            }
+            else {
+                respond(exchange, 200, "{\"status_code\": 200}");
+            }
+        });
+        server.start();
+        baseUrl = "http://localhost:" + server.getAddress().getPort();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+        transport.shutdown();
+    }
+
+    private DBUserDataAccessObject dataAccessObject() {
+        return dataAccessObject(Duration.ofSeconds(30));
+    }
+
+    private DBUserDataAccessObject dataAccessObject(Duration absentTtl) {
+        return new DBUserDataAccessObject(transport, Duration.ofMinutes(10), absentTtl, baseUrl);
+    }
+
+    @Test
+    void testFindResolvesLoginWithOneRequest() {
+        final DBUserDataAccessObject users = dataAccessObject();
+
+        final Optional<User> alice = users.find("alice");
+        assertEquals("alice", alice.orElseThrow().getName());
+        assertSame(alice.get(), users.getCurrentUser());
+        assertEquals(1, userRequests.get());
+    }
+
+    @Test
+    void testAbsentUsersAreRememberedUntilSaved() {
+        final DBUserDataAccessObject users = dataAccessObject();
+
+        // a 404 means the user does not exist, not that the lookup failed
+        assertTrue(users.find("bob").isEmpty());
+        assertTrue(users.find("bob").isEmpty());
+        assertFalse(users.existsByName("bob"));
+        assertEquals(1, userRequests.get());
+
+        users.save(new User("bob", "secret"));
+        assertEquals("bob", users.find("bob").orElseThrow().getName());
+        assertEquals(2, userRequests.get());
+    }
+
+    @Test
+    void testAbsentUsersAreLookedUpAgainOnceTheirEntryExpires() {
+        final DBUserDataAccessObject users = dataAccessObject(Duration.ZERO);
+
+        assertTrue(users.find("bob").isEmpty());
+        usernames.add("bob");
+        assertTrue(users.find("bob").isPresent());
+        assertEquals(2, userRequests.get());
+    }
+
+    @Test
+    void testAcknowledgedWritesAreReadBackWithoutRefetching() throws GradeDataAccessException {
+        final DBUserDataAccessObject users = dataAccessObject();
+        final User alice = users.get("alice");
+        final long version = users.getCacheVersion();
+        final List<MediaCollection<? extends AbstractMedia>> collections = new ArrayList<>();
+        collections.add(new MediaCollection<>("watched", "watched", Movie.class, new ArrayList<>()));
+
+        users.saveMediaCollections(collections);
+        assertSame(alice, users.getCurrentUser());
+        assertEquals(collections, users.getCurrentUser().getAllMediaCollections());
+        assertTrue(users.getCacheVersion() > version);
+        assertFalse(users.isCacheStale());
+        assertSame(alice, users.revalidateCurrentUser());
+        assertEquals(1, userRequests.get());
+    }
+
+    @Test
+    void testFailedWriteIsOnlyRefetchedOnRevalidation() throws GradeDataAccessException {
+        final DBUserDataAccessObject users = dataAccessObject();
+        final User alice = users.get("alice");
+        writesFail.set(true);
+
+        assertThrows(GradeDataAccessException.class, () -> users.saveMediaCollections(new ArrayList<>()));
+        assertTrue(users.isCacheStale());
+        // reading the current user stays local
+        assertSame(alice, users.getCurrentUser());
+        assertEquals(1, userRequests.get());
+
+        final User refetched = users.revalidateCurrentUser();
+        assertNotSame(alice, refetched);
+        assertSame(refetched, users.getCurrentUser());
+        assertFalse(users.isCacheStale());
+        assertEquals(2, userRequests.get());
+    }
+
+    @Test
+    void testStaleUsersAreRefetchedWhenReadAsynchronously() {
+        final DBUserDataAccessObject users = new DBUserDataAccessObject(transport, Duration.ZERO,
+                Duration.ofSeconds(30), baseUrl);
+        final AsyncUserRepository asyncUsers = new AsyncUserRepository(users);
+        final User alice = users.get("alice");
+
+        final User refetched = asyncUsers.getCurrentUserAsync().join();
+        assertNotSame(alice, refetched);
+        assertSame(refetched, users.getCurrentUser());
+        assertEquals(2, userRequests.get());
+
+        // while the Grade API is unreachable, the cached user is still read
+        server.stop(0);
+        assertSame(refetched, asyncUsers.getCurrentUserAsync().join());
+        asyncUsers.shutdown();
+    }
+}
@@ -0,0 +1,137 @@
+package data_access.grade_api;
+
+import entity.AbstractMedia;
+import entity.MediaCollection;
+import entity.Movie;
+import entity.Rating;
+import entity.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class WriteBehindUserRepositoryTest {
+    private UserRepository delegate;
+    private WriteBehindUserRepository repository;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        delegate = mock(UserRepository.class);
+        user = new User("test", "test");
+        user.setMediaCollections(new ArrayList<>());
+        when(delegate.getCurrentUser()).thenReturn(user);
+        repository = new WriteBehindUserRepository(delegate, Duration.ofHours(1));
+    }
+
+    @Test
+    void testEditsAreCoalescedIntoOneUpload() throws GradeDataAccessException {
+        final Movie movie = new Movie("Test Movie", List.of("Action"), new Rating(50), new Rating(75),
+                "Description", List.of("Actor 1"), 120);
+        final List<MediaCollection<? extends AbstractMedia>> collections = new ArrayList<>();
+        collections.add(new MediaCollection<>("watched", "watched", Movie.class, new ArrayList<>(List.of(movie))));
+
+        repository.saveMediaCollections(collections);
+        movie.setUserRatingScore(60);
+        repository.saveMediaCollections(collections);
+        movie.setUserRatingScore(70);
+        repository.saveMediaCollections(collections);
+
+        assertEquals(3, repository.getPendingChangeCount());
+        assertEquals(collections, user.getAllMediaCollections());
+        verify(delegate, never()).saveMediaCollections(any());
+
+        repository.flush();
+        verify(delegate, times(1)).saveMediaCollections(collections);
+        assertEquals(0, repository.getPendingChangeCount());
+    }
+
+    @Test
+    void testUnchangedSaveIsNotUploaded() throws GradeDataAccessException {
+        final List<MediaCollection<? extends AbstractMedia>> collections = new ArrayList<>();
+        collections.add(new MediaCollection<>("watched", "watched", Movie.class, new ArrayList<>()));
+        repository.saveMediaCollections(collections);
+        repository.flush();
+        repository.saveMediaCollections(collections);
+        repository.flush();
+        verify(delegate, times(1)).saveMediaCollections(any());
+    }
+
+    @Test
+    void testLogoutFlushesPendingChanges() throws GradeDataAccessException {
+        final List<MediaCollection<? extends AbstractMedia>> collections = new ArrayList<>();
+        collections.add(new MediaCollection<>("watched", "watched", Movie.class, new ArrayList<>()));
+        repository.saveMediaCollections(collections);
+        repository.clearCurrentUser();
+        verify(delegate).saveMediaCollections(collections);
+        verify(delegate).clearCurrentUser();
+    }
+
+    @Test
+    void testFailedFlushesDoNotBlockSessionChanges() throws GradeDataAccessException {
+        when(delegate.saveMediaCollections(any())).thenThrow(new GradeDataAccessException("offline"));
+        final List<Integer> counts = new ArrayList<>();
+        repository.addPendingChangesListener(counts::add);
+        final List<MediaCollection<? extends AbstractMedia>> collections = new ArrayList<>();
+        collections.add(new MediaCollection<>("watched", "watched", Movie.class, new ArrayList<>()));
+        repository.saveMediaCollections(collections);
+
+        // the edits stay pending and visible in the counter
+        repository.changePassword(user);
+        verify(delegate).changePassword(user);
+        assertEquals(1, repository.getPendingChangeCount());
+        assertEquals(List.of(1, 1), counts);
+        assertNotNull(repository.getLastFlushError());
+
+        repository.clearCurrentUser();
+        verify(delegate).clearCurrentUser();
+        verify(delegate, times(2)).saveMediaCollections(collections);
+    }
+
+    @Test
+    void testCloseWaitsForARunningUpload() throws Exception {
+        final CountDownLatch uploading = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final List<String> events = new ArrayList<>();
+        when(delegate.saveMediaCollections(any())).thenAnswer(invocation -> {
+            uploading.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            synchronized (events) {
+                events.add("uploaded");
+            }
+            return invocation.getArgument(0);
+        });
+        repository = new WriteBehindUserRepository(delegate, Duration.ofMillis(1));
+        final List<MediaCollection<? extends AbstractMedia>> collections = new ArrayList<>();
+        collections.add(new MediaCollection<>("watched", "watched", Movie.class, new ArrayList<>()));
+        repository.saveMediaCollections(collections);
+        assertTrue(uploading.await(5, TimeUnit.SECONDS));
+
+        final Thread closer = new Thread(() -> {
+            try {
+                repository.close();
+            }
+            catch (GradeDataAccessException ex) {
+                fail(ex);
+            }
+            synchronized (events) {
+                events.add("closed");
+            }
+        });
+        closer.start();
+        closer.join(200);
+        assertTrue(closer.isAlive(), "close() returned while the upload was still running");
+        release.countDown();
+        closer.join(5000);
+        assertEquals(List.of("uploaded", "closed"), events);
+        verify(delegate, times(1)).saveMediaCollections(any());
+    }
+}
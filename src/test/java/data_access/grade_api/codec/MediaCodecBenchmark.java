@@ -0,0 +1,75 @@
+package data_access.grade_api.codec;
+
+import entity.Movie;
+import entity.Rating;
+import org.json.JSONObject;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Measures the per-item decode and encode cost of a codec resolved once per collection, against looking the
+ * codec up by type name for every item.
+ *
+ * <p>Run with {@code mvn test -Dtest=MediaCodecBenchmark -Dbenchmark=true}.</p>
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class MediaCodecBenchmark {
+    private static final int ITEMS = 50_000;
+    private static final int ROUNDS = 10;
+    private final MediaCodecRegistry registry = MediaCodecRegistry.getDefault();
+
+    @Test
+    void measurePerItemCost() {
+        final List<Movie> movies = new ArrayList<>(ITEMS);
+        for (int i = 0; i < ITEMS; i++) {
+            movies.add(new Movie("Movie " + i, List.of("Action", "Drama"), new Rating(i % 100),
+                    new Rating((i * 7) % 100), "Description " + i, List.of("Actor One", "Actor Two"), 90 + i % 60));
+        }
+        final MediaCodec<Movie> codec = registry.forType(Movie.class);
+        final List<JSONObject> encoded = new ArrayList<>(ITEMS);
+        for (Movie movie : movies) {
+            encoded.add(codec.encode(movie));
+        }
+
+        report("decode, resolved once", () -> {
+            final MediaCodec<Movie> resolved = registry.forType(Movie.class);
+            for (JSONObject json : encoded) {
+                resolved.decode(json);
+            }
+        });
+        report("decode, lookup per item", () -> {
+            for (JSONObject json : encoded) {
+                registry.forTypeName("entity.Movie").decode(json);
+            }
+        });
+        report("encode, resolved once", () -> {
+            final MediaCodec<Movie> resolved = registry.forType(Movie.class);
+            for (Movie movie : movies) {
+                resolved.encode(movie);
+            }
+        });
+        report("encode, lookup per item", () -> {
+            for (Movie movie : movies) {
+                final MediaCodec<Movie> perItem = registry.forType(movie.getClass().asSubclass(Movie.class));
+                perItem.encode(movie);
+            }
+        });
+    }
+
+    private void report(String label, Runnable round) {
+        // warm up before measuring
+        round.run();
+        round.run();
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < ROUNDS; i++) {
+            final long start = System.nanoTime();
+            round.run();
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        System.out.printf("%-26s %6d ns/item%n", label, best / ITEMS);
+    }
+
+}
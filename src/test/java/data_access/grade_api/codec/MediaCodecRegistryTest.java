@@ -0,0 +1,77 @@
+package data_access.grade_api.codec;
+
+import entity.AbstractMedia;
+import entity.Movie;
+import entity.Rating;
+import entity.Television;
+import org.json.JSONObject;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MediaCodecRegistryTest {
+    private final MediaCodecRegistry registry = MediaCodecRegistry.getDefault();
+
+    @Test
+    void testMovieRoundTrip() {
+        final Movie movie = new Movie("Test Movie", List.of("Action"), new Rating(50), new Rating(75),
+                "Description", List.of("Actor 1"), 120);
+        final MediaCodec<Movie> codec = registry.forType(Movie.class);
+        final Movie decoded = codec.decode(new JSONObject(codec.encode(movie).toString()));
+
+        assertEquals("entity.Movie", codec.getTypeName());
+        assertEquals(movie.getName(), decoded.getName());
+        assertEquals(movie.getGenres(), decoded.getGenres());
+        assertEquals(movie.getCastMembers(), decoded.getCastMembers());
+        assertEquals(movie.getMinuteRuntime(), decoded.getMinuteRuntime());
+        assertEquals(movie.getUserRating(), decoded.getUserRating());
+    }
+
+    @Test
+    void testTelevisionRoundTripByName() {
+        final Television show = new Television("Test Show", List.of(), new Rating(10), new Rating(20),
+                "Description", List.of("Actor 1", "Actor 2"));
+        show.setSeasonToEpisodeCount(Map.of(1, 10, 2, 8));
+        final MediaCodec<Television> codec = registry.forType(Television.class);
+        final AbstractMedia decoded = registry.forTypeName("entity.Television")
+                .decode(new JSONObject(codec.encode(show).toString()));
+
+        final Television television = assertInstanceOf(Television.class, decoded);
+        assertEquals(show.getSeasonToEpisodeCount(), television.getSeasonToEpisodeCount());
+        assertTrue(television.getGenres().isEmpty());
+    }
+
+    @Test
+    void testTelevisionBinaryRoundTrip() throws IOException {
+        final Television show = new Television("Test Show", List.of("Drama"), new Rating(10), new Rating(20),
+                "Description", List.of("Actor 1", "Actor 2"));
+        show.setSeasonToEpisodeCount(Map.of(1, 10, 2, 8));
+        final MediaCodec<Television> codec = registry.forType(Television.class);
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            codec.writeBinary(show, out);
+        }
+        final ByteBuffer buffer = ByteBuffer.wrap(bytes.toByteArray());
+        final Television decoded = codec.readBinary(buffer);
+
+        assertFalse(buffer.hasRemaining());
+        assertEquals(show.getName(), decoded.getName());
+        assertEquals(show.getGenres(), decoded.getGenres());
+        assertEquals(show.getCastMembers(), decoded.getCastMembers());
+        assertEquals(show.getDescription(), decoded.getDescription());
+        assertEquals(show.getExternalRating(), decoded.getExternalRating());
+        assertEquals(show.getSeasonToEpisodeCount(), decoded.getSeasonToEpisodeCount());
+    }
+
+    @Test
+    void testUnsupportedType() {
+        assertThrows(UnsupportedOperationException.class, () -> registry.forTypeName("entity.Book"));
+    }
+}
@@ -0,0 +1,93 @@
+package data_access.grade_api.incoming_data_formatting;
+
+import data_access.grade_api.outgoing_data_formatting.CollectionJSONBuilder;
+import entity.Movie;
+import entity.User;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Objects;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StreamingUserDecoderTest {
+    private final StreamingUserDecoder decoder = new StreamingUserDecoder();
+    private final CollectionJSONBuilder collectionJSONBuilder = new CollectionJSONBuilder();
+
+    private String readSample() throws IOException {
+        try (Reader reader = new InputStreamReader(Objects.requireNonNull(getClass().getClassLoader()
+                .getResourceAsStream("grade-api-sample-response.json")), StandardCharsets.UTF_8)) {
+            final StringBuilder result = new StringBuilder();
+            final char[] buffer = new char[4096];
+            int read;
+            while ((read = reader.read(buffer)) != -1) {
+                result.append(buffer, 0, read);
+            }
+            return result.toString();
+        }
+    }
+
+    @Test
+    void testMatchesUserBuilder() throws IOException {
+        final String sample = readSample();
+        final User expected = new UserBuilder().createUser(new JSONObject(sample).getJSONObject("user"));
+        final UserResponse response = decoder.decode(new StringReader(sample));
+
+        assertEquals(200, response.getStatusCode());
+        assertEquals(expected.getName(), response.getUser().getName());
+        assertEquals(collectionJSONBuilder.buildMediaCollections(expected.getAllMediaCollections()).toString(),
+                collectionJSONBuilder.buildMediaCollections(response.getUser().getAllMediaCollections()).toString());
+    }
+
+    @Test
+    void testMediaBeforeMediaType() {
+        final String payload = "{\"user\": {\"username\": \"test\", \"password\": \"pw\", \"info\": [{"
+                + "\"media\": [{\"name\": \"Movie\", \"genres\": [], \"cast\": [], \"userRating\": 1,"
+                + " \"externalRating\": 2, \"description\": \"d\", \"runtime\": 90}],"
+                + " \"name\": \"watched\", \"collectionType\": \"watched\", \"mediaType\": \"entity.Movie\"}]},"
+                + " \"status_code\": 200}";
+        final User user = decoder.decode(new StringReader(payload)).getUser();
+
+        assertFalse(user.getAllMediaCollections().get(0).isLoaded());
+        assertEquals(1, user.getAllMediaCollections().get(0).size());
+        assertEquals(Movie.class, user.getAllMediaCollections().get(0).getMediaType());
+        assertEquals(90, ((Movie) user.getAllMediaCollections().get(0).getMediaList().get(0)).getMinuteRuntime());
+        assertTrue(user.getAllMediaCollections().get(0).isLoaded());
+    }
+
+    @Test
+    void testMediaAreDecodedOneAtATime() {
+        final String movie = "{\"name\": \"%s\", \"genres\": [\"Drama\"], \"cast\": [\"A, B\"],"
+                + " \"userRating\": 1, \"externalRating\": 2, \"description\": \"[d]\", \"runtime\": 90}";
+        final String payload = "{\"user\": {\"username\": \"test\", \"password\": \"pw\", \"info\": [{"
+                + "\"name\": \"watched\", \"collectionType\": \"watched\", \"mediaType\": \"entity.Movie\","
+                + " \"media\": [ " + String.format(movie, "One") + " ,\n" + String.format(movie, "Two") + " ]},"
+                + " {\"name\": \"broken\", \"collectionType\": \"watched\", \"mediaType\": \"entity.Movie\","
+                + " \"media\": [1]}]}, \"status_code\": 200}";
+        final User user = decoder.decode(new StringReader(payload)).getUser();
+
+        assertEquals(List.of("One", "Two"), user.getAllMediaCollections().get(0).getMediaNames());
+        assertEquals(List.of("A, B"),
+                ((Movie) user.getAllMediaCollections().get(0).getMediaList().get(1)).getCastMembers());
+        assertThrows(JSONException.class, () -> user.getAllMediaCollections().get(1).getMediaList());
+    }
+
+    @Test
+    void testMissingUserAndEmptyInfo() {
+        final UserResponse missing = decoder.decode(new StringReader(
+                "{\"status_code\": 404, \"message\": \"User not found\"}"));
+        assertNull(missing.getUser());
+        assertEquals(404, missing.getStatusCode());
+
+        final UserResponse empty = decoder.decode(new StringReader(
+                "{\"status_code\": 200, \"user\": {\"username\": \"a\", \"password\": \"b\", \"info\": {}}}"));
+        assertTrue(empty.getUser().getAllMediaCollections().isEmpty());
+    }
+}
@@ -0,0 +1,114 @@
+package data_access.grade_api.incoming_data_formatting;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Reader;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Compares parse time and peak heap of the DOM-based {@link UserBuilder} path and {@link StreamingUserDecoder}.
+ *
+ * <p>Run with {@code mvn test -Dtest=UserPayloadBenchmark -Dbenchmark=true}.</p>
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class UserPayloadBenchmark {
+    private static final int COLLECTIONS = 20;
+    private static final int MEDIA_PER_COLLECTION = 2500;
+    private static final int ROUNDS = 5;
+
+    @TempDir
+    Path directory;
+
+    private interface Parse {
+        Object run(Path payload) throws IOException;
+    }
+
+    @Test
+    void compareDomAndStreaming() throws IOException {
+        final Path payload = writePayload(directory.resolve("user.json"));
+        System.out.printf("Payload: %d collections x %d media, %d KB%n",
+                COLLECTIONS, MEDIA_PER_COLLECTION, Files.size(payload) / 1024);
+        final Parse dom = path -> new UserBuilder().createUser(
+                new JSONObject(Files.readString(path)).getJSONObject("user"));
+        final Parse streaming = path -> {
+            try (Reader reader = Files.newBufferedReader(path)) {
+                return new StreamingUserDecoder().decode(reader).getUser();
+            }
+        };
+        // warm up both paths before measuring
+        dom.run(payload);
+        streaming.run(payload);
+        measure("DOM (UserBuilder)", dom, payload);
+        measure("Streaming", streaming, payload);
+    }
+
+    private void measure(String label, Parse parse, Path payload) throws IOException {
+        long bestNanos = Long.MAX_VALUE;
+        long peakBytes = 0;
+        for (int i = 0; i < ROUNDS; i++) {
+            System.gc();
+            final List<MemoryPoolMXBean> heapPools = ManagementFactory.getMemoryPoolMXBeans().stream()
+                    .filter(pool -> pool.getType() == MemoryType.HEAP).toList();
+            long baseline = 0;
+            for (MemoryPoolMXBean pool : heapPools) {
+                pool.resetPeakUsage();
+                baseline += pool.getUsage().getUsed();
+            }
+            final long start = System.nanoTime();
+            final Object result = parse.run(payload);
+            bestNanos = Math.min(bestNanos, System.nanoTime() - start);
+            long peak = 0;
+            for (MemoryPoolMXBean pool : heapPools) {
+                peak += pool.getPeakUsage().getUsed();
+            }
+            peakBytes = Math.max(peakBytes, peak - baseline);
+            if (result == null) {
+                throw new IllegalStateException("No user decoded.");
+            }
+        }
+        System.out.printf("%-20s best %6d ms, peak heap above baseline %6d KB%n",
+                label, bestNanos / 1_000_000, peakBytes / 1024);
+    }
+
+    private Path writePayload(Path path) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(path)) {
+            writer.write("{\"status_code\": 200, \"message\": \"User retrieved successfully\", \"user\": "
+                    + "{\"username\": \"benchmark\", \"password\": \"benchmark\", \"info\": [");
+            for (int c = 0; c < COLLECTIONS; c++) {
+                if (c > 0) {
+                    writer.write(',');
+                }
+                writer.write("{\"name\": \"collection " + c + "\", \"collectionType\": \"watched\","
+                        + " \"mediaType\": \"entity.Movie\", \"media\": [");
+                for (int m = 0; m < MEDIA_PER_COLLECTION; m++) {
+                    if (m > 0) {
+                        writer.write(',');
+                    }
+                    final JSONObject movie = new JSONObject();
+                    movie.put("name", "Movie " + c + "-" + m);
+                    movie.put("genres", new JSONArray(List.of("Action", "Drama")));
+                    movie.put("cast", new JSONArray(List.of("Actor One", "Actor Two", "Actor Three")));
+                    movie.put("userRating", m % 100);
+                    movie.put("externalRating", (m * 7) % 100);
+                    movie.put("description", "A generated description for benchmarking purposes, entry " + m);
+                    movie.put("runtime", 90 + m % 60);
+                    writer.write(movie.toString());
+                }
+                writer.write("]}");
+            }
+            writer.write("]}}");
+        }
+        return path;
+    }
+}
@@ -0,0 +1,110 @@
+package data_access.grade_api.outgoing_data_formatting;
+
+import entity.AbstractMedia;
+import entity.MediaCollection;
+import entity.Movie;
+import entity.Rating;
+import okhttp3.MediaType;
+import okhttp3.RequestBody;
+import okio.BufferedSink;
+import okio.Okio;
+import org.json.JSONObject;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compares time and peak heap of encoding a save request through {@link CollectionJSONBuilder} and a string,
+ * as before, against {@link StreamingCollectionWriter} writing straight into the request sink.
+ *
+ * <p>Run with {@code mvn test -Dtest=CollectionEncodingBenchmark -Dbenchmark=true}.</p>
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class CollectionEncodingBenchmark {
+    private static final int COLLECTIONS = 20;
+    private static final int MEDIA_PER_COLLECTION = 2500;
+    private static final int ROUNDS = 5;
+
+    private interface Encode {
+        void run(List<MediaCollection<? extends AbstractMedia>> collections, BufferedSink sink) throws IOException;
+    }
+
+    @Test
+    void compareDomAndStreaming() throws IOException {
+        final List<MediaCollection<? extends AbstractMedia>> collections = generateCollections();
+        final Encode dom = (mediaCollections, sink) -> {
+            final JSONObject requestBody = new JSONObject();
+            requestBody.put("username", "benchmark");
+            requestBody.put("password", "benchmark");
+            requestBody.put("info", new CollectionJSONBuilder().buildMediaCollections(mediaCollections));
+            RequestBody.create(requestBody.toString(), MediaType.parse("application/json")).writeTo(sink);
+        };
+        final Encode streaming = (mediaCollections, sink) -> {
+            final Writer out = new BufferedWriter(new OutputStreamWriter(sink.outputStream(), StandardCharsets.UTF_8));
+            new StreamingCollectionWriter().writeUserInfo("benchmark", "benchmark", mediaCollections, out);
+            out.flush();
+        };
+        // warm up both paths before measuring
+        encodeToBlackhole(dom, collections);
+        encodeToBlackhole(streaming, collections);
+        measure("DOM and string", dom, collections);
+        measure("Streaming", streaming, collections);
+    }
+
+    private void measure(String label, Encode encode, List<MediaCollection<? extends AbstractMedia>> collections)
+            throws IOException {
+        long bestNanos = Long.MAX_VALUE;
+        long peakBytes = 0;
+        for (int i = 0; i < ROUNDS; i++) {
+            System.gc();
+            final List<MemoryPoolMXBean> heapPools = ManagementFactory.getMemoryPoolMXBeans().stream()
+                    .filter(pool -> pool.getType() == MemoryType.HEAP).toList();
+            long baseline = 0;
+            for (MemoryPoolMXBean pool : heapPools) {
+                pool.resetPeakUsage();
+                baseline += pool.getUsage().getUsed();
+            }
+            final long start = System.nanoTime();
+            encodeToBlackhole(encode, collections);
+            bestNanos = Math.min(bestNanos, System.nanoTime() - start);
+            long peak = 0;
+            for (MemoryPoolMXBean pool : heapPools) {
+                peak += pool.getPeakUsage().getUsed();
+            }
+            peakBytes = Math.max(peakBytes, peak - baseline);
+        }
+        System.out.printf("%-20s best %6d ms, peak heap above baseline %6d KB%n",
+                label, bestNanos / 1_000_000, peakBytes / 1024);
+    }
+
+    private void encodeToBlackhole(Encode encode, List<MediaCollection<? extends AbstractMedia>> collections)
+            throws IOException {
+        try (BufferedSink sink = Okio.buffer(Okio.blackhole())) {
+            encode.run(collections, sink);
+        }
+    }
+
+    private List<MediaCollection<? extends AbstractMedia>> generateCollections() {
+        final List<MediaCollection<? extends AbstractMedia>> result = new ArrayList<>();
+        for (int c = 0; c < COLLECTIONS; c++) {
+            final List<Movie> movies = new ArrayList<>();
+            for (int m = 0; m < MEDIA_PER_COLLECTION; m++) {
+                movies.add(new Movie("Movie " + c + "-" + m, List.of("Action", "Drama"), new Rating(m % 100),
+                        new Rating((m * 7) % 100), "A generated description for benchmarking purposes, entry " + m,
+                        List.of("Actor One", "Actor Two", "Actor Three"), 90 + m % 60));
+            }
+            result.add(new MediaCollection<>("collection " + c, "watched", Movie.class, movies));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,54 @@
+package data_access.grade_api.outgoing_data_formatting;
+
+import entity.AbstractMedia;
+import entity.MediaCollection;
+import entity.Movie;
+import entity.Rating;
+import entity.Television;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StreamingCollectionWriterTest {
+    private final StreamingCollectionWriter collectionWriter = new StreamingCollectionWriter();
+
+    private List<MediaCollection<? extends AbstractMedia>> sampleCollections() {
+        final MediaCollection<Movie> movies = new MediaCollection<>("watched", "watched", Movie.class,
+                new ArrayList<>(List.of(
+                new Movie("Movie \"One\"", List.of("Action"), new Rating(50), new Rating(75), "Description",
+                        List.of("Actor 1"), 120),
+                new Movie("Movie Two", List.of(), new Rating(10), new Rating(20), "Line\nbreak", List.of(), 95))));
+        final Television show = new Television("Show", List.of("Drama"), new Rating(30), new Rating(40),
+                "Description", List.of("Actor 2"));
+        show.setSeasonToEpisodeCount(Map.of(1, 10, 2, 8));
+        final MediaCollection<Television> shows = new MediaCollection<>("favourites", "custom", Television.class,
+                new ArrayList<>(List.of(show)));
+        return List.of(movies, shows);
+    }
+
+    @Test
+    void testMatchesCollectionJSONBuilder() {
+        final List<MediaCollection<? extends AbstractMedia>> collections = sampleCollections();
+        final JSONArray expected = new CollectionJSONBuilder().buildMediaCollections(collections);
+        final JSONArray written = new JSONArray(collectionWriter.toJSONString(collections, new StringBuilder()));
+
+        assertTrue(expected.similar(written), written::toString);
+    }
+
+    @Test
+    void testWriteUserInfo() {
+        final StringBuilder out = new StringBuilder();
+        collectionWriter.writeUserInfo("user", "password", sampleCollections(), out);
+        final JSONObject written = new JSONObject(out.toString());
+
+        assertEquals("user", written.getString("username"));
+        assertEquals("password", written.getString("password"));
+        assertEquals(2, written.getJSONArray("info").length());
+    }
+}
@@ -0,0 +1,133 @@
+package data_access.http;
+
+import com.sun.net.httpserver.HttpServer;
+import okhttp3.Request;
+import okhttp3.Response;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HttpTransportTest {
+    private HttpServer server;
+    private String baseUrl;
+    private final AtomicInteger detailRequests = new AtomicInteger();
+    private final AtomicInteger notModifiedResponses = new AtomicInteger();
+
+    @TempDir
+    Path cacheDirectory;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/small", exchange -> {
+            byte[] body = "{\"status_code\":200}".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.createContext("/large", exchange -> {
+            byte[] body = "x".repeat(2048).getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, 0);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.createContext("/details", exchange -> {
+            detailRequests.incrementAndGet();
+            assertTrue(exchange.getRequestURI().getQuery().contains("api_key="));
+            exchange.getResponseHeaders().add("ETag", "\"v1\"");
+            if ("\"v1\"".equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                notModifiedResponses.incrementAndGet();
+                exchange.sendResponseHeaders(304, -1);
+                exchange.close();
+                return;
+            }
+            byte[] body = "{\"title\":\"The Matrix\"}".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+        baseUrl = "http://localhost:" + server.getAddress().getPort();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    void testConnectionsAreReused() throws IOException {
+        HttpTransport transport = new HttpTransport.Builder().build();
+        for (int i = 0; i < 5; i++) {
+            try (Response response = transport.execute(new Request.Builder().url(baseUrl + "/small").build())) {
+                assertEquals("{\"status_code\":200}", transport.readBody(response.body()));
+            }
+        }
+        PoolStatistics statistics = transport.getPoolStatistics();
+        assertEquals(5, statistics.getCallCount());
+        assertEquals(1, statistics.getOpenedConnectionCount());
+        assertEquals(4, statistics.getReusedConnectionCount());
+        transport.shutdown();
+    }
+
+    @Test
+    void testBodyLimitEnforced() throws IOException {
+        HttpTransport transport = new HttpTransport.Builder().maxBodyBytes(1024).build();
+        try (Response response = transport.execute(new Request.Builder().url(baseUrl + "/large").build())) {
+            assertThrows(IOException.class, () -> transport.readBody(response.body()));
+        }
+        transport.shutdown();
+    }
+
+    private String get(HttpTransport transport, String path) throws IOException {
+        try (Response response = transport.execute(new Request.Builder().url(baseUrl + path).build())) {
+            return transport.readBody(response.body());
+        }
+    }
+
+    @Test
+    void testCacheKeyIgnoresApiKey() throws IOException {
+        HttpTransport transport = new HttpTransport.Builder()
+                .cache(cacheDirectory, 1024 * 1024)
+                .cacheTtl("localhost", Duration.ofHours(1))
+                .excludeFromCacheKey("api_key")
+                .build();
+        assertEquals("{\"title\":\"The Matrix\"}", get(transport, "/details?language=en&api_key=first"));
+        assertEquals("{\"title\":\"The Matrix\"}", get(transport, "/details?api_key=second&language=en"));
+
+        assertEquals(1, detailRequests.get());
+        assertEquals(1, transport.getCacheStatistics().getHitCount());
+        assertEquals(1, transport.getCacheStatistics().getMissCount());
+        transport.shutdown();
+    }
+
+    @Test
+    void testStaleEntryIsRevalidated() throws IOException {
+        HttpTransport transport = new HttpTransport.Builder()
+                .cache(cacheDirectory, 1024 * 1024)
+                .cacheTtl("localhost", Duration.ZERO)
+                .excludeFromCacheKey("api_key")
+                .build();
+        get(transport, "/details?api_key=first");
+        assertEquals("{\"title\":\"The Matrix\"}", get(transport, "/details?api_key=first"));
+
+        assertEquals(2, detailRequests.get());
+        assertEquals(1, notModifiedResponses.get());
+        assertEquals(1, transport.getCacheStatistics().getHitCount());
+        transport.shutdown();
+    }
+}
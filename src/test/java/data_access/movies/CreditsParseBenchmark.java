@@ -0,0 +1,88 @@
+package data_access.movies;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.io.StringReader;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Compares {@link MovieJSONFormat#parseCast(JSONObject)} on a fully parsed response against
+ * {@link StreamingMovieParser#parseCast(java.io.Reader)} for a blockbuster-sized credits response.
+ *
+ * <p>Run with {@code mvn test -Dtest=CreditsParseBenchmark -Dbenchmark=true}.</p>
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class CreditsParseBenchmark {
+    private static final int CAST = 300;
+    private static final int CREW = 3000;
+    private static final int ITERATIONS = 200;
+    private static final int ROUNDS = 5;
+
+    @Test
+    void compareDomAndStreaming() {
+        final String credits = generateCredits();
+        System.out.printf("Payload: %d cast, %d crew, %d KB%n", CAST, CREW, credits.length() / 1024);
+        final Function<String, List<String>> dom = text -> MovieJSONFormat.parseCast(new JSONObject(text));
+        final Function<String, List<String>> streaming =
+                text -> StreamingMovieParser.parseCast(new StringReader(text));
+        if (!dom.apply(credits).equals(streaming.apply(credits))) {
+            throw new IllegalStateException("The parsers disagree.");
+        }
+        measure("DOM", dom, credits);
+        measure("Streaming", streaming, credits);
+    }
+
+    private void measure(String label, Function<String, List<String>> parse, String credits) {
+        // warm up before measuring
+        for (int i = 0; i < ITERATIONS; i++) {
+            parse.apply(credits);
+        }
+        long best = Long.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++) {
+            final long start = System.nanoTime();
+            for (int i = 0; i < ITERATIONS; i++) {
+                parse.apply(credits);
+            }
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        System.out.printf("%-10s %8d us/parse%n", label, best / ITERATIONS / 1000);
+    }
+
+    private String generateCredits() {
+        final JSONArray cast = new JSONArray();
+        for (int i = 0; i < CAST; i++) {
+            final JSONObject member = person(i);
+            // a few non-acting entries among the first cast members, as in real responses
+            member.put("known_for_department", i % 3 == 1 && i < 10 ? "Directing" : "Acting");
+            member.put("character", "Character " + i);
+            member.put("cast_id", i);
+            member.put("order", i);
+            cast.put(member);
+        }
+        final JSONArray crew = new JSONArray();
+        for (int i = 0; i < CREW; i++) {
+            final JSONObject member = person(CAST + i);
+            member.put("known_for_department", "Crew");
+            member.put("department", "Visual Effects");
+            member.put("job", "Visual Effects Artist");
+            crew.put(member);
+        }
+        return new JSONObject().put("id", 299534).put("cast", cast).put("crew", crew).toString();
+    }
+
+    private JSONObject person(int id) {
+        return new JSONObject()
+                .put("adult", false)
+                .put("gender", id % 3)
+                .put("id", 1_000_000 + id)
+                .put("name", "Person " + id)
+                .put("original_name", "Person " + id)
+                .put("popularity", id * 0.37)
+                .put("profile_path", "/profile" + id + ".jpg")
+                .put("credit_id", "52fe4" + Integer.toHexString(id * 7919) + "c3a36847f80181c1");
+    }
+}
@@ -0,0 +1,54 @@
+package data_access.movies;
+
+import data_access.InMemoryMovieDAO;
+import entity.Movie;
+import entity.Rating;
+import org.junit.jupiter.api.Test;
+import use_case.generate_recommendations.MovieBatchResult;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MovieBatchLoaderTest {
+
+    private static Movie movie(String name) {
+        return new Movie(name, List.of(), new Rating(-1), new Rating(50), "Description", List.of(), 100);
+    }
+
+    @Test
+    void testInMemoryBatchReportsFailures() {
+        final InMemoryMovieDAO movieDAO = new InMemoryMovieDAO();
+        movieDAO.addMovie(movie("Alien"));
+        movieDAO.addMovie(movie("Heat"));
+        final MovieBatchResult result = movieDAO.getMovies(List.of("Heat", "Missing", "Alien", "Heat"));
+
+        assertEquals(List.of("Heat", "Alien"), List.copyOf(result.getMovies().keySet()));
+        assertEquals("Missing not found.", result.getFailures().get("Missing"));
+        assertFalse(result.isComplete());
+    }
+
+    @Test
+    void testConcurrencyLimit() {
+        final AtomicInteger inFlight = new AtomicInteger();
+        final AtomicInteger maxInFlight = new AtomicInteger();
+        final MovieBatchLoader loader = new MovieBatchLoader(name -> {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(20);
+            }
+            catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            inFlight.decrementAndGet();
+            return movie(name);
+        }, 3);
+        final List<String> titles = List.of("a", "b", "c", "d", "e", "f", "g", "h", "i", "j");
+        final MovieBatchResult result = loader.load(titles);
+
+        assertEquals(titles, List.copyOf(result.getMovies().keySet()));
+        assertTrue(result.isComplete());
+        assertTrue(maxInFlight.get() > 1 && maxInFlight.get() <= 3, "max in flight: " + maxInFlight.get());
+    }
+}
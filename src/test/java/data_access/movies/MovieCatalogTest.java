@@ -0,0 +1,110 @@
+package data_access.movies;
+
+import data_access.InMemoryMovieDAO;
+import entity.Movie;
+import entity.Rating;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import use_case.generate_recommendations.MovieBatchResult;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MovieCatalogTest {
+    @TempDir
+    Path directory;
+
+    private static String movie(int id, String title, double popularity) {
+        return "{\"id\": " + id + ", \"title\": \"" + title + "\", \"overview\": \"About " + title + "\","
+                + " \"vote_average\": 7.5, \"runtime\": 120, \"popularity\": " + popularity + ","
+                + " \"genres\": [{\"id\": 18, \"name\": \"Drama\"}],"
+                + " \"credits\": {\"cast\": [{\"name\": \"Lead\", \"known_for_department\": \"Acting\"}]}}";
+    }
+
+    private Path importCatalog() throws IOException {
+        final Path dump = directory.resolve("movies.jsonl");
+        Files.write(dump, List.of(movie(1, "The Matrix", 80), "", "not json", movie(2, "Heat", 30),
+                movie(3, "Heat", 60)));
+        final Path files = Files.createDirectories(directory.resolve("files"));
+        Files.writeString(files.resolve("4.json"), movie(4, "Amélie", 40));
+        final Path catalog = directory.resolve("catalog");
+        final MovieCatalogImporter.ImportSummary summary =
+                MovieCatalogImporter.importCatalog(catalog, List.of(dump, files));
+        assertEquals(4, summary.imported());
+        assertEquals(1, summary.skipped());
+        return catalog;
+    }
+
+    @Test
+    void testLookupByTitleAndId() throws Exception {
+        final MovieCatalog catalog = new MovieCatalog(importCatalog(), null);
+
+        assertTrue(MovieCatalog.exists(directory.resolve("catalog")));
+        assertEquals(3, catalog.size());
+        final Movie movie = catalog.getMovie("  the   MATRIX ");
+        assertEquals("The Matrix", movie.getName());
+        assertEquals(List.of("Drama"), movie.getGenres());
+        assertEquals(List.of("Lead"), movie.getCastMembers());
+        assertEquals(75, movie.getExternalRating());
+        assertEquals(120, movie.getMinuteRuntime());
+        assertEquals("Amélie", catalog.getMovie("amélie").getName());
+        // the more popular of two movies with the same title wins, as in a TMDB search
+        assertEquals(catalog.findById(3).orElseThrow().getDescription(), catalog.getMovie("heat").getDescription());
+        assertTrue(catalog.findById(2).isPresent());
+        assertTrue(catalog.findById(5).isEmpty());
+        assertThrows(MovieDBDataAccessException.class, () -> catalog.getMovie("Missing"));
+    }
+
+    @Test
+    void testEveryDistinctTitleIsVisited() throws Exception {
+        final MovieCatalog catalog = new MovieCatalog(importCatalog(), null);
+        final List<String> titles = new ArrayList<>();
+
+        catalog.forEachMovie(movie -> titles.add(movie.getName()));
+        assertEquals(List.of("Amélie", "Heat", "The Matrix"), titles.stream().sorted().toList());
+    }
+
+    @Test
+    void testMissingTitlesFallBackToDelegate() throws Exception {
+        final InMemoryMovieDAO fallback = new InMemoryMovieDAO();
+        fallback.addMovie(new Movie("Alien", List.of("Horror"), new Rating(-1), new Rating(85), "",
+                List.of(), 117));
+        final MovieCatalog catalog = new MovieCatalog(importCatalog(), fallback);
+
+        assertEquals("Alien", catalog.getMovie("Alien").getName());
+        final MovieBatchResult result = catalog.getMovies(List.of("Missing", "Heat", "Alien"));
+        assertEquals(List.of("Heat", "Alien"), List.copyOf(result.getMovies().keySet()));
+        assertEquals(List.of("Missing"), List.copyOf(result.getFailures().keySet()));
+    }
+
+    @Test
+    void testFailedImportsLeaveTheCatalogAndNoTemporaryFiles() throws Exception {
+        final Path catalog = importCatalog();
+
+        assertThrows(IOException.class, () -> MovieCatalogImporter.importCatalog(catalog,
+                List.of(directory.resolve("movies.jsonl"), directory.resolve("missing.jsonl"))));
+        try (Stream<Path> files = Files.list(catalog)) {
+            assertEquals(List.of("movies.dat", "movies.idx"),
+                    files.map(file -> file.getFileName().toString()).sorted().toList());
+        }
+        assertEquals(3, new MovieCatalog(catalog, null).size());
+    }
+
+    @Test
+    void testIndexAndDataFromDifferentImportsAreRefused() throws Exception {
+        final Path catalog = importCatalog();
+        final Path other = directory.resolve("other");
+        MovieCatalogImporter.importCatalog(other, List.of(directory.resolve("movies.jsonl")));
+
+        Files.copy(other.resolve("movies.idx"), catalog.resolve("movies.idx"),
+                StandardCopyOption.REPLACE_EXISTING);
+        assertThrows(IOException.class, () -> new MovieCatalog(catalog, null));
+    }
+}
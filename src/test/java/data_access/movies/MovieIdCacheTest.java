@@ -0,0 +1,95 @@
+package data_access.movies;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.OptionalInt;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MovieIdCacheTest {
+    private final MovieIdCache cache = new MovieIdCache(Duration.ofHours(1), Duration.ofHours(1));
+
+    private static long deadline() {
+        return System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+    }
+
+    @Test
+    void testConcurrentLookupsShareOneSearch() throws Exception {
+        final AtomicInteger searches = new AtomicInteger();
+        final CountDownLatch release = new CountDownLatch(1);
+        final MovieIdCache.Search search = title -> {
+            searches.incrementAndGet();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            }
+            catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            return OptionalInt.of(603);
+        };
+        final ExecutorService executor = Executors.newFixedThreadPool(8);
+        final List<Future<OptionalInt>> lookups = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            final String title = i % 2 == 0 ? "The Matrix" : "  the   MATRIX ";
+            lookups.add(executor.submit(() -> cache.resolve(title, deadline(), search)));
+        }
+        Thread.sleep(100);
+        release.countDown();
+        for (Future<OptionalInt> lookup : lookups) {
+            assertEquals(OptionalInt.of(603), lookup.get(5, TimeUnit.SECONDS));
+        }
+        executor.shutdown();
+
+        assertEquals(1, searches.get());
+    }
+
+    @Test
+    void testNotFoundIsCachedAndFailuresAreNot() throws MovieDBDataAccessException {
+        final AtomicInteger searches = new AtomicInteger();
+        assertTrue(cache.resolve("Missing", deadline(), title -> {
+            searches.incrementAndGet();
+            return OptionalInt.empty();
+        }).isEmpty());
+        assertTrue(cache.resolve("missing", deadline(), title -> OptionalInt.of(1)).isEmpty());
+
+        assertThrows(MovieDBDataAccessException.class, () -> cache.resolve("Heat", deadline(), title -> {
+            throw new MovieDBDataAccessException("offline");
+        }));
+        assertEquals(OptionalInt.of(949), cache.resolve("Heat", deadline(), title -> OptionalInt.of(949)));
+        assertEquals(1, searches.get());
+    }
+
+    @Test
+    void testWaitingForASharedSearchStopsAtTheDeadline() throws Exception {
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        final Future<OptionalInt> slow = executor.submit(() -> cache.resolve("Heat", deadline(), title -> {
+            started.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            }
+            catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            return OptionalInt.of(949);
+        }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        final long shortDeadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(50);
+        assertThrows(MovieDBDataAccessException.class,
+                () -> cache.resolve("heat", shortDeadline, title -> OptionalInt.of(1)));
+        release.countDown();
+        assertEquals(OptionalInt.of(949), slow.get(5, TimeUnit.SECONDS));
+        executor.shutdown();
+    }
+}
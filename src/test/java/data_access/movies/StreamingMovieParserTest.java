@@ -0,0 +1,79 @@
+package data_access.movies;
+
+import entity.Movie;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Objects;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StreamingMovieParserTest {
+
+    private String readResource(String name) throws IOException, URISyntaxException {
+        return Files.readString(Paths.get(Objects.requireNonNull(getClass().getClassLoader()
+                .getResource(name)).toURI()));
+    }
+
+    @Test
+    void testCastMatchesMovieJSONFormat() throws IOException, URISyntaxException {
+        final String credits = readResource("tmdb-sample-cast-response.json");
+
+        assertEquals(MovieJSONFormat.parseCast(new JSONObject(credits)),
+                StreamingMovieParser.parseCast(new StringReader(credits)));
+    }
+
+    @Test
+    void testAppendedCreditsMatchMovieJSONFormat() throws IOException, URISyntaxException {
+        final JSONObject details = new JSONObject(readResource("tmdb-sample-response.json"));
+        final JSONObject credits = new JSONObject(readResource("tmdb-sample-cast-response.json"));
+        final Movie expected = MovieJSONFormat.parseMovie(details, credits);
+        details.put("credits", credits);
+
+        final StreamingMovieParser.MovieDetails parsed =
+                StreamingMovieParser.parseMovieDetails(new StringReader(details.toString()));
+        final Movie movie = MovieJSONFormat.parseMovie(parsed.details(), parsed.castMembers());
+        assertEquals(expected.getName(), movie.getName());
+        assertEquals(expected.getGenres(), movie.getGenres());
+        assertEquals(expected.getExternalRating(), movie.getExternalRating());
+        assertEquals(expected.getDescription(), movie.getDescription());
+        assertEquals(expected.getMinuteRuntime(), movie.getMinuteRuntime());
+        assertEquals(expected.getCastMembers(), movie.getCastMembers());
+    }
+
+    @Test
+    void testStopsReadingOnceComplete() {
+        final String payload = "{\"title\": \"Movie\", \"overview\": \"o\", \"vote_average\": 7.5,"
+                + " \"runtime\": 100, \"genres\": [{\"id\": 1, \"name\": \"Drama\"}], \"credits\": {\"cast\": ["
+                + "{\"name\": \"Crew\", \"known_for_department\": \"Directing\", \"extra\": {\"a\": [1, \"]\"]}},"
+                + "{\"name\": \"A\", \"known_for_department\": \"Acting\"},"
+                + "{\"name\": \"B\", \"known_for_department\": \"Acting\"},"
+                + "{\"name\": \"C\", \"known_for_department\": \"Acting\"},"
+                + "{\"name\": \"D\", \"known_for_department\": \"Acting\"},"
+                + "{\"name\": \"E\", \"known_for_department\": \"Acting\"},"
+                + " this is never read";
+        final StreamingMovieParser.MovieDetails parsed =
+                StreamingMovieParser.parseMovieDetails(new StringReader(payload));
+
+        assertEquals(List.of("A", "B", "C", "D", "E"), parsed.castMembers());
+        assertEquals(100, parsed.details().getInt("runtime"));
+    }
+
+    @Test
+    void testCountEpisodes() {
+        final String season = "{\"_id\": \"x\", \"air_date\": \"2008-01-20\", \"episodes\": ["
+                + "{\"episode_number\": 1, \"guest_stars\": [{\"name\": \"[}\"}], \"crew\": []},"
+                + "{\"episode_number\": 2, \"guest_stars\": [], \"crew\": []}],"
+                + " \"name\": \"Season 1\", this is never read";
+
+        assertEquals(2, StreamingMovieParser.countEpisodes(new StringReader(season)));
+        assertThrows(JSONException.class, () -> StreamingMovieParser.countEpisodes(new StringReader("{}")));
+    }
+}
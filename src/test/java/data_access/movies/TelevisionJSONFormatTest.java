@@ -0,0 +1,32 @@
+package data_access.movies;
+
+import entity.Television;
+import org.json.JSONObject;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TelevisionJSONFormatTest {
+
+    @Test
+    void testParseTelevision() {
+        final JSONObject details = new JSONObject("{\"name\": \"Show\", \"overview\": \"About the show\","
+                + " \"vote_average\": 8.9, \"genres\": [{\"id\": 18, \"name\": \"Drama\"}],"
+                + " \"seasons\": [{\"season_number\": 0, \"episode_count\": 3},"
+                + " {\"season_number\": 1, \"episode_count\": 7}, {\"season_number\": 2, \"episode_count\": 13}],"
+                + " \"credits\": {\"cast\": [{\"name\": \"Lead\", \"known_for_department\": \"Acting\"}]}}");
+
+        final Television television = TelevisionJSONFormat.parseTelevision(details,
+                TelevisionJSONFormat.parseCast(details));
+        assertEquals("Show", television.getName());
+        assertEquals(List.of("Drama"), television.getGenres());
+        assertEquals(89, television.getExternalRating());
+        assertEquals(List.of("Lead"), television.getCastMembers());
+        // specials are not a regular season
+        assertEquals(Map.of(1, 7, 2, 13), TelevisionJSONFormat.parseSeasons(details));
+        assertEquals(List.of(), TelevisionJSONFormat.parseCast(new JSONObject()));
+    }
+}
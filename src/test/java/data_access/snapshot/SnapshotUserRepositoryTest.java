@@ -0,0 +1,152 @@
+package data_access.snapshot;
+
+import data_access.grade_api.GradeDataAccessException;
+import data_access.grade_api.UserRepository;
+import entity.AbstractMedia;
+import entity.MediaCollection;
+import entity.Movie;
+import entity.Rating;
+import entity.User;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class SnapshotUserRepositoryTest {
+    @TempDir
+    Path snapshotDirectory;
+
+    private List<MediaCollection<? extends AbstractMedia>> sampleCollections() {
+        final Movie movie = new Movie("Test Movie", List.of("Action"), new Rating(50), new Rating(75),
+                "Description", List.of("Actor 1"), 120);
+        final List<MediaCollection<? extends AbstractMedia>> collections = new ArrayList<>();
+        collections.add(new MediaCollection<>("watched", "watched", Movie.class, new ArrayList<>(List.of(movie))));
+        return collections;
+    }
+
+    @Test
+    void testLocalOnlyRepositoryPersistsCollections() throws GradeDataAccessException {
+        final SnapshotUserRepository repository = new SnapshotUserRepository(null, snapshotDirectory);
+        repository.save(new User("test", "secret"));
+        repository.get("test");
+        final List<MediaCollection<? extends AbstractMedia>> collections = sampleCollections();
+        repository.saveMediaCollections(collections);
+
+        final SnapshotUserRepository reopened = new SnapshotUserRepository(null, snapshotDirectory);
+        assertTrue(reopened.existsByName("test"));
+        final User user = reopened.get("test");
+        assertEquals("secret", user.getPassword());
+        assertEquals(reopened.convertCollectionsListToString(collections),
+                reopened.convertCollectionsListToString(reopened.loadMediaCollections()));
+    }
+
+    @Test
+    void testSnapshotsAreWrittenToNewFilesWhileTheOldOnesAreMapped() throws Exception {
+        final UserSnapshotStore store = new UserSnapshotStore(snapshotDirectory);
+        final User user = new User("a", "secret");
+        user.setMediaCollections(sampleCollections());
+        store.write(new UserSnapshot(user, 1, false));
+        // a user whose file name starts with the other user's file name
+        final User other = new User("ab", "other");
+        other.setMediaCollections(new ArrayList<>());
+        store.write(new UserSnapshot(other, 1, false));
+
+        final User mapped = store.read("a").orElseThrow().getUser();
+        assertFalse(mapped.getAllMediaCollections().get(0).isLoaded());
+        mapped.setPassword("changed");
+        store.write(new UserSnapshot(mapped, 2, false));
+        store.write(new UserSnapshot(mapped, 3, false));
+
+        final User reread = store.read("a").orElseThrow().getUser();
+        assertEquals("changed", reread.getPassword());
+        assertEquals(List.of("Test Movie"), reread.getAllMediaCollections().get(0).getMediaNames());
+        assertEquals("other", store.read("ab").orElseThrow().getUser().getPassword());
+        try (Stream<Path> files = Files.list(snapshotDirectory)) {
+            assertEquals(2, files.count());
+        }
+
+        store.delete("a");
+        assertFalse(store.exists("a"));
+        assertTrue(store.exists("ab"));
+    }
+
+    @Test
+    void testOfflineEditsAreUploadedOnRevalidation() throws GradeDataAccessException {
+        final UserRepository offline = mock(UserRepository.class);
+        when(offline.get("test")).thenThrow(new RuntimeException("offline"));
+        final SnapshotUserRepository first = new SnapshotUserRepository(offline, snapshotDirectory);
+        first.save(new User("test", "secret"));
+        first.get("test");
+        first.awaitRevalidation();
+        first.saveMediaCollections(sampleCollections());
+        first.awaitRevalidation();
+        assertTrue(first.isDirty());
+        verify(offline, never()).saveMediaCollections(any());
+
+        final UserRepository online = mock(UserRepository.class);
+        when(online.get("test")).thenReturn(new User("test", "secret"));
+        final SnapshotUserRepository second = new SnapshotUserRepository(online, snapshotDirectory);
+        final User user = second.get("test");
+        assertEquals(1, user.getAllMediaCollections().size());
+        second.loginAccepted(user);
+        second.awaitRevalidation();
+        verify(online).saveMediaCollections(any());
+        assertFalse(second.isDirty());
+    }
+
+    @Test
+    void testStaleUsersAreRefetchedOnlyOnceTheLoginIsAccepted() throws GradeDataAccessException {
+        final UserRepository online = mock(UserRepository.class);
+        final User cached = new User("test", "secret");
+        cached.setMediaCollections(new ArrayList<>());
+        final User refetched = new User("test", "secret");
+        refetched.setMediaCollections(sampleCollections());
+        when(online.get("test")).thenReturn(cached);
+        when(online.revalidateCurrentUser()).thenReturn(refetched);
+        final SnapshotUserRepository repository = new SnapshotUserRepository(online, snapshotDirectory);
+
+        assertSame(cached, repository.get("test"));
+        assertSame(cached, repository.revalidateCurrentUser());
+        verify(online, never()).revalidateCurrentUser();
+
+        repository.loginAccepted(cached);
+        assertSame(refetched, repository.revalidateCurrentUser());
+        assertSame(refetched, repository.getCurrentUser());
+        assertEquals(1, new SnapshotUserRepository(null, snapshotDirectory).get("test")
+                .getAllMediaCollections().size());
+    }
+
+    @Test
+    void testOnlyAcceptedLoginsAreRevalidated() {
+        final UserRepository online = mock(UserRepository.class);
+        final User server = new User("test", "secret");
+        server.setMediaCollections(sampleCollections());
+        when(online.get("test")).thenReturn(server);
+        new SnapshotUserRepository(null, snapshotDirectory).save(new User("test", "secret"));
+        final SnapshotUserRepository repository = new SnapshotUserRepository(online, snapshotDirectory);
+        final List<User> revalidated = new ArrayList<>();
+        repository.addRevalidationListener(revalidated::add);
+
+        // a lookup alone, as for a wrong password, neither revalidates nor stays logged in once rejected
+        assertTrue(repository.find("test").isPresent());
+        repository.awaitRevalidation();
+        verify(online, never()).get("test");
+        repository.loginRejected("test");
+        assertNull(repository.getCurrentUser());
+
+        final User user = repository.find("test").orElseThrow();
+        repository.loginAccepted(user);
+        repository.awaitRevalidation();
+        verify(online).get("test");
+        assertEquals(List.of(server), revalidated);
+        assertSame(server, repository.getCurrentUser());
+    }
+}
@@ -0,0 +1,50 @@
+package data_access.snapshot;
+
+import entity.AbstractMedia;
+import entity.MediaCollection;
+import entity.Movie;
+import entity.Rating;
+import entity.User;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserSnapshotCodecTest {
+    private static Movie movie(String name) {
+        return new Movie(name, List.of("Drama"), new Rating(80), new Rating(70), "Description",
+                List.of("Actor"), 100);
+    }
+
+    @Test
+    void testUnopenedCollectionsAreWrittenBackWithoutDecoding() throws IOException {
+        final User user = new User("alice", "secret");
+        final List<MediaCollection<? extends AbstractMedia>> collections = new ArrayList<>();
+        collections.add(new MediaCollection<>("watched", "watched", Movie.class,
+                new ArrayList<>(List.of(movie("Heat"), movie("Ronin")))));
+        collections.add(new MediaCollection<>("later", "to-watch", Movie.class,
+                new ArrayList<>(List.of(movie("Alien")))));
+        user.setMediaCollections(collections);
+        final byte[] encoded = UserSnapshotCodec.encode(new UserSnapshot(user, 1L, false));
+
+        final UserSnapshot decoded = UserSnapshotCodec.decode(ByteBuffer.wrap(encoded));
+        final List<MediaCollection<? extends AbstractMedia>> decodedCollections =
+                decoded.getUser().getAllMediaCollections();
+        assertArrayEquals(encoded, UserSnapshotCodec.encode(decoded));
+        assertFalse(decodedCollections.get(0).isLoaded());
+        assertFalse(decodedCollections.get(1).isLoaded());
+
+        // an opened and edited collection is encoded from its media
+        @SuppressWarnings("unchecked")
+        final MediaCollection<Movie> later = (MediaCollection<Movie>) decodedCollections.get(1);
+        later.addMedia(movie("Aliens"));
+        final UserSnapshot reread = UserSnapshotCodec.decode(ByteBuffer.wrap(UserSnapshotCodec.encode(decoded)));
+        assertEquals(List.of("Heat", "Ronin"), reread.getUser().getAllMediaCollections().get(0).getMediaNames());
+        assertEquals(List.of("Alien", "Aliens"), reread.getUser().getAllMediaCollections().get(1).getMediaNames());
+        assertFalse(decodedCollections.get(0).isLoaded());
+    }
+}
@@ -0,0 +1,52 @@
+package use_case;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CallbacksTest {
+    @Test
+    void testCallbackRunsOnTheExecutorOnceTheFutureCompletes() {
+        final List<Runnable> queued = new ArrayList<>();
+        final CompletableFuture<String> future = new CompletableFuture<>();
+        final List<String> results = new ArrayList<>();
+
+        Callbacks.whenComplete(future, queued::add, (result, error) -> results.add(result));
+        assertTrue(queued.isEmpty());
+        future.complete("done");
+        assertEquals(1, queued.size());
+        assertTrue(results.isEmpty());
+
+        queued.get(0).run();
+        assertEquals(List.of("done"), results);
+    }
+
+    @Test
+    void testFailureIsUnwrapped() {
+        final IllegalStateException failure = new IllegalStateException("down");
+        final List<Throwable> errors = new ArrayList<>();
+
+        Callbacks.whenComplete(CompletableFuture.failedFuture(new CompletionException(failure)), Runnable::run,
+            (result, error) -> errors.add(error));
+        Callbacks.whenComplete(CompletableFuture.failedFuture(failure), Runnable::run,
+            (result, error) -> errors.add(error));
+
+        assertEquals(List.of(failure, failure), errors);
+    }
+
+    @Test
+    void testCallbackFailureOnTheCallingThreadIsRethrown() {
+        final IllegalArgumentException failure = new IllegalArgumentException("bad result");
+
+        assertSame(failure, assertThrows(IllegalArgumentException.class,
+            () -> Callbacks.whenComplete(CompletableFuture.completedFuture("done"), Runnable::run,
+                (result, error) -> {
+                    throw failure;
+                })));
+    }
+}
@@ -0,0 +1,145 @@
+package use_case.add_recommendation;
+
+import data_access.InMemoryMovieDAO;
+import data_access.movies.CachingMovieDataAccessObject;
+import data_access.movies.MovieDBDataAccessException;
+import entity.AbstractMedia;
+import entity.MediaCollection;
+import entity.Movie;
+import entity.Rating;
+import entity.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import use_case.list.ListInputBoundary;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AddRecommendationInteractorTest {
+    private final List<String> lookups = new ArrayList<>();
+    private final List<String> shownCollections = new ArrayList<>();
+    private final List<String> presented = new ArrayList<>();
+    private final User user = new User("user", "password");
+    private User currentUser = user;
+    private int saves;
+    private MediaCollection<Movie> watchlist;
+    private CachingMovieDataAccessObject movieDAO;
+
+    private final AddRecommendationUserDataAccessInterface userDAO = new AddRecommendationUserDataAccessInterface() {
+        @Override
+        public User getCurrentUser() {
+            return currentUser;
+        }
+
+        @Override
+        public List<MediaCollection<? extends AbstractMedia>> saveMediaCollections(
+                List<MediaCollection<? extends AbstractMedia>> mediaCollectionsList) {
+            saves++;
+            return mediaCollectionsList;
+        }
+    };
+
+    private final AddRecommendationOutputBoundary presenter = new AddRecommendationOutputBoundary() {
+        @Override
+        public void prepareSuccessView(AddRecommendationOutputData outputData) {
+            presented.add("added " + outputData.getMovieName() + " to " + outputData.getCollectionName());
+        }
+
+        @Override
+        public void prepareFailView(String errorMessage) {
+            presented.add(errorMessage);
+        }
+    };
+
+    private final ListInputBoundary listInteractor =
+            listInputData -> shownCollections.add(listInputData.getNameOfDesiredCollection());
+
+    @BeforeEach
+    void setUp() {
+        final InMemoryMovieDAO tmdb = new InMemoryMovieDAO() {
+            @Override
+            public Movie getMovie(String movieName) throws MovieDBDataAccessException {
+                lookups.add(movieName);
+                return super.getMovie(movieName);
+            }
+        };
+        for (String name : List.of("Heat", "Alien")) {
+            tmdb.addMovie(new Movie(name, List.of(), new Rating(-1), new Rating(70), "Description", List.of(), 120));
+        }
+        movieDAO = new CachingMovieDataAccessObject(tmdb);
+        watchlist = new MediaCollection<>("Watchlist", "to-watch", Movie.class, new ArrayList<>());
+        user.setMediaCollections(new ArrayList<>(List.of(watchlist)));
+    }
+
+    @Test
+    void testPrefetchedMoviesAreAddedWithoutAnotherLookup() {
+        movieDAO.getMovies(List.of("Heat"));
+        lookups.clear();
+        final AddRecommendationInteractor interactor = new AddRecommendationInteractor(movieDAO, userDAO,
+                presenter, listInteractor);
+
+        interactor.execute(new AddRecommendationInputData(" Heat ", "Watchlist"));
+
+        assertEquals(List.of(), lookups);
+        assertEquals(List.of("Heat"), watchlist.getMediaNames());
+        assertEquals(1, saves);
+        assertEquals(List.of("added Heat to Watchlist"), presented);
+        assertEquals(List.of("Watchlist"), shownCollections);
+
+        // adding it again does not add a second copy
+        interactor.execute(new AddRecommendationInputData("Heat", "Watchlist"));
+        assertEquals(List.of("Heat"), watchlist.getMediaNames());
+        assertEquals(1, saves);
+        assertEquals("Heat is already in Watchlist.", presented.get(1));
+    }
+
+    @Test
+    void testMoviesAreLookedUpOnTheLookupExecutor() {
+        final List<Runnable> lookupTasks = new ArrayList<>();
+        final Executor deferred = lookupTasks::add;
+        final AddRecommendationInteractor interactor = new AddRecommendationInteractor(movieDAO, userDAO,
+                presenter, listInteractor, deferred, Runnable::run);
+
+        interactor.execute(new AddRecommendationInputData("Alien", "Watchlist"));
+        interactor.execute(new AddRecommendationInputData("Nope", "Watchlist"));
+        assertEquals(List.of(), lookups);
+        assertEquals(2, lookupTasks.size());
+
+        lookupTasks.forEach(Runnable::run);
+        assertEquals(List.of("Alien", "Nope"), lookups);
+        assertEquals(List.of("Alien"), watchlist.getMediaNames());
+        assertEquals("Could not look up \"Nope\": Nope not found.", presented.get(1));
+    }
+
+    @Test
+    void testMoviesAreNotAddedIfAnotherUserLoggedIn() {
+        final List<Runnable> lookupTasks = new ArrayList<>();
+        final Executor deferred = lookupTasks::add;
+        final AddRecommendationInteractor interactor = new AddRecommendationInteractor(movieDAO, userDAO,
+                presenter, listInteractor, deferred, Runnable::run);
+
+        interactor.execute(new AddRecommendationInputData("Alien", "Watchlist"));
+        currentUser = new User("other", "password");
+        lookupTasks.forEach(Runnable::run);
+
+        assertEquals(List.of(), watchlist.getMediaNames());
+        assertEquals(0, saves);
+        assertEquals(List.of(), presented);
+    }
+
+    @Test
+    void testUnknownListsAreReported() {
+        final AddRecommendationInteractor interactor = new AddRecommendationInteractor(movieDAO, userDAO,
+                presenter, listInteractor);
+
+        interactor.execute(new AddRecommendationInputData("Alien", "Favourites"));
+        interactor.execute(new AddRecommendationInputData("  ", "Watchlist"));
+
+        assertEquals(List.of("There is no movie list named Favourites.", "Select a recommended movie to add."),
+                presented);
+        assertEquals(0, saves);
+    }
+}
@@ -0,0 +1,147 @@
+package use_case.generate_recommendations;
+
+import data_access.InMemoryMovieDAO;
+import data_access.movies.CachingMovieDataAccessObject;
+import entity.Movie;
+import entity.Rating;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GenInteractorTest {
+
+    @Test
+    void testTopRecommendationsArePrefetched() {
+        final InMemoryMovieDAO movieDAO = new InMemoryMovieDAO();
+        for (String name : List.of("Heat", "Alien", "Ronin")) {
+            movieDAO.addMovie(new Movie(name, List.of(), new Rating(-1), new Rating(70), "Description",
+                    List.of(), 120));
+        }
+        final CachingMovieDataAccessObject cachingDAO = new CachingMovieDataAccessObject(movieDAO);
+        final GenDataAccessInterface genDAO = new GenDataAccessInterface() {
+            @Override
+            public JSONArray getRecommendation(List<String> query, String sourceType, String returnType) {
+                final JSONArray result = new JSONArray();
+                for (String name : List.of("Heat", "Alien", "Ronin")) {
+                    result.put(new JSONObject().put("name", name));
+                }
+                return result;
+            }
+
+            @Override
+            public void setApiKey(String apiKey) {
+            }
+        };
+        final StringBuilder presented = new StringBuilder();
+        final GenOutputBoundary presenter = new GenOutputBoundary() {
+            @Override
+            public void prepareSuccessView(String message) {
+                presented.append(message);
+            }
+
+            @Override
+            public void prepareFailView(String errorMessage) {
+                fail("Unexpected failure: " + errorMessage);
+            }
+        };
+        final GenInteractor interactor = new GenInteractor(genDAO, presenter, cachingDAO, 2, Runnable::run);
+        interactor.execute("The Thing");
+
+        assertEquals("Heat\nAlien\nRonin\n", presented.toString());
+        assertTrue(cachingDAO.isCached("heat"));
+        assertTrue(cachingDAO.isCached("Alien"));
+        assertFalse(cachingDAO.isCached("Ronin"));
+    }
+
+    private static JSONArray recommend(String... names) {
+        final JSONArray result = new JSONArray();
+        for (String name : names) {
+            result.put(new JSONObject().put("name", name));
+        }
+        return result;
+    }
+
+    private static GenOutputBoundary recorder(List<String> presented) {
+        return new GenOutputBoundary() {
+            @Override
+            public void prepareSuccessView(String message) {
+                presented.add("success: " + message);
+            }
+
+            @Override
+            public void preparePartialView(String message) {
+                presented.add("partial: " + message);
+            }
+
+            @Override
+            public void prepareFailView(String errorMessage) {
+                presented.add("fail: " + errorMessage);
+            }
+        };
+    }
+
+    @Test
+    void testSupersededGenerationIsNotPresented() {
+        final GenDataAccessInterface genDAO = new GenDataAccessInterface() {
+            @Override
+            public JSONArray getRecommendation(List<String> query, String sourceType, String returnType) {
+                return recommend("After " + query.get(0));
+            }
+
+            @Override
+            public void setApiKey(String apiKey) {
+            }
+        };
+        final List<Runnable> generations = new ArrayList<>();
+        final List<String> presented = new ArrayList<>();
+        final Executor deferred = generations::add;
+        final GenInteractor interactor = new GenInteractor(genDAO, recorder(presented), null, 0, Runnable::run,
+                deferred, Runnable::run);
+
+        interactor.execute("Alien");
+        interactor.execute("Heat");
+        generations.forEach(Runnable::run);
+        assertEquals(List.of("success: After Heat\n"), presented);
+
+        interactor.execute("Ronin");
+        interactor.cancel();
+        generations.get(2).run();
+        assertEquals(1, presented.size());
+    }
+
+    @Test
+    void testPartialResultsAndFailuresArePresented() {
+        final GenDataAccessInterface genDAO = new GenDataAccessInterface() {
+            @Override
+            public JSONArray getRecommendation(List<String> query, String sourceType, String returnType)
+                    throws GenDataAccessException {
+                throw new GenDataAccessException("quota exceeded");
+            }
+
+            @Override
+            public JSONArray getRecommendation(List<String> query, String sourceType, String returnType,
+                                               Consumer<JSONArray> partialResults)
+                    throws GenDataAccessException {
+                partialResults.accept(recommend("Heat"));
+                return getRecommendation(query, sourceType, returnType);
+            }
+
+            @Override
+            public void setApiKey(String apiKey) {
+            }
+        };
+        final List<String> presented = new ArrayList<>();
+        final GenInteractor interactor = new GenInteractor(genDAO, recorder(presented));
+
+        interactor.execute("Alien");
+        assertEquals(List.of("partial: Heat\n", "fail: Could not generate recommendations: quota exceeded"),
+                presented);
+    }
+}
@@ -0,0 +1,74 @@
+package use_case.list;
+
+import data_access.grade_api.UserRepository;
+import entity.MediaCollection;
+import entity.Movie;
+import entity.User;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ListInteractorTest {
+    private final List<ListOutputData> failures = new ArrayList<>();
+    private final List<ListOutputData> successes = new ArrayList<>();
+    private final ListOutputBoundary presenter = new ListOutputBoundary() {
+        @Override
+        public void prepareSuccessView(ListOutputData outputData) {
+            successes.add(outputData);
+        }
+
+        @Override
+        public void prepareLogoutView() {
+        }
+
+        @Override
+        public void prepareFailView(ListOutputData listOutputData) {
+            failures.add(listOutputData);
+        }
+    };
+
+    private static ListInputData request(String collectionName) {
+        final ListInputData result = new ListInputData();
+        result.setNameOfDesiredCollection(collectionName);
+        return result;
+    }
+
+    @Test
+    void testCollectionIsPresentedOnTheCallbackExecutor() {
+        final UserRepository users = mock(UserRepository.class);
+        final User alice = new User("alice", "secret");
+        alice.setMediaCollections(new ArrayList<>(List.of(
+                new MediaCollection<>("watched", "watched", Movie.class, new ArrayList<>()))));
+        final CompletableFuture<User> currentUser = new CompletableFuture<>();
+        when(users.getCurrentUserAsync()).thenReturn(currentUser);
+        final List<Runnable> queued = new ArrayList<>();
+        final ListInteractor interactor = new ListInteractor(users, presenter, queued::add);
+
+        interactor.execute(request("watched"));
+        currentUser.complete(alice);
+        assertTrue(successes.isEmpty());
+
+        queued.forEach(Runnable::run);
+        assertEquals("watched", successes.get(0).getCollectionName());
+    }
+
+    @Test
+    void testFailedAndMissingCurrentUserArePresentedAsFailures() {
+        final UserRepository users = mock(UserRepository.class);
+        when(users.getCurrentUserAsync())
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("down")))
+                .thenReturn(CompletableFuture.completedFuture(null));
+        final ListInteractor interactor = new ListInteractor(users, presenter);
+
+        interactor.execute(request("watched"));
+        interactor.execute(request("watched"));
+
+        assertEquals(List.of("down", "Not currently logged-in."),
+                failures.stream().map(ListOutputData::getErrorMessage).toList());
+    }
+}
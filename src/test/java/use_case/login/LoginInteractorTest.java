@@ -0,0 +1,88 @@
+package use_case.login;
+
+import entity.User;
+import org.junit.jupiter.api.Test;
+import use_case.list.ListInteractor;
+import use_case.list.ListOutputBoundary;
+import use_case.list.ListOutputData;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class LoginInteractorTest {
+    private final List<String> failures = new ArrayList<>();
+    private final List<String> successes = new ArrayList<>();
+    private final LoginOutputBoundary presenter = new LoginOutputBoundary() {
+        @Override
+        public void prepareSuccessView(LoginOutputData outputData) {
+            successes.add(outputData.getUsername());
+        }
+
+        @Override
+        public void prepareFailView(String errorMessage) {
+            failures.add(errorMessage);
+        }
+
+        @Override
+        public void switchToSignupView() {
+        }
+    };
+
+    @Test
+    void testPresenterIsCalledOnTheCallbackExecutorOnceTheLookupCompletes() {
+        final LoginUserDataAccessInterface users = mock(LoginUserDataAccessInterface.class);
+        final CompletableFuture<Optional<User>> lookup = new CompletableFuture<>();
+        when(users.findAsync("alice")).thenReturn(lookup);
+        final ListOutputBoundary listPresenter = mock(ListOutputBoundary.class);
+        final List<Runnable> queued = new ArrayList<>();
+        final LoginInteractor interactor = new LoginInteractor(users, presenter,
+                new ListInteractor(null, listPresenter), queued::add);
+
+        interactor.execute(new LoginInputData("alice", "secret"));
+        final User alice = new User("alice", "secret");
+        alice.setMediaCollections(new ArrayList<>());
+        lookup.complete(Optional.of(alice));
+        assertTrue(successes.isEmpty());
+
+        queued.forEach(Runnable::run);
+        assertEquals(List.of("alice"), successes);
+        verify(users).loginAccepted(alice);
+        verify(listPresenter).prepareSuccessView(any(ListOutputData.class));
+    }
+
+    @Test
+    void testWrongPasswordsAreRejectedWithTheDataAccessObject() {
+        final LoginUserDataAccessInterface users = mock(LoginUserDataAccessInterface.class);
+        final User alice = new User("alice", "secret");
+        when(users.findAsync("alice")).thenReturn(CompletableFuture.completedFuture(Optional.of(alice)));
+        final ListOutputBoundary listPresenter = mock(ListOutputBoundary.class);
+        final LoginInteractor interactor = new LoginInteractor(users, presenter,
+                new ListInteractor(null, listPresenter));
+
+        interactor.execute(new LoginInputData("alice", "guess"));
+
+        assertEquals(List.of("Incorrect password for \"alice\"."), failures);
+        verify(users).loginRejected("alice");
+        verify(users, never()).loginAccepted(any());
+        verifyNoInteractions(listPresenter);
+    }
+
+    @Test
+    void testMissingUsersAndFailedLookupsArePresentedAsFailures() {
+        final LoginUserDataAccessInterface users = mock(LoginUserDataAccessInterface.class);
+        when(users.findAsync("bob")).thenReturn(CompletableFuture.completedFuture(Optional.empty()));
+        when(users.findAsync("carol")).thenReturn(CompletableFuture.failedFuture(new IllegalStateException("down")));
+        final LoginInteractor interactor = new LoginInteractor(users, presenter);
+
+        interactor.execute(new LoginInputData("bob", "secret"));
+        interactor.execute(new LoginInputData("carol", "secret"));
+
+        assertEquals(List.of("bob: Account does not exist.", "Could not log in \"carol\": down"), failures);
+        assertTrue(successes.isEmpty());
+    }
+}
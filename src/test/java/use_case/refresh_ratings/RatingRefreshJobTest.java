@@ -0,0 +1,177 @@
+package use_case.refresh_ratings;
+
+import data_access.movies.RatingRefreshStateStore;
+import entity.AbstractMedia;
+import entity.MediaCollection;
+import entity.Movie;
+import entity.Rating;
+import entity.User;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalInt;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RatingRefreshJobTest {
+    @TempDir
+    Path directory;
+
+    private final Map<String, Integer> movieIDs = Map.of("Heat", 1, "Alien", 2, "Ronin", 3);
+    private final Map<Integer, Integer> ratings = new HashMap<>(Map.of(1, 80, 2, 85, 3, 70));
+    private final List<Instant> watermarksRead = new ArrayList<>();
+    private final List<List<Integer>> fetchedBatches = new ArrayList<>();
+    private final List<String> searches = new ArrayList<>();
+    private Set<Integer> changedIDs = Set.of();
+    private int saves;
+    private String savingThread;
+
+    private final RatingRefreshDataAccessInterface ratingDAO = new RatingRefreshDataAccessInterface() {
+        @Override
+        public RatingChanges getChangedMovies(Instant since) {
+            watermarksRead.add(since);
+            final Instant until = Instant.ofEpochSecond(1000L * watermarksRead.size());
+            final RatingChanges result;
+            if (since == null) {
+                result = RatingChanges.incomplete(until);
+            }
+            else {
+                result = new RatingChanges(changedIDs, until, true);
+            }
+            return result;
+        }
+
+        @Override
+        public OptionalInt getMovieID(String movieName) {
+            searches.add(movieName);
+            return OptionalInt.of(movieIDs.get(movieName));
+        }
+
+        @Override
+        public Map<Integer, Integer> getExternalRatings(List<Integer> ids) {
+            fetchedBatches.add(List.copyOf(ids));
+            final Map<Integer, Integer> result = new HashMap<>();
+            ids.forEach(id -> result.put(id, ratings.get(id)));
+            return result;
+        }
+    };
+
+    private final User user = new User("user", "password");
+    private User currentUser = user;
+
+    private final RatingRefreshUserDataAccessInterface userDAO = new RatingRefreshUserDataAccessInterface() {
+        @Override
+        public User getCurrentUser() {
+            return currentUser;
+        }
+
+        @Override
+        public List<MediaCollection<? extends AbstractMedia>> saveMediaCollections(
+                List<MediaCollection<? extends AbstractMedia>> mediaCollectionsList) {
+            saves++;
+            savingThread = Thread.currentThread().getName();
+            return mediaCollectionsList;
+        }
+    };
+
+    private static Movie movie(String name, int externalRating) {
+        return new Movie(name, List.of(), new Rating(-1), new Rating(externalRating), "", List.of(), 100);
+    }
+
+    @Test
+    void testOnlyChangedMoviesAreRefreshedAndWatermarkSurvivesRestart() throws Exception {
+        final Movie heat = movie("Heat", 50);
+        final Movie alien = movie("Alien", 85);
+        final Movie ronin = movie("Ronin", 70);
+        final List<MediaCollection<? extends AbstractMedia>> collections = new ArrayList<>();
+        collections.add(new MediaCollection<>("Watched", "list", Movie.class, new ArrayList<>(List.of(heat, alien))));
+        collections.add(new MediaCollection<>("Later", "list", Movie.class, new ArrayList<>(List.of(ronin))));
+        user.setMediaCollections(collections);
+        final Path stateFile = directory.resolve("rating-refresh.properties");
+
+        // without a watermark, everything is refreshed once, in batches of two, with a single save
+        final RatingRefreshJob job = new RatingRefreshJob(userDAO, ratingDAO, new RatingRefreshStateStore(stateFile),
+                2);
+        assertEquals(1, job.refresh());
+        assertEquals(80, heat.getExternalRating());
+        assertEquals(List.of(List.of(1, 2), List.of(3)), fetchedBatches);
+        assertEquals(1, saves);
+
+        // a restarted job resumes from the saved watermark, and knows the IDs without searching again
+        final RatingRefreshJob restarted = new RatingRefreshJob(userDAO, ratingDAO,
+                new RatingRefreshStateStore(stateFile), 2);
+        changedIDs = Set.of(3, 42);
+        ratings.put(3, 90);
+        fetchedBatches.clear();
+        assertEquals(1, restarted.refresh());
+        assertEquals(Instant.ofEpochSecond(1000), watermarksRead.get(1));
+        assertEquals(List.of(List.of(3)), fetchedBatches);
+        assertEquals(90, ronin.getExternalRating());
+        assertEquals(List.of("Heat", "Alien", "Ronin"), searches);
+        assertEquals(2, saves);
+
+        // nothing changed, nothing saved
+        changedIDs = Set.of();
+        assertEquals(0, restarted.refresh());
+        assertEquals(2, saves);
+    }
+
+    @Test
+    void testRatingsAreAppliedAndSavedOnTheCallbackExecutor() throws Exception {
+        final Movie heat = movie("Heat", 50);
+        user.setMediaCollections(new ArrayList<>(List.of(
+                new MediaCollection<>("Watched", "list", Movie.class, new ArrayList<>(List.of(heat))))));
+        final ExecutorService library = Executors.newSingleThreadExecutor(runnable -> new Thread(runnable, "library"));
+        final List<Integer> ratingsSeenByTheLibrary = new ArrayList<>();
+        final RatingRefreshJob job = new RatingRefreshJob(userDAO, ratingDAO,
+                new RatingRefreshStateStore(directory.resolve("rating-refresh.properties")), 20, task -> {
+                    ratingsSeenByTheLibrary.add(heat.getExternalRating());
+                    library.execute(task);
+                });
+
+        assertEquals(1, job.refresh());
+        library.shutdown();
+
+        // the rating only changed once the job handed it to the library's thread
+        assertEquals(List.of(50, 50), ratingsSeenByTheLibrary);
+        assertEquals(80, heat.getExternalRating());
+        assertEquals("library", savingThread);
+    }
+
+    @Test
+    void testRunsAreDroppedIfAnotherUserLoggedIn() throws Exception {
+        final Movie heat = movie("Heat", 50);
+        user.setMediaCollections(new ArrayList<>(List.of(
+                new MediaCollection<>("Watched", "list", Movie.class, new ArrayList<>(List.of(heat))))));
+        final RatingRefreshStateStore stateStore =
+                new RatingRefreshStateStore(directory.resolve("rating-refresh.properties"));
+        final List<Runnable> callbacks = new ArrayList<>();
+        final RatingRefreshJob job = new RatingRefreshJob(userDAO, ratingDAO, stateStore, 20, task -> {
+            callbacks.add(task);
+            if (callbacks.size() == 2) {
+                // someone else logs in while the ratings are being fetched
+                currentUser = new User("other", "password");
+            }
+            task.run();
+        });
+
+        assertEquals(0, job.refresh());
+        assertEquals(50, heat.getExternalRating());
+        assertEquals(0, saves);
+
+        // the next run for the user starts over from the same watermark
+        currentUser = user;
+        assertEquals(1, new RatingRefreshJob(userDAO, ratingDAO, stateStore, 20).refresh());
+        assertNull(watermarksRead.get(1));
+        assertEquals(1, saves);
+    }
+}
@@ -0,0 +1,72 @@
+package use_case.search;
+
+import data_access.movies.MovieDBDataAccessException;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SearchInteractorTest {
+    private static final int TOTAL_PAGES = 3;
+    private final List<Integer> fetchedPages = new ArrayList<>();
+    private final List<SearchOutputData> presented = new ArrayList<>();
+    private final List<String> failures = new ArrayList<>();
+    private boolean offline;
+
+    private final SearchDataAccessInterface searchDAO = (query, page) -> {
+        if (offline) {
+            throw new MovieDBDataAccessException("offline");
+        }
+        fetchedPages.add(page);
+        return new SearchResultPage(query, page, TOTAL_PAGES,
+                List.of(new SearchResult(page, query + " " + page, "2000-01-01", 70)));
+    };
+
+    private final SearchOutputBoundary presenter = new SearchOutputBoundary() {
+        @Override
+        public void prepareSuccessView(SearchOutputData outputData) {
+            presented.add(outputData);
+        }
+
+        @Override
+        public void prepareFailView(String errorMessage) {
+            failures.add(errorMessage);
+        }
+    };
+
+    @Test
+    void testNextPageIsPrefetchedAndPagesAreCached() {
+        final SearchInteractor interactor = new SearchInteractor(searchDAO, presenter);
+
+        interactor.execute(new SearchInputData("Heat"));
+        assertEquals(List.of(1, 2), fetchedPages);
+        assertEquals("Heat 1", presented.get(0).getResults().get(0).getTitle());
+
+        interactor.execute(new SearchInputData("heat ", 2));
+        assertEquals(List.of(1, 2, 3), fetchedPages);
+        assertEquals(2, presented.get(1).getPage());
+
+        // the last page has nothing to prefetch, and going back is answered from the session's pages
+        interactor.execute(new SearchInputData("Heat", 3));
+        interactor.execute(new SearchInputData("Heat", 1));
+        assertEquals(List.of(1, 2, 3), fetchedPages);
+        assertEquals(4, presented.size());
+        assertTrue(failures.isEmpty());
+    }
+
+    @Test
+    void testFailedPagesAreRetried() {
+        final SearchInteractor interactor = new SearchInteractor(searchDAO, presenter);
+        offline = true;
+        interactor.execute(new SearchInputData("Heat"));
+        assertEquals(1, failures.size());
+
+        offline = false;
+        interactor.execute(new SearchInputData("Heat"));
+        assertEquals(1, presented.size());
+        interactor.execute(new SearchInputData("  "));
+        assertEquals(2, failures.size());
+    }
+}